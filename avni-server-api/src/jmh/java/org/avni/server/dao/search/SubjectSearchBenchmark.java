@@ -0,0 +1,127 @@
+package org.avni.server.dao.search;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ilike scans subject search used to do with the trigram indexed name expression and search documents, on
+ * a seeded copy of the individual and program_enrolment columns that the search reads. Needs a database migrated up to
+ * V1_347, for pg_trgm and observations_search_document. The data is created in its own schema and dropped afterwards.
+ * Run with ./gradlew jmh -PjmhInclude=SubjectSearchBenchmark -Davni.benchmark.db.url=jdbc:postgresql://localhost:5432/openchs_test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SubjectSearchBenchmark {
+    private static final String SCHEMA = "subject_search_benchmark";
+    private static final String PAGE = " limit 10";
+
+    @Param({"200000"})
+    private int numberOfSubjects;
+
+    private Connection connection;
+    private PreparedStatement nameSearchWithIlike;
+    private PreparedStatement nameSearchWithTrigramIndex;
+    private PreparedStatement searchAllWithObservationsText;
+    private PreparedStatement searchAllWithSearchDocuments;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("avni.benchmark.db.url", "jdbc:postgresql://localhost:5432/openchs_test"),
+                System.getProperty("avni.benchmark.db.user", "openchs"),
+                System.getProperty("avni.benchmark.db.password", "password"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop schema if exists " + SCHEMA + " cascade");
+            statement.execute("create schema " + SCHEMA);
+            statement.execute("set search_path to " + SCHEMA + ", public");
+            statement.execute("create table individual (id bigint primary key, organisation_id bigint not null, first_name text, middle_name text, last_name text, observations jsonb, is_voided boolean not null)");
+            statement.execute("create table program_enrolment (id bigint primary key, organisation_id bigint not null, individual_id bigint not null, observations jsonb, is_voided boolean not null)");
+            statement.execute(String.format("insert into individual " +
+                    "select g, 1 + g %% 4, 'First' || (g * 7919 %% 100003), case when g %% 3 = 0 then 'Middle' || (g %% 1009) end, 'Last' || (g * 104729 %% 99991), " +
+                    "jsonb_build_object('0d2b0a4e-1f9c-4f0e-9d7a-5b1c7c7a1a01', 'Village ' || (g %% 5003), " +
+                    "'7c1e5d36-3b8e-4d5f-a0a6-2e4f6c9b2b02', g %% 120, " +
+                    "'b8e4f1c2-6d3a-4c7b-9e1f-8a2d5c6e3c03', jsonb_build_array('4f3e2d1c-0b9a-4877-a665-5443b2c1d004'), " +
+                    "'e5d4c3b2-a190-4f8e-b7d6-c5b4a3928105', jsonb_build_array(jsonb_build_object('1a2b3c4d-5e6f-4a8b-9c0d-e1f2a3b4c506', 'Remark ' || (g * 31 %% 100019)))), " +
+                    "false from generate_series(1, %d) g", numberOfSubjects));
+            statement.execute("insert into program_enrolment " +
+                    "select id, organisation_id, id, jsonb_build_object('9f8e7d6c-5b4a-4392-8170-6f5e4d3c2b07', 'Enrolment note ' || (id * 17 % 100043)), false " +
+                    "from individual where id % 2 = 0");
+            // same expressions as V1_347__AddSubjectSearchIndexes.sql
+            statement.execute("create index on individual using gin ((coalesce(first_name, '') || ' ' || coalesce(middle_name, '') || ' ' || coalesce(last_name, '')) gin_trgm_ops)");
+            statement.execute("create index on individual using gin (observations_search_document(observations) gin_trgm_ops)");
+            statement.execute("create index on program_enrolment using gin (observations_search_document(observations) gin_trgm_ops)");
+            statement.execute("create index on program_enrolment (individual_id)");
+            statement.execute("analyze individual");
+            statement.execute("analyze program_enrolment");
+        }
+
+        nameSearchWithIlike = prepare("select i.id from individual i where i.organisation_id = 2 and " +
+                "(i.first_name ilike :name or i.middle_name ilike :name or i.last_name ilike :name)" + PAGE, "%First4242%");
+        nameSearchWithTrigramIndex = prepare("select i.id from individual i where i.organisation_id = 2 and " +
+                BaseSubjectSearchQueryBuilder.NAME_SEARCH_EXPRESSION + " ilike :name" + PAGE, "%First4242%");
+        searchAllWithObservationsText = prepare("select distinct i.id from individual i " +
+                "left outer join program_enrolment penr on i.id = penr.individual_id and penr.is_voided is false " +
+                "where i.organisation_id = 2 and (cast(i.observations as text) ilike :searchAll or cast(penr.observations as text) ilike :searchAll)" + PAGE, "%Remark 4242%");
+        searchAllWithSearchDocuments = prepare("select i.id from individual i where i.organisation_id = 2 and i.id in (" +
+                "select si.id from individual si where si.organisation_id = 2 and " + BaseSubjectSearchQueryBuilder.SEARCH_DOCUMENT_FUNCTION + "(si.observations) ilike :searchAll " +
+                "union select spenr.individual_id from program_enrolment spenr where spenr.organisation_id = 2 and spenr.is_voided is false and " +
+                BaseSubjectSearchQueryBuilder.SEARCH_DOCUMENT_FUNCTION + "(spenr.observations) ilike :searchAll)" + PAGE, "%Remark 4242%");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop schema if exists " + SCHEMA + " cascade");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> nameSearchWithIlike() throws SQLException {
+        return ids(nameSearchWithIlike);
+    }
+
+    @Benchmark
+    public List<Long> nameSearchWithTrigramIndex() throws SQLException {
+        return ids(nameSearchWithTrigramIndex);
+    }
+
+    @Benchmark
+    public List<Long> searchAllWithObservationsText() throws SQLException {
+        return ids(searchAllWithObservationsText);
+    }
+
+    @Benchmark
+    public List<Long> searchAllWithSearchDocuments() throws SQLException {
+        return ids(searchAllWithSearchDocuments);
+    }
+
+    /**
+     * Binds every named parameter of the query, written the way the query builders write them, to the same value.
+     */
+    private PreparedStatement prepare(String namedQuery, String value) throws SQLException {
+        String sql = namedQuery.replaceAll(":[a-zA-Z]+", "?");
+        PreparedStatement statement = connection.prepareStatement(sql);
+        int parameters = sql.length() - sql.replace("?", "").length();
+        for (int i = 1; i <= parameters; i++) {
+            statement.setString(i, value);
+        }
+        return statement;
+    }
+
+    private static List<Long> ids(PreparedStatement statement) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) ids.add(resultSet.getLong(1));
+        }
+        return ids;
+    }
+}
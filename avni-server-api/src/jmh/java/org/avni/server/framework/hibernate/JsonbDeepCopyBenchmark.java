@@ -0,0 +1,67 @@
+package org.avni.server.framework.hibernate;
+
+import org.avni.server.domain.ObservationCollection;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the serialization based deep copy that the jsonb user types used to do with the structural copy, on
+ * observation payloads shaped like those stored by the client (text, numeric, date, coded and question group answers).
+ * Run with ./gradlew jmh -PjmhInclude=JsonbDeepCopyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonbDeepCopyBenchmark {
+    @Param({"20", "200"})
+    private int numberOfObservations;
+
+    private ObservationCollection observations;
+    private final ObservationCollectionUserType userType = new ObservationCollectionUserType();
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(42);
+        Map<String, Object> source = new LinkedHashMap<>();
+        for (int i = 0; i < numberOfObservations; i++) {
+            String conceptUuid = UUID.randomUUID().toString();
+            switch (i % 5) {
+                case 0:
+                    source.put(conceptUuid, "Some free text answer " + i);
+                    break;
+                case 1:
+                    source.put(conceptUuid, random.nextInt(200));
+                    break;
+                case 2:
+                    source.put(conceptUuid, "2023-06-0" + (1 + i % 9) + "T00:00:00.000Z");
+                    break;
+                case 3:
+                    source.put(conceptUuid, Arrays.asList(UUID.randomUUID().toString(), UUID.randomUUID().toString()));
+                    break;
+                default:
+                    Map<String, Object> groupAnswer = new LinkedHashMap<>();
+                    groupAnswer.put(UUID.randomUUID().toString(), random.nextDouble());
+                    groupAnswer.put(UUID.randomUUID().toString(), "Group text");
+                    source.put(conceptUuid, Collections.singletonList(groupAnswer));
+            }
+        }
+        String json = AbstractJsonbUserType.mapper.writeValueAsString(source);
+        observations = AbstractJsonbUserType.mapper.readValue(json, ObservationCollection.class);
+    }
+
+    @Benchmark
+    public Object serializationCopy() {
+        return AbstractUserType.serializationCopy(observations);
+    }
+
+    @Benchmark
+    public Object structuralCopy() {
+        return userType.deepCopy(observations);
+    }
+}
@@ -1,5 +1,11 @@
 package org.avni.messaging.external;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.avni.messaging.contract.glific.*;
 import org.avni.messaging.domain.GlificSystemConfig;
 import org.avni.messaging.domain.exception.GlificConnectException;
@@ -10,61 +16,137 @@ import org.avni.server.domain.extenalSystem.SystemName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+/**
+ * Calls Glific with the session of the organisation's Glific account. Sessions are reused until shortly before Glific
+ * expires them, or until Glific rejects them. Calls to an account, including sign ins, are limited to a rate, which is
+ * shared by everyone calling Glific for the organisation on this server.
+ */
 @Service
 public class GlificRestClient {
     public static final String AUTH_URL = "/api/v1/session";
+    private static final long SESSION_EXPIRY_MARGIN_SECONDS = 60;
     private final String REQUEST_URL = "/api";
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final RestTemplate restTemplate;
+    private final long sessionMaxAgeSeconds;
+    private final Cache<Account, Session> sessions;
+    private final LoadingCache<String, RateLimiter> rateLimiters;
 
     private final ExternalSystemConfigRepository externalSystemConfigRepository;
 
     @Autowired
-    public GlificRestClient(RestTemplateBuilder builder, ExternalSystemConfigRepository externalSystemConfigRepository) {
+    public GlificRestClient(RestTemplateBuilder builder, ExternalSystemConfigRepository externalSystemConfigRepository,
+                            @Value("${avni.messaging.glific.session.maxAge.seconds}") long sessionMaxAgeSeconds,
+                            @Value("${avni.messaging.glific.maxRequestsPerSecond}") double maxRequestsPerSecond) {
         this.restTemplate = builder.build();
         this.externalSystemConfigRepository = externalSystemConfigRepository;
+        this.sessionMaxAgeSeconds = sessionMaxAgeSeconds;
+        this.sessions = CacheBuilder.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(sessionMaxAgeSeconds, TimeUnit.SECONDS)
+                .build();
+        this.rateLimiters = CacheBuilder.newBuilder()
+                .maximumSize(1000)
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .build(CacheLoader.from(baseUrlAndPhone -> RateLimiter.create(maxRequestsPerSecond)));
     }
 
     public GlificAuth authenticate() throws GlificNotConfiguredException {
+        return getSession(getSystemConfig());
+    }
+
+    public <T> T callAPI(Object requestObject, ParameterizedTypeReference<GlificResponse<T>> responseType) throws GlificNotConfiguredException {
+        GlificSystemConfig systemConfig = getSystemConfig();
+        try {
+            return callAPI(requestObject, responseType, systemConfig, getSession(systemConfig));
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() != HttpStatus.UNAUTHORIZED) throw e;
+            logger.info("Glific session rejected, signing in again");
+            sessions.invalidate(new Account(systemConfig));
+            return callAPI(requestObject, responseType, systemConfig, getSession(systemConfig));
+        }
+    }
+
+    public <T> T callAPI(Object requestObject, ParameterizedTypeReference<GlificResponse<T>> responseType, GlificAuth auth) throws GlificNotConfiguredException {
+        return callAPI(requestObject, responseType, getSystemConfig(), auth);
+    }
+
+    private <T> T callAPI(Object requestObject, ParameterizedTypeReference<GlificResponse<T>> responseType, GlificSystemConfig systemConfig, GlificAuth auth) {
         HttpEntity<Object> request = new RequestObjectBuilder()
-                .withRequestObject(new GlificAuthRequest(new GlificUser(getSystemConfig())))
+                .withRequestObject(requestObject)
+                .withAuth(auth)
                 .withJsonContent()
                 .withAccept()
                 .build();
 
-        return makeCall(AUTH_URL, request,
-                new ParameterizedTypeReference<GlificResponse<GlificAuth>>() {
-                });
+        return makeCall(systemConfig, REQUEST_URL, request, responseType);
     }
 
-    public <T> T callAPI(Object requestObject, ParameterizedTypeReference<GlificResponse<T>> responseType) throws GlificNotConfiguredException {
-        return callAPI(requestObject, responseType, this.authenticate());
+    private GlificAuth getSession(GlificSystemConfig systemConfig) {
+        Account account = new Account(systemConfig);
+        Session session = sessions.getIfPresent(account);
+        if (session != null && session.hasExpired()) {
+            sessions.asMap().remove(account, session);
+        }
+        return getOrSignIn(account, systemConfig).auth;
     }
 
-    public <T> T callAPI(Object requestObject, ParameterizedTypeReference<GlificResponse<T>> responseType, GlificAuth auth) throws GlificNotConfiguredException {
+    private Session getOrSignIn(Account account, GlificSystemConfig systemConfig) {
+        try {
+            return sessions.get(account, () -> signIn(systemConfig));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private Session signIn(GlificSystemConfig systemConfig) {
         HttpEntity<Object> request = new RequestObjectBuilder()
-                .withRequestObject(requestObject)
-                .withAuth(auth)
+                .withRequestObject(new GlificAuthRequest(new GlificUser(systemConfig)))
                 .withJsonContent()
                 .withAccept()
                 .build();
 
-        return makeCall(REQUEST_URL, request, responseType);
+        GlificAuth auth = makeCall(systemConfig, AUTH_URL, request,
+                new ParameterizedTypeReference<GlificResponse<GlificAuth>>() {
+                });
+        if (auth == null) throw new GlificConnectException("Glific did not return a session");
+        return new Session(auth, getExpiry(auth));
+    }
+
+    private Instant getExpiry(GlificAuth auth) {
+        Instant maxExpiry = Instant.now().plusSeconds(sessionMaxAgeSeconds);
+        if (auth.getTokenExpiryTime() == null) return maxExpiry;
+        try {
+            Instant expiry = Instant.parse(auth.getTokenExpiryTime()).minusSeconds(SESSION_EXPIRY_MARGIN_SECONDS);
+            return expiry.isBefore(maxExpiry) ? expiry : maxExpiry;
+        } catch (DateTimeParseException e) {
+            logger.warn("Could not read Glific session expiry {}", auth.getTokenExpiryTime());
+            return maxExpiry;
+        }
     }
 
-    private <T> T makeCall(String url, HttpEntity<Object> request, ParameterizedTypeReference<GlificResponse<T>> responseType) throws GlificNotConfiguredException {
-        String fullUrl = getSystemConfig().getBaseUrl() + (StringUtils.isEmpty(url) ? "/" : url);
+    private <T> T makeCall(GlificSystemConfig systemConfig, String url, HttpEntity<Object> request, ParameterizedTypeReference<GlificResponse<T>> responseType) {
+        String fullUrl = systemConfig.getBaseUrl() + (StringUtils.isEmpty(url) ? "/" : url);
+        rateLimiters.getUnchecked(systemConfig.getBaseUrl() + "|" + systemConfig.getPhone()).acquire();
         logger.info("Calling glific - {}", fullUrl);
         ResponseEntity<GlificResponse<T>> responseEntity = restTemplate.exchange(fullUrl, HttpMethod.POST, request, responseType);
 
@@ -88,6 +170,45 @@ public class GlificRestClient {
         return new GlificSystemConfig(externalSystemConfig);
     }
 
+    private static class Account {
+        private final String baseUrl;
+        private final String phone;
+        private final String password;
+
+        Account(GlificSystemConfig systemConfig) {
+            this.baseUrl = systemConfig.getBaseUrl();
+            this.phone = systemConfig.getPhone();
+            this.password = systemConfig.getPassword();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Account account = (Account) o;
+            return Objects.equals(baseUrl, account.baseUrl) && Objects.equals(phone, account.phone) && Objects.equals(password, account.password);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(baseUrl, phone, password);
+        }
+    }
+
+    private static class Session {
+        private final GlificAuth auth;
+        private final Instant expiry;
+
+        Session(GlificAuth auth, Instant expiry) {
+            this.auth = auth;
+            this.expiry = expiry;
+        }
+
+        boolean hasExpired() {
+            return !Instant.now().isBefore(expiry);
+        }
+    }
+
     private class RequestObjectBuilder {
         private final HttpHeaders headers;
         private Object requestObject;
@@ -10,20 +10,59 @@ import org.joda.time.DateTime;
 import org.joda.time.Duration;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Repository
 public interface MessageRequestQueueRepository extends CHSRepository<MessageRequest> {
 
-    Stream<MessageRequest> findAllByDeliveryStatusNotAndIsVoidedFalseAndScheduledDateTimeBetween(MessageDeliveryStatus messageDeliveryStatus, DateTime then, DateTime now);
     Optional<MessageRequest> findByEntityIdAndMessageRule(Long entityId, MessageRule messageRule);
 
-    default Stream<MessageRequest> findDueMessageRequests(Duration duration) {
-        return findAllByDeliveryStatusNotAndIsVoidedFalseAndScheduledDateTimeBetween(MessageDeliveryStatus.Sent, DateTime.now().minus(duration), DateTime.now());
+    String CLAIMABLE = "delivery_status <> 'Sent' and is_voided = false " +
+            "and scheduled_date_time between :scheduledSince and :now " +
+            "and (claim_expiry_date_time is null or claim_expiry_date_time < :now)";
+
+    /**
+     * Claims undelivered requests scheduled in the window, earliest first, until the claim expires. Requests claimed by
+     * others, or locked by a transaction claiming them, are skipped. The caller must commit the claim before sending.
+     */
+    @RestResource(exported = false)
+    @Query(value = "update message_request_queue set claimed_by = :claimedBy, claim_expiry_date_time = :claimExpiry " +
+            "where id in (select id from message_request_queue where " + CLAIMABLE +
+            " order by scheduled_date_time, id limit :batchSize for update skip locked) " +
+            "returning id", nativeQuery = true)
+    List<Number> claim(Date scheduledSince, Date now, int batchSize, String claimedBy, Date claimExpiry);
+
+    default List<Long> claimDueMessageRequests(Duration scheduledSince, int batchSize, String claimedBy, Duration lease) {
+        DateTime now = DateTime.now();
+        return claim(now.minus(scheduledSince).toDate(), now.toDate(), batchSize, claimedBy, now.plus(lease).toDate())
+                .stream().map(Number::longValue).collect(Collectors.toList());
+    }
+
+    @RestResource(exported = false)
+    @Query(value = "select count(*) from message_request_queue where " + CLAIMABLE, nativeQuery = true)
+    long countClaimable(Date scheduledSince, Date now);
+
+    default long countClaimableMessageRequests(Duration scheduledSince) {
+        DateTime now = DateTime.now();
+        return countClaimable(now.minus(scheduledSince).toDate(), now.toDate());
+    }
+
+    @RestResource(exported = false)
+    @Query(value = "select delivery_status as deliveryStatus, count(*) as count from message_request_queue " +
+            "where is_voided = false and scheduled_date_time >= :scheduledSince group by delivery_status", nativeQuery = true)
+    List<DeliveryStatusCount> countByDeliveryStatusScheduledSince(Date scheduledSince);
+
+    interface DeliveryStatusCount {
+        String getDeliveryStatus();
+
+        Long getCount();
     }
 
     @Modifying(clearAutomatically = true, flushAutomatically=true)
@@ -1,11 +1,17 @@
 package org.avni.messaging.service;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.avni.messaging.domain.GlificSystemConfig;
+import org.avni.messaging.domain.MessageDeliveryStatus;
 import org.avni.messaging.domain.exception.GlificNotConfiguredException;
 import org.avni.server.application.OrganisationConfigSettingKey;
 import org.avni.server.dao.externalSystem.ExternalSystemConfigRepository;
 import org.avni.server.domain.OrganisationConfig;
 import org.avni.server.framework.security.AuthService;
+import org.avni.server.framework.security.UserContextHolder;
 import org.avni.server.service.OrganisationConfigService;
 import org.joda.time.Duration;
 import org.slf4j.Logger;
@@ -13,10 +19,29 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Sends due messages of all organisations with messaging enabled. Messages are claimed in batches, each sent and
+ * committing the delivery status of its messages before the next batch is claimed. Batches of different organisations
+ * are sent concurrently, and each organisation is sent at most a few batches at a time, so that an organisation with a
+ * large or slow backlog does not hold up the others.
+ * <p>
+ * A claim keeps other servers running the job from sending the same messages until it expires. Messages that could not
+ * be sent are claimed again, by any server, once their claim expires.
+ */
 @Component
 public class MessageSenderJob {
     private static final Logger logger = LoggerFactory.getLogger(MessagingService.class);
@@ -24,16 +49,43 @@ public class MessageSenderJob {
     private final OrganisationConfigService organisationConfigService;
     private final AuthService authService;
     private final ExternalSystemConfigRepository externalSystemConfigRepository;
+    private final int batchSize;
+    private final int maxConcurrentBatchesPerOrganisation;
+    private final Duration claimLease;
+    private final ExecutorService executorService;
+    private final String claimant = ManagementFactory.getRuntimeMXBean().getName();
+    private final MeterRegistry meterRegistry;
+    private final Timer claims;
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final Map<MessageDeliveryStatus, AtomicLong> deliveryStatusCounts = new EnumMap<>(MessageDeliveryStatus.class);
     @Value("${avni.messaging.scheduledSinceDays}")
     private String scheduledSinceDays;
 
     @Autowired
     public MessageSenderJob(MessagingService messagingService, OrganisationConfigService organisationConfigService,
-                            AuthService authService, ExternalSystemConfigRepository externalSystemConfigRepository) {
+                            AuthService authService, ExternalSystemConfigRepository externalSystemConfigRepository,
+                            @Value("${avni.messaging.batchSize}") int batchSize,
+                            @Value("${avni.messaging.maxConcurrentBatches}") int maxConcurrentBatches,
+                            @Value("${avni.messaging.maxConcurrentBatchesPerOrganisation}") int maxConcurrentBatchesPerOrganisation,
+                            @Value("${avni.messaging.claimLease.seconds}") long claimLeaseSeconds,
+                            MeterRegistry meterRegistry) {
         this.messagingService = messagingService;
         this.organisationConfigService = organisationConfigService;
         this.authService = authService;
         this.externalSystemConfigRepository = externalSystemConfigRepository;
+        this.batchSize = batchSize;
+        this.maxConcurrentBatchesPerOrganisation = maxConcurrentBatchesPerOrganisation;
+        this.claimLease = Duration.standardSeconds(claimLeaseSeconds);
+        this.executorService = Executors.newFixedThreadPool(maxConcurrentBatches, new ThreadFactoryBuilder().setNameFormat("message-sender-%d").setDaemon(true).build());
+
+        this.meterRegistry = meterRegistry;
+        this.claims = Timer.builder("avni.messaging.queue.claims").register(meterRegistry);
+        Gauge.builder("avni.messaging.queue.depth", queueDepth, AtomicLong::get).register(meterRegistry);
+        for (MessageDeliveryStatus deliveryStatus : MessageDeliveryStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            deliveryStatusCounts.put(deliveryStatus, count);
+            Gauge.builder("avni.messaging.requests", count, AtomicLong::get).tag("status", deliveryStatus.name()).register(meterRegistry);
+        }
     }
 
     @Scheduled(fixedDelayString = "${avni.messagingScheduleMillis}")
@@ -43,24 +95,90 @@ public class MessageSenderJob {
         List<OrganisationConfig> enabledOrganisations = organisationConfigService
                 .findAllWithFeatureEnabled(OrganisationConfigSettingKey.enableMessaging.name());
 
+        List<CompletableFuture<Void>> senders = new ArrayList<>();
+        long dueMessages = 0;
         for (OrganisationConfig enabledOrganisation : enabledOrganisations) {
-            sendMessages(enabledOrganisation);
+            dueMessages += sendMessages(enabledOrganisation, senders);
             authService.authenticateByUserName("admin", null);
         }
+        queueDepth.set(dueMessages);
+        CompletableFuture.allOf(senders.toArray(new CompletableFuture[0])).join();
+        countByDeliveryStatus();
         logger.info("Job ended");
     }
 
-    private void sendMessages(OrganisationConfig enabledOrganisation) {
+    @PreDestroy
+    public void stop() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * @return number of messages due for the organisation
+     */
+    private long sendMessages(OrganisationConfig enabledOrganisation, List<CompletableFuture<Void>> senders) {
         try {
             GlificSystemConfig glificConfig = externalSystemConfigRepository.getGlificSystemConfig(enabledOrganisation.getOrganisationId());
-            authService.authenticateByUserName(glificConfig.getAvniSystemUser(), null);
-            Duration scheduledSince = Duration.standardDays(Long.parseLong(scheduledSinceDays));
-            messagingService.sendMessages(scheduledSince);
+            String avniSystemUser = glificConfig.getAvniSystemUser();
+            authService.authenticateByUserName(avniSystemUser, null);
+            Duration scheduledSince = getScheduledSince();
+            long dueMessages = messagingService.countClaimableMessageRequests(scheduledSince);
+            if (dueMessages == 0) return 0;
+
+            logger.info(String.format("Sending %d messages for organisation %s", dueMessages, UserContextHolder.getOrganisation().getName()));
+            long concurrentBatches = Math.min(maxConcurrentBatchesPerOrganisation, (dueMessages + batchSize - 1) / batchSize);
+            for (int i = 0; i < concurrentBatches; i++) {
+                senders.add(CompletableFuture.runAsync(() -> sendBatches(enabledOrganisation, avniSystemUser, scheduledSince), executorService));
+            }
+            return dueMessages;
         } catch (RuntimeException e) {
-            logger.error(String.format("Message sending failed for organisation with id: %d. Ensure if right Glific config is setup for the organisation.", enabledOrganisation.getOrganisationId()));
-            logger.error("Exception for the above message sending failed error:", e);
+            logSendingFailed(enabledOrganisation, e);
         } catch (GlificNotConfiguredException e) {
             logger.warn(String.format("Glific enabled but not configured: %s", e.getMessage()));
         }
+        return 0;
+    }
+
+    private void sendBatches(OrganisationConfig enabledOrganisation, String avniSystemUser, Duration scheduledSince) {
+        try {
+            authService.authenticateByUserName(avniSystemUser, null);
+            List<Long> batch;
+            while (!(batch = claim(scheduledSince)).isEmpty()) {
+                messagingService.sendMessages(batch);
+            }
+        } catch (RuntimeException e) {
+            logSendingFailed(enabledOrganisation, e);
+        } finally {
+            UserContextHolder.clear();
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private List<Long> claim(Duration scheduledSince) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return messagingService.claimDueMessageRequests(scheduledSince, batchSize, claimant, claimLease);
+        } finally {
+            sample.stop(claims);
+        }
+    }
+
+    private void countByDeliveryStatus() {
+        try {
+            authService.authenticateByUserName("admin", null);
+            deliveryStatusCounts.values().forEach(count -> count.set(0));
+            messagingService.countByDeliveryStatus(getScheduledSince()).forEach(statusCount ->
+                    deliveryStatusCounts.get(MessageDeliveryStatus.valueOf(statusCount.getDeliveryStatus())).set(statusCount.getCount()));
+        } catch (RuntimeException e) {
+            logger.error("Could not count message requests by delivery status", e);
+        }
+    }
+
+    private Duration getScheduledSince() {
+        return Duration.standardDays(Long.parseLong(scheduledSinceDays));
+    }
+
+    private void logSendingFailed(OrganisationConfig enabledOrganisation, RuntimeException e) {
+        logger.error(String.format("Message sending failed for organisation with id: %d. Ensure if right Glific config is setup for the organisation.", enabledOrganisation.getOrganisationId()));
+        logger.error("Exception for the above message sending failed error:", e);
     }
 }
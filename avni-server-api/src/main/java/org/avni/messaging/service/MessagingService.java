@@ -10,7 +10,6 @@ import org.avni.messaging.repository.MessageRequestQueueRepository;
 import org.avni.messaging.repository.MessageRuleRepository;
 import org.avni.server.domain.RuleExecutionException;
 import org.avni.server.domain.User;
-import org.avni.server.framework.security.UserContextHolder;
 import org.avni.server.service.EntityTypeRetrieverService;
 import org.avni.server.service.RuleService;
 import org.avni.server.web.request.rules.response.ScheduleRuleResponseEntity;
@@ -26,7 +25,7 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.stream.Collectors;
 
 @Service
 public class MessagingService {
@@ -89,15 +88,19 @@ public class MessagingService {
 
     public void onEntitySave(Long entityId, Long entityTypeId, EntityType entityType, Long subjectId, Long userId) throws RuleExecutionException {
         List<MessageRule> messageRules = messageRuleRepository.findAllByEntityTypeAndEntityTypeIdAndIsVoidedFalse(entityType, entityTypeId);
+        if (messageRules.isEmpty()) return;
 
-        for (MessageRule messageRule : messageRules) {
+        List<String> scheduleRules = messageRules.stream().map(MessageRule::getScheduleRule).collect(Collectors.toList());
+        List<ScheduleRuleResponseEntity> scheduleRuleResponses = ruleService.executeScheduleRules(entityType.name(), entityId, scheduleRules);
+        for (int i = 0; i < messageRules.size(); i++) {
+            MessageRule messageRule = messageRules.get(i);
             MessageReceiver messageReceiver = null;
             if (messageRule.getReceiverType() == ReceiverType.Subject)
                 messageReceiver = messageReceiverService.saveReceiverIfRequired(ReceiverType.Subject, subjectId);
             else if (messageRule.getReceiverType() == ReceiverType.User)
                 messageReceiver = messageReceiverService.saveReceiverIfRequired(ReceiverType.User, userId);
 
-            ScheduleRuleResponseEntity scheduleRuleResponse = ruleService.executeScheduleRule(messageRule.getEntityType().name(), entityId, messageRule.getScheduleRule());
+            ScheduleRuleResponseEntity scheduleRuleResponse = scheduleRuleResponses.get(i);
             Boolean shouldSend = scheduleRuleResponse.getShouldSend();
             if (shouldSend == null || shouldSend) {
                 messageRequestService.createOrUpdateAutomatedMessageRequest(messageRule, messageReceiver, entityId, scheduleRuleResponse.getScheduledDateTime());
@@ -155,11 +158,28 @@ public class MessagingService {
         return messageRequest;
     }
 
+    public long countClaimableMessageRequests(Duration scheduledSince) {
+        return messageRequestQueueRepository.countClaimableMessageRequests(scheduledSince);
+    }
+
+    /**
+     * Claims due messages in a transaction of their own, so that other servers skip them once this returns.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Long> claimDueMessageRequests(Duration scheduledSince, int batchSize, String claimedBy, Duration lease) {
+        return messageRequestQueueRepository.claimDueMessageRequests(scheduledSince, batchSize, claimedBy, lease);
+    }
+
+    public List<MessageRequestQueueRepository.DeliveryStatusCount> countByDeliveryStatus(Duration scheduledSince) {
+        return messageRequestQueueRepository.countByDeliveryStatusScheduledSince(DateTime.now().minus(scheduledSince).toDate());
+    }
+
+    /**
+     * Sends the messages in a transaction of their own, so that their delivery status is committed together.
+     */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void sendMessages(Duration duration) {
-        logger.info("Sending messages for organisation " + UserContextHolder.getOrganisation().getName());
-        Stream<MessageRequest> requests = messageRequestQueueRepository.findDueMessageRequests(duration);
-        requests.forEach(this::sendMessage);
+    public void sendMessages(List<Long> messageRequestIds) {
+        messageRequestQueueRepository.findAllById(messageRequestIds).forEach(this::sendMessage);
     }
 
     @Transactional
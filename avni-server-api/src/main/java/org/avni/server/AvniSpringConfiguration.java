@@ -1,8 +1,11 @@
 package org.avni.server;
 
 import com.google.common.cache.CacheBuilder;
-import org.avni.server.application.projections.VirtualCatchmentProjection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.avni.server.domain.CatchmentAddressIndex;
 import org.avni.server.domain.User;
+import org.avni.server.framework.cache.GuavaSpringCache;
 import org.avni.server.framework.jpa.CHSAuditorAware;
 import org.keycloak.adapters.springboot.KeycloakSpringBootConfigResolver;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +15,6 @@ import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguratio
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -26,7 +28,6 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
 import javax.sql.DataSource;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.avni.server.service.AddressLevelCache.ADDRESSES_PER_CATCHMENT;
@@ -101,31 +102,37 @@ public class AvniSpringConfiguration extends WebMvcAutoConfiguration {
     }
 
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(MeterRegistry meterRegistry) {
         return new ConcurrentMapCacheManager() {
             @Override
             protected Cache createConcurrentMapCache(final String name) {
+                GuavaSpringCache cache;
                 switch (name) {
                     case ADDRESSES_PER_CATCHMENT:
                     case ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS:
-                        return getConcurrentMapCacheWithWeightedCapacityForAddressesConfig(name);
+                        cache = getCacheWithWeightedCapacityForAddressesConfig(name);
+                        break;
                     default:
-                        return getConcurrentMapCacheWithMaxEntriesConfig(name);
+                        cache = getCacheWithMaxEntriesConfig(name);
                 }
+                GuavaCacheMetrics.monitor(meterRegistry, cache.getNativeCache(), name);
+                return cache;
             }
 
-            private ConcurrentMapCache getConcurrentMapCacheWithWeightedCapacityForAddressesConfig(String name) {
-                return new ConcurrentMapCache(name, CacheBuilder.newBuilder().expireAfterWrite(timeToLiveInSeconds,
+            private GuavaSpringCache getCacheWithWeightedCapacityForAddressesConfig(String name) {
+                return new GuavaSpringCache(name, CacheBuilder.newBuilder().expireAfterWrite(timeToLiveInSeconds,
                                 TimeUnit.SECONDS).maximumWeight(cacheMaxWeight)
-                        .weigher((key, value) -> value == null ? 0 : (((List<VirtualCatchmentProjection>) value).size() / 100) + 1)
-                        .build().asMap(), DISALLOW_NULL_VALUES);
+                        .weigher((key, value) -> value == null ? 0 : (((CatchmentAddressIndex) value).size() / 100) + 1)
+                        .recordStats()
+                        .build(), DISALLOW_NULL_VALUES);
             }
 
-            private ConcurrentMapCache getConcurrentMapCacheWithMaxEntriesConfig(String name) {
-                return new ConcurrentMapCache(name, CacheBuilder.newBuilder()
+            private GuavaSpringCache getCacheWithMaxEntriesConfig(String name) {
+                return new GuavaSpringCache(name, CacheBuilder.newBuilder()
                                 .expireAfterWrite(timeToLiveInSeconds, TimeUnit.SECONDS)
                                 .maximumSize(maxEntriesToCache)
-                        .build().asMap(), DISALLOW_NULL_VALUES);
+                        .recordStats()
+                        .build(), DISALLOW_NULL_VALUES);
             }
         };
     }
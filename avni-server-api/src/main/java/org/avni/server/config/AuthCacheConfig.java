@@ -0,0 +1,49 @@
+package org.avni.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuthCacheConfig {
+    @Value("${avni.auth.jwks.refresh.minutes}")
+    private long jwksRefreshMinutes;
+
+    @Value("${avni.auth.jwks.expiry.hours}")
+    private long jwksExpiryHours;
+
+    @Value("${avni.auth.verifiedToken.max.entries}")
+    private long verifiedTokenMaxEntries;
+
+    @Value("${avni.auth.verifiedToken.max.ttl.seconds}")
+    private long verifiedTokenMaxTtlSeconds;
+
+    @Value("${avni.auth.userContext.max.entries}")
+    private long userContextMaxEntries;
+
+    @Value("${avni.auth.userContext.ttl.seconds}")
+    private long userContextTtlSeconds;
+
+    public long getJwksRefreshMinutes() {
+        return jwksRefreshMinutes;
+    }
+
+    public long getJwksExpiryHours() {
+        return jwksExpiryHours;
+    }
+
+    public long getVerifiedTokenMaxEntries() {
+        return verifiedTokenMaxEntries;
+    }
+
+    public long getVerifiedTokenMaxTtlSeconds() {
+        return verifiedTokenMaxTtlSeconds;
+    }
+
+    public long getUserContextMaxEntries() {
+        return userContextMaxEntries;
+    }
+
+    public long getUserContextTtlSeconds() {
+        return userContextTtlSeconds;
+    }
+}
@@ -41,9 +41,9 @@ public interface ChecklistItemRepository extends TransactionalDataRepository<Che
 
     @Override
     default boolean isEntityChanged(SyncParameters syncParameters){
-        return count(syncEntityChangedAuditSpecification(syncParameters)
+        return existsAny(syncEntityChangedAuditSpecification(syncParameters)
                 .and(syncStrategySpecification(syncParameters))
-        ) > 0;
+        );
     }
 
     @Modifying(clearAutomatically = true)
@@ -44,9 +44,9 @@ public interface ChecklistRepository extends TransactionalDataRepository<Checkli
 
     @Override
     default boolean isEntityChanged(SyncParameters syncParameters){
-        return count(syncEntityChangedAuditSpecification(syncParameters)
+        return existsAny(syncEntityChangedAuditSpecification(syncParameters)
                 .and(syncStrategySpecification(syncParameters))
-        ) > 0;
+        );
     }
 
     @Modifying(clearAutomatically = true)
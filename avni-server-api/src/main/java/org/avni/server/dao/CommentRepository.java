@@ -32,9 +32,9 @@ public interface CommentRepository extends TransactionalDataRepository<Comment>,
 
     @Override
     default boolean isEntityChanged(SyncParameters syncParameters){
-        return count(syncEntityChangedAuditSpecification(syncParameters)
+        return existsAny(syncEntityChangedAuditSpecification(syncParameters)
                 .and(syncStrategySpecification(syncParameters))
-        ) > 0;
+        );
     }
 
     @Modifying
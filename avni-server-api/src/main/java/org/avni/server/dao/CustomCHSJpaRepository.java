@@ -1,6 +1,7 @@
 package org.avni.server.dao;
 
 import org.avni.server.domain.CHSEntity;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
@@ -10,11 +11,20 @@ import org.springframework.data.rest.core.annotation.RestResource;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.stream.Stream;
 
 @NoRepositoryBean
 public interface CustomCHSJpaRepository<T extends CHSEntity, ID extends Serializable> extends JpaRepository<T, ID> {
     Slice<T> findAllAsSlice(Specification<T> specification, Pageable pageable);
 
+    Slice<T> findAllAsReadOnlySlice(Specification<T> specification, Pageable pageable);
+
+    Page<T> findAllAsReadOnlyPage(Specification<T> specification, Pageable pageable);
+
+    boolean existsAny(Specification<T> specification);
+
+    Stream<T> streamAllAsReadOnly(Specification<T> specification, int fetchSize);
+
     @Override
     @RestResource(exported = false)
     <S extends T> S save(S entity);
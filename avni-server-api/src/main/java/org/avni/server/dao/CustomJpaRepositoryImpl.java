@@ -1,22 +1,36 @@
 package org.avni.server.dao;
 
 import org.avni.server.domain.CHSEntity;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class CustomJpaRepositoryImpl<T extends CHSEntity, ID extends Serializable> extends SimpleJpaRepository<T, ID> implements CustomCHSJpaRepository<T, ID> {
 
+    private final EntityManager entityManager;
+
     public CustomJpaRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
         super(entityInformation, entityManager);
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -25,6 +39,53 @@ public class CustomJpaRepositoryImpl<T extends CHSEntity, ID extends Serializabl
         return pageable.isUnpaged() ? new SliceImpl<>(query.getResultList()) : readSlice(query, pageable, specification);
     }
 
+    /**
+     * Entities are loaded read-only, so hibernate doesn't keep a snapshot of their state (including deep copies of jsonb
+     * columns) or dirty check them on flush. Use only when the results are not going to be modified, like in sync.
+     */
+    @Override
+    public Slice<T> findAllAsReadOnlySlice(Specification<T> specification, Pageable pageable) {
+        TypedQuery<T> query = getQuery(specification, pageable);
+        query.setHint(QueryHints.HINT_READONLY, true);
+        return pageable.isUnpaged() ? new SliceImpl<>(query.getResultList()) : readSlice(query, pageable, specification);
+    }
+
+    @Override
+    public Page<T> findAllAsReadOnlyPage(Specification<T> specification, Pageable pageable) {
+        TypedQuery<T> query = getQuery(specification, pageable);
+        query.setHint(QueryHints.HINT_READONLY, true);
+        return pageable.isUnpaged() ? new PageImpl<>(query.getResultList()) : readPage(query, getDomainClass(), pageable, specification);
+    }
+
+    /**
+     * Unlike count(specification) > 0, stops at the first matching row.
+     */
+    @Override
+    public boolean existsAny(Specification<T> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<T> root = query.from(getDomainClass());
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+        if (predicate != null) query.where(predicate);
+        query.select(root.get("id"));
+        query.orderBy(Collections.emptyList());
+        return !entityManager.createQuery(query).setMaxResults(1).getResultList().isEmpty();
+    }
+
+    /**
+     * Read-only entities are fetched from a database cursor, fetchSize rows at a time, instead of materialising the whole
+     * result. Needs an open transaction till the stream is closed, and the caller has to clear the persistence context
+     * periodically for the memory to stay flat.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<T> streamAllAsReadOnly(Specification<T> specification, int fetchSize) {
+        TypedQuery<T> query = getQuery(specification, Sort.unsorted());
+        query.setHint(QueryHints.HINT_READONLY, true);
+        query.setHint(QueryHints.HINT_FETCH_SIZE, fetchSize);
+        return query.unwrap(Query.class).stream();
+    }
+
     private Slice<T> readSlice(TypedQuery<T> query, Pageable pageable, Specification<T> specification){
         if (pageable.isPaged()){
             query.setFirstResult((int) pageable.getOffset());
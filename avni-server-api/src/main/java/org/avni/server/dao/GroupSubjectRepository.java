@@ -94,13 +94,9 @@ public interface GroupSubjectRepository extends TransactionalDataRepository<Grou
             Join<GroupSubject, GroupRole> groupRole = root.join("groupRole", JoinType.LEFT);
             predicates.add(cb.equal(groupRole.get("groupSubjectType").get("id"), syncParameters.getTypeId()));
             if (subjectType.isShouldSyncByLocation()) {
-                List<Long> addressLevels = syncParameters.getAddressLevels();
-                if (addressLevels.size() > 0) {
-                    CriteriaBuilder.In<Long> inClause1 = cb.in(root.get("groupSubjectAddressId"));
-                    for (Long id : addressLevels) {
-                        inClause1.value(id);
-                    }
-                    predicates.add(inClause1);
+                CatchmentAddressIndex addressLevels = syncParameters.getAddressLevels();
+                if (!addressLevels.isEmpty()) {
+                    predicates.add(TransactionDataCriteriaBuilderUtil.addressIn(cb, root.get("groupSubjectAddressId"), addressLevels));
                 } else {
                     predicates.add(cb.equal(root.get("id"), cb.literal(0)));
                 }
@@ -121,9 +117,9 @@ public interface GroupSubjectRepository extends TransactionalDataRepository<Grou
 
     @Override
     default boolean isEntityChanged(SyncParameters syncParameters) {
-        return count(syncEntityChangedAuditSpecification(syncParameters)
+        return existsAny(syncEntityChangedAuditSpecification(syncParameters)
                 .and(syncStrategySpecification(syncParameters))
-        ) > 0;
+        );
     }
 
     List<GroupSubject> findAllByMemberSubject(Individual memberSubject);
@@ -13,10 +13,12 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.criteria.*;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -35,10 +37,10 @@ public interface IndividualRepository extends TransactionalDataRepository<Indivi
         Specification<Individual> audit = syncEntityChangedAuditSpecification(syncParameters);
         Specification<Individual> subjectType = syncTypeIdSpecification(syncParameters.getTypeId());
         Specification<Individual> location_AndDirectAssignment_AndSyncAttributes = syncStrategySpecification(syncParameters);
-        return count(audit
+        return existsAny(audit
                 .and(subjectType)
                 .and(location_AndDirectAssignment_AndSyncAttributes)
-        ) > 0;
+        );
     }
 
     default Specification<Individual> getFilterSpecForVoid(Boolean includeVoided) {
@@ -115,6 +117,40 @@ public interface IndividualRepository extends TransactionalDataRepository<Indivi
             "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds)")
     Stream<Individual> findAllIndividuals(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime);
 
+    @RestResource(exported = false)
+    @Query("select ind.id from Individual ind " +
+            "where ind.isVoided = false " +
+            "and ind.subjectType.id = :subjectTypeId " +
+            "and ind.registrationDate between :startDateTime and :endDateTime " +
+            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds) " +
+            "order by ind.id")
+    List<Long> findNonVoidedIndividualIds(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime, Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query("select ind.id from Individual ind " +
+            "where ind.subjectType.id = :subjectTypeId " +
+            "and ind.registrationDate between :startDateTime and :endDateTime " +
+            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds) " +
+            "order by ind.id")
+    List<Long> findAllIndividualIds(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime, Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query("select distinct ind from Individual ind left join fetch ind.encounters where ind.id in :ids order by ind.id")
+    List<Individual> findAllByIdInWithEncounters(List<Long> ids);
+
+    @RestResource(exported = false)
+    @Query("select distinct ind from Individual ind left join fetch ind.programEnrolments where ind.id in :ids")
+    List<Individual> findAllByIdInWithProgramEnrolments(List<Long> ids);
+
+    @RestResource(exported = false)
+    @Query("select distinct ind from Individual ind left join fetch ind.memberGroupSubjects mgs left join fetch mgs.groupSubject where ind.id in :ids")
+    List<Individual> findAllByIdInWithMemberGroupSubjects(List<Long> ids);
+
+    @RestResource(exported = false)
+    @Query("select distinct grp from Individual grp left join fetch grp.encounters " +
+            "where grp.id in (select gs.groupSubject.id from GroupSubject gs where gs.memberSubject.id in :memberIds)")
+    List<Individual> findAllGroupSubjectsOfMembersWithEncounters(List<Long> memberIds);
+
     //group by is added for distinct ind records
     @Query("select i from Individual i " +
             "join i.encounters enc " +
@@ -211,4 +247,17 @@ public interface IndividualRepository extends TransactionalDataRepository<Indivi
     default void voidSubjectItemsAt(AddressLevel address) {
         this.voidSubjectItemsAt(address.getId(), UserContextHolder.getUserId());
     }
+
+    /**
+     * Latest modification of the subject or of anything its rule contract is built from - encounters, enrolments,
+     * group memberships and approval statuses.
+     */
+    @RestResource(exported = false)
+    @Query(value = "select greatest(i.last_modified_date_time, " +
+            "(select max(e.last_modified_date_time) from encounter e where e.individual_id = i.id), " +
+            "(select max(pe.last_modified_date_time) from program_enrolment pe where pe.individual_id = i.id), " +
+            "(select max(gs.last_modified_date_time) from group_subject gs where gs.member_subject_id = i.id), " +
+            "(select max(eas.last_modified_date_time) from entity_approval_status eas where eas.individual_id = i.id)) " +
+            "from individual i where i.id = :individualId", nativeQuery = true)
+    Date getLastModifiedDateTimeIncludingChildren(Long individualId);
 }
@@ -6,9 +6,11 @@ import org.avni.server.framework.security.UserContextHolder;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.Date;
 import java.util.List;
 
@@ -26,6 +28,7 @@ public interface LocationMappingRepository extends ReferenceDataRepository<Paren
             "  and c.organisation_id = :organisationId\n" +
             "  and llm.last_modified_date_time between :lastModifiedDateTime and :now\n" +
             "order by llm.last_modified_date_time asc, llm.id asc", nativeQuery = true)
+    @QueryHints({@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")})
     Page<ParentLocationMapping> getSyncResults(
             long catchmentId,
             Date lastModifiedDateTime,
@@ -44,6 +44,7 @@ public interface LocationRepository extends ReferenceDataRepository<AddressLevel
             "  and c.organisation_id = :organisationId\n" +
             "  and al1.last_modified_date_time between :lastModifiedDateTime and :now\n" +
             "order by al1.last_modified_date_time asc, al1.id asc", nativeQuery = true)
+    @QueryHints({@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")})
     Page<AddressLevel> getSyncResults(long catchmentId, Date lastModifiedDateTime, Date now, long organisationId, Pageable pageable);
 
     @Query(value = "select count(*)\n" +
@@ -1,7 +1,9 @@
 package org.avni.server.dao;
 
 import org.avni.server.application.Subject;
+import org.avni.server.dao.sync.SyncContinuationToken;
 import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.dao.sync.SyncSlice;
 import org.avni.server.dao.sync.TransactionDataCriteriaBuilderUtil;
 import org.avni.server.domain.*;
 import org.avni.server.framework.security.UserContextHolder;
@@ -10,7 +12,10 @@ import org.avni.server.util.JsonObjectUtil;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
@@ -20,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 @SuppressWarnings("rawtypes")
 @NoRepositoryBean
@@ -40,16 +46,60 @@ public interface OperatingIndividualScopeAwareRepository<T extends CHSEntity> ex
         return specification;
     }
 
+    /**
+     * When the results are ordered by the entity's (lastModifiedDateTime, id), the slice carries a continuation token.
+     * A request with that token seeks to the last entity it has seen, so every slice costs the same however deep the
+     * sync is, instead of skipping all previous rows using the offset of the page number.
+     */
     @Override
     default Slice<T> getSyncResultsAsSlice(SyncParameters syncParameters) {
         Specification specification = getSpecification(syncParameters);
-        return findAllAsSlice(specification, syncParameters.getPageable());
+        Pageable pageable = syncParameters.getPageable();
+        if (!isSeekable(syncParameters)) {
+            return findAllAsReadOnlySlice(specification, pageable);
+        }
+
+        SyncContinuationToken continuationToken = syncParameters.getContinuationToken();
+        Slice<T> slice = continuationToken == null ?
+                findAllAsReadOnlySlice(specification, pageable) :
+                findAllAsReadOnlySlice(specification.and(seekSpecification(continuationToken)), PageRequest.of(0, pageable.getPageSize(), pageable.getSort()));
+        List<T> content = slice.getContent();
+        SyncContinuationToken nextContinuationToken = slice.hasNext() ? SyncContinuationToken.after(content.get(content.size() - 1)) : null;
+        return new SyncSlice<>(content, pageable, slice.hasNext(), nextContinuationToken);
+    }
+
+    default boolean isSeekable(SyncParameters syncParameters) {
+        Pageable pageable = syncParameters.getPageable();
+        Sort sort = pageable.getSort();
+        return pageable.isPaged() && syncParameters.isModificationCheckOnEntity()
+                && (sort.isUnsorted() || sort.equals(Sort.by(Sort.Order.asc("lastModifiedDateTime"), Sort.Order.asc("id"))));
+    }
+
+    default Specification<T> seekSpecification(SyncContinuationToken continuationToken) {
+        return (Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            Path<Date> lastModifiedDateTime = root.get("lastModifiedDateTime");
+            return cb.or(cb.greaterThan(lastModifiedDateTime, continuationToken.getLastModifiedDateTime()),
+                    cb.and(cb.equal(lastModifiedDateTime, continuationToken.getLastModifiedDateTime()), cb.greaterThan(root.get("id"), continuationToken.getId())));
+        };
+    }
+
+    /**
+     * All the sync results from a database cursor, for writing them out one by one. Like the slices, continues after the
+     * continuation token when the results are ordered by the entity's (lastModifiedDateTime, id).
+     */
+    default Stream<T> getSyncResultsAsStream(SyncParameters syncParameters, int fetchSize) {
+        Specification specification = getSpecification(syncParameters);
+        SyncContinuationToken continuationToken = syncParameters.getContinuationToken();
+        if (continuationToken != null && syncParameters.isModificationCheckOnEntity()) {
+            specification = specification.and(seekSpecification(continuationToken));
+        }
+        return streamAllAsReadOnly(specification, fetchSize);
     }
 
     @Override
     default Page<T> getSyncResults(SyncParameters syncParameters) {
         Specification specification = getSpecification(syncParameters);
-        return findAll(specification, syncParameters.getPageable());
+        return findAllAsReadOnlyPage(specification, syncParameters.getPageable());
     }
 
     @Override
@@ -98,18 +148,10 @@ public interface OperatingIndividualScopeAwareRepository<T extends CHSEntity> ex
                                                                                       From<A, B> from, CriteriaQuery<?> query) {
         SubjectType subjectType = syncParameters.getSubjectType();
         if (subjectType.isShouldSyncByLocation()) {
-            List<Long> addressLevels = syncParameters.getAddressLevels();
-            if (addressLevels.size() > 0) {
-                CriteriaBuilder.In<Long> inClause;
-                if (syncParameters.isParentOrSelfIndividual()) {
-                    inClause = cb.in(from.get("addressLevel").get("id"));
-                } else {
-                    inClause = cb.in(from.get("addressId"));
-                }
-                for (Long id : addressLevels) {
-                    inClause.value(id);
-                }
-                predicates.add(inClause);
+            CatchmentAddressIndex addressLevels = syncParameters.getAddressLevels();
+            if (!addressLevels.isEmpty()) {
+                Path<Long> addressId = syncParameters.isParentOrSelfIndividual() ? from.get("addressLevel").get("id") : from.get("addressId");
+                predicates.add(TransactionDataCriteriaBuilderUtil.addressIn(cb, addressId, addressLevels));
             } else {
                 predicates.add(cb.equal(from.get("id"), cb.literal(0)));
             }
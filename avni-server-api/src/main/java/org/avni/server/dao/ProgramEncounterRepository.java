@@ -36,10 +36,10 @@ public interface ProgramEncounterRepository extends TransactionalDataRepository<
 
     @Override
     default boolean isEntityChanged(SyncParameters syncParameters){
-        return count(syncEntityChangedAuditSpecification(syncParameters)
+        return existsAny(syncEntityChangedAuditSpecification(syncParameters)
                 .and(syncTypeIdSpecification(syncParameters.getTypeId()))
                 .and(syncStrategySpecification(syncParameters))
-        ) > 0;
+        );
     }
 
     @Query(value = "select count(enc.id) as count " +
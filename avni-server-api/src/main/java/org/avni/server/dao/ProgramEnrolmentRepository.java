@@ -12,6 +12,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -100,10 +101,10 @@ public interface ProgramEnrolmentRepository extends TransactionalDataRepository<
 
     @Override
     default boolean isEntityChanged(SyncParameters syncParameters) {
-        return count(syncEntityChangedAuditSpecification(syncParameters)
+        return existsAny(syncEntityChangedAuditSpecification(syncParameters)
                 .and(syncTypeIdSpecification(syncParameters.getTypeId()))
                 .and(syncStrategySpecification(syncParameters))
-        ) > 0;
+        );
     }
 
     @Transactional
@@ -141,4 +142,17 @@ public interface ProgramEnrolmentRepository extends TransactionalDataRepository<
     default void voidSubjectItemsAt(AddressLevel address) {
         this.voidSubjectItemsAt(address.getId(), UserContextHolder.getUserId());
     }
+
+    @RestResource(exported = false)
+    @Query("select distinct pe from ProgramEnrolment pe left join fetch pe.programEncounters where pe.individual.id in :individualIds")
+    List<ProgramEnrolment> findAllByIndividualIdInWithProgramEncounters(List<Long> individualIds);
+
+    /**
+     * Latest modification of the enrolment or of its program encounters.
+     */
+    @RestResource(exported = false)
+    @Query(value = "select greatest(pe.last_modified_date_time, " +
+            "(select max(pen.last_modified_date_time) from program_encounter pen where pen.program_enrolment_id = pe.id)) " +
+            "from program_enrolment pe where pe.id = :programEnrolmentId", nativeQuery = true)
+    Date getLastModifiedDateTimeIncludingChildren(Long programEnrolmentId);
 }
@@ -12,6 +12,8 @@ import javax.persistence.criteria.*;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.avni.server.dao.sync.TransactionDataCriteriaBuilderUtil.addressIn;
+
 @Repository
 public interface SubjectMigrationRepository extends TransactionalDataRepository<SubjectMigration>, OperatingIndividualScopeAwareRepository<SubjectMigration>, SubjectTreeItemRepository {
     default Specification<SubjectMigration> syncStrategySpecification(SyncParameters syncParameters) {
@@ -39,16 +41,10 @@ public interface SubjectMigrationRepository extends TransactionalDataRepository<
             //Address Levels
             List<Predicate> addressLevelPredicates = new ArrayList<>();
             if (subjectType.isShouldSyncByLocation()) {
-                List<Long> addressLevels = syncParameters.getAddressLevels();
-                if (addressLevels.size() > 0) {
-                    CriteriaBuilder.In<Long> inClause1 = cb.in(root.get("oldAddressLevel").get("id"));
-                    CriteriaBuilder.In<Long> inClause2 = cb.in(root.get("newAddressLevel").get("id"));
-                    for (Long id : addressLevels) {
-                        inClause1.value(id);
-                        inClause2.value(id);
-                    }
-                    addressLevelPredicates.add(inClause1);
-                    addressLevelPredicates.add(inClause2);
+                CatchmentAddressIndex addressLevels = syncParameters.getAddressLevels();
+                if (!addressLevels.isEmpty()) {
+                    addressLevelPredicates.add(addressIn(cb, root.get("oldAddressLevel").get("id"), addressLevels));
+                    addressLevelPredicates.add(addressIn(cb, root.get("newAddressLevel").get("id"), addressLevels));
                 } else {
                     addressLevelPredicates.add(cb.equal(root.get("id"), cb.literal(0)));
                 }
@@ -83,9 +79,9 @@ public interface SubjectMigrationRepository extends TransactionalDataRepository<
 
     @Override
     default boolean isEntityChanged(SyncParameters syncParameters) {
-        return count(syncEntityChangedAuditSpecification(syncParameters)
+        return existsAny(syncEntityChangedAuditSpecification(syncParameters)
                 .and(syncStrategySpecification(syncParameters))
-        ) > 0;
+        );
     }
 
     @Modifying
@@ -2,20 +2,28 @@ package org.avni.server.dao;
 
 import org.avni.server.dao.search.SearchBuilder;
 import org.avni.server.dao.search.SqlQuery;
+import org.avni.server.dao.search.SubjectSearchCount;
+import org.avni.server.util.ObjectMapperSingleton;
+import org.avni.server.web.request.webapp.search.CountMode;
+import org.avni.server.web.request.webapp.search.PageDetails;
 import org.avni.server.web.request.webapp.search.SubjectSearchRequest;
 import org.hibernate.query.internal.NativeQueryImpl;
 import org.hibernate.transform.AliasToEntityMapResultTransformer;
+import org.hibernate.type.StringType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.transaction.Transactional;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Repository
 public class SubjectSearchRepository extends RoleSwitchableRepository {
@@ -24,8 +32,15 @@ public class SubjectSearchRepository extends RoleSwitchableRepository {
     @PersistenceContext
     private EntityManager entityManager;
 
-    public SubjectSearchRepository(EntityManager entityManager) {
+    private final CountMode defaultCountMode;
+    private final int countCap;
+
+    public SubjectSearchRepository(EntityManager entityManager,
+                                   @Value("${avni.subjectSearch.count.mode}") CountMode defaultCountMode,
+                                   @Value("${avni.subjectSearch.count.cap}") int countCap) {
         super(entityManager);
+        this.defaultCountMode = defaultCountMode;
+        this.countCap = countCap;
     }
 
     @Transactional
@@ -47,19 +62,43 @@ public class SubjectSearchRepository extends RoleSwitchableRepository {
         }
     }
 
+    /**
+     * Counts as asked for in the page details of the request, else as configured by avni.subjectSearch.count.mode
+     */
     @Transactional
-    public BigInteger getTotalCount(SubjectSearchRequest searchRequest, SearchBuilder searchBuilder) {
+    public SubjectSearchCount getTotalCount(SubjectSearchRequest searchRequest, SearchBuilder searchBuilder) {
+        CountMode countMode = Optional.ofNullable(searchRequest.getPageElement())
+                .map(PageDetails::getCountMode)
+                .orElse(defaultCountMode);
         try {
-            SqlQuery query = searchBuilder.getSQLCountQuery(searchRequest);
+            SqlQuery query = searchBuilder.getSQLCountQuery(searchRequest, countMode, countCap);
             setRoleToNone();
             Query sql = entityManager.createNativeQuery(query.getSql());
             query.getParameters().forEach((name, value) -> {
                 sql.setParameter(name, value);
             });
 
-            return (BigInteger) sql.getSingleResult();
+            switch (countMode) {
+                case estimate:
+                    ((NativeQueryImpl) sql).addScalar("QUERY PLAN", StringType.INSTANCE);
+                    return new SubjectSearchCount(getPlannedRows((String) sql.getSingleResult()), false);
+                case capped:
+                    BigInteger count = (BigInteger) sql.getSingleResult();
+                    BigInteger cap = BigInteger.valueOf(countCap);
+                    return count.compareTo(cap) > 0 ? new SubjectSearchCount(cap, false) : new SubjectSearchCount(count, true);
+                default:
+                    return new SubjectSearchCount((BigInteger) sql.getSingleResult(), true);
+            }
         } finally {
             setRoleBackToUser();
         }
     }
+
+    private static BigInteger getPlannedRows(String plan) {
+        try {
+            return BigInteger.valueOf(ObjectMapperSingleton.getObjectMapper().readTree(plan).get(0).get("Plan").get("Plan Rows").asLong());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
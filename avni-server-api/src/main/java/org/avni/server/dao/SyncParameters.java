@@ -1,7 +1,9 @@
 package org.avni.server.dao;
 
+import org.avni.server.dao.sync.SyncContinuationToken;
 import org.avni.server.dao.sync.SyncEntityName;
 import org.avni.server.domain.Catchment;
+import org.avni.server.domain.CatchmentAddressIndex;
 import org.avni.server.domain.JsonObject;
 import org.avni.server.domain.SubjectType;
 import org.joda.time.DateTime;
@@ -16,17 +18,18 @@ public class SyncParameters {
     private final Long typeId;
     private String entityTypeUuid;
     private final Pageable pageable;
-    private final List<Long> addressLevels;
+    private final CatchmentAddressIndex addressLevels;
     private final SubjectType subjectType;
     private final JsonObject syncSettings;
     private final SyncEntityName syncEntityName;
     private final Catchment catchment;
+    private SyncContinuationToken continuationToken;
 
     public SyncParameters(DateTime lastModifiedDateTime,
                           DateTime now, Long typeId,
                           String entityTypeUuid,
                           Pageable pageable,
-                          List<Long> addressLevels,
+                          CatchmentAddressIndex addressLevels,
                           SubjectType subjectType,
                           JsonObject syncSettings,
                           SyncEntityName syncEntityName,
@@ -59,7 +62,7 @@ public class SyncParameters {
         return pageable;
     }
 
-    public List<Long> getAddressLevels() {
+    public CatchmentAddressIndex getAddressLevels() {
         return addressLevels;
     }
 
@@ -103,6 +106,14 @@ public class SyncParameters {
         this.entityTypeUuid = entityTypeUuid;
     }
 
+    public SyncContinuationToken getContinuationToken() {
+        return continuationToken;
+    }
+
+    public void setContinuationToken(SyncContinuationToken continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+
     public boolean isModificationCheckOnEntity() {
         return this.getSubjectType() == null || !this.getSubjectType().isDirectlyAssignable()
                 || (!this.isParentOrSelfIndividual() && !this.isProgramEncounter() && !this.isEncounter() && !this.isParentOrSelfEnrolment());
@@ -5,6 +5,9 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.rest.core.annotation.RestResource;
 
+import java.util.Collection;
+import java.util.List;
+
 @NoRepositoryBean
 public interface TransactionalDataRepository<T extends CHSEntity> extends CHSRepository<T>, CustomCHSJpaRepository<T, Long>, JpaSpecificationExecutor<T>{
     default T findOne(Long id) {
@@ -14,4 +17,7 @@ public interface TransactionalDataRepository<T extends CHSEntity> extends CHSRep
     @Override
     @RestResource(exported = false)
     <S extends T> S save(S entity);
+
+    @RestResource(exported = false)
+    List<T> findAllByUuidIn(Collection<String> uuids);
 }
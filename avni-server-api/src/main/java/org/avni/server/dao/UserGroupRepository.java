@@ -8,6 +8,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -51,4 +52,8 @@ public interface UserGroupRepository extends ReferenceDataRepository<UserGroup>
 
     List<UserGroup> findByUserAndGroupHasAllPrivilegesTrueAndIsVoidedFalse(User user);
 
+    @RestResource(exported = false)
+    @Query("select ug.group.id from UserGroup ug where ug.user.id = :userId and ug.isVoided = false")
+    List<Long> findGroupIdsByUserId(@Param("userId") Long userId);
+
 }
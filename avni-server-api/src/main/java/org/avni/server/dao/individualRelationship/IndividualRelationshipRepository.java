@@ -2,6 +2,7 @@ package org.avni.server.dao.individualRelationship;
 
 import org.avni.server.dao.*;
 import org.avni.server.domain.AddressLevel;
+import org.avni.server.domain.CatchmentAddressIndex;
 import org.avni.server.domain.Individual;
 import org.avni.server.domain.SubjectType;
 import org.avni.server.domain.User;
@@ -22,6 +23,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Set;
 
+import static org.avni.server.dao.sync.TransactionDataCriteriaBuilderUtil.addressIn;
 import static org.avni.server.dao.sync.TransactionDataCriteriaBuilderUtil.joinUserSubjectAssignment;
 
 @Repository
@@ -41,16 +43,10 @@ public interface IndividualRelationshipRepository extends TransactionalDataRepos
             Join<IndividualRelationship, Individual> individualBJoin = root.join("individualB");
             predicates.add(cb.equal(individualAJoin.get("subjectType").get("id"), syncParameters.getTypeId()));
             if (subjectType.isShouldSyncByLocation()) {
-                List<Long> addressLevels = syncParameters.getAddressLevels();
-                if (addressLevels.size() > 0) {
-                    CriteriaBuilder.In<Long> inClause1 = cb.in(individualAJoin.get("addressLevel").get("id"));
-                    CriteriaBuilder.In<Long> inClause2 = cb.in(individualBJoin.get("addressLevel").get("id"));
-                    for (Long id : addressLevels) {
-                        inClause1.value(id);
-                        inClause2.value(id);
-                    }
-                    predicates.add(inClause1);
-                    predicates.add(inClause2);
+                CatchmentAddressIndex addressLevels = syncParameters.getAddressLevels();
+                if (!addressLevels.isEmpty()) {
+                    predicates.add(addressIn(cb, individualAJoin.get("addressLevel").get("id"), addressLevels));
+                    predicates.add(addressIn(cb, individualBJoin.get("addressLevel").get("id"), addressLevels));
                 } else {
                     predicates.add(cb.equal(root.get("id"), cb.literal(0)));
                 }
@@ -72,9 +68,9 @@ public interface IndividualRelationshipRepository extends TransactionalDataRepos
 
     @Override
     default boolean isEntityChanged(SyncParameters syncParameters) {
-        return count(syncEntityChangedAuditSpecification(syncParameters)
+        return existsAny(syncEntityChangedAuditSpecification(syncParameters)
                 .and(syncStrategySpecification(syncParameters))
-        ) > 0;
+        );
     }
 
     List<IndividualRelationship> findByIndividualaAndIndividualBAndIsVoidedFalse(Individual individualA, Individual individualB);
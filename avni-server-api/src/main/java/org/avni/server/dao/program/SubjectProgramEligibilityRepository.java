@@ -5,6 +5,7 @@ import org.avni.server.dao.SubjectTreeItemRepository;
 import org.avni.server.dao.SyncParameters;
 import org.avni.server.dao.TransactionalDataRepository;
 import org.avni.server.domain.AddressLevel;
+import org.avni.server.domain.CatchmentAddressIndex;
 import org.avni.server.domain.Individual;
 import org.avni.server.domain.SubjectType;
 import org.avni.server.domain.User;
@@ -20,6 +21,7 @@ import javax.persistence.criteria.*;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.avni.server.dao.sync.TransactionDataCriteriaBuilderUtil.addressIn;
 import static org.avni.server.dao.sync.TransactionDataCriteriaBuilderUtil.joinUserSubjectAssignment;
 
 @Repository
@@ -33,13 +35,9 @@ public interface SubjectProgramEligibilityRepository extends TransactionalDataRe
             Join<SubjectProgramEligibility, Individual> subjectJoin = root.join("subject");
             predicates.add(cb.equal(subjectJoin.get("subjectType").get("id"), syncParameters.getTypeId()));
             if (subjectType.isShouldSyncByLocation()) {
-                List<Long> addressLevels = syncParameters.getAddressLevels();
-                if (addressLevels.size() > 0) {
-                    CriteriaBuilder.In<Long> addressLevelFilter = cb.in(subjectJoin.get("addressLevel").get("id"));
-                    for (Long id : addressLevels) {
-                        addressLevelFilter.value(id);
-                    }
-                    predicates.add(addressLevelFilter);
+                CatchmentAddressIndex addressLevels = syncParameters.getAddressLevels();
+                if (!addressLevels.isEmpty()) {
+                    predicates.add(addressIn(cb, subjectJoin.get("addressLevel").get("id"), addressLevels));
                 } else {
                     predicates.add(cb.equal(root.get("id"), cb.literal(0)));
                 }
@@ -57,9 +55,9 @@ public interface SubjectProgramEligibilityRepository extends TransactionalDataRe
 
     @Override
     default boolean isEntityChanged(SyncParameters syncParameters) {
-        return count(syncEntityChangedAuditSpecification(syncParameters)
+        return existsAny(syncEntityChangedAuditSpecification(syncParameters)
                 .and(syncStrategySpecification(syncParameters))
-        ) > 0;
+        );
     }
 
     @Modifying
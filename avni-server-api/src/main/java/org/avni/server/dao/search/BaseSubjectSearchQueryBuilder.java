@@ -1,5 +1,6 @@
 package org.avni.server.dao.search;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.avni.server.application.OrganisationConfigSettingKey;
@@ -33,12 +34,30 @@ public class BaseSubjectSearchQueryBuilder<T> {
             "                            pe.encounter_date_time is not null and\n" +
             "                            pe.is_voided is false";
     private static final String ADDRESS_LEVEL_JOIN = "left outer join address_level al on al.id = i.address_id";
+    // Same expressions as the trigram indexes on individual and program_enrolment, see SubjectSearchIndexBuilder
+    static final String NAME_SEARCH_EXPRESSION = "(coalesce(i.first_name, '') || ' ' || coalesce(i.middle_name, '') || ' ' || coalesce(i.last_name, ''))";
+    static final String SEARCH_DOCUMENT_FUNCTION = "observations_search_document";
+    private static final Set<String> SEARCH_DOCUMENT_ALIASES = new HashSet<>(Arrays.asList("i", "penr"));
+    // Sorting on id, full name and date of birth is served by the sort indexes of SubjectSearchIndexBuilder
+    private static final Map<String, SortColumn> SORT_COLUMNS = new HashMap<String, SortColumn>() {
+        {
+            put("ID", new SortColumn("i.id", "id", "bigint", false));
+            put("FULLNAME", new SortColumn("individual_full_name(i.first_name, i.middle_name, i.last_name)", "fullName", "text", false));
+            put("SUBJECTTYPE", new SortColumn("st.name", "subjectTypeName", "text", true));
+            put("GENDER", new SortColumn("gender.name", "gender", "text", true));
+            put("DATEOFBIRTH", new SortColumn("i.date_of_birth", "dateOfBirth", "date", true));
+            put("TITLE_LINEAGE", new SortColumn("tllv.title_lineage", null, "text", true));
+        }
+    };
     private String orderByClause = "";
+    private String keysetClause;
 
     private final Set<String> whereClauses = new HashSet<>();
     private final Set<String> joinClauses = new LinkedHashSet<>();
     private final Map<String, Object> parameters = new HashMap<>();
     private boolean forCount;
+    private CountMode countMode = CountMode.exact;
+    private int countCap;
     private boolean findDistinctOnly;
     private final Set<String> customFields = new HashSet<>();
 
@@ -51,9 +70,11 @@ public class BaseSubjectSearchQueryBuilder<T> {
         query.append(baseQuery);
         query.append(String.join(" \n ", joinClauses));
 
-        query.append(String.format("\n where i.organisation_id = %d and \n", UserContextHolder.getOrganisation().getId()));
+        query.append(String.format("\n where i.organisation_id = %d", UserContextHolder.getOrganisation().getId()));
 
-        query.append(String.join(" \nand ", whereClauses));
+        List<String> clauses = new ArrayList<>(whereClauses);
+        if (!forCount && keysetClause != null) clauses.add(keysetClause);
+        clauses.forEach(clause -> query.append(" \nand ").append(clause));
         query.append(groupByClause);
         if (parameters.get("offset") == null || parameters.get("limit") == null) {
             addDefaultPaginationFilters();
@@ -61,7 +82,7 @@ public class BaseSubjectSearchQueryBuilder<T> {
 
         String finalQuery = "";
         if (forCount) {
-            finalQuery = "select count(*) from (" + query + ") a";
+            finalQuery = countQuery(query.toString());
             removePaginationFilters();
         } else {
             String offsetLimitClause = "offset :offset limit :limit";
@@ -77,6 +98,19 @@ public class BaseSubjectSearchQueryBuilder<T> {
         return new SqlQuery(queryWithCustomFields, parameters);
     }
 
+    private String countQuery(String query) {
+        switch (countMode) {
+            case capped:
+                // one more than the cap tells a count of exactly the cap apart from a larger one
+                parameters.put("countCap", countCap + 1);
+                return "select count(*) from (" + query + " \nlimit :countCap) a";
+            case estimate:
+                return "explain (format json) " + query;
+            default:
+                return "select count(*) from (" + query + ") a";
+        }
+    }
+
     private void addDefaultPaginationFilters() {
         parameters.put("offset", 0);
         parameters.put("limit", 10);
@@ -85,6 +119,8 @@ public class BaseSubjectSearchQueryBuilder<T> {
     private void removePaginationFilters() {
         parameters.remove("offset");
         parameters.remove("limit");
+        parameters.remove("afterSortValue");
+        parameters.remove("afterId");
     }
 
     protected T withPaginationFilters(PageDetails pageElement) {
@@ -98,27 +134,69 @@ public class BaseSubjectSearchQueryBuilder<T> {
         parameters.put("offset", offset);
         parameters.put("limit", limit);
 
-        String sortColumn = pageElement.getSortColumn();
-        if (!StringUtils.isEmpty(sortColumn)) {
+        String sortColumnName = pageElement.getSortColumn();
+        if (!StringUtils.isEmpty(sortColumnName)) {
             SortOrder sortOrder = Optional.ofNullable(pageElement.getSortOrder()).orElse(SortOrder.asc);
+            SortColumn sortColumn = SORT_COLUMNS.get(sortColumnName.toUpperCase());
 
-            Map<String, String> columnsMap = new HashMap<String, String>() {
-                {
-                    put("ID", "i.id");
-                    put("FULLNAME", "concat_ws(' ',i.first_name,i.middle_name,i.last_name)");
-                    put("SUBJECTTYPE", "st.name");
-                    put("GENDER", "gender.name");
-                    put("DATEOFBIRTH", "i.date_of_birth");
-                    put("TITLE_LINEAGE", "tllv.title_lineage");
-                }
-            };
-
-            this.orderByClause = "order by " + columnsMap.get(sortColumn.toUpperCase()) + " " + sortOrder.name() + ", i.id desc";
+            this.orderByClause = "order by " + (sortColumn == null ? null : sortColumn.expression) + " " + sortOrder.name() + ", i.id " + sortOrder.name();
+            if (!StringUtils.isEmpty(pageElement.getAfter()) && sortColumn != null && sortColumn.resultAlias != null) {
+                parameters.put("offset", 0);
+                withKeyset(sortColumn, sortOrder, SubjectSearchCursor.decode(pageElement.getAfter()));
+            }
         }
 
         return (T) this;
     }
 
+    /**
+     * Starts the page after the cursor by seeking on the sort column and id, in the order of the order by clause (nulls
+     * come last when ascending and first when descending), instead of skipping an offset. When sorted on id, full name
+     * or date of birth, the row comparison is a range of their index so the rows before the cursor are not read, except
+     * for the rows without a date of birth, which are scanned for separately when ascending. Sorting on columns of other
+     * tables still reads and discards the rows before the cursor, as with an offset.
+     */
+    private void withKeyset(SortColumn sortColumn, SortOrder sortOrder, SubjectSearchCursor cursor) {
+        parameters.put("afterId", cursor.getId());
+        String column = sortColumn.expression;
+        if (column.equals("i.id")) {
+            keysetClause = sortOrder == SortOrder.asc ? "i.id > :afterId" : "i.id < :afterId";
+            return;
+        }
+        if (cursor.getSortValue() == null) {
+            keysetClause = sortOrder == SortOrder.asc ?
+                    String.format("(%s is null and i.id > :afterId)", column) :
+                    String.format("(%s is not null or i.id < :afterId)", column);
+            return;
+        }
+        parameters.put("afterSortValue", cursor.getSortValue());
+        String value = String.format("cast(:afterSortValue as %s)", sortColumn.castType);
+        if (sortOrder == SortOrder.desc) {
+            keysetClause = String.format("(%s, i.id) < (%s, :afterId)", column, value);
+        } else if (sortColumn.nullable) {
+            keysetClause = String.format("((%1$s, i.id) > (%2$s, :afterId) or %1$s is null)", column, value);
+        } else {
+            keysetClause = String.format("(%s, i.id) > (%s, :afterId)", column, value);
+        }
+    }
+
+    /**
+     * @return cursor for the page after the given page of results, null when it was the last page or the results are not
+     * sorted on a column that they include
+     */
+    public static String getNextPageCursor(PageDetails pageElement, List<Map<String, Object>> results) {
+        if (pageElement == null || StringUtils.isEmpty(pageElement.getSortColumn()) || results.isEmpty()) return null;
+        SortColumn sortColumn = SORT_COLUMNS.get(pageElement.getSortColumn().toUpperCase());
+        if (sortColumn == null || sortColumn.resultAlias == null) return null;
+        int limit = Optional.ofNullable(pageElement.getNumberOfRecordPerPage()).orElse(10);
+        if (results.size() < limit) return null;
+
+        Map<String, Object> last = results.get(results.size() - 1);
+        if (!last.containsKey(sortColumn.resultAlias) || !(last.get("id") instanceof Number)) return null;
+        Object sortValue = last.get(sortColumn.resultAlias);
+        return new SubjectSearchCursor(sortValue == null ? null : sortValue.toString(), ((Number) last.get("id")).longValue()).encode();
+    }
+
     public T withCustomFields(String subjectType) {
         OrganisationConfigService organisationConfigService = ApplicationContextProvider.getContext().getBean(OrganisationConfigService.class);
         ObjectMapper objectMapper = ObjectMapperSingleton.getObjectMapper();
@@ -167,9 +245,7 @@ public class BaseSubjectSearchQueryBuilder<T> {
                 String token = "%" + tokens[i] + "%";
                 String parameter = "subjectSearchToken" + i;
                 addParameter(parameter, token);
-                clauses.add("    (i.first_name ilike :" + parameter + "\n" +
-                        "        or i.middle_name ilike :" + parameter + "\n" +
-                        "        or i.last_name ilike :" + parameter + ")");
+                clauses.add("    " + NAME_SEARCH_EXPRESSION + " ilike :" + parameter);
             }
             whereClause.append(String.join(" and ", clauses));
             whereClause.append(")");
@@ -227,17 +303,27 @@ public class BaseSubjectSearchQueryBuilder<T> {
         return (T) this;
     }
 
+    /**
+     * Matches the answers of the subject's registration or of any of its enrolments. Each side is looked up on its own
+     * search document index and combined, so that neither table is scanned.
+     */
     public T withSearchAll(String searchString) {
         if (StringUtils.isEmpty(searchString)) return (T) this;
         String searchValue = "%" + searchString + "%";
         parameters.put("searchAll", searchValue);
-        whereClauses.add("(cast(i.observations as text) ilike :searchAll\n" +
-                " or cast(penr.observations as text) ilike :searchAll)");
-        joinClauses.add(PROGRAM_ENROLMENT_JOIN);
-        this.findDistinctOnly = true;
+        parameters.put("searchAllOrganisationId", UserContextHolder.getOrganisation().getId());
+        whereClauses.add("i.id in (select si.id from individual si\n" +
+                "        where si.organisation_id = :searchAllOrganisationId and " + searchDocument("si") + " ilike :searchAll\n" +
+                "    union\n" +
+                "    select spenr.individual_id from program_enrolment spenr\n" +
+                "        where spenr.organisation_id = :searchAllOrganisationId and spenr.is_voided is false and " + searchDocument("spenr") + " ilike :searchAll)");
         return (T) this;
     }
 
+    private static String searchDocument(String tableAlias) {
+        return SEARCH_DOCUMENT_FUNCTION + "(" + tableAlias + ".observations)";
+    }
+
     public T withConceptsFilter(List<Concept> concept) {
         if (concept == null || concept.isEmpty()) return (T) this;
         Map<String, String> aliasMap = new HashMap<String, String>() {
@@ -271,13 +357,11 @@ public class BaseSubjectSearchQueryBuilder<T> {
                 for (int i = 0; i < c.getValues().size(); i++) {
                     String value = c.getValues().get(i);
                     String param = "codedConceptValue" + ci + "00" + i;
-                    addParameter(param, value);
-                    String sql = "case when JSONB_TYPEOF(" + tableAlias + ".observations->:" + conceptUuidParam + ") = 'array'" +
-                            "then " +
-                            tableAlias + ".observations -> :" + conceptUuidParam + " @> to_jsonb(cast(:" + param + " as text)) " +
-                            "else " +
-                            tableAlias + ".observations ->> :" + conceptUuidParam + "= :" + param + " end";
-                    conditions.add(sql);
+                    // containment, single or multi select, is answered by the gin index on observations
+                    addParameter(param, toJson(Collections.singletonMap(c.getUuid(), value)));
+                    addParameter(param + "Array", toJson(Collections.singletonMap(c.getUuid(), Collections.singletonList(value))));
+                    conditions.add(tableAlias + ".observations @> cast(:" + param + " as jsonb)");
+                    conditions.add(tableAlias + ".observations @> cast(:" + param + "Array as jsonb)");
                 }
                 String codedFilter = String.join(" or ", conditions);
                 whereClauses.add("(" + codedFilter + ")");
@@ -288,6 +372,10 @@ public class BaseSubjectSearchQueryBuilder<T> {
                 String param = "textValue" + ci;
                 addParameter(param, value);
                 whereClauses.add(tableAlias + ".observations->> :" + conceptUuidParam + " ilike :" + param);
+                // implied by the condition above, lets the search document index narrow down the rows to check
+                if (SEARCH_DOCUMENT_ALIASES.contains(tableAlias)) {
+                    whereClauses.add(searchDocument(tableAlias) + " ilike :" + param);
+                }
             }
 
             if (c.getDataType().equalsIgnoreCase("NUMERIC")) {
@@ -338,6 +426,14 @@ public class BaseSubjectSearchQueryBuilder<T> {
         return (T) this;
     }
 
+    private static String toJson(Object value) {
+        try {
+            return ObjectMapperSingleton.getObjectMapper().writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     protected T withJoin(String joinClause, boolean findDistinctOnly) {
         joinClauses.add(joinClause);
         this.findDistinctOnly = findDistinctOnly || this.findDistinctOnly;
@@ -372,7 +468,31 @@ public class BaseSubjectSearchQueryBuilder<T> {
     }
 
     public T forCount() {
+        return forCount(CountMode.exact, 0);
+    }
+
+    /**
+     * @param countCap rows counted at most when the mode is {@link CountMode#capped}
+     */
+    public T forCount(CountMode countMode, int countCap) {
         this.forCount = true;
+        this.countMode = countMode;
+        this.countCap = countCap;
         return (T) this;
     }
+
+    private static class SortColumn {
+        private final String expression;
+        // alias of the column in the search results, if returned
+        private final String resultAlias;
+        private final String castType;
+        private final boolean nullable;
+
+        SortColumn(String expression, String resultAlias, String castType, boolean nullable) {
+            this.expression = expression;
+            this.resultAlias = resultAlias;
+            this.castType = castType;
+            this.nullable = nullable;
+        }
+    }
 }
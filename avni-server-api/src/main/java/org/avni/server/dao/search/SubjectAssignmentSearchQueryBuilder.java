@@ -4,6 +4,7 @@ import org.avni.server.dao.SubjectTypeRepository;
 import org.avni.server.domain.SubjectType;
 import org.avni.server.framework.ApplicationContextProvider;
 import org.avni.server.service.ConceptService;
+import org.avni.server.web.request.webapp.search.CountMode;
 import org.avni.server.web.request.webapp.search.SubjectSearchRequest;
 import org.joda.time.DateTime;
 
@@ -13,7 +14,7 @@ public class SubjectAssignmentSearchQueryBuilder extends BaseSubjectSearchQueryB
 
     public SqlQuery build() {
         String SUBJECT_ASSIGNMENT_SEARCH_BASE_QUERY = "select i.id                                                                   as \"id\",\n" +
-                "       cast(concat_ws(' ', i.first_name, i.middle_name, i.last_name) as text) as \"fullName\",\n" +
+                "       individual_full_name(i.first_name, i.middle_name, i.last_name)         as \"fullName\",\n" +
                 "       i.uuid                                                                 as \"uuid\",\n" +
                 "       i.address_id                                                           as \"addressId\",\n" +
                 "       string_agg(distinct p.name || ':' || p.colour, ', ')                   as \"programs\",\n" +
@@ -114,7 +115,7 @@ public class SubjectAssignmentSearchQueryBuilder extends BaseSubjectSearchQueryB
     }
 
     @Override
-    public SqlQuery getSQLCountQuery(SubjectSearchRequest searchRequest) {
-        return this.withSubjectSearchFilter(searchRequest).forCount().build();
+    public SqlQuery getSQLCountQuery(SubjectSearchRequest searchRequest, CountMode countMode, int countCap) {
+        return this.withSubjectSearchFilter(searchRequest).forCount(countMode, countCap).build();
     }
 }
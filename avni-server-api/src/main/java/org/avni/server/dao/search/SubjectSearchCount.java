@@ -0,0 +1,25 @@
+package org.avni.server.dao.search;
+
+import java.math.BigInteger;
+
+/**
+ * Total number of subjects matching a search. When not exact, the count is either the cap that the matches exceed or
+ * the planner's estimate.
+ */
+public class SubjectSearchCount {
+    private final BigInteger count;
+    private final boolean exact;
+
+    public SubjectSearchCount(BigInteger count, boolean exact) {
+        this.count = count;
+        this.exact = exact;
+    }
+
+    public BigInteger getCount() {
+        return count;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+}
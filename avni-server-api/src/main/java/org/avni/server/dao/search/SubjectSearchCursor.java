@@ -0,0 +1,52 @@
+package org.avni.server.dao.search;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.avni.server.util.BadRequestError;
+import org.avni.server.util.ObjectMapperSingleton;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Position of the last subject of a page, as the value of the sort column and the id of the subject. Handed to clients as
+ * an opaque string.
+ */
+public class SubjectSearchCursor {
+    private final String sortValue;
+    private final long id;
+
+    public SubjectSearchCursor(String sortValue, long id) {
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    public static SubjectSearchCursor decode(String cursor) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            List<Object> values = ObjectMapperSingleton.getObjectMapper().readValue(json, new TypeReference<List<Object>>() {
+            });
+            return new SubjectSearchCursor((String) values.get(0), ((Number) values.get(1)).longValue());
+        } catch (IOException | RuntimeException e) {
+            throw new BadRequestError("Invalid search cursor %s", cursor);
+        }
+    }
+
+    public String encode() {
+        try {
+            byte[] json = ObjectMapperSingleton.getObjectMapper().writeValueAsBytes(Arrays.asList(sortValue, id));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public String getSortValue() {
+        return sortValue;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
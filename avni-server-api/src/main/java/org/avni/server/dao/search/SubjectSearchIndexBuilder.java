@@ -0,0 +1,166 @@
+package org.avni.server.dao.search;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds the indexes used by subject search once the server has started. Migrations run in a transaction, where an
+ * index can only be built while blocking writes to its table, which takes minutes on large tables. Here each index is
+ * built concurrently on a connection of its own, outside the pool, in auto commit mode.
+ * <p>
+ * Only one server instance builds at a time, the others skip building while it holds the advisory lock. A concurrent
+ * build that fails leaves an invalid index behind, which is dropped before building the index again. Indexes already
+ * built are left as they are, so every start after the first only checks them.
+ * <p>
+ * The trigram indexes need the pg_trgm extension. When it is missing and the database user cannot create it, those
+ * indexes are skipped, and search works as before without them, until a database administrator runs
+ * {@code create extension pg_trgm} in the database. They are then built at the next start.
+ */
+@Component
+public class SubjectSearchIndexBuilder {
+    private static final Logger logger = LoggerFactory.getLogger(SubjectSearchIndexBuilder.class);
+    private static final long ADVISORY_LOCK_KEY = 7_347_001L;
+
+    // expressions must be the same as the ones used by BaseSubjectSearchQueryBuilder for the indexes to be used
+    static final List<SearchIndex> INDEXES = Arrays.asList(
+            new SearchIndex("individual_name_trgm_idx", true,
+                    "individual using gin ((coalesce(first_name, '') || ' ' || coalesce(middle_name, '') || ' ' || coalesce(last_name, '')) gin_trgm_ops)"),
+            new SearchIndex("individual_observations_search_document_idx", true,
+                    "individual using gin (observations_search_document(observations) gin_trgm_ops)"),
+            new SearchIndex("program_enrolment_observations_search_document_idx", true,
+                    "program_enrolment using gin (observations_search_document(observations) gin_trgm_ops)"),
+            // in the order of the sort columns, so that a page is read in index order, from the cursor on
+            new SearchIndex("individual_organisation_id_id_idx", false,
+                    "individual (organisation_id, id)"),
+            new SearchIndex("individual_full_name_sort_idx", false,
+                    "individual (organisation_id, individual_full_name(first_name, middle_name, last_name), id)"),
+            new SearchIndex("individual_date_of_birth_sort_idx", false,
+                    "individual (organisation_id, date_of_birth, id)")
+    );
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final boolean enabled;
+
+    @Autowired
+    public SubjectSearchIndexBuilder(@Value("${spring.datasource.url}") String url,
+                                     @Value("${spring.datasource.username}") String username,
+                                     @Value("${spring.datasource.password}") String password,
+                                     @Value("${avni.subjectSearch.indexes.build}") boolean enabled) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexesInBackground() {
+        if (!enabled) return;
+        ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("subject-search-indexes").setDaemon(true).build());
+        executor.execute(this::buildIndexes);
+        executor.shutdown();
+    }
+
+    public void buildIndexes() {
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            connection.setAutoCommit(true);
+            if (!queryForBoolean(connection, "select pg_try_advisory_lock(?)", ADVISORY_LOCK_KEY)) {
+                logger.info("Another server instance is building the subject search indexes");
+                return;
+            }
+            try {
+                boolean trigramsAvailable = createTrigramExtension(connection);
+                for (SearchIndex index : INDEXES) {
+                    if (index.trigram && !trigramsAvailable) continue;
+                    build(connection, index);
+                }
+            } finally {
+                queryForBoolean(connection, "select pg_advisory_unlock(?)", ADVISORY_LOCK_KEY);
+            }
+        } catch (SQLException e) {
+            logger.error("Could not build the subject search indexes. They are built again at the next start.", e);
+        }
+    }
+
+    private boolean createTrigramExtension(Connection connection) throws SQLException {
+        if (queryForBoolean(connection, "select exists(select 1 from pg_extension where extname = 'pg_trgm')")) return true;
+        try {
+            execute(connection, "create extension if not exists pg_trgm");
+            return true;
+        } catch (SQLException e) {
+            logger.warn(String.format("Could not create the pg_trgm extension, so subject search runs without its trigram indexes. " +
+                    "Ask a database administrator to run 'create extension pg_trgm' in this database, the indexes are built at the next start. %s", e.getMessage()));
+            return false;
+        }
+    }
+
+    private void build(Connection connection, SearchIndex index) {
+        try {
+            dropIfInvalid(connection, index);
+            long start = System.currentTimeMillis();
+            execute(connection, String.format("create index concurrently if not exists %s on %s", index.name, index.definition));
+            logger.info(String.format("Subject search index %s is ready, checked or built in %d ms", index.name, System.currentTimeMillis() - start));
+        } catch (SQLException e) {
+            logger.error(String.format("Could not build subject search index %s. It is built again at the next start.", index.name), e);
+            try {
+                dropIfInvalid(connection, index);
+            } catch (SQLException dropFailure) {
+                logger.warn(String.format("Could not drop invalid index %s. %s", index.name, dropFailure.getMessage()));
+            }
+        }
+    }
+
+    private void dropIfInvalid(Connection connection, SearchIndex index) throws SQLException {
+        if (!queryForBoolean(connection, "select exists(select 1 from pg_index i join pg_class c on c.oid = i.indexrelid " +
+                "where c.relname = ? and pg_table_is_visible(c.oid) and not i.indisvalid)", index.name)) return;
+        logger.info(String.format("Dropping invalid subject search index %s left behind by a failed build", index.name));
+        execute(connection, String.format("drop index concurrently if exists %s", index.name));
+    }
+
+    private static boolean queryForBoolean(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    static class SearchIndex {
+        final String name;
+        final boolean trigram;
+        final String definition;
+
+        SearchIndex(String name, boolean trigram, String definition) {
+            this.name = name;
+            this.trigram = trigram;
+            this.definition = definition;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.avni.server.dao.search;
 
+import org.avni.server.web.request.webapp.search.CountMode;
 import org.avni.server.web.request.webapp.search.DateRange;
 import org.avni.server.web.request.webapp.search.SubjectSearchRequest;
 
@@ -10,7 +11,7 @@ public class SubjectSearchQueryBuilder extends BaseSubjectSearchQueryBuilder<Sub
                 "                i.first_name as \"firstName\",\n" +
                 "                i.last_name as \"lastName\",\n" +
                 "                i.profile_picture as \"profilePicture\",\n" +
-                "                cast(concat_ws(' ',i.first_name,i.middle_name,i.last_name)as text) as \"fullName\",\n" +
+                "                individual_full_name(i.first_name, i.middle_name, i.last_name) as \"fullName\",\n" +
                 "                i.uuid as \"uuid\",\n" +
                 "                i.address_id as \"addressId\",\n" +
                 "                st.name as \"subjectTypeName\",\n" +
@@ -74,7 +75,7 @@ public class SubjectSearchQueryBuilder extends BaseSubjectSearchQueryBuilder<Sub
     }
 
     @Override
-    public SqlQuery getSQLCountQuery(SubjectSearchRequest searchRequest) {
-        return this.withSubjectSearchFilter(searchRequest).forCount().build();
+    public SqlQuery getSQLCountQuery(SubjectSearchRequest searchRequest, CountMode countMode, int countCap) {
+        return this.withSubjectSearchFilter(searchRequest).forCount(countMode, countCap).build();
     }
 }
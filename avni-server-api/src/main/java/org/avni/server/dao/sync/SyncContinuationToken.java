@@ -0,0 +1,54 @@
+package org.avni.server.dao.sync;
+
+import org.avni.server.domain.CHSEntity;
+import org.avni.server.util.BadRequestError;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position of the last entity of a sync slice in the (last_modified_date_time, id) order, so that the next slice can be
+ * fetched by seeking to it instead of skipping all previous rows with an offset.
+ */
+public class SyncContinuationToken {
+    private final Timestamp lastModifiedDateTime;
+    private final long id;
+
+    public SyncContinuationToken(Timestamp lastModifiedDateTime, long id) {
+        this.lastModifiedDateTime = lastModifiedDateTime;
+        this.id = id;
+    }
+
+    public static SyncContinuationToken after(CHSEntity entity) {
+        Date lastModifiedDateTime = entity.getStoredLastModifiedDateTime();
+        Timestamp timestamp = lastModifiedDateTime instanceof Timestamp ? (Timestamp) lastModifiedDateTime : new Timestamp(lastModifiedDateTime.getTime());
+        return new SyncContinuationToken(timestamp, entity.getId());
+    }
+
+    public static SyncContinuationToken decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            Timestamp timestamp = new Timestamp(Long.parseLong(parts[0]) * 1000);
+            timestamp.setNanos(Integer.parseInt(parts[1]));
+            return new SyncContinuationToken(timestamp, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestError("Invalid continuationToken %s", token);
+        }
+    }
+
+    public String encode() {
+        long seconds = Math.floorDiv(lastModifiedDateTime.getTime(), 1000);
+        String token = String.format("%d:%d:%d", seconds, lastModifiedDateTime.getNanos(), id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Timestamp getLastModifiedDateTime() {
+        return lastModifiedDateTime;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
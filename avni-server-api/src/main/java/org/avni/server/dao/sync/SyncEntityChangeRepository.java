@@ -0,0 +1,96 @@
+package org.avni.server.dao.sync;
+
+import org.joda.time.DateTime;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.avni.server.dao.sync.SyncEntityName.*;
+
+/**
+ * Finds the latest last_modified_date_time of many sync entities in one round trip. Only entities whose change check is
+ * "any row in this table modified after loadedSince" are mapped here; others have to be checked by their own service.
+ */
+@Repository
+public class SyncEntityChangeRepository {
+    private static final Map<SyncEntityName, String> tables = new EnumMap<>(SyncEntityName.class);
+
+    static {
+        tables.put(ChecklistDetail, "checklist_detail");
+        tables.put(Rule, "rule");
+        tables.put(RuleDependency, "rule_dependency");
+        tables.put(Form, "form");
+        tables.put(FormMapping, "form_mapping");
+        tables.put(EncounterType, "encounter_type");
+        tables.put(Program, "program");
+        tables.put(Gender, "gender");
+        tables.put(IndividualRelation, "individual_relation");
+        tables.put(IndividualRelationGenderMapping, "individual_relation_gender_mapping");
+        tables.put(IndividualRelationshipType, "individual_relationship_type");
+        tables.put(Concept, "concept");
+        tables.put(Video, "video");
+        tables.put(SubjectType, "subject_type");
+        tables.put(ChecklistItemDetail, "checklist_item_detail");
+        tables.put(FormElementGroup, "form_element_group");
+        tables.put(FormElement, "form_element");
+        tables.put(ConceptAnswer, "concept_answer");
+        tables.put(IdentifierSource, "identifier_source");
+        tables.put(OrganisationConfig, "organisation_config");
+        tables.put(Translation, "translation");
+        tables.put(Groups, "groups");
+        tables.put(GroupPrivileges, "group_privilege");
+        tables.put(GroupRole, "group_role");
+        tables.put(ReportCard, "report_card");
+        tables.put(Dashboard, "dashboard");
+        tables.put(DashboardSection, "dashboard_section");
+        tables.put(DashboardFilter, "dashboard_filter");
+        tables.put(DashboardSectionCardMapping, "dashboard_section_card_mapping");
+        tables.put(ApprovalStatus, "approval_status");
+        tables.put(GroupDashboard, "group_dashboard");
+        tables.put(EntityApprovalStatus, "entity_approval_status");
+        tables.put(Documentation, "documentation");
+        tables.put(DocumentationItem, "documentation_item");
+        tables.put(UserInfo, "users");
+        tables.put(Privilege, "privilege");
+        tables.put(StandardReportCardType, "standard_report_card_type");
+        tables.put(TaskType, "task_type");
+        tables.put(TaskStatus, "task_status");
+        tables.put(MenuItem, "menu_item");
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SyncEntityChangeRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static boolean isTableBacked(SyncEntityName syncEntityName) {
+        return tables.containsKey(syncEntityName);
+    }
+
+    public static String getTableName(SyncEntityName syncEntityName) {
+        return tables.get(syncEntityName);
+    }
+
+    /**
+     * @return latest last_modified_date_time per entity (visible to the current organisation's db role), null for
+     * entities without any rows. Entities that are not table backed are ignored.
+     */
+    public Map<SyncEntityName, DateTime> getLastModifiedDateTimes(Collection<SyncEntityName> syncEntityNames) {
+        List<SyncEntityName> tableBackedEntities = syncEntityNames.stream().filter(SyncEntityChangeRepository::isTableBacked).distinct().collect(Collectors.toList());
+        Map<SyncEntityName, DateTime> lastModifiedDateTimes = new EnumMap<>(SyncEntityName.class);
+        if (tableBackedEntities.isEmpty()) return lastModifiedDateTimes;
+
+        String query = tableBackedEntities.stream()
+                .map(syncEntityName -> String.format("select '%s' as entity_name, max(last_modified_date_time) as last_modified_date_time from %s", syncEntityName.name(), tables.get(syncEntityName)))
+                .collect(Collectors.joining("\nunion all\n"));
+        jdbcTemplate.query(query, Collections.emptyMap(), rs -> {
+            Timestamp lastModifiedDateTime = rs.getTimestamp("last_modified_date_time");
+            lastModifiedDateTimes.put(SyncEntityName.valueOf(rs.getString("entity_name")), lastModifiedDateTime == null ? null : new DateTime(lastModifiedDateTime));
+        });
+        return lastModifiedDateTimes;
+    }
+}
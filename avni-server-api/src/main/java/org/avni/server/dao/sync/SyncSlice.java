@@ -0,0 +1,22 @@
+package org.avni.server.dao.sync;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * Slice of sync results that also carries the token to seek to its next slice, when there is one.
+ */
+public class SyncSlice<T> extends SliceImpl<T> {
+    private final SyncContinuationToken continuationToken;
+
+    public SyncSlice(List<T> content, Pageable pageable, boolean hasNext, SyncContinuationToken continuationToken) {
+        super(content, pageable, hasNext);
+        this.continuationToken = continuationToken;
+    }
+
+    public SyncContinuationToken getContinuationToken() {
+        return continuationToken;
+    }
+}
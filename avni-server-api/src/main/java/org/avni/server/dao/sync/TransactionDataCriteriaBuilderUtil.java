@@ -1,11 +1,20 @@
 package org.avni.server.dao.sync;
 
 import org.avni.server.dao.SyncParameters;
+import org.avni.server.domain.CatchmentAddressIndex;
+import org.avni.server.framework.postgres.CHSPostgreSQL94Dialect;
 
-import javax.persistence.criteria.From;
-import javax.persistence.criteria.Join;
+import javax.persistence.criteria.*;
 
 public class TransactionDataCriteriaBuilderUtil {
+    /**
+     * Same as an in clause of the address ids, but with one bind parameter however large the catchment is, so that
+     * neither the statement nor its planning grows with the catchment.
+     */
+    public static Predicate addressIn(CriteriaBuilder cb, Expression<Long> addressId, CatchmentAddressIndex addressLevels) {
+        return cb.isTrue(cb.function(CHSPostgreSQL94Dialect.IN_BIGINT_ARRAY, Boolean.class, addressId, cb.literal(addressLevels.toSqlArray())));
+    }
+
     public static Join<Object, Object> joinUserSubjectAssignment(From fromSubject) {
         return fromSubject.join("userSubjectAssignments");
     }
@@ -70,6 +70,14 @@ public class CHSEntity extends CHSBaseEntity implements Auditable {
         return toJodaDateTime();
     }
 
+    /**
+     * As loaded from the database, keeping its sub millisecond precision, unlike {@link #getLastModifiedDateTime()}.
+     */
+    @JsonIgnore
+    public Date getStoredLastModifiedDateTime() {
+        return lastModifiedDateTime;
+    }
+
     private DateTime toJodaDateTime() {
         return new DateTime(lastModifiedDateTime);
     }
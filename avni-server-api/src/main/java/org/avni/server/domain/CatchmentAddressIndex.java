@@ -0,0 +1,60 @@
+package org.avni.server.domain;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Ids of the address levels of a catchment, sorted and without duplicates, in a primitive array. It is built once per
+ * catchment (and registration location types) and cached, so that sync requests don't allocate per address, and it is
+ * passed to the database as a single array parameter instead of one parameter per address.
+ */
+public final class CatchmentAddressIndex {
+    public static final CatchmentAddressIndex EMPTY = new CatchmentAddressIndex(new long[0]);
+
+    private final long[] ids;
+    private volatile String sqlArray;
+
+    private CatchmentAddressIndex(long[] ids) {
+        this.ids = ids;
+    }
+
+    public static CatchmentAddressIndex of(LongStream ids) {
+        return new CatchmentAddressIndex(ids.sorted().distinct().toArray());
+    }
+
+    public static CatchmentAddressIndex of(Collection<Long> ids) {
+        return of(ids.stream().filter(Objects::nonNull).mapToLong(Long::longValue));
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public boolean contains(long id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    public List<Long> toList() {
+        return Arrays.stream(ids).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * @return the ids as a postgres array literal, like {1,2,3}
+     */
+    public String toSqlArray() {
+        String array = sqlArray;
+        if (array == null) {
+            array = Arrays.stream(ids).mapToObj(Long::toString).collect(Collectors.joining(",", "{", "}"));
+            sqlArray = array;
+        }
+        return array;
+    }
+}
@@ -3,13 +3,12 @@ package org.avni.server.domain.accessControl;
 import org.avni.server.domain.*;
 import org.avni.server.domain.accessControl.GroupPrivilege;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 
 public class GroupPrivileges {
     private final boolean hasAllPrivileges;
     private final List<GroupPrivilege> privileges;
+    private Set<PrivilegeKey> privilegeKeys;
 
     public GroupPrivileges(boolean hasAllPrivileges, List<GroupPrivilege> privileges) {
         this.hasAllPrivileges = hasAllPrivileges;
@@ -26,8 +25,32 @@ public class GroupPrivileges {
         this.privileges = new ArrayList<>();
     }
 
+    /**
+     * Same as checking {@link GroupPrivilege#matches} against every privilege, but looked up from an index built on
+     * first use, as callers like sync details check hundreds of items.
+     */
     public boolean hasPrivilege(PrivilegeType privilegeType, SubjectType subjectType, Program program, EncounterType encounterType, ChecklistDetail checklistDetail) {
-        return this.hasAllPrivileges || privileges.stream().anyMatch(groupPrivilege -> groupPrivilege.matches(privilegeType, subjectType, program, encounterType, checklistDetail));
+        return this.hasAllPrivileges || getPrivilegeKeys().contains(new PrivilegeKey(privilegeType, getId(subjectType), getId(program), getId(encounterType), getId(checklistDetail)));
+    }
+
+    private Set<PrivilegeKey> getPrivilegeKeys() {
+        if (privilegeKeys == null) {
+            Set<PrivilegeKey> keys = new HashSet<>();
+            privileges.forEach(groupPrivilege -> {
+                PrivilegeType privilegeType = groupPrivilege.getPrivilege().getType();
+                Long subjectTypeId = getId(groupPrivilege.getSubjectType());
+                Long programId = getId(groupPrivilege.getProgram());
+                Long checklistDetailId = getId(groupPrivilege.getChecklistDetail());
+                keys.add(new PrivilegeKey(privilegeType, subjectTypeId, programId, getId(groupPrivilege.getEncounterType()), checklistDetailId));
+                keys.add(new PrivilegeKey(privilegeType, subjectTypeId, programId, getId(groupPrivilege.getProgramEncounterType()), checklistDetailId));
+            });
+            privilegeKeys = keys;
+        }
+        return privilegeKeys;
+    }
+
+    private static Long getId(CHSBaseEntity entity) {
+        return entity == null ? null : entity.getId();
     }
 
     public boolean hasViewPrivilege(ChecklistItem checklistItem) {
@@ -72,4 +95,34 @@ public class GroupPrivileges {
     public List<GroupPrivilege> getPrivileges() {
         return privileges;
     }
+
+    private static class PrivilegeKey {
+        private final PrivilegeType privilegeType;
+        private final Long subjectTypeId;
+        private final Long programId;
+        private final Long encounterTypeId;
+        private final Long checklistDetailId;
+
+        PrivilegeKey(PrivilegeType privilegeType, Long subjectTypeId, Long programId, Long encounterTypeId, Long checklistDetailId) {
+            this.privilegeType = privilegeType;
+            this.subjectTypeId = subjectTypeId;
+            this.programId = programId;
+            this.encounterTypeId = encounterTypeId;
+            this.checklistDetailId = checklistDetailId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PrivilegeKey that = (PrivilegeKey) o;
+            return privilegeType == that.privilegeType && Objects.equals(subjectTypeId, that.subjectTypeId) && Objects.equals(programId, that.programId)
+                    && Objects.equals(encounterTypeId, that.encounterTypeId) && Objects.equals(checklistDetailId, that.checklistDetailId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(privilegeType, subjectTypeId, programId, encounterTypeId, checklistDetailId);
+        }
+    }
 }
@@ -4,6 +4,7 @@ import org.avni.server.dao.*;
 import org.avni.server.domain.*;
 import org.avni.server.exporter.v2.ExportV2CSVFieldExtractor;
 import org.avni.server.exporter.v2.ExportV2Processor;
+import org.avni.server.exporter.v2.ExportV2SubjectLoader;
 import org.avni.server.exporter.v2.LongitudinalExportV2TaskletImpl;
 import org.avni.server.framework.security.AuthService;
 import org.avni.server.service.ExportS3Service;
@@ -13,6 +14,7 @@ import org.avni.server.web.external.request.export.ReportType;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDate;
+import org.springframework.aop.scope.ScopedObject;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
@@ -25,7 +27,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.persistence.EntityManager;
 import java.util.*;
@@ -51,6 +56,8 @@ public class ExportBatchConfiguration {
     private final EncounterTypeRepository encounterTypeRepository;
     private final ProgramRepository programRepository;
     private final int longitudinalExportV2Limit;
+    private final int longitudinalExportV2Threads;
+    private final TransactionTemplate readOnlyTransactionTemplate;
     private final int legacyLongitudinalExportLimit;
 
     @Autowired
@@ -66,7 +73,9 @@ public class ExportBatchConfiguration {
                                     EncounterTypeRepository encounterTypeRepository,
                                     ProgramRepository programRepository,
                                     EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager,
                                     @Value("${avni.longitudinal.export.v2.limit}") int longitudinalExportV2Limit,
+                                    @Value("${avni.longitudinal.export.v2.threads}") int longitudinalExportV2Threads,
                                     @Value("${avni.legacy.longitudinal.export.limit}") int legacyLongitudinalExportLimit
     ) {
         this.jobBuilderFactory = jobBuilderFactory;
@@ -82,6 +91,9 @@ public class ExportBatchConfiguration {
         this.programRepository = programRepository;
         this.entityManager = entityManager;
         this.longitudinalExportV2Limit = longitudinalExportV2Limit;
+        this.longitudinalExportV2Threads = longitudinalExportV2Threads;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
         this.legacyLongitudinalExportLimit = legacyLongitudinalExportLimit;
     }
 
@@ -122,22 +134,34 @@ public class ExportBatchConfiguration {
                                    @Value("#{jobParameters['exportJobParamsUUID']}") String exportJobParamsUUID,
                                    LongitudinalExportJobStepListener listener,
                                    ExportV2CSVFieldExtractor exportV2CSVFieldExtractor,
-                                   ExportV2Processor exportV2Processor) {
+                                   ExportV2Processor exportV2Processor,
+                                   ExportV2SubjectLoader exportV2SubjectLoader) {
         authService.authenticateByUserId(userId, organisationUUID);
         ExportOutput exportOutput = exportV2CSVFieldExtractor.getExportOutput();
         ExportFilters subjectFilters = exportOutput.getFilters();
         List<Long> addressLevelIds = subjectFilters.getAddressLevelIds();
         List<Long> selectedAddressIds = getLocations(addressLevelIds);
         List<Long> addressParam = selectedAddressIds.isEmpty() ? null : selectedAddressIds;
-        Stream stream = getRegistrationStream(exportOutput.getUuid(), addressParam, subjectFilters.getDate().getFrom().toLocalDate(), subjectFilters.getDate().getTo().toLocalDate(), subjectFilters.includeVoided());
-        Stream alteredStream = truncateStream(stream);
-        LongitudinalExportTasklet encounterTasklet = new LongitudinalExportV2TaskletImpl(CHUNK_SIZE, entityManager, exportV2CSVFieldExtractor, exportV2Processor, exportS3Service, uuid, alteredStream);
+        List<Long> individualIds = getRegistrationIds(exportOutput.getUuid(), addressParam, subjectFilters.getDate().getFrom().toLocalDate(), subjectFilters.getDate().getTo().toLocalDate(), subjectFilters.includeVoided());
+        LongitudinalExportTasklet encounterTasklet = new LongitudinalExportV2TaskletImpl(CHUNK_SIZE, longitudinalExportV2Threads, stepScopedTarget(exportV2CSVFieldExtractor),
+                stepScopedTarget(exportV2Processor), exportV2SubjectLoader, exportS3Service, authService, readOnlyTransactionTemplate, uuid, userId, organisationUUID, individualIds);
         listener.setItemReaderCleaner(encounterTasklet);
         return encounterTasklet;
     }
 
-    private Stream truncateStream(Stream stream) {
-        return stream.limit(longitudinalExportV2Limit); //Truncate stream
+    /**
+     * @return the object behind a step scoped proxy, for use on threads the step isn't registered on
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stepScopedTarget(T bean) {
+        return bean instanceof ScopedObject ? (T) ((ScopedObject) bean).getTargetObject() : bean;
+    }
+
+    private List<Long> getRegistrationIds(String subjectTypeUUID, List<Long> addressParam, LocalDate startDateTime, LocalDate endDateTime, boolean includeVoided) {
+        SubjectType subjectType = subjectTypeRepository.findByUuid(subjectTypeUUID);
+        PageRequest truncatedTo = PageRequest.of(0, longitudinalExportV2Limit);
+        return includeVoided ? individualRepository.findAllIndividualIds(subjectType.getId(), addressParam, startDateTime, endDateTime, truncatedTo) :
+                individualRepository.findNonVoidedIndividualIds(subjectType.getId(), addressParam, startDateTime, endDateTime, truncatedTo);
     }
 
     @Bean
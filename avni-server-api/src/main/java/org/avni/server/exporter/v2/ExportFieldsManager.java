@@ -6,6 +6,7 @@ import org.avni.server.application.FormMapping;
 import org.avni.server.application.FormType;
 import org.avni.server.dao.EncounterRepository;
 import org.avni.server.dao.ProgramEncounterRepository;
+import org.avni.server.domain.Concept;
 import org.avni.server.service.FormMappingService;
 import org.avni.server.util.DateTimeUtil;
 import org.avni.server.web.external.request.export.ExportEntityType;
@@ -14,6 +15,7 @@ import org.avni.server.web.external.request.export.ExportFilters;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class ExportFieldsManager implements ExportEntityTypeVisitor {
     private final Map<String, Map<String, FormElement>> mainFormMap = new LinkedHashMap<>();
@@ -197,6 +199,26 @@ public class ExportFieldsManager implements ExportEntityTypeVisitor {
         return forms;
     }
 
+    /**
+     * Initialises what rows are built from in the form elements, so that rows can be built outside the session they were
+     * loaded in.
+     */
+    public void initialiseFormElements() {
+        Stream.concat(mainFormMap.values().stream(), secondaryFormMap.values().stream())
+                .flatMap(formElements -> formElements.values().stream())
+                .forEach(formElement -> {
+                    initialiseConcept(formElement.getConcept());
+                    if (formElement.getGroup() != null) {
+                        formElement.getGroup().isRepeatable();
+                        initialiseConcept(formElement.getGroup().getConcept());
+                    }
+                });
+    }
+
+    private static void initialiseConcept(Concept concept) {
+        concept.getSortedAnswers().forEach(conceptAnswer -> conceptAnswer.getAnswerConcept().getName());
+    }
+
     public static Map<FormElement, List<FormElement>> groupByQuestionGroup(Collection<FormElement> formElements) {
         Map<FormElement, List<FormElement>> groupedFormElements = new HashMap<>();
         formElements.forEach(formElement -> {
@@ -102,6 +102,10 @@ public class ExportV2CSVFieldExtractor implements FieldExtractor<LongitudinalExp
         return exportOutput;
     }
 
+    public void initialiseFormElements() {
+        exportFieldsManager.initialiseFormElements();
+    }
+
     @Override
     public Object[] extract(LongitudinalExportItemRow individual) {
         return createRow(individual);
@@ -10,6 +10,7 @@ import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
 
 import javax.annotation.PostConstruct;
 import java.util.*;
@@ -21,7 +22,7 @@ import java.util.stream.Collectors;
 public class ExportV2Processor implements ItemProcessor<Object, LongitudinalExportItemRow> {
     private final ExportJobParametersRepository exportJobParametersRepository;
     private final String exportJobParamsUUID;
-    private ExportJobParameters exportJobParameters;
+    private String timezone;
     private ExportOutput exportOutput;
 
     public ExportV2Processor(ExportJobParametersRepository exportJobParametersRepository,
@@ -32,7 +33,17 @@ public class ExportV2Processor implements ItemProcessor<Object, LongitudinalExpo
 
     @PostConstruct
     public void init() {
-        exportJobParameters = exportJobParametersRepository.findByUuid(exportJobParamsUUID);
+        timezone = exportJobParametersRepository.findByUuid(exportJobParamsUUID).getTimezone();
+    }
+
+    /**
+     * @return a processor of its own, not step scoped, for a partition exported on another thread
+     */
+    public ExportV2Processor copy() {
+        ExportV2Processor processor = new ExportV2Processor(exportJobParametersRepository, exportJobParamsUUID);
+        processor.timezone = timezone;
+        processor.exportOutput = exportOutput;
+        return processor;
     }
 
     @Override
@@ -53,6 +64,10 @@ public class ExportV2Processor implements ItemProcessor<Object, LongitudinalExpo
     }
 
     private void initGroupSubjectsAndTheirEncounters(LongitudinalExportItemRow exportItemRow, Individual individual) {
+        if (CollectionUtils.isEmpty(exportOutput.getGroups())) {
+            exportItemRow.setGroupSubjectToEncountersMap(new LinkedHashMap<>());
+            return;
+        }
         // filter GroupSubject by exportOutput
         Map<String, ExportEntityType> groupsToFiltersMap = Optional.ofNullable(exportOutput.getGroups()).orElse(new ArrayList<>())
                 .stream().collect(Collectors.toMap(ExportEntityType::getUuid, Function.identity()));
@@ -63,7 +78,7 @@ public class ExportV2Processor implements ItemProcessor<Object, LongitudinalExpo
         Map<Individual, Map<String, List<Encounter>>> individualToEncountersMap = Optional.ofNullable(individual.getMemberGroupSubjects())
                 .orElse(new HashSet<>()).stream()
                 .filter(gr -> applyFilters(groupsToFiltersMap, gr.getGroupSubject().getSubjectType().getUuid(), gr.getGroupSubject().getRegistrationDate()
-                        .toDateTimeAtStartOfDay(DateTimeZone.forID(exportJobParameters.getTimezone())), gr.isVoided()))
+                        .toDateTimeAtStartOfDay(DateTimeZone.forID(timezone)), gr.isVoided()))
                 .flatMap(gs -> gs.getGroupSubject().getEncounters(false))
                 .filter(e -> e.getEncounterDateTime() != null || e.getCancelDateTime() != null)
                 .filter(e -> applyFilters(groupsEncountersToFiltersMap, e.getEncounterType().getUuid(), Optional.ofNullable(e.getEncounterDateTime()).orElse(e.getCancelDateTime()), e.isVoided()))
@@ -74,6 +89,10 @@ public class ExportV2Processor implements ItemProcessor<Object, LongitudinalExpo
     }
 
     private void initProgramsAndTheirEncounters(LongitudinalExportItemRow exportItemRow, Individual individual) {
+        if (CollectionUtils.isEmpty(exportOutput.getPrograms())) {
+            exportItemRow.setProgramEnrolmentToEncountersMap(new LinkedHashMap<>());
+            return;
+        }
         // filter ProgramEnrolment by exportOutput
         Map<String, ExportEntityType> programsToFiltersMap = Optional.ofNullable(exportOutput.getPrograms()).orElse(new ArrayList<>())
                 .stream().collect(Collectors.toMap(ExportEntityType::getUuid, Function.identity()));
@@ -0,0 +1,44 @@
+package org.avni.server.exporter.v2;
+
+import org.avni.server.dao.IndividualRepository;
+import org.avni.server.dao.ProgramEnrolmentRepository;
+import org.avni.server.domain.Individual;
+import org.avni.server.web.external.request.export.ExportOutput;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+import java.util.List;
+
+/**
+ * Loads a partition of subjects for the longitudinal export along with the collections {@link ExportV2Processor} walks.
+ * Each collection is fetched for the whole partition in one query, instead of one query per subject (or per
+ * hundred with batch fetching). Collections of entity types not in the export are not fetched.
+ */
+@Component
+public class ExportV2SubjectLoader {
+    private final IndividualRepository individualRepository;
+    private final ProgramEnrolmentRepository programEnrolmentRepository;
+
+    @Autowired
+    public ExportV2SubjectLoader(IndividualRepository individualRepository, ProgramEnrolmentRepository programEnrolmentRepository) {
+        this.individualRepository = individualRepository;
+        this.programEnrolmentRepository = programEnrolmentRepository;
+    }
+
+    /**
+     * @return subjects ordered by id, to be used within the transaction they are loaded in
+     */
+    public List<Individual> load(List<Long> individualIds, ExportOutput exportOutput) {
+        List<Individual> individuals = individualRepository.findAllByIdInWithEncounters(individualIds);
+        if (!CollectionUtils.isEmpty(exportOutput.getPrograms())) {
+            individualRepository.findAllByIdInWithProgramEnrolments(individualIds);
+            programEnrolmentRepository.findAllByIndividualIdInWithProgramEncounters(individualIds);
+        }
+        if (!CollectionUtils.isEmpty(exportOutput.getGroups())) {
+            individualRepository.findAllByIdInWithMemberGroupSubjects(individualIds);
+            individualRepository.findAllGroupSubjectsOfMembersWithEncounters(individualIds);
+        }
+        return individuals;
+    }
+}
@@ -1,6 +1,10 @@
 package org.avni.server.exporter.v2;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.avni.server.exporter.LongitudinalExportTasklet;
+import org.avni.server.framework.security.AuthService;
+import org.avni.server.framework.security.UserContextHolder;
 import org.avni.server.service.ExportS3Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,105 +13,142 @@ import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.file.FlatFileItemWriter;
 import org.springframework.batch.item.file.transform.DelimitedLineAggregator;
+import org.springframework.batch.item.file.transform.PassThroughLineAggregator;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.persistence.EntityManager;
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
+/**
+ * Exports subjects in partitions of consecutive ids. Partitions are loaded and turned into lines in parallel, each in
+ * its own read only transaction, and written to the file in order. Only a few partitions are in flight at a time so that
+ * memory stays bounded however far the first one lags behind.
+ * <p>
+ * The processor and field extractor must not be step scoped proxies, as the step isn't registered on the worker threads.
+ * Every partition gets a copy of the processor and loads its subjects by id in a session of its own. The field extractor
+ * is shared: once its form elements are initialised it only reads them.
+ */
 public class LongitudinalExportV2TaskletImpl implements LongitudinalExportTasklet {
 
     private static final Logger logger = LoggerFactory.getLogger(LongitudinalExportV2TaskletImpl.class);
-    private final int cacheClearSize;
-    private final EntityManager entityManager;
+    private final int partitionSize;
+    private final int threads;
     private final ExportV2CSVFieldExtractor exportV2CSVFieldExtractor;
     private final ExportV2Processor exportV2Processor;
+    private final ExportV2SubjectLoader exportV2SubjectLoader;
     private final ExportS3Service exportS3Service;
+    private final AuthService authService;
+    private final TransactionTemplate transactionTemplate;
     private final String jobUuid;
-    private final Iterator iterator;
-    private final Stream stream;
+    private final Long userId;
+    private final String organisationUUID;
+    private final List<Long> individualIds;
+    private final DelimitedLineAggregator<LongitudinalExportItemRow> lineAggregator;
 
-    private int read;
-    private FlatFileItemWriter<LongitudinalExportItemRow> writer;
+    private FlatFileItemWriter<String> writer;
 
-
-    public LongitudinalExportV2TaskletImpl(int cacheClearSize, EntityManager entityManager, ExportV2CSVFieldExtractor exportV2CSVFieldExtractor,
-                                           ExportV2Processor exportV2Processor, ExportS3Service exportS3Service, String jobUuid, Stream stream) {
-        this.cacheClearSize = cacheClearSize;
-        this.entityManager = entityManager;
+    public LongitudinalExportV2TaskletImpl(int partitionSize, int threads, ExportV2CSVFieldExtractor exportV2CSVFieldExtractor,
+                                           ExportV2Processor exportV2Processor, ExportV2SubjectLoader exportV2SubjectLoader,
+                                           ExportS3Service exportS3Service, AuthService authService, TransactionTemplate transactionTemplate,
+                                           String jobUuid, Long userId, String organisationUUID, List<Long> individualIds) {
+        this.partitionSize = partitionSize;
+        this.threads = threads;
         this.exportV2CSVFieldExtractor = exportV2CSVFieldExtractor;
         this.exportV2Processor = exportV2Processor;
+        this.exportV2SubjectLoader = exportV2SubjectLoader;
         this.exportS3Service = exportS3Service;
+        this.authService = authService;
+        this.transactionTemplate = transactionTemplate;
         this.jobUuid = jobUuid;
-        this.stream = stream;
+        this.userId = userId;
+        this.organisationUUID = organisationUUID;
+        this.individualIds = individualIds;
         this.exportV2Processor.setExportOutput(exportV2CSVFieldExtractor.getExportOutput());
-        iterator = stream.iterator();
+        this.lineAggregator = new DelimitedLineAggregator<>();
+        this.lineAggregator.setDelimiter(",");
+        this.lineAggregator.setFieldExtractor(exportV2CSVFieldExtractor);
     }
 
     @Override
     public RepeatStatus execute(StepContribution stepContribution, ChunkContext chunkContext) throws Exception {
         createFileWriter(jobUuid, chunkContext.getStepContext().getStepExecution().getExecutionContext());
-        List<LongitudinalExportItemRow> itemRows = new ArrayList<>();
-        while (true) {
-            if (!iterator.hasNext()) {
-                logger.info("All records processed, writing last set to file");
-                writeToFile(itemRows);
-                break;
-            }
-            read++;
-            Object individual = iterator.next();
-            LongitudinalExportItemRow itemRow = exportV2Processor.process(individual);
-            itemRows.add(itemRow);
+        exportV2CSVFieldExtractor.initialiseFormElements();
 
-            if (cacheClearSize == read) {
-                logger.info(String.format("Read %d records which is equal to cache clear size of %d. Clearing entity manager", read, cacheClearSize));
-                writeToFile(itemRows);
-                itemRows.clear();
-                entityManager.flush();
-                entityManager.clear();
-                read = 0;
+        List<List<Long>> partitions = Lists.partition(individualIds, partitionSize);
+        logger.info(String.format("Exporting %d records in %d partitions using %d threads", individualIds.size(), partitions.size(), threads));
+        ExecutorService executorService = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("export-" + jobUuid + "-%d").build());
+        try {
+            Deque<Future<List<String>>> inFlight = new ArrayDeque<>();
+            for (List<Long> partition : partitions) {
+                ExportV2Processor processor = exportV2Processor.copy();
+                inFlight.add(executorService.submit(() -> exportPartition(partition, processor)));
+                if (inFlight.size() >= threads * 2) {
+                    writeToFile(inFlight.poll());
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                writeToFile(inFlight.poll());
             }
+        } finally {
+            executorService.shutdownNow();
         }
 
         logger.info("Completed reading all records");
         return RepeatStatus.FINISHED;
     }
 
+    private List<String> exportPartition(List<Long> partition, ExportV2Processor processor) {
+        try {
+            authService.authenticateByUserId(userId, organisationUUID);
+            return transactionTemplate.execute(status -> exportV2SubjectLoader.load(partition, exportV2CSVFieldExtractor.getExportOutput())
+                    .stream()
+                    .map(processor::process)
+                    .map(lineAggregator::aggregate)
+                    .collect(Collectors.toList()));
+        } finally {
+            UserContextHolder.clear();
+            SecurityContextHolder.clearContext();
+        }
+    }
+
     private void createFileWriter(String uuid, ExecutionContext executionContext) {
         writer = new FlatFileItemWriter<>();
         File outputFile = exportS3Service.getLocalExportFile(uuid);
         writer.setResource(new FileSystemResource(outputFile));
-        DelimitedLineAggregator<LongitudinalExportItemRow> delimitedLineAggregator = new DelimitedLineAggregator<>();
-        delimitedLineAggregator.setDelimiter(",");
-        delimitedLineAggregator.setFieldExtractor(exportV2CSVFieldExtractor);
-        writer.setLineAggregator(delimitedLineAggregator);
+        writer.setLineAggregator(new PassThroughLineAggregator<>());
         writer.setHeaderCallback(exportV2CSVFieldExtractor);
         writer.open(executionContext);
         logger.info(String.format("Writing to file:%s", outputFile.getAbsolutePath()));
     }
 
-    private void writeToFile(List<LongitudinalExportItemRow> rows) throws Exception {
-        if (rows.isEmpty()) return;
-        writer.write(rows);
+    private void writeToFile(Future<List<String>> partition) throws Exception {
+        List<String> lines;
+        try {
+            lines = partition.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+        if (lines.isEmpty()) return;
+        writer.write(lines);
     }
 
     @Override
     public void clean() {
-        logger.info("Closing the result set stream");
+        logger.info("Closing the writer");
         try {
             writer.close();
         } catch (Exception e) {
             logger.error("Error closing writer", e);
         }
-
-        try {
-            stream.close();
-        } catch (Exception e) {
-            logger.error("Error closing data stream", e);
-        }
     }
 }
@@ -0,0 +1,182 @@
+package org.avni.server.framework.cache;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clears Spring caches on every server instance. A cache is cleared locally and the names are sent to the other
+ * instances with a Postgres notification on the channel {@value #CHANNEL}, which every instance listens to on a
+ * connection of its own, outside the pool.
+ * <p>
+ * Notifications sent while an instance was not listening are lost, so an instance clears every cache it was asked to
+ * clear so far whenever it starts listening again.
+ * <p>
+ * Notifications are sent from the thread that listens, so that the thread asking for a cache to be cleared doesn't
+ * wait for the database.
+ * <p>
+ * Caches that are not managed by Spring can take part by registering how they are cleared under a name of their own.
+ */
+@Component
+public class ClusterCacheInvalidation {
+    static final String CHANNEL = "avni_cache_invalidation";
+    private static final String SEPARATOR = ",";
+    private static final Logger logger = LoggerFactory.getLogger(ClusterCacheInvalidation.class);
+
+    private final CacheManager cacheManager;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final boolean enabled;
+    private final long pollMillis;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Set<String> invalidatedCacheNames = ConcurrentHashMap.newKeySet();
+    private final Map<String, Runnable> localCaches = new ConcurrentHashMap<>();
+    private ScheduledExecutorService executor;
+    private Connection connection;
+
+    @Autowired
+    public ClusterCacheInvalidation(CacheManager cacheManager,
+                                    @Value("${spring.datasource.url}") String url,
+                                    @Value("${spring.datasource.username}") String username,
+                                    @Value("${spring.datasource.password}") String password,
+                                    @Value("${avni.cache.invalidation.enabled}") boolean enabled,
+                                    @Value("${avni.cache.invalidation.poll.millis}") long pollMillis) {
+        this.cacheManager = cacheManager;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.enabled = enabled;
+        this.pollMillis = pollMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("cache-invalidation").setDaemon(true).build());
+        executor.scheduleWithFixedDelay(this::poll, 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) executor.shutdownNow();
+        closeConnection();
+    }
+
+    public void registerLocalCache(String cacheName, Runnable clear) {
+        localCaches.put(cacheName, clear);
+    }
+
+    public void invalidate(String... cacheNames) {
+        invalidatedCacheNames.addAll(Arrays.asList(cacheNames));
+        clear(cacheNames);
+        if (executor == null) return;
+        try {
+            executor.execute(() -> notifyOthers(cacheNames));
+        } catch (RejectedExecutionException e) {
+            logger.warn(String.format("Not asking other instances to clear %s, as this instance is stopping.", Arrays.toString(cacheNames)));
+        }
+    }
+
+    void onNotification(String payload) {
+        int instanceEnd = payload.indexOf(':');
+        if (instanceEnd < 0 || payload.substring(0, instanceEnd).equals(instanceId)) return;
+        String[] cacheNames = payload.substring(instanceEnd + 1).split(SEPARATOR);
+        invalidatedCacheNames.addAll(Arrays.asList(cacheNames));
+        clear(cacheNames);
+    }
+
+    private void clear(String... cacheNames) {
+        for (String cacheName : cacheNames) {
+            Runnable localCache = localCaches.get(cacheName);
+            if (localCache != null) {
+                localCache.run();
+                continue;
+            }
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) cache.clear();
+        }
+    }
+
+    private void notifyOthers(String[] cacheNames) {
+        try (PreparedStatement statement = getConnection().prepareStatement("select pg_notify(?, ?)")) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, instanceId + ":" + String.join(SEPARATOR, cacheNames));
+            statement.execute();
+        } catch (SQLException e) {
+            logger.error(String.format("Could not ask other instances to clear %s. They keep their entries until these expire.", Arrays.toString(cacheNames)), e);
+            closeConnection();
+        }
+    }
+
+    private void poll() {
+        PGNotification[] notifications;
+        try {
+            notifications = receive();
+        } catch (SQLException e) {
+            logger.warn("Could not receive cache invalidations. Will listen again.", e);
+            closeConnection();
+            return;
+        }
+        if (notifications == null) return;
+        for (PGNotification notification : notifications) {
+            onNotification(notification.getParameter());
+        }
+    }
+
+    private synchronized PGNotification[] receive() throws SQLException {
+        Connection connection = getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("select 1");
+        }
+        return connection.unwrap(PGConnection.class).getNotifications();
+    }
+
+    private synchronized Connection getConnection() throws SQLException {
+        if (connection != null) return connection;
+        Connection newConnection = DriverManager.getConnection(url, username, password);
+        try (Statement statement = newConnection.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+        } catch (SQLException e) {
+            newConnection.close();
+            throw e;
+        }
+        connection = newConnection;
+        clear(invalidatedCacheNames.toArray(new String[0]));
+        return connection;
+    }
+
+    private synchronized void closeConnection() {
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.debug("Could not close cache invalidation connection", e);
+        }
+        connection = null;
+    }
+}
@@ -9,6 +9,10 @@ abstract class AbstractUserType implements UserType {
 
     @Override
     public Object deepCopy(final Object value) throws HibernateException {
+        return serializationCopy(value);
+    }
+
+    static Object serializationCopy(final Object value) throws HibernateException {
         try {
             // use serialization to create a deep copy
             ByteArrayOutputStream bos = new ByteArrayOutputStream();
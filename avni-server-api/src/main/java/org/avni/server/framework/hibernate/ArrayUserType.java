@@ -65,4 +65,9 @@ public class ArrayUserType extends AbstractUserType implements UserType {
         }
         return true;
     }
+
+    @Override
+    public Object deepCopy(Object value) {
+        return value == null ? null : ((String[]) value).clone();
+    }
 }
@@ -7,4 +7,9 @@ public class ChecklistItemUserType extends AbstractJsonbUserType {
     public Class returnedClass() {
         return ChecklistItemStatus.class;
     }
+
+    @Override
+    public Object deepCopy(Object value) {
+        return value == null ? null : JsonbValueCopier.copyInto((ChecklistItemStatus) value, new ChecklistItemStatus());
+    }
 }
@@ -7,4 +7,9 @@ public class DeclarativeRuleUserType extends AbstractJsonbUserType {
     public Class returnedClass() {
         return DeclarativeRule.class;
     }
+
+    @Override
+    public Object deepCopy(Object value) {
+        return value == null ? null : JsonbValueCopier.copyInto((DeclarativeRule) value, new DeclarativeRule());
+    }
 }
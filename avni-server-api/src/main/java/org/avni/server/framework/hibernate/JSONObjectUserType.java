@@ -7,4 +7,9 @@ public class JSONObjectUserType extends AbstractJsonbUserType {
     public Class returnedClass() {
         return JsonObject.class;
     }
+
+    @Override
+    public Object deepCopy(Object value) {
+        return value == null ? null : JsonbValueCopier.copyInto((JsonObject) value, new JsonObject());
+    }
 }
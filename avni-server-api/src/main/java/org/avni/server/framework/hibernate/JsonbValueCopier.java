@@ -0,0 +1,64 @@
+package org.avni.server.framework.hibernate;
+
+import org.joda.time.DateTime;
+import org.joda.time.Instant;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Structural copy of the values held in jsonb columns. Jackson materialises them as nested LinkedHashMap/ArrayList
+ * of immutable leaves, so only the containers need copying and leaves are shared. Anything else falls back to
+ * serialization, which is what every user type used to do for the whole value.
+ */
+public class JsonbValueCopier {
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+            String.class, Integer.class, Long.class, Double.class, Float.class, Short.class, Byte.class,
+            Boolean.class, Character.class, BigDecimal.class, BigInteger.class, UUID.class,
+            DateTime.class, LocalDate.class, LocalDateTime.class, Instant.class));
+
+    public static Object copy(Object value) {
+        if (value == null || isImmutable(value)) {
+            return value;
+        }
+        Class<?> type = value.getClass();
+        if (type == LinkedHashMap.class) {
+            return copyInto((Map<?, ?>) value, new LinkedHashMap<>(capacity(((Map) value).size())));
+        }
+        if (type == HashMap.class) {
+            return copyInto((Map<?, ?>) value, new HashMap<>(capacity(((Map) value).size())));
+        }
+        if (type == ArrayList.class) {
+            return copyInto((List<?>) value, new ArrayList<>(((List) value).size()));
+        }
+        if (type == Date.class) {
+            return ((Date) value).clone();
+        }
+        return AbstractUserType.serializationCopy(value);
+    }
+
+    public static <M extends Map<String, Object>> M copyInto(Map<?, ?> source, M target) {
+        for (Map.Entry<?, ?> entry : source.entrySet()) {
+            target.put((String) entry.getKey(), copy(entry.getValue()));
+        }
+        return target;
+    }
+
+    public static <L extends List<Object>> L copyInto(List<?> source, L target) {
+        for (Object element : source) {
+            target.add(copy(element));
+        }
+        return target;
+    }
+
+    private static boolean isImmutable(Object value) {
+        return IMMUTABLE_TYPES.contains(value.getClass()) || value instanceof Enum;
+    }
+
+    private static int capacity(int size) {
+        return size < 3 ? size + 1 : (int) (size / 0.75f + 1.0f);
+    }
+}
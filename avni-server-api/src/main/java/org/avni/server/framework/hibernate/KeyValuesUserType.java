@@ -1,5 +1,6 @@
 package org.avni.server.framework.hibernate;
 
+import org.avni.server.application.KeyValue;
 import org.avni.server.application.KeyValues;
 
 public class KeyValuesUserType extends AbstractJsonbUserType {
@@ -7,4 +8,16 @@ public class KeyValuesUserType extends AbstractJsonbUserType {
     public Class returnedClass() {
         return KeyValues.class;
     }
+
+    @Override
+    public Object deepCopy(Object value) {
+        if (value == null) return null;
+        KeyValues keyValues = (KeyValues) value;
+        KeyValues copy = new KeyValues();
+        copy.ensureCapacity(keyValues.size());
+        for (KeyValue keyValue : keyValues) {
+            copy.add(keyValue == null ? null : new KeyValue(keyValue.getKey(), JsonbValueCopier.copy(keyValue.getValue())));
+        }
+        return copy;
+    }
 }
@@ -0,0 +1,13 @@
+package org.avni.server.framework.hibernate;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published after a transaction that saved, updated or deleted a location, location type, location parent mapping or
+ * catchment commits. Listeners caching the locations of catchments should drop them.
+ */
+public class LocationChangedEvent extends ApplicationEvent {
+    public LocationChangedEvent(Object source) {
+        super(source);
+    }
+}
@@ -0,0 +1,13 @@
+package org.avni.server.framework.hibernate;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published after a transaction that saved, updated or deleted a metadata entity commits. Listeners caching
+ * anything derived from metadata should drop it.
+ */
+public class MetadataChangedEvent extends ApplicationEvent {
+    public MetadataChangedEvent(Object source) {
+        super(source);
+    }
+}
@@ -7,4 +7,11 @@ public class NextTriggerDetailsUserType extends AbstractJsonbUserType {
     public Class returnedClass() {
         return NextTriggerDetails.class;
     }
+
+    @Override
+    public Object deepCopy(Object value) {
+        if (value == null) return null;
+        NextTriggerDetails nextTriggerDetails = (NextTriggerDetails) value;
+        return new NextTriggerDetails(nextTriggerDetails.getPageNo(), nextTriggerDetails.getContactId());
+    }
 }
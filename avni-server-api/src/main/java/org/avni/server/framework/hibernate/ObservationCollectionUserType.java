@@ -7,4 +7,9 @@ public class ObservationCollectionUserType extends AbstractJsonbUserType {
     public Class returnedClass() {
         return ObservationCollection.class;
     }
+
+    @Override
+    public Object deepCopy(Object value) {
+        return value == null ? null : JsonbValueCopier.copyInto((ObservationCollection) value, new ObservationCollection());
+    }
 }
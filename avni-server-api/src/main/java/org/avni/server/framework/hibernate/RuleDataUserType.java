@@ -7,4 +7,9 @@ public class RuleDataUserType extends AbstractJsonbUserType {
     public Class returnedClass() {
         return RuleData.class;
     }
+
+    @Override
+    public Object deepCopy(Object value) {
+        return value == null ? null : new RuleData((RuleData) value);
+    }
 }
@@ -7,4 +7,14 @@ public class RuledEntityUserType extends AbstractJsonbUserType {
     public Class returnedClass() {
         return RuledEntity.class;
     }
+
+    @Override
+    public Object deepCopy(Object value) {
+        if (value == null) return null;
+        RuledEntity ruledEntity = (RuledEntity) value;
+        RuledEntity copy = new RuledEntity();
+        copy.setUuid(ruledEntity.getUuid());
+        copy.setType(ruledEntity.getType());
+        return copy;
+    }
 }
@@ -1,30 +1,141 @@
 package org.avni.server.framework.hibernate;
 
+import org.avni.server.domain.AddressLevel;
+import org.avni.server.domain.AddressLevelType;
+import org.avni.server.domain.Catchment;
 import org.avni.server.domain.Organisation;
+import org.avni.server.domain.ParentLocationMapping;
 import org.avni.server.domain.OrganisationAwareEntity;
+import org.avni.server.framework.ApplicationContextProvider;
+import org.avni.server.framework.security.UserContextCache;
+import org.avni.server.service.MetadataChangeWatermarkService;
 import org.hibernate.CallbackException;
 import org.hibernate.EmptyInterceptor;
+import org.hibernate.Transaction;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.proxy.HibernateProxyHelper;
+import org.hibernate.resource.transaction.spi.TransactionStatus;
 import org.hibernate.type.Type;
 import org.avni.server.framework.security.UserContextHolder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
+/**
+ * Sets the organisation of new entities and tells the caches built from metadata, users and locations that these
+ * changed. The change events are published only once the transaction that made the change has committed. Spring
+ * managed transactions publish them after completing with a commit. Hibernate resets the status of its transaction
+ * before calling {@link #afterTransactionCompletion(Transaction)} when the connection started in auto commit mode, so
+ * the status is only relied on for transactions not managed by Spring.
+ */
 public class UpdateOrganisationHibernateInterceptor extends EmptyInterceptor {
     private static final Logger logger = LoggerFactory.getLogger(UpdateOrganisationHibernateInterceptor.class.getName());
+    private static final ThreadLocal<Changes> unmanagedTransactionChanges = new ThreadLocal<>();
+    private static final Set<Class<?>> locationEntities = new HashSet<>(Arrays.asList(AddressLevel.class, AddressLevelType.class,
+            ParentLocationMapping.class, Catchment.class));
 
     @Override
     public boolean onSave(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) throws CallbackException {
+        trackChange(entity);
         return updateOrganisationId(entity, state, propertyNames);
     }
 
     @Override
     public boolean onFlushDirty(Object entity, Serializable id, Object[] currentState, Object[] previousState, String[] propertyNames, Type[] types) {
         boolean somethingChanged = false;
+        trackChange(entity);
         return updateOrganisationId(entity, currentState, propertyNames) || somethingChanged;
     }
 
+    @Override
+    public void onDelete(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        trackChange(entity);
+    }
+
+    @Override
+    public void onCollectionRecreate(Object collection, Serializable key) throws CallbackException {
+        trackCollectionChange(collection);
+    }
+
+    @Override
+    public void onCollectionRemove(Object collection, Serializable key) throws CallbackException {
+        trackCollectionChange(collection);
+    }
+
+    @Override
+    public void onCollectionUpdate(Object collection, Serializable key) throws CallbackException {
+        trackCollectionChange(collection);
+    }
+
+    @Override
+    public void afterTransactionCompletion(Transaction tx) {
+        Changes changes = unmanagedTransactionChanges.get();
+        if (changes == null) return;
+        unmanagedTransactionChanges.remove();
+        if (tx != null && tx.getStatus() == TransactionStatus.COMMITTED) changes.publish();
+    }
+
+    private void trackChange(Object entity) {
+        boolean metadataChanged = MetadataChangeWatermarkService.isMetadataEntity(entity);
+        boolean userContextChanged = UserContextCache.isSourceEntity(entity);
+        boolean locationChanged = entity != null && locationEntities.contains(HibernateProxyHelper.getClassWithoutInitializingProxy(entity));
+        if (!metadataChanged && !userContextChanged && !locationChanged) return;
+        Changes changes = getChanges();
+        changes.metadataChanged |= metadataChanged;
+        changes.userContextChanged |= userContextChanged;
+        changes.locationChanged |= locationChanged;
+    }
+
+    private Changes getChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Changes changes = unmanagedTransactionChanges.get();
+            if (changes == null) {
+                changes = new Changes();
+                unmanagedTransactionChanges.set(changes);
+            }
+            return changes;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Changes) return (Changes) synchronization;
+        }
+        Changes changes = new Changes();
+        TransactionSynchronizationManager.registerSynchronization(changes);
+        return changes;
+    }
+
+    private void trackCollectionChange(Object collection) {
+        if (collection instanceof PersistentCollection) {
+            trackChange(((PersistentCollection) collection).getOwner());
+        }
+    }
+
+    private static class Changes extends TransactionSynchronizationAdapter {
+        private boolean metadataChanged;
+        private boolean userContextChanged;
+        private boolean locationChanged;
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) publish();
+        }
+
+        void publish() {
+            ApplicationContext context = ApplicationContextProvider.getContext();
+            if (context == null) return;
+            if (metadataChanged) context.publishEvent(new MetadataChangedEvent(this));
+            if (userContextChanged) context.publishEvent(new UserContextChangedEvent(this));
+            if (locationChanged) context.publishEvent(new LocationChangedEvent(this));
+        }
+    }
+
     private int getIndexOf(String[] propertyNames, String propertyName) {
         for (int i = 0; i < propertyNames.length; i++) {
             if (propertyNames[i].equals(propertyName)) return i;
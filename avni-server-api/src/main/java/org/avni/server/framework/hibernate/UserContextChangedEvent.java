@@ -0,0 +1,13 @@
+package org.avni.server.framework.hibernate;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published after a transaction that saved, updated or deleted a user, account admin, account or organisation
+ * commits. Listeners caching what authentication resolves for a user should drop it.
+ */
+public class UserContextChangedEvent extends ApplicationEvent {
+    public UserContextChangedEvent(Object source) {
+        super(source);
+    }
+}
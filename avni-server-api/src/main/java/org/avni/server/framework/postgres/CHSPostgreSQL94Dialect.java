@@ -1,6 +1,8 @@
 package org.avni.server.framework.postgres;
 
 import org.hibernate.dialect.PostgreSQL94Dialect;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
 
 import java.sql.Types;
 
@@ -8,10 +10,15 @@ public class CHSPostgreSQL94Dialect extends PostgreSQL94Dialect {
 
     private static final String JSONB = "jsonb";
     private static final String JSON = "json";
+    /**
+     * in_bigint_array(id, '{1,2,3}') - id = any of the ids in the array literal, which is bound as a single parameter
+     */
+    public static final String IN_BIGINT_ARRAY = "in_bigint_array";
 
     public CHSPostgreSQL94Dialect() {
         super();
         this.registerColumnType(Types.JAVA_OBJECT, JSONB);
         this.registerColumnType(Types.JAVA_OBJECT, JSON);
+        this.registerFunction(IN_BIGINT_ARRAY, new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN, "(?1 = any(cast(?2 as bigint[])))"));
     }
 }
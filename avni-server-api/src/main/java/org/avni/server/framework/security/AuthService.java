@@ -2,6 +2,9 @@ package org.avni.server.framework.security;
 
 import com.auth0.jwk.SigningKeyNotFoundException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.avni.server.config.AuthCacheConfig;
 import org.avni.server.dao.AccountAdminRepository;
 import org.avni.server.dao.OrganisationRepository;
 import org.avni.server.dao.UserRepository;
@@ -10,10 +13,13 @@ import org.avni.server.domain.Organisation;
 import org.avni.server.domain.User;
 import org.avni.server.domain.UserContext;
 import org.avni.server.domain.accessControl.AvniNoUserSessionException;
+import org.avni.server.framework.cache.ClusterCacheInvalidation;
+import org.avni.server.framework.hibernate.UserContextChangedEvent;
 import org.avni.server.service.IAMAuthService;
 import org.avni.server.service.IdpServiceFactory;
 import org.avni.server.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -25,6 +31,7 @@ import java.util.stream.Collectors;
 
 @Service
 public class AuthService {
+    public static final String USER_CONTEXTS = "userContexts";
     public final static SimpleGrantedAuthority USER_AUTHORITY = new SimpleGrantedAuthority(User.USER);
     public final static List<SimpleGrantedAuthority> ALL_AUTHORITIES = Collections.singletonList(USER_AUTHORITY);
     private final UserRepository userRepository;
@@ -32,14 +39,25 @@ public class AuthService {
     private final AccountAdminRepository accountAdminRepository;
     private final UserService userService;
     private final IdpServiceFactory idpServiceFactory;
+    private final UserContextCache userContextCache;
+    private final ClusterCacheInvalidation clusterCacheInvalidation;
 
     @Autowired
-    public AuthService(UserRepository userRepository, OrganisationRepository organisationRepository, AccountAdminRepository accountAdminRepository, IdpServiceFactory idpServiceFactory, UserService userService) {
+    public AuthService(UserRepository userRepository, OrganisationRepository organisationRepository, AccountAdminRepository accountAdminRepository, IdpServiceFactory idpServiceFactory, UserService userService, AuthCacheConfig authCacheConfig, MeterRegistry meterRegistry, ClusterCacheInvalidation clusterCacheInvalidation) {
         this.idpServiceFactory = idpServiceFactory;
         this.userRepository = userRepository;
         this.organisationRepository = organisationRepository;
         this.accountAdminRepository = accountAdminRepository;
         this.userService = userService;
+        this.userContextCache = new UserContextCache(authCacheConfig.getUserContextMaxEntries(), authCacheConfig.getUserContextTtlSeconds());
+        GuavaCacheMetrics.monitor(meterRegistry, userContextCache.getCache(), USER_CONTEXTS);
+        this.clusterCacheInvalidation = clusterCacheInvalidation;
+        clusterCacheInvalidation.registerLocalCache(USER_CONTEXTS, userContextCache::invalidateAll);
+    }
+
+    @EventListener(UserContextChangedEvent.class)
+    public void userContextChanged() {
+        clusterCacheInvalidation.invalidate(USER_CONTEXTS);
     }
 
     public UserContext authenticateByUserName(String username, String organisationUUID) {
@@ -84,13 +102,9 @@ public class AuthService {
         if (user == null) {
             return null;
         }
-        user.setAdmin(userService.isAdmin(user));
-        Organisation organisation = null;
-        if (organisationUUID != null) {
-            organisation = organisationRepository.findByUuid(organisationUUID);
-        } else if (user.getOrganisationId() != null) {
-            organisation = organisationRepository.findOne(user.getOrganisationId());
-        }
+        UserContextCache.Snapshot snapshot = getUserContextSnapshot(user, organisationUUID);
+        user.setAdmin(snapshot.isAdmin());
+        Organisation organisation = snapshot.getOrganisation();
         userContext.setUser(user);
         userContext.setOrganisation(organisation);
         userContext.setOrganisationUUID(organisationUUID);
@@ -103,6 +117,22 @@ public class AuthService {
         return createTempAuth(authorities);
     }
 
+    private UserContextCache.Snapshot getUserContextSnapshot(User user, String organisationUUID) {
+        UserContextCache.Snapshot snapshot = userContextCache.get(user.getId(), organisationUUID);
+        if (snapshot != null) return snapshot;
+
+        long generation = userContextCache.getGeneration();
+        Organisation organisation = null;
+        if (organisationUUID != null) {
+            organisation = organisationRepository.findByUuid(organisationUUID);
+        } else if (user.getOrganisationId() != null) {
+            organisation = organisationRepository.findOne(user.getOrganisationId());
+        }
+        snapshot = new UserContextCache.Snapshot(userService.isAdmin(user), organisation);
+        userContextCache.put(user.getId(), organisationUUID, snapshot, generation);
+        return snapshot;
+    }
+
     private UserContext changeUser(User user, String organisationUUID) {
         if (user == null) {
             throw new AvniNoUserSessionException("No user, or not logged in");
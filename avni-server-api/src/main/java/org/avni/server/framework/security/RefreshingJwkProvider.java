@@ -0,0 +1,54 @@
+package org.avni.server.framework.security;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkException;
+import com.auth0.jwk.JwkProvider;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived JWKS key cache for one issuer. Keys are reloaded in the background after refreshAfter, so that requests
+ * keep using the current key while the issuer's key set is being re-fetched. A failed reload keeps the old key.
+ */
+public class RefreshingJwkProvider implements JwkProvider {
+    private static final String NO_KEY_ID = "";
+    private final LoadingCache<String, Jwk> cache;
+
+    public RefreshingJwkProvider(JwkProvider provider, long refreshAfter, long expireAfter, TimeUnit unit, Executor refreshExecutor) {
+        CacheLoader<String, Jwk> loader = new CacheLoader<String, Jwk>() {
+            @Override
+            public Jwk load(String keyId) throws JwkException {
+                return provider.get(NO_KEY_ID.equals(keyId) ? null : keyId);
+            }
+        };
+        this.cache = CacheBuilder.newBuilder()
+                .refreshAfterWrite(refreshAfter, unit)
+                .expireAfterWrite(expireAfter, unit)
+                .maximumSize(100)
+                .recordStats()
+                .build(CacheLoader.asyncReloading(loader, refreshExecutor));
+    }
+
+    @Override
+    public Jwk get(String keyId) throws JwkException {
+        try {
+            return cache.get(keyId == null ? NO_KEY_ID : keyId);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof JwkException) {
+                throw (JwkException) e.getCause();
+            }
+            throw new JwkException("Failed to get key with kid " + keyId, e);
+        }
+    }
+
+    public Cache<String, Jwk> getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,117 @@
+package org.avni.server.framework.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.avni.server.domain.Account;
+import org.avni.server.domain.AccountAdmin;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.User;
+import org.avni.server.domain.organisation.OrganisationCategory;
+import org.avni.server.domain.organisation.OrganisationStatus;
+import org.hibernate.proxy.HibernateProxyHelper;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers, per user and requested organisation, what authentication resolves on every request - whether the user is
+ * an account admin and the organisation the request runs in. Organisations are shared between requests once cached and
+ * must not be modified through the user context.
+ * <p>
+ * Everything is dropped when an entity the snapshot is derived from changes, on every server instance through
+ * {@link org.avni.server.framework.cache.ClusterCacheInvalidation}.
+ */
+public class UserContextCache {
+    private static final Set<Class<?>> sourceEntities = new HashSet<>(Arrays.asList(User.class, AccountAdmin.class, Account.class,
+            Organisation.class, OrganisationCategory.class, OrganisationStatus.class));
+
+    private final Cache<Key, Snapshot> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserContextCache(long maxEntries, long ttlSeconds) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    public static boolean isSourceEntity(Object entity) {
+        if (entity == null) return false;
+        return sourceEntities.contains(HibernateProxyHelper.getClassWithoutInitializingProxy(entity));
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public Snapshot get(Long userId, String organisationUUID) {
+        if (userId == null) return null;
+        return cache.getIfPresent(new Key(userId, organisationUUID));
+    }
+
+    /**
+     * @param loadedInGeneration value of {@link #getGeneration()} before the snapshot was loaded. A load racing with an
+     *                           invalidation is not kept, as it may have read the state before the change.
+     */
+    public void put(Long userId, String organisationUUID, Snapshot snapshot, long loadedInGeneration) {
+        if (userId == null) return;
+        if (generation.get() == loadedInGeneration) {
+            cache.put(new Key(userId, organisationUUID), snapshot);
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public Cache<Key, Snapshot> getCache() {
+        return cache;
+    }
+
+    public static class Snapshot {
+        private final boolean admin;
+        private final Organisation organisation;
+
+        public Snapshot(boolean admin, Organisation organisation) {
+            this.admin = admin;
+            this.organisation = organisation;
+        }
+
+        public boolean isAdmin() {
+            return admin;
+        }
+
+        public Organisation getOrganisation() {
+            return organisation;
+        }
+    }
+
+    static class Key {
+        private final long userId;
+        private final String organisationUUID;
+
+        Key(long userId, String organisationUUID) {
+            this.userId = userId;
+            this.organisationUUID = organisationUUID;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return userId == key.userId && Objects.equals(organisationUUID, key.organisationUUID);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, organisationUUID);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.avni.server.framework.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers tokens whose signature and claims have already been verified, along with the user they resolved to. Keyed
+ * by the token's SHA-256 so that raw tokens are not retained. An entry is never returned after the token's expiry.
+ */
+public class VerifiedTokenCache {
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(long maxEntries, long maxTtlSeconds) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(maxTtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    public VerifiedToken get(String token) {
+        String key = hash(token);
+        VerifiedToken verifiedToken = cache.getIfPresent(key);
+        if (verifiedToken == null) return null;
+        if (verifiedToken.hasExpired(System.currentTimeMillis())) {
+            cache.invalidate(key);
+            return null;
+        }
+        return verifiedToken;
+    }
+
+    public void put(String token, Long userId, Date expiresAt) {
+        if (userId == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()) return;
+        cache.put(hash(token), new VerifiedToken(userId, expiresAt.getTime()));
+    }
+
+    public Cache<String, VerifiedToken> getCache() {
+        return cache;
+    }
+
+    private static String hash(String token) {
+        return Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+    }
+
+    public static class VerifiedToken {
+        private final Long userId;
+        private final long expiresAtMillis;
+
+        VerifiedToken(Long userId, long expiresAtMillis) {
+            this.userId = userId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        boolean hasExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package org.avni.server.framework.tomcat;
 
 import com.google.common.base.Strings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 import org.apache.tomcat.jdbc.pool.ConnectionPool;
 import org.apache.tomcat.jdbc.pool.JdbcInterceptor;
 import org.apache.tomcat.jdbc.pool.PooledConnection;
@@ -10,48 +12,71 @@ import org.avni.server.framework.security.UserContextHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+/**
+ * Sets the role of the organisation in context on a borrowed connection. The role is left on the connection when it is
+ * returned. On the next borrow the role the connection has is read with one query, and the role is switched, or reset
+ * for requests without an organisation, only when it differs.
+ * <p>
+ * The role is read from the connection instead of being remembered, so role changes made by application code on the
+ * connection, and reconnects, are always seen.
+ */
 public class SetOrganisationJdbcInterceptor extends JdbcInterceptor {
     private static final Logger logger = LoggerFactory.getLogger(TomcatContainerCustomizer.class);
+    private static final String DEFAULT_ROLE = "";
+
+    private static final Counter roleReused = Metrics.counter("avni.db.connection.role", "outcome", "reused");
+    private static final Counter roleSwitched = Metrics.counter("avni.db.connection.role", "outcome", "switched");
+    private static final Counter roleReset = Metrics.counter("avni.db.connection.role", "outcome", "reset");
 
     @Override
     public void reset(ConnectionPool connectionPool, PooledConnection pooledConnection) {
-        UserContext userContext = UserContextHolder.getUserContext();
-        if (userContext == null) {
-            return;
-        }
-        Organisation organisation = userContext.getOrganisation();
-        if (userContext.getUser() != null && userContext.getUser().isAdmin() && userContext.getOrganisationUUID() == null) {
-            return;
-        }
-        if (organisation == null) return;
-
-        String dbUser = organisation.getDbUser();
-        if (Strings.isNullOrEmpty(dbUser)) return;
+        if (pooledConnection == null) return;
+        setRole(pooledConnection.getConnection());
+    }
 
-        try {
-            Statement statement = pooledConnection.getConnection().createStatement();
-            statement.execute("set role \"" + dbUser + "\";");
-            statement.execute("set application_name to \"" + dbUser + "\";");
-            statement.close();
-            logger.trace(String.format("DB USER: %s", dbUser));
+    void setRole(Connection connection) {
+        String role = getRequiredRole();
+        try (Statement statement = connection.createStatement()) {
+            if (hasRole(statement, role)) {
+                roleReused.increment();
+                return;
+            }
+            if (DEFAULT_ROLE.equals(role)) {
+                statement.execute("RESET ROLE");
+                roleReset.increment();
+                logger.trace("Role Reset Done");
+            } else {
+                statement.execute("set role \"" + role + "\";");
+                statement.execute("set application_name to \"" + role + "\";");
+                roleSwitched.increment();
+                logger.trace(String.format("DB USER: %s", role));
+            }
         } catch (SQLException exp) {
             throw new RuntimeException(exp);
         }
     }
 
-    @Override
-    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        if ("close".equals(method.getName())) {
-            Statement statement = ((Connection) proxy).createStatement();
-            statement.execute("RESET ROLE");
-            statement.close();
-            logger.trace("Role Reset Done");
+    private static boolean hasRole(Statement statement, String role) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("select current_user, session_user")) {
+            if (!resultSet.next()) return false;
+            String currentUser = resultSet.getString(1);
+            return DEFAULT_ROLE.equals(role) ? currentUser.equals(resultSet.getString(2)) : currentUser.equals(role);
         }
-        return super.invoke(proxy, method, args);
+    }
+
+    private static String getRequiredRole() {
+        UserContext userContext = UserContextHolder.getUserContext();
+        if (userContext == null) return DEFAULT_ROLE;
+        if (userContext.getUser() != null && userContext.getUser().isAdmin() && userContext.getOrganisationUUID() == null) {
+            return DEFAULT_ROLE;
+        }
+        Organisation organisation = userContext.getOrganisation();
+        if (organisation == null || Strings.isNullOrEmpty(organisation.getDbUser())) return DEFAULT_ROLE;
+        return organisation.getDbUser();
     }
 }
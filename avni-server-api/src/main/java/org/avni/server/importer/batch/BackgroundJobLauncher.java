@@ -0,0 +1,161 @@
+package org.avni.server.importer.batch;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.launch.support.SimpleJobLauncher;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs background jobs (uploads and exports) on a fixed number of threads. Queued jobs are started in order of
+ * priority - small uploads, then other uploads, then exports - and within a priority in order of submission. A job is
+ * passed over while its organisation already runs as many jobs as allowed, so that one organisation's long export
+ * doesn't hold up the uploads of others.
+ */
+public class BackgroundJobLauncher extends SimpleJobLauncher {
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundJobLauncher.class);
+    private static final Set<String> uploadJobs = new HashSet<>(Arrays.asList("importJob", "importZipJob"));
+
+    public enum Priority {
+        SmallUpload, Upload, Export
+    }
+
+    private final int parallelism;
+    private final int maxConcurrentPerOrganisation;
+    private final int queueCapacity;
+    private final long smallUploadMaxLines;
+    private final ExecutorService workers;
+    private final ThreadLocal<QueuedJob> launching = new ThreadLocal<>();
+    private final TreeSet<QueuedJob> queue = new TreeSet<>(Comparator.comparing(QueuedJob::getPriority).thenComparingLong(QueuedJob::getSequence));
+    private final Map<String, Integer> runningPerOrganisation = new HashMap<>();
+    private final Map<Priority, Timer> waitTimers = new EnumMap<>(Priority.class);
+    private int running;
+    private long sequence;
+
+    public BackgroundJobLauncher(JobRepository jobRepository, int parallelism, int maxConcurrentPerOrganisation, int queueCapacity,
+                                 long smallUploadMaxLines, MeterRegistry meterRegistry) {
+        this.parallelism = parallelism;
+        this.maxConcurrentPerOrganisation = maxConcurrentPerOrganisation;
+        this.queueCapacity = queueCapacity;
+        this.smallUploadMaxLines = smallUploadMaxLines;
+        this.workers = Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder().setNameFormat("background-job-%d").build());
+        setJobRepository(jobRepository);
+        setTaskExecutor(task -> {
+            QueuedJob job = launching.get();
+            submit(task, job == null ? null : job.organisationUUID, job == null ? Priority.Upload : job.priority);
+        });
+        for (Priority priority : Priority.values()) {
+            waitTimers.put(priority, meterRegistry.timer("avni.backgroundJobs.wait", "priority", priority.name()));
+        }
+        meterRegistry.gauge("avni.backgroundJobs.queued", this, BackgroundJobLauncher::getQueuedCount);
+        meterRegistry.gauge("avni.backgroundJobs.running", this, BackgroundJobLauncher::getRunningCount);
+    }
+
+    @Override
+    public JobExecution run(Job job, JobParameters jobParameters) throws JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException, JobParametersInvalidException {
+        launching.set(new QueuedJob(jobParameters.getString("organisationUUID"), getPriority(job, jobParameters)));
+        try {
+            return super.run(job, jobParameters);
+        } finally {
+            launching.remove();
+        }
+    }
+
+    Priority getPriority(Job job, JobParameters jobParameters) {
+        if (!uploadJobs.contains(job.getName())) return Priority.Export;
+        Long noOfLines = jobParameters.getLong("noOfLines");
+        return noOfLines != null && noOfLines <= smallUploadMaxLines ? Priority.SmallUpload : Priority.Upload;
+    }
+
+    synchronized void submit(Runnable task, String organisationUUID, Priority priority) {
+        if (queue.size() >= queueCapacity) {
+            throw new TaskRejectedException(String.format("Background job queue is full with %d jobs", queue.size()));
+        }
+        QueuedJob job = new QueuedJob(organisationUUID, priority);
+        job.task = task;
+        job.sequence = sequence++;
+        job.queuedAt = System.nanoTime();
+        queue.add(job);
+        logger.info(String.format("Queued background job. Priority=%s, Queued=%d, Running=%d", priority, queue.size(), running));
+        dispatch();
+    }
+
+    private synchronized void dispatch() {
+        Iterator<QueuedJob> iterator = queue.iterator();
+        while (running < parallelism && iterator.hasNext()) {
+            QueuedJob job = iterator.next();
+            if (!canStart(job)) continue;
+            iterator.remove();
+            running++;
+            if (job.organisationUUID != null) runningPerOrganisation.merge(job.organisationUUID, 1, Integer::sum);
+            waitTimers.get(job.priority).record(System.nanoTime() - job.queuedAt, TimeUnit.NANOSECONDS);
+            workers.execute(() -> execute(job));
+        }
+    }
+
+    private boolean canStart(QueuedJob job) {
+        return job.organisationUUID == null || runningPerOrganisation.getOrDefault(job.organisationUUID, 0) < maxConcurrentPerOrganisation;
+    }
+
+    private void execute(QueuedJob job) {
+        try {
+            job.task.run();
+        } finally {
+            finished(job);
+        }
+    }
+
+    private synchronized void finished(QueuedJob job) {
+        running--;
+        if (job.organisationUUID != null) runningPerOrganisation.computeIfPresent(job.organisationUUID, (organisationUUID, count) -> count == 1 ? null : count - 1);
+        dispatch();
+    }
+
+    public synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private static class QueuedJob {
+        private final String organisationUUID;
+        private final Priority priority;
+        private Runnable task;
+        private long sequence;
+        private long queuedAt;
+
+        QueuedJob(String organisationUUID, Priority priority) {
+            this.organisationUUID = organisationUUID;
+            this.priority = priority;
+        }
+
+        Priority getPriority() {
+            return priority;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+    }
+}
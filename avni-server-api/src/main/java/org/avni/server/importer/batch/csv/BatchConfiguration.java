@@ -1,8 +1,10 @@
 package org.avni.server.importer.batch.csv;
 
-import org.apache.commons.io.IOUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.avni.server.importer.batch.BackgroundJobLauncher;
 import org.avni.server.importer.batch.csv.writer.CsvFileItemWriter;
 import org.avni.server.importer.batch.model.Row;
+import org.avni.server.service.BulkUploadS3Service;
 import org.avni.server.service.S3Service;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
@@ -12,26 +14,20 @@ import org.springframework.batch.core.configuration.annotation.StepBuilderFactor
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
-import org.springframework.batch.core.launch.support.SimpleJobLauncher;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.FlatFileParseException;
-import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
-import org.springframework.batch.item.file.mapping.DefaultLineMapper;
-import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
 import org.springframework.batch.item.file.transform.FlatFileFormatException;
+import org.springframework.batch.repeat.CompletionPolicy;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.FileNotFoundException;
 
 @Configuration
 @EnableBatchProcessing
@@ -41,31 +37,35 @@ public class BatchConfiguration {
     private final StepBuilderFactory stepBuilderFactory;
     private final JobRepository jobRepository;
     private final S3Service s3Service;
+    private final BulkUploadS3Service bulkUploadS3Service;
 
     @Autowired
     public BatchConfiguration(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory, JobRepository jobRepository,
-                              @Qualifier("BatchS3Service")  S3Service s3Service) {
+                              @Qualifier("BatchS3Service")  S3Service s3Service, BulkUploadS3Service bulkUploadS3Service) {
         this.jobBuilderFactory = jobBuilderFactory;
         this.stepBuilderFactory = stepBuilderFactory;
         this.jobRepository = jobRepository;
         this.s3Service = s3Service;
+        this.bulkUploadS3Service = bulkUploadS3Service;
     }
 
     @Bean
     @StepScope
-    public FlatFileItemReader<Row> csvFileItemReader(@Value("#{jobParameters['s3Key']}") String s3Key) throws IOException {
-        byte[] bytes = IOUtils.toByteArray(s3Service.getObjectContent(s3Key));
-        String[] headers = this.getHeaders(new StringReader(new String(bytes)));
-        DefaultLineMapper<Row> lineMapper = new DefaultLineMapper<>();
-        lineMapper.setLineTokenizer(new DelimitedLineTokenizer());
-        lineMapper.setFieldSetMapper(fieldSet -> new Row(headers, fieldSet.getValues()));
+    public FlatFileItemReader<Row> csvFileItemReader(@Value("#{jobParameters['s3Key']}") String s3Key,
+                                                     @Value("#{jobParameters['uuid']}") String uuid) {
+        return new CsvFileItemReader(s3Service, s3Key, bulkUploadS3Service.getLocalInputFile(uuid));
+    }
 
-        return new FlatFileItemReaderBuilder<Row>()
-                .name("csvFileItemReader")
-                .resource(new ByteArrayResource(bytes))
-                .linesToSkip(1)
-                .lineMapper(lineMapper)
-                .build();
+    /**
+     * Rows are written in chunks, each in one transaction. When a chunk fails it is rolled back and its rows written
+     * again one at a time, so that only the failing rows go to the error file. Users are written a row at a time, as
+     * they are created in the identity provider which a rolled back chunk can't undo.
+     */
+    @Bean
+    @StepScope
+    public CompletionPolicy importCompletionPolicy(@Value("#{jobParameters['type']}") String type,
+                                                   @Value("${avni.import.chunkSize}") int chunkSize) {
+        return new SimpleCompletionPolicy(type != null && type.startsWith("usersAndCatchments") ? 1 : chunkSize);
     }
 
     @Bean
@@ -81,9 +81,10 @@ public class BatchConfiguration {
     @Bean
     public Step importStep(FlatFileItemReader<Row> csvFileItemReader,
                            CsvFileItemWriter csvFileItemWriter,
-                           ErrorFileWriterListener errorFileWriterListener) {
+                           ErrorFileWriterListener errorFileWriterListener,
+                           CompletionPolicy importCompletionPolicy) {
         return stepBuilderFactory.get("importStep")
-                .<Row, Row>chunk(1)
+                .<Row, Row>chunk(importCompletionPolicy)
                 .reader(csvFileItemReader)
                 .writer(csvFileItemWriter)
                 .faultTolerant()
@@ -98,28 +99,11 @@ public class BatchConfiguration {
     }
 
     @Bean
-    public JobLauncher bgJobLauncher() {
-        return new SimpleJobLauncher() {{
-            setJobRepository(jobRepository);
-            setTaskExecutor(new ThreadPoolTaskExecutor() {{
-                setCorePoolSize(1);
-                setMaxPoolSize(1);
-                setQueueCapacity(100);
-                initialize();
-            }});
-        }};
-    }
-
-    private String[] getHeaders(Reader reader) throws IOException {
-        BufferedReader csvReader = new BufferedReader(reader);
-        String headerLine = csvReader.readLine();
-        csvReader.close();
-
-        final List<String> headers = new ArrayList<>();
-        new DelimitedLineTokenizer() {{
-            headers.addAll(doTokenize(headerLine));
-        }};
-
-        return headers.toArray(new String[]{});
+    public JobLauncher bgJobLauncher(@Value("${avni.backgroundJob.parallelism}") int parallelism,
+                                     @Value("${avni.backgroundJob.maxConcurrentPerOrganisation}") int maxConcurrentPerOrganisation,
+                                     @Value("${avni.backgroundJob.queueCapacity}") int queueCapacity,
+                                     @Value("${avni.backgroundJob.smallUpload.maxLines}") long smallUploadMaxLines,
+                                     MeterRegistry meterRegistry) {
+        return new BackgroundJobLauncher(jobRepository, parallelism, maxConcurrentPerOrganisation, queueCapacity, smallUploadMaxLines, meterRegistry);
     }
 }
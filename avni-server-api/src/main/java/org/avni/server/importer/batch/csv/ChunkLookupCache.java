@@ -0,0 +1,72 @@
+package org.avni.server.importer.batch.csv;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Remembers lookups made while a chunk of uploaded rows is written, for as long as the chunk's transaction lasts. Rows
+ * of a file mostly refer to the same subject types, programs, forms, concepts and locations, which are then read once
+ * per chunk instead of once per row. Remembered entities belong to the transaction's persistence context, so nothing is
+ * kept beyond it - in particular when a failed chunk is rolled back and its rows are written again one at a time.
+ * <p>
+ * Outside a transaction, and in a transaction started while another is suspended, lookups are not remembered.
+ */
+@Component
+public class ChunkLookupCache {
+
+    /**
+     * @param key identifies the lookup, starting with its name followed by its arguments
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Supplier<T> loader, Object... key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return loader.get();
+        }
+        Map<List<Object>, Optional<Object>> lookups = getLookups();
+        List<Object> lookupKey = Arrays.asList(key);
+        Optional<Object> value = lookups.get(lookupKey);
+        if (value == null) {
+            value = Optional.ofNullable(loader.get());
+            lookups.put(lookupKey, value);
+        }
+        return (T) value.orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<List<Object>, Optional<Object>> getLookups() {
+        Map<List<Object>, Optional<Object>> lookups = (Map<List<Object>, Optional<Object>>) TransactionSynchronizationManager.getResource(this);
+        if (lookups == null) {
+            lookups = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, lookups);
+            TransactionSynchronizationManager.registerSynchronization(new LookupsSynchronization(lookups));
+        }
+        return lookups;
+    }
+
+    private class LookupsSynchronization extends TransactionSynchronizationAdapter {
+        private final Map<List<Object>, Optional<Object>> lookups;
+
+        LookupsSynchronization(Map<List<Object>, Optional<Object>> lookups) {
+            this.lookups = lookups;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChunkLookupCache.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(ChunkLookupCache.this, lookups);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChunkLookupCache.this);
+        }
+    }
+}
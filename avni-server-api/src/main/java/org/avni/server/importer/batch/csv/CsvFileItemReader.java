@@ -0,0 +1,72 @@
+package org.avni.server.importer.batch.csv;
+
+import org.avni.server.importer.batch.model.Row;
+import org.avni.server.service.S3Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.mapping.DefaultLineMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import static java.lang.String.format;
+
+/**
+ * Reads rows of an uploaded csv. The upload is copied from S3 to a local file when the reader is opened, and read from
+ * there a line at a time, so memory used doesn't grow with the size of the upload. The local file is deleted when the
+ * reader is closed. On restart the file is copied again and already read rows are skipped.
+ */
+public class CsvFileItemReader extends FlatFileItemReader<Row> {
+    private static final Logger logger = LoggerFactory.getLogger(CsvFileItemReader.class);
+    private final S3Service s3Service;
+    private final String s3Key;
+    private final File localFile;
+    private String[] headers;
+
+    public CsvFileItemReader(S3Service s3Service, String s3Key, File localFile) {
+        this.s3Service = s3Service;
+        this.s3Key = s3Key;
+        this.localFile = localFile;
+        DefaultLineMapper<Row> lineMapper = new DefaultLineMapper<>();
+        lineMapper.setLineTokenizer(new DelimitedLineTokenizer());
+        lineMapper.setFieldSetMapper(fieldSet -> new Row(headers, fieldSet.getValues()));
+        setName("csvFileItemReader");
+        setLineMapper(lineMapper);
+        setLinesToSkip(1);
+        setResource(new FileSystemResource(localFile));
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        try (InputStream content = s3Service.getObjectContent(s3Key)) {
+            Files.copy(content, localFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        logger.info(format("Copied %s to %s (%d bytes)", s3Key, localFile.getAbsolutePath(), localFile.length()));
+        headers = readHeaders();
+        super.doOpen();
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        try {
+            super.doClose();
+        } finally {
+            if (localFile.exists() && !localFile.delete()) {
+                logger.warn(format("Unable to delete %s", localFile.getAbsolutePath()));
+            }
+        }
+    }
+
+    private String[] readHeaders() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(localFile), Charset.defaultCharset()))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) return new String[]{};
+            return new DelimitedLineTokenizer().tokenize(headerLine).getValues();
+        }
+    }
+}
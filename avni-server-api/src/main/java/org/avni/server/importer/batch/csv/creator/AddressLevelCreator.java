@@ -4,6 +4,7 @@ import org.avni.server.dao.LocationRepository;
 import org.avni.server.domain.AddressLevel;
 import org.avni.server.domain.AddressLevelType;
 import org.avni.server.domain.AddressLevelTypes;
+import org.avni.server.importer.batch.csv.ChunkLookupCache;
 import org.avni.server.importer.batch.model.Row;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
@@ -11,14 +12,17 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class AddressLevelCreator {
     private final LocationRepository locationRepository;
+    private final ChunkLookupCache chunkLookupCache;
 
     @Autowired
-    public AddressLevelCreator(LocationRepository locationRepository) {
+    public AddressLevelCreator(LocationRepository locationRepository, ChunkLookupCache chunkLookupCache) {
         this.locationRepository = locationRepository;
+        this.chunkLookupCache = chunkLookupCache;
     }
 
     public AddressLevel findAddressLevel(Row row,
@@ -29,7 +33,8 @@ public class AddressLevelCreator {
                 .orElseThrow(() -> new RuntimeException("No matching location types found. If subject type has registration locations then only those will be used for matching."));
 
         String title = row.get(firstMatch.getName());
-        List<AddressLevel> matchingAddressLevels = locationRepository.findByTitleAndType(title, firstMatch, PageRequest.of(0, 2));
+        List<AddressLevel> matchingAddressLevels = chunkLookupCache.get(() -> locationRepository.findByTitleAndType(title, firstMatch, PageRequest.of(0, 2)),
+                "addressLevelsByTitle", title, firstMatch.getUuid());
         switch (matchingAddressLevels.size()) {
             case 0:
                 throw new RuntimeException(("Address not found: " + title));
@@ -55,7 +60,9 @@ public class AddressLevelCreator {
 
         String lineage = String.join(", ", inputLocations);
 
-        return locationRepository.findByTitleLineageIgnoreCase(lineage)
+        AddressLevel addressLevel = chunkLookupCache.get(() -> locationRepository.findByTitleLineageIgnoreCase(lineage).orElse(null),
+                "addressLevelByLineage", lineage);
+        return Optional.ofNullable(addressLevel)
                 .orElseThrow(() -> new RuntimeException("'Address' not found: " + lineage));
     }
 }
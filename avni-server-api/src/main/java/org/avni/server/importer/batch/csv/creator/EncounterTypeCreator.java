@@ -2,23 +2,26 @@ package org.avni.server.importer.batch.csv.creator;
 
 import org.avni.server.dao.EncounterTypeRepository;
 import org.avni.server.domain.EncounterType;
+import org.avni.server.importer.batch.csv.ChunkLookupCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class EncounterTypeCreator {
     private EncounterTypeRepository encounterTypeRepository;
+    private ChunkLookupCache chunkLookupCache;
 
     @Autowired
-    public EncounterTypeCreator(EncounterTypeRepository encounterTypeRepository) {
+    public EncounterTypeCreator(EncounterTypeRepository encounterTypeRepository, ChunkLookupCache chunkLookupCache) {
         this.encounterTypeRepository = encounterTypeRepository;
+        this.chunkLookupCache = chunkLookupCache;
     }
 
     public EncounterType getEncounterType(String name, String identifierForErrorMessage) throws Exception {
         if (name == null || name.isEmpty()) {
             throw new Exception(String.format("'%s' is required", identifierForErrorMessage));
         }
-        EncounterType encounterType = encounterTypeRepository.findByName(name);
+        EncounterType encounterType = chunkLookupCache.get(() -> encounterTypeRepository.findByName(name), "encounterType", name);
         if (encounterType == null) {
             throw new Exception(String.format("'%s' '%s' is required", identifierForErrorMessage, name));
         }
@@ -5,15 +5,16 @@ import org.avni.server.application.FormElement;
 import org.avni.server.application.FormElementType;
 import org.avni.server.application.FormType;
 import org.avni.server.dao.AddressLevelTypeRepository;
-import org.avni.server.dao.ConceptRepository;
 import org.avni.server.dao.application.FormElementRepository;
 import org.avni.server.dao.application.FormRepository;
 import org.avni.server.domain.AddressLevelType;
 import org.avni.server.domain.Concept;
 import org.avni.server.domain.ConceptDataType;
 import org.avni.server.domain.ObservationCollection;
+import org.avni.server.importer.batch.csv.ChunkLookupCache;
 import org.avni.server.importer.batch.csv.writer.header.Headers;
 import org.avni.server.importer.batch.model.Row;
+import org.avni.server.service.ConceptDictionaryService;
 import org.avni.server.service.IndividualService;
 import org.avni.server.service.LocationService;
 import org.avni.server.service.ObservationService;
@@ -44,34 +45,42 @@ import static java.lang.String.format;
 public class ObservationCreator {
     private static Logger logger = LoggerFactory.getLogger(ObservationCreator.class);
     private final AddressLevelTypeRepository addressLevelTypeRepository;
-    private final ConceptRepository conceptRepository;
+    private final ConceptDictionaryService conceptDictionaryService;
     private final FormRepository formRepository;
     private final ObservationService observationService;
     private final S3Service s3Service;
     private final IndividualService individualService;
     private final LocationService locationService;
     private final FormElementRepository formElementRepository;
+    private final ChunkLookupCache chunkLookupCache;
 
     @Autowired
     public ObservationCreator(AddressLevelTypeRepository addressLevelTypeRepository,
-                              ConceptRepository conceptRepository,
+                              ConceptDictionaryService conceptDictionaryService,
                               FormRepository formRepository,
                               ObservationService observationService,
                               S3Service s3Service,
                               IndividualService individualService,
                               LocationService locationService,
-                              FormElementRepository formElementRepository) {
+                              FormElementRepository formElementRepository,
+                              ChunkLookupCache chunkLookupCache) {
         this.addressLevelTypeRepository = addressLevelTypeRepository;
-        this.conceptRepository = conceptRepository;
+        this.conceptDictionaryService = conceptDictionaryService;
         this.formRepository = formRepository;
         this.observationService = observationService;
         this.s3Service = s3Service;
         this.individualService = individualService;
         this.locationService = locationService;
         this.formElementRepository = formElementRepository;
+        this.chunkLookupCache = chunkLookupCache;
     }
 
     public Set<Concept> getConceptHeaders(Headers fixedHeaders, String[] fileHeaders) {
+        return chunkLookupCache.get(() -> findConceptHeaders(fixedHeaders, fileHeaders),
+                "conceptHeaders", Arrays.asList(fixedHeaders.getAllHeaders()), Arrays.asList(fileHeaders));
+    }
+
+    private Set<Concept> findConceptHeaders(Headers fixedHeaders, String[] fileHeaders) {
         List<AddressLevelType> locationTypes = addressLevelTypeRepository.findAll();
         locationTypes.sort(Comparator.comparingDouble(AddressLevelType::getLevel).reversed());
 
@@ -87,11 +96,11 @@ public class ObservationCreator {
     }
 
     private Concept findConcept(String name, boolean isChildQuestionGroup) {
-        Concept concept = conceptRepository.findByName(name);
+        Concept concept = conceptDictionaryService.findByName(name);
         if (concept == null && name.contains("|")) {
             String[] parentChildNameArray = name.split("\\|");
             String questionGroupConceptName = isChildQuestionGroup ? parentChildNameArray[1] : parentChildNameArray[0];
-            concept = conceptRepository.findByName(questionGroupConceptName);
+            concept = conceptDictionaryService.findByName(questionGroupConceptName);
         }
         return concept;
     }
@@ -109,7 +118,7 @@ public class ObservationCreator {
     private boolean isNonEmptyQuestionGroup(FormElement formElement, Row row) {
         Concept concept = formElement.getConcept();
         if (ConceptDataType.isQuestionGroup(concept.getDataType())) {
-            List<FormElement> allChildQuestions = formElementRepository.findAllByGroupId(formElement.getId());
+            List<FormElement> allChildQuestions = getChildQuestions(formElement);
             return allChildQuestions.stream().anyMatch(fe -> {
                 String parentChildName = concept.getName() + "|" + fe.getConcept().getName();
                 String headerName = formElement.isRepeatable() ? String.format("%s|1", parentChildName) : parentChildName;
@@ -154,7 +163,7 @@ public class ObservationCreator {
 
     // For the repeatable question group columns should be "Question group concept"|"Child concept"|"order(1,2,3...)"
     private Object constructChildObservations(Row row, Headers headers, List<String> errorMsgs, FormElement parentFormElement, FormType formType, ObservationCollection oldObservations) {
-        List<FormElement> allChildQuestions = formElementRepository.findAllByGroupId(parentFormElement.getId());
+        List<FormElement> allChildQuestions = getChildQuestions(parentFormElement);
         if (parentFormElement.isRepeatable()) {
             Pattern repeatableQuestionGroupPattern = Pattern.compile(String.format("%s\\|.*\\|\\d", parentFormElement.getConcept().getName()));
             List<String> repeatableQuestionGroupHeaders = Stream.of(row.getHeaders())
@@ -205,7 +214,17 @@ public class ObservationCreator {
         }).collect(Collectors.toList());
     }
 
+    private List<FormElement> getChildQuestions(FormElement questionGroupFormElement) {
+        return chunkLookupCache.get(() -> formElementRepository.findAllByGroupId(questionGroupFormElement.getId()),
+                "childQuestions", questionGroupFormElement.getId());
+    }
+
     private FormElement getFormElementForObservationConcept(Concept concept, FormType formType) {
+        return chunkLookupCache.get(() -> findFormElementForObservationConcept(concept, formType),
+                "formElementForConcept", concept.getUuid(), formType);
+    }
+
+    private FormElement findFormElementForObservationConcept(Concept concept, FormType formType) {
         List<Form> applicableForms = formRepository.findByFormTypeAndIsVoidedFalse(formType);
         if (applicableForms.isEmpty())
             throw new RuntimeException(String.format("No forms of type %s found", formType));
@@ -2,6 +2,7 @@ package org.avni.server.importer.batch.csv.creator;
 
 import org.avni.server.dao.ProgramRepository;
 import org.avni.server.domain.Program;
+import org.avni.server.importer.batch.csv.ChunkLookupCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -9,14 +10,16 @@ import org.springframework.stereotype.Component;
 public class ProgramCreator {
 
     private ProgramRepository programRepository;
+    private ChunkLookupCache chunkLookupCache;
 
     @Autowired
-    public ProgramCreator(ProgramRepository programRepository) {
+    public ProgramCreator(ProgramRepository programRepository, ChunkLookupCache chunkLookupCache) {
         this.programRepository = programRepository;
+        this.chunkLookupCache = chunkLookupCache;
     }
 
     public Program getProgram(String name, String header) throws Exception {
-        Program program = programRepository.findByName(name);
+        Program program = chunkLookupCache.get(() -> programRepository.findByName(name), "program", name);
         if (program == null) {
             throw new Exception(String.format("'%s' '%s' not found", header, name));
         }
@@ -3,6 +3,7 @@ package org.avni.server.importer.batch.csv.creator;
 import org.avni.server.dao.OperationalSubjectTypeRepository;
 import org.avni.server.domain.OperationalSubjectType;
 import org.avni.server.domain.SubjectType;
+import org.avni.server.importer.batch.csv.ChunkLookupCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -10,14 +11,17 @@ import org.springframework.stereotype.Component;
 public class SubjectTypeCreator {
 
     private OperationalSubjectTypeRepository operationalSubjectTypeRepository;
+    private ChunkLookupCache chunkLookupCache;
 
     @Autowired
-    public SubjectTypeCreator(OperationalSubjectTypeRepository operationalSubjectTypeRepository) {
+    public SubjectTypeCreator(OperationalSubjectTypeRepository operationalSubjectTypeRepository, ChunkLookupCache chunkLookupCache) {
         this.operationalSubjectTypeRepository = operationalSubjectTypeRepository;
+        this.chunkLookupCache = chunkLookupCache;
     }
 
     public SubjectType getSubjectType(String subjectTypeValue, String header) throws Exception {
-        OperationalSubjectType operationalSubjectType = operationalSubjectTypeRepository.findByNameIgnoreCase(subjectTypeValue);
+        OperationalSubjectType operationalSubjectType = chunkLookupCache.get(() -> operationalSubjectTypeRepository.findByNameIgnoreCase(subjectTypeValue),
+                "operationalSubjectType", subjectTypeValue);
         if (operationalSubjectType == null) {
             throw new Exception(String.format("'%s' '%s' not found", header, subjectTypeValue));
         }
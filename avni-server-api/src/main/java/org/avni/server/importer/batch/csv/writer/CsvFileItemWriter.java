@@ -2,12 +2,14 @@ package org.avni.server.importer.batch.csv.writer;
 
 import org.avni.server.framework.security.AuthService;
 import org.avni.server.importer.batch.model.Row;
+import org.hibernate.Session;
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.persistence.EntityManager;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +21,7 @@ import static java.lang.String.format;
 public class CsvFileItemWriter implements ItemWriter<Row> {
 
     private final AuthService authService;
+    private final EntityManager entityManager;
     private final Map<String, ItemWriter<Row>> writers = new HashMap<>();
 
     @Value("#{jobParameters['userId']}")
@@ -36,8 +39,10 @@ public class CsvFileItemWriter implements ItemWriter<Row> {
                              ProgramEnrolmentWriter programEnrolmentWriter,
                              ProgramEncounterWriter programEncounterWriter,
                              EncounterWriter encounterWriter,
-                             GroupSubjectWriter groupSubjectWriter) {
+                             GroupSubjectWriter groupSubjectWriter,
+                             EntityManager entityManager) {
         this.authService = authService;
+        this.entityManager = entityManager;
         writers.put("locations", locationWriter);
         writers.put("usersAndCatchments", userAndCatchmentWriter);
         writers.put("Subject", subjectWriter);
@@ -59,7 +64,15 @@ public class CsvFileItemWriter implements ItemWriter<Row> {
     @Override
     public void write(List<? extends Row> rows) throws Exception {
         authService.authenticateByUserId(userId, organisationUUID);
-        getWriter().write(rows);
+        // jdbc batching is not configured globally, so the chunk turns it on for its own session only
+        Session session = entityManager.unwrap(Session.class);
+        Integer jdbcBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(rows.size());
+        try {
+            getWriter().write(rows);
+        } finally {
+            session.setJdbcBatchSize(jdbcBatchSize);
+        }
     }
 
     public Long getUserId() {
@@ -7,6 +7,7 @@ import org.avni.server.dao.GenderRepository;
 import org.avni.server.dao.IndividualRepository;
 import org.avni.server.dao.application.FormMappingRepository;
 import org.avni.server.domain.*;
+import org.avni.server.importer.batch.csv.ChunkLookupCache;
 import org.avni.server.importer.batch.csv.contract.UploadRuleServerResponseContract;
 import org.avni.server.importer.batch.csv.creator.*;
 import org.avni.server.importer.batch.csv.writer.header.SubjectHeaders;
@@ -41,6 +42,7 @@ public class SubjectWriter extends EntityWriter implements ItemWriter<Row>, Seri
     private final AddressLevelCreator addressLevelCreator;
     private final SubjectMigrationService subjectMigrationService;
     private final SubjectTypeService subjectTypeService;
+    private final ChunkLookupCache chunkLookupCache;
 
     private static final Logger logger = LoggerFactory.getLogger(SubjectWriter.class);
 
@@ -56,7 +58,8 @@ public class SubjectWriter extends EntityWriter implements ItemWriter<Row>, Seri
                          ObservationCreator observationCreator, IndividualService individualService, EntityApprovalStatusWriter entityApprovalStatusWriter,
                          S3Service s3Service,
                          OrganisationConfigService organisationConfigService,
-                         AddressLevelCreator addressLevelCreator, SubjectMigrationService subjectMigrationService, SubjectTypeService subjectTypeService) {
+                         AddressLevelCreator addressLevelCreator, SubjectMigrationService subjectMigrationService, SubjectTypeService subjectTypeService,
+                         ChunkLookupCache chunkLookupCache) {
         super(organisationConfigService);
         this.individualRepository = individualRepository;
         this.genderRepository = genderRepository;
@@ -73,6 +76,7 @@ public class SubjectWriter extends EntityWriter implements ItemWriter<Row>, Seri
         this.subjectMigrationService = subjectMigrationService;
         this.subjectTypeService = subjectTypeService;
         this.s3Service = s3Service;
+        this.chunkLookupCache = chunkLookupCache;
     }
 
     @Override
@@ -100,11 +104,13 @@ public class SubjectWriter extends EntityWriter implements ItemWriter<Row>, Seri
             LocationCreator locationCreator = new LocationCreator();
             individual.setRegistrationLocation(locationCreator.getGeoLocation(row, SubjectHeaders.registrationLocation, allErrorMsgs));
 
-            AddressLevelTypes registrationLocationTypes = subjectTypeService.getRegistrableLocationTypes(subjectType);
+            AddressLevelTypes registrationLocationTypes = chunkLookupCache.get(() -> subjectTypeService.getRegistrableLocationTypes(subjectType),
+                    "registrableLocationTypes", subjectType.getUuid());
             individual.setAddressLevel(addressLevelCreator.findAddressLevel(row, registrationLocationTypes));
 
             if (individual.getSubjectType().getType().equals(Subject.Person)) setGender(individual, row);
-            FormMapping formMapping = formMappingRepository.getRegistrationFormMapping(subjectType);
+            FormMapping formMapping = chunkLookupCache.get(() -> formMappingRepository.getRegistrationFormMapping(subjectType),
+                    "registrationFormMapping", subjectType.getUuid());
             individual.setVoided(false);
             individual.assignUUIDIfRequired();
             if (formMapping == null) {
@@ -183,7 +189,7 @@ public class SubjectWriter extends EntityWriter implements ItemWriter<Row>, Seri
     private void setGender(Individual individual, Row row) throws Exception {
         try {
             String genderName = row.get(SubjectHeaders.gender);
-            Gender gender = genderRepository.findByNameIgnoreCase(genderName);
+            Gender gender = chunkLookupCache.get(() -> genderRepository.findByNameIgnoreCase(genderName), "gender", genderName);
             if (gender == null) {
                 throw new Exception(String.format("Invalid '%s' - '%s'", SubjectHeaders.gender, genderName));
             }
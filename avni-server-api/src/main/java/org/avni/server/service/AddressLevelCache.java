@@ -3,11 +3,16 @@ package org.avni.server.service;
 import org.avni.server.application.projections.VirtualCatchmentProjection;
 import org.avni.server.dao.LocationRepository;
 import org.avni.server.domain.Catchment;
+import org.avni.server.domain.CatchmentAddressIndex;
+import org.avni.server.framework.cache.ClusterCacheInvalidation;
+import org.avni.server.framework.hibernate.LocationChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Objects;
 
 @Component
 public class AddressLevelCache {
@@ -15,19 +20,33 @@ public class AddressLevelCache {
     public static final String ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS = "addressesPerCatchmentAndMatchingAddrLevels";
 
     private final LocationRepository locationRepository;
+    private final ClusterCacheInvalidation clusterCacheInvalidation;
 
     @Autowired
-    public AddressLevelCache(LocationRepository locationRepository) {
+    public AddressLevelCache(LocationRepository locationRepository, ClusterCacheInvalidation clusterCacheInvalidation) {
         this.locationRepository = locationRepository;
+        this.clusterCacheInvalidation = clusterCacheInvalidation;
+    }
+
+    @EventListener(LocationChangedEvent.class)
+    public void locationChanged() {
+        clusterCacheInvalidation.invalidate(ADDRESSES_PER_CATCHMENT, ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS);
     }
 
     @Cacheable(value = ADDRESSES_PER_CATCHMENT)
-    public List<VirtualCatchmentProjection> getAddressLevelsForCatchment(Catchment catchment) {
-        return locationRepository.getVirtualCatchmentsForCatchmentId(catchment.getId());
+    public CatchmentAddressIndex getAddressLevelsForCatchment(Catchment catchment) {
+        return toIndex(locationRepository.getVirtualCatchmentsForCatchmentId(catchment.getId()));
     }
 
     @Cacheable(value = ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS)
-    public List<VirtualCatchmentProjection> getAddressLevelsForCatchmentAndMatchingAddressLevelTypeIds(Catchment catchment, List<Long> matchingAddressLevelTypeIds) {
-        return locationRepository.getVirtualCatchmentsForCatchmentIdAndLocationTypeId(catchment.getId(), matchingAddressLevelTypeIds);
+    public CatchmentAddressIndex getAddressLevelsForCatchmentAndMatchingAddressLevelTypeIds(Catchment catchment, List<Long> matchingAddressLevelTypeIds) {
+        return toIndex(locationRepository.getVirtualCatchmentsForCatchmentIdAndLocationTypeId(catchment.getId(), matchingAddressLevelTypeIds));
+    }
+
+    private static CatchmentAddressIndex toIndex(List<VirtualCatchmentProjection> virtualCatchments) {
+        return CatchmentAddressIndex.of(virtualCatchments.stream()
+                .map(VirtualCatchmentProjection::getAddresslevel_id)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue));
     }
 }
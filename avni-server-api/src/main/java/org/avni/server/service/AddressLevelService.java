@@ -4,7 +4,6 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.avni.server.application.KeyType;
 import org.avni.server.application.projections.LocationProjection;
-import org.avni.server.application.projections.VirtualCatchmentProjection;
 import org.avni.server.dao.AddressLevelTypeRepository;
 import org.avni.server.dao.LocationRepository;
 import org.avni.server.domain.*;
@@ -18,7 +17,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 public class AddressLevelService {
@@ -40,12 +38,10 @@ public class AddressLevelService {
     }
 
     public List<Long> getAddressLevelsByCatchmentAndSubjectType(Catchment catchment, SubjectType subjectType) {
-        return filterByCatchmentAndSubjectType(catchment, subjectType)
-                .map(VirtualCatchmentProjection::getAddresslevel_id)
-                .collect(Collectors.toList());
+        return filterByCatchmentAndSubjectType(catchment, subjectType).toList();
     }
 
-    private Stream<VirtualCatchmentProjection> filterByCatchmentAndSubjectType(Catchment catchment, SubjectType subjectType) {
+    private CatchmentAddressIndex filterByCatchmentAndSubjectType(Catchment catchment, SubjectType subjectType) {
         Optional<SubjectTypeSetting> customRegistrationLocationSetting = getCustomRegistrationSetting(subjectType);
 
         if (customRegistrationLocationSetting.isPresent() && !customRegistrationLocationSetting.get().getLocationTypeUUIDs().isEmpty()) {
@@ -55,10 +51,10 @@ public class AddressLevelService {
                     .map(CHSBaseEntity::getId)
                     .collect(Collectors.toList());
 
-            return addressLevelCache.getAddressLevelsForCatchmentAndMatchingAddressLevelTypeIds(catchment, matchingAddressLevelTypeIds).stream();
+            return addressLevelCache.getAddressLevelsForCatchmentAndMatchingAddressLevelTypeIds(catchment, matchingAddressLevelTypeIds);
         }
 
-        return addressLevelCache.getAddressLevelsForCatchment(catchment).stream();
+        return addressLevelCache.getAddressLevelsForCatchment(catchment);
     }
 
     private Optional<SubjectTypeSetting> getCustomRegistrationSetting(SubjectType subjectType) {
@@ -98,6 +94,10 @@ public class AddressLevelService {
         return getAddressLevelsByCatchmentAndSubjectType(catchment, subjectType);
     }
 
+    public CatchmentAddressIndex getRegistrationAddressIndexBySubjectType(Catchment catchment, SubjectType subjectType) {
+        return filterByCatchmentAndSubjectType(catchment, subjectType);
+    }
+
     public String getTitleLineage(AddressLevel location) {
         return locationRepository.getTitleLineageById(location.getId());
     }
@@ -11,9 +11,15 @@ import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.Verification;
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.avni.server.config.AuthCacheConfig;
 import org.avni.server.dao.UserRepository;
 import org.avni.server.domain.User;
 import org.avni.server.domain.accessControl.AvniNoUserSessionException;
+import org.avni.server.framework.security.RefreshingJwkProvider;
+import org.avni.server.framework.security.VerifiedTokenCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
@@ -21,13 +27,26 @@ import org.springframework.util.StringUtils;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.security.interfaces.RSAPublicKey;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public abstract class BaseIAMService implements IAMAuthService {
     private final Logger logger = LoggerFactory.getLogger(BaseIAMService.class);
+    private static final ExecutorService jwksRefreshExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("jwks-refresh-%d").setDaemon(true).build());
     private final UserRepository userRepository;
+    private final AuthCacheConfig authCacheConfig;
+    private final MeterRegistry meterRegistry;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private volatile JwkProvider jwkProvider;
 
-    protected BaseIAMService(UserRepository userRepository) {
+    protected BaseIAMService(UserRepository userRepository, AuthCacheConfig authCacheConfig, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.authCacheConfig = authCacheConfig;
+        this.meterRegistry = meterRegistry;
+        this.verifiedTokenCache = new VerifiedTokenCache(authCacheConfig.getVerifiedTokenMaxEntries(), authCacheConfig.getVerifiedTokenMaxTtlSeconds());
+        GuavaCacheMetrics.monitor(meterRegistry, verifiedTokenCache.getCache(), "verifiedTokens", "idp", getClass().getSimpleName());
     }
 
     private String getValueInToken(DecodedJWT jwt, String name) {
@@ -40,22 +59,48 @@ public abstract class BaseIAMService implements IAMAuthService {
     public User getUserFromToken(String token) throws SigningKeyNotFoundException {
         if (StringUtils.isEmpty(token)) return null;
 
+        VerifiedTokenCache.VerifiedToken verifiedToken = verifiedTokenCache.get(token);
+        if (verifiedToken != null) {
+            //User is in the second level cache, so this usually doesn't reach the database
+            Optional<User> cachedUser = userRepository.findById(verifiedToken.getUserId());
+            if (cachedUser.isPresent()) return cachedUser.get();
+        }
+
         DecodedJWT jwt = verifyAndDecodeToken(token);
         if (jwt == null) return null;
 
         String username = getValueInToken(jwt, getUsernameField());
         String userUUID = getValueInToken(jwt, getUserUuidField());
-        return Strings.isNullOrEmpty(userUUID)
+        User user = Strings.isNullOrEmpty(userUUID)
                 ? userRepository.findByUsername(username)
                 : userRepository.findByUuid(userUUID);
+        if (user != null) {
+            verifiedTokenCache.put(token, user.getId(), jwt.getExpiresAt());
+        }
+        return user;
+    }
+
+    private JwkProvider getJwkProvider() throws MalformedURLException {
+        if (jwkProvider == null) {
+            synchronized (this) {
+                if (jwkProvider == null) {
+                    RefreshingJwkProvider provider = new RefreshingJwkProvider(new UrlJwkProvider(new URL(getJwkProviderUrl())),
+                            TimeUnit.MINUTES.toMillis(authCacheConfig.getJwksRefreshMinutes()),
+                            TimeUnit.HOURS.toMillis(authCacheConfig.getJwksExpiryHours()),
+                            TimeUnit.MILLISECONDS, jwksRefreshExecutor);
+                    GuavaCacheMetrics.monitor(meterRegistry, provider.getCache(), "jwks", "idp", getClass().getSimpleName());
+                    jwkProvider = provider;
+                }
+            }
+        }
+        return jwkProvider;
     }
 
     protected DecodedJWT verifyAndDecodeToken(String token) throws SigningKeyNotFoundException {
         Jwk jwk;
         try {
             DecodedJWT unverifiedJwt = JWT.decode(token);
-            JwkProvider provider = new GuavaCachedJwkProvider(new UrlJwkProvider(new URL(getJwkProviderUrl())));
-            jwk = provider.get(unverifiedJwt.getKeyId());
+            jwk = getJwkProvider().get(unverifiedJwt.getKeyId());
         } catch (MalformedURLException e) {
             logger.error("Check the settings for public key " + getIssuer(), e);
             throw new RuntimeException(e);
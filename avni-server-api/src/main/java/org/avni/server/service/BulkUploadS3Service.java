@@ -47,6 +47,12 @@ public class BulkUploadS3Service {
         return new File(errorDir, format("%s.csv", uuid));
     }
 
+    public File getLocalInputFile(String uuid) {
+        File inputDir = new File(format("%s/bulkuploads/input", System.getProperty("java.io.tmpdir")));
+        inputDir.mkdirs();
+        return new File(inputDir, format("%s.csv", uuid));
+    }
+
     public InputStream downloadErrorFile(String jobUuid) {
         S3File s3File = S3File.organisationFile(UserContextHolder.getOrganisation(), format("%s.csv", jobUuid), S3FileType.BulkUploadsError);
         return s3Service.getFileStream(s3File);
@@ -1,6 +1,8 @@
 package org.avni.server.service;
 
 import com.auth0.jwt.interfaces.Verification;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.avni.server.config.AuthCacheConfig;
 import org.avni.server.config.CognitoConfig;
 import org.avni.server.dao.UserRepository;
 import org.slf4j.Logger;
@@ -19,8 +21,8 @@ public class CognitoAuthServiceImpl extends BaseIAMService {
     private final CognitoConfig cognitoConfig;
 
     @Autowired
-    public CognitoAuthServiceImpl(UserRepository userRepository, CognitoConfig cognitoConfig) {
-        super(userRepository);
+    public CognitoAuthServiceImpl(UserRepository userRepository, CognitoConfig cognitoConfig, AuthCacheConfig authCacheConfig, MeterRegistry meterRegistry) {
+        super(userRepository, authCacheConfig, meterRegistry);
         this.cognitoConfig = cognitoConfig;
     }
 
@@ -0,0 +1,167 @@
+package org.avni.server.service;
+
+import org.avni.server.domain.Concept;
+import org.avni.server.domain.ConceptAnswer;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the concepts visible to an organisation - its own and those of its parent organisations - with
+ * their names, data types and answers. Changes produce a new snapshot via {@link #merge(Collection, Map, long)}, so a
+ * snapshot can be read by any number of threads without locking.
+ * <p>
+ * Concepts of the organisation itself win over a parent's concept of the same name.
+ */
+public class ConceptDictionary {
+    // rough per object costs on a 64 bit jvm with compressed oops, used only for reporting
+    private static final long ENTRY_BYTES = 48;
+    private static final long MAP_ENTRY_BYTES = 48;
+    private static final long STRING_BYTES = 40;
+    private static final long LIST_BYTES = 24;
+    private static final long REFERENCE_BYTES = 8;
+
+    private final long organisationId;
+    private final long version;
+    private final Map<Long, Entry> byId;
+    private final Map<String, Entry> byUuid;
+    private final Map<String, Entry> byName;
+    private final long estimatedBytes;
+
+    private ConceptDictionary(long organisationId, long version, Map<Long, Entry> byId) {
+        this.organisationId = organisationId;
+        this.version = version;
+        this.byId = byId;
+        this.byUuid = new HashMap<>(byId.size() * 2);
+        this.byName = new HashMap<>(byId.size() * 2);
+        long bytes = 0;
+        for (Entry entry : byId.values()) {
+            byUuid.put(entry.uuid, entry);
+            byName.merge(entry.name, entry, (existing, other) -> existing.organisationId == organisationId ? existing : other);
+            bytes += entry.estimatedBytes();
+        }
+        this.estimatedBytes = bytes + (long) byId.size() * 3 * MAP_ENTRY_BYTES;
+    }
+
+    public static ConceptDictionary create(long organisationId, Collection<Entry> entries, long version) {
+        Map<Long, Entry> byId = new HashMap<>(entries.size() * 2);
+        entries.forEach(entry -> byId.put(entry.id, entry));
+        return new ConceptDictionary(organisationId, version, byId);
+    }
+
+    /**
+     * @param changedEntries concepts created or modified since this snapshot
+     * @param changedAnswers complete answer lists of the concepts whose answers changed, by concept id. Changed concepts
+     *                       without an answer list here keep the answers they had.
+     */
+    public ConceptDictionary merge(Collection<Entry> changedEntries, Map<Long, List<String>> changedAnswers, long version) {
+        Map<Long, Entry> merged = new HashMap<>(byId);
+        changedEntries.forEach(entry -> {
+            Entry previous = byId.get(entry.id);
+            merged.put(entry.id, entry.withAnswerUUIDs(previous == null ? entry.answerUUIDs : previous.answerUUIDs));
+        });
+        changedAnswers.forEach((conceptId, answerUUIDs) -> {
+            Entry entry = merged.get(conceptId);
+            if (entry != null) merged.put(conceptId, entry.withAnswerUUIDs(answerUUIDs));
+        });
+        return new ConceptDictionary(organisationId, Math.max(this.version, version), merged);
+    }
+
+    public Entry findByName(String name) {
+        return name == null ? null : byName.get(name);
+    }
+
+    public Entry findByUuid(String uuid) {
+        return uuid == null ? null : byUuid.get(uuid);
+    }
+
+    public List<Entry> getAnswers(Entry concept) {
+        return concept.answerUUIDs.stream().map(byUuid::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    public long getOrganisationId() {
+        return organisationId;
+    }
+
+    /**
+     * @return latest last_modified_date_time, in millis, of the concepts and answers in this snapshot
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public static class Entry {
+        private final long id;
+        private final String uuid;
+        private final String name;
+        private final String dataType;
+        private final boolean voided;
+        private final long organisationId;
+        private final List<String> answerUUIDs;
+
+        public Entry(long id, String uuid, String name, String dataType, boolean voided, long organisationId, List<String> answerUUIDs) {
+            this.id = id;
+            this.uuid = uuid;
+            this.name = name;
+            this.dataType = dataType;
+            this.voided = voided;
+            this.organisationId = organisationId;
+            this.answerUUIDs = Collections.unmodifiableList(answerUUIDs);
+        }
+
+        public static Entry fromConcept(Concept concept) {
+            List<String> answerUUIDs = concept.getConceptAnswers() == null ? Collections.emptyList() : concept.getConceptAnswers().stream()
+                    .filter(conceptAnswer -> !conceptAnswer.isVoided())
+                    .sorted(Comparator.comparingDouble(ConceptAnswer::getOrder))
+                    .map(conceptAnswer -> conceptAnswer.getAnswerConcept().getUuid())
+                    .collect(Collectors.toList());
+            long organisationId = concept.getOrganisationId() == null ? 0 : concept.getOrganisationId();
+            long id = concept.getId() == null ? 0 : concept.getId();
+            return new Entry(id, concept.getUuid(), concept.getName(), concept.getDataType(), concept.isVoided(), organisationId, answerUUIDs);
+        }
+
+        Entry withAnswerUUIDs(List<String> answerUUIDs) {
+            return new Entry(id, uuid, name, dataType, voided, organisationId, answerUUIDs);
+        }
+
+        private long estimatedBytes() {
+            return ENTRY_BYTES + stringBytes(uuid) + stringBytes(name) + LIST_BYTES + answerUUIDs.size() * REFERENCE_BYTES;
+        }
+
+        private static long stringBytes(String s) {
+            return s == null ? 0 : STRING_BYTES + 2L * s.length();
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getUuid() {
+            return uuid;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDataType() {
+            return dataType;
+        }
+
+        public boolean isVoided() {
+            return voided;
+        }
+
+        public List<String> getAnswerUUIDs() {
+            return answerUUIDs;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package org.avni.server.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.avni.server.dao.ConceptRepository;
+import org.avni.server.domain.Concept;
+import org.avni.server.domain.Organisation;
+import org.avni.server.framework.cache.ClusterCacheInvalidation;
+import org.avni.server.framework.hibernate.MetadataChangedEvent;
+import org.avni.server.framework.security.UserContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Looks up concepts by name and uuid in a per organisation {@link ConceptDictionary} instead of querying for each
+ * observation and answer. Full concepts are then loaded by id, which hibernate serves from its caches.
+ * <p>
+ * After a {@link MetadataChangedEvent} on this or another server instance, e.g. once
+ * {@link ConceptService#saveOrUpdateConcepts(List)} commits, or once a dictionary is older than its ttl, the next lookup
+ * reads only the concepts and answers modified since the dictionary's version and merges them into a new dictionary.
+ * Concepts not in the dictionary, like ones created earlier in the same transaction, are looked up in the database as
+ * before.
+ * <p>
+ * Dictionaries are kept for a bounded number of organisations and dropped once an organisation has not looked up
+ * concepts for a while.
+ */
+@Service
+public class ConceptDictionaryService {
+    public static final String CONCEPT_DICTIONARIES = "conceptDictionaries";
+    // rows committed a little after others with an earlier last_modified_date_time are still picked up
+    private static final long REFRESH_OVERLAP_MILLIS = 60_000;
+
+    private static final String CONCEPTS_QUERY = "select c.id, c.uuid, c.name, c.data_type, c.is_voided, c.organisation_id, c.last_modified_date_time " +
+            "from concept c where c.organisation_id in (:organisationIds)";
+    private static final String CHANGED_CONCEPTS_QUERY = CONCEPTS_QUERY + " and c.last_modified_date_time >= :since";
+    private static final String ANSWERS_QUERY = "select ca.concept_id, a.uuid as answer_uuid, ca.is_voided, ca.last_modified_date_time " +
+            "from concept_answer ca join concept a on a.id = ca.answer_concept_id " +
+            "where ca.concept_id in (select id from concept where organisation_id in (:organisationIds))";
+    private static final String CHANGED_ANSWERS_QUERY = ANSWERS_QUERY +
+            " and ca.concept_id in (select concept_id from concept_answer where last_modified_date_time >= :since)";
+    private static final String ANSWERS_ORDER = " order by ca.concept_id, ca.answer_order";
+
+    private final ConceptRepository conceptRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long ttlMillis;
+    private final Cache<Long, Snapshot> snapshots;
+    private final AtomicLong generation = new AtomicLong();
+    private final ClusterCacheInvalidation clusterCacheInvalidation;
+    private final Timer hits;
+    private final Timer misses;
+
+    @Autowired
+    public ConceptDictionaryService(ConceptRepository conceptRepository, NamedParameterJdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                    ClusterCacheInvalidation clusterCacheInvalidation,
+                                    @Value("${avni.conceptDictionary.ttl.seconds}") long ttlSeconds,
+                                    @Value("${avni.conceptDictionary.max.organisations}") long maxOrganisations,
+                                    @Value("${avni.conceptDictionary.idle.seconds}") long idleSeconds) {
+        this.conceptRepository = conceptRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.snapshots = CacheBuilder.newBuilder()
+                .maximumSize(maxOrganisations)
+                .expireAfterAccess(idleSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, snapshots, CONCEPT_DICTIONARIES);
+        this.clusterCacheInvalidation = clusterCacheInvalidation;
+        clusterCacheInvalidation.registerLocalCache(CONCEPT_DICTIONARIES, generation::incrementAndGet);
+        this.hits = Timer.builder("avni.conceptDictionary.lookups").tag("outcome", "hit").register(meterRegistry);
+        this.misses = Timer.builder("avni.conceptDictionary.lookups").tag("outcome", "miss").register(meterRegistry);
+        Gauge.builder("avni.conceptDictionary.concepts", snapshots, s -> s.asMap().values().stream().mapToLong(snapshot -> snapshot.dictionary.size()).sum())
+                .register(meterRegistry);
+        Gauge.builder("avni.conceptDictionary.bytes", snapshots, s -> s.asMap().values().stream().mapToLong(snapshot -> snapshot.dictionary.getEstimatedBytes()).sum())
+                .description("Estimated heap used by the concept dictionaries of all organisations")
+                .register(meterRegistry);
+    }
+
+    @EventListener(MetadataChangedEvent.class)
+    public void metadataChanged() {
+        clusterCacheInvalidation.invalidate(CONCEPT_DICTIONARIES);
+    }
+
+    /**
+     * @return dictionary of the organisation in context, null when there is none, e.g. for admin users
+     */
+    public ConceptDictionary getDictionary() {
+        Organisation organisation = UserContextHolder.getOrganisation();
+        if (organisation == null || organisation.getId() == null) return null;
+
+        Long organisationId = organisation.getId();
+        Snapshot snapshot = snapshots.getIfPresent(organisationId);
+        long currentGeneration = generation.get();
+        if (snapshot != null && snapshot.isValid(currentGeneration, ttlMillis)) return snapshot.dictionary;
+
+        ConceptDictionary dictionary = snapshot == null ? load(organisationId) : refresh(snapshot.dictionary);
+        // a load racing with a concept write is kept, but refreshed again on the next lookup
+        snapshots.put(organisationId, new Snapshot(currentGeneration, System.currentTimeMillis(), dictionary));
+        return dictionary;
+    }
+
+    public Concept findByName(String name) {
+        return find(dictionary -> dictionary.findByName(name), () -> conceptRepository.findByName(name));
+    }
+
+    public Concept findByUuid(String uuid) {
+        return find(dictionary -> dictionary.findByUuid(uuid), () -> conceptRepository.findByUuid(uuid));
+    }
+
+    /**
+     * Like {@link #findByName(String)}, without loading the concept when only its uuid, name, data type or answers are
+     * needed.
+     */
+    public ConceptDictionary.Entry findEntryByName(String name) {
+        return findEntry(dictionary -> dictionary.findByName(name), () -> conceptRepository.findByName(name));
+    }
+
+    public ConceptDictionary.Entry findEntryByUuid(String uuid) {
+        return findEntry(dictionary -> dictionary.findByUuid(uuid), () -> conceptRepository.findByUuid(uuid));
+    }
+
+    private Concept find(Function<ConceptDictionary, ConceptDictionary.Entry> lookup, Supplier<Concept> fallback) {
+        long start = System.nanoTime();
+        ConceptDictionary dictionary = getDictionary();
+        ConceptDictionary.Entry entry = dictionary == null ? null : lookup.apply(dictionary);
+        Concept concept = entry == null ? null : conceptRepository.findOne(entry.getId());
+        if (concept != null) {
+            hits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return concept;
+        }
+        concept = fallback.get();
+        misses.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return concept;
+    }
+
+    private ConceptDictionary.Entry findEntry(Function<ConceptDictionary, ConceptDictionary.Entry> lookup, Supplier<Concept> fallback) {
+        long start = System.nanoTime();
+        ConceptDictionary dictionary = getDictionary();
+        ConceptDictionary.Entry entry = dictionary == null ? null : lookup.apply(dictionary);
+        if (entry != null) {
+            hits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return entry;
+        }
+        Concept concept = fallback.get();
+        misses.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return concept == null ? null : ConceptDictionary.Entry.fromConcept(concept);
+    }
+
+    private ConceptDictionary load(long organisationId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("organisationIds", conceptRepository.buildOrganisationIdList());
+        Rows rows = query(CONCEPTS_QUERY, ANSWERS_QUERY, parameters);
+        List<ConceptDictionary.Entry> entries = new ArrayList<>();
+        rows.concepts.forEach(entry -> entries.add(entry.withAnswerUUIDs(rows.answers.getOrDefault(entry.getId(), Collections.emptyList()))));
+        ConceptDictionary dictionary = ConceptDictionary.create(organisationId, entries, rows.version);
+        sample.stop(meterRegistry.timer("avni.conceptDictionary.loads", "type", "full"));
+        return dictionary;
+    }
+
+    private ConceptDictionary refresh(ConceptDictionary dictionary) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("organisationIds", conceptRepository.buildOrganisationIdList());
+        parameters.put("since", new Timestamp(dictionary.getVersion() - REFRESH_OVERLAP_MILLIS));
+        Rows rows = query(CHANGED_CONCEPTS_QUERY, CHANGED_ANSWERS_QUERY, parameters);
+        ConceptDictionary refreshed = rows.concepts.isEmpty() && rows.answers.isEmpty() ? dictionary : dictionary.merge(rows.concepts, rows.answers, rows.version);
+        sample.stop(meterRegistry.timer("avni.conceptDictionary.loads", "type", "incremental"));
+        return refreshed;
+    }
+
+    private Rows query(String conceptsQuery, String answersQuery, Map<String, Object> parameters) {
+        Rows rows = new Rows();
+        jdbcTemplate.query(conceptsQuery, parameters, rs -> {
+            rows.concepts.add(new ConceptDictionary.Entry(rs.getLong("id"), rs.getString("uuid"), rs.getString("name"),
+                    rs.getString("data_type"), rs.getBoolean("is_voided"), rs.getLong("organisation_id"), Collections.emptyList()));
+            rows.seen(rs.getTimestamp("last_modified_date_time"));
+        });
+        jdbcTemplate.query(answersQuery + ANSWERS_ORDER, parameters, rs -> {
+            List<String> answerUUIDs = rows.answers.computeIfAbsent(rs.getLong("concept_id"), conceptId -> new ArrayList<>());
+            if (!rs.getBoolean("is_voided")) answerUUIDs.add(rs.getString("answer_uuid"));
+            rows.seen(rs.getTimestamp("last_modified_date_time"));
+        });
+        return rows;
+    }
+
+    private static class Rows {
+        private final List<ConceptDictionary.Entry> concepts = new ArrayList<>();
+        private final Map<Long, List<String>> answers = new HashMap<>();
+        private long version;
+
+        void seen(Timestamp lastModifiedDateTime) {
+            if (lastModifiedDateTime != null) version = Math.max(version, lastModifiedDateTime.getTime());
+        }
+    }
+
+    private static class Snapshot {
+        private final long generation;
+        private final long loadedAt;
+        private final ConceptDictionary dictionary;
+
+        Snapshot(long generation, long loadedAt, ConceptDictionary dictionary) {
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+            this.dictionary = dictionary;
+        }
+
+        boolean isValid(long currentGeneration, long ttlMillis) {
+            return generation == currentGeneration && System.currentTimeMillis() - loadedAt < ttlMillis;
+        }
+    }
+}
@@ -41,10 +41,12 @@ public class ConceptService implements NonScopeAwareService {
     private final FormElementRepository formElementRepository;
     private final AnswerConceptMigrationRepository answerConceptMigrationRepository;
     private final LocationRepository locationRepository;
+    private final ConceptDictionaryService conceptDictionaryService;
 
     @Autowired
-    public ConceptService(ConceptRepository conceptRepository, ConceptAnswerRepository conceptAnswerRepository, OrganisationRepository organisationRepository, FormElementRepository formElementRepository, AnswerConceptMigrationRepository answerConceptMigrationRepository, LocationRepository locationRepository) {
+    public ConceptService(ConceptRepository conceptRepository, ConceptAnswerRepository conceptAnswerRepository, OrganisationRepository organisationRepository, FormElementRepository formElementRepository, AnswerConceptMigrationRepository answerConceptMigrationRepository, LocationRepository locationRepository, ConceptDictionaryService conceptDictionaryService) {
         this.formElementRepository = formElementRepository;
+        this.conceptDictionaryService = conceptDictionaryService;
         this.answerConceptMigrationRepository = answerConceptMigrationRepository;
         this.locationRepository = locationRepository;
         logger = LoggerFactory.getLogger(this.getClass());
@@ -232,7 +234,7 @@ public class ConceptService implements NonScopeAwareService {
     }
 
     public Concept get(String uuid) {
-        return conceptRepository.findByUuid(uuid);
+        return conceptDictionaryService.findByUuid(uuid);
     }
 
     public Concept getByName(String name) {
@@ -265,11 +267,11 @@ public class ConceptService implements NonScopeAwareService {
             List<Object> answerElements = (List<Object>) value;
             return answerElements.stream().map(answersItem -> {
                 if (answersItem instanceof String) { // Multi coded concept
-                    Concept answerConcept = conceptRepository.findByUuid((String) answersItem);
+                    ConceptDictionary.Entry answerConcept = conceptDictionaryService.findEntryByUuid((String) answersItem);
                     return getNameWithDefaultValue(answerConcept, answersItem);
                 } else if (answersItem instanceof HashMap) { // Repeatable question group
                     LinkedHashMap<String, Object> observationResponse = new LinkedHashMap<>();
-                    Response.mapObservations(conceptRepository, this, observationResponse,
+                    Response.mapObservations(this, observationResponse,
                             new ObservationCollection((HashMap<String, Object>) answersItem));
                     return observationResponse;
                 } else {
@@ -280,7 +282,7 @@ public class ConceptService implements NonScopeAwareService {
 
         if (value instanceof ObservationCollection) {
             LinkedHashMap<String, Object> observationResponse = new LinkedHashMap<>();
-            Response.mapObservations(conceptRepository, this, observationResponse, (ObservationCollection) value);
+            Response.mapObservations(this, observationResponse, (ObservationCollection) value);
             return observationResponse;
         }
 
@@ -290,14 +292,14 @@ public class ConceptService implements NonScopeAwareService {
 
         // Should be used single coded values only. Multi-coded handled above based on value
         if (value instanceof String && questionConcept.getDataType().equals(ConceptDataType.Coded.toString())) {
-            Concept answerConcept = conceptRepository.findByUuid((String) value);
+            ConceptDictionary.Entry answerConcept = conceptDictionaryService.findEntryByUuid((String) value);
             return getNameWithDefaultValue(answerConcept, value);
         }
 
         return value;
     }
 
-    private Object getNameWithDefaultValue(Concept answerConcept, Object obsRawValue) {
+    private Object getNameWithDefaultValue(ConceptDictionary.Entry answerConcept, Object obsRawValue) {
         return answerConcept == null ? obsRawValue : answerConcept.getName();
     }
 
@@ -4,11 +4,13 @@ import com.bugsnag.Bugsnag;
 import org.avni.messaging.domain.EntityType;
 import org.avni.server.application.FormMapping;
 import org.avni.server.application.FormType;
+import org.avni.server.common.EntityHelper;
 import org.avni.server.common.Messageable;
 import org.avni.server.dao.*;
 import org.avni.server.dao.application.FormMappingRepository;
 import org.avni.server.domain.*;
 import org.avni.server.domain.accessControl.PrivilegeType;
+import org.avni.server.framework.security.UserContextHolder;
 import org.avni.server.geo.Point;
 import org.avni.server.service.accessControl.AccessControlService;
 import org.avni.server.util.BadRequestError;
@@ -17,10 +19,14 @@ import org.avni.server.util.S;
 import org.avni.server.web.api.CommonFieldNames;
 import org.avni.server.web.api.EncounterSearchRequest;
 import org.avni.server.web.request.EncounterContract;
+import org.avni.server.web.request.EncounterRequest;
 import org.avni.server.web.request.EntityTypeContract;
+import org.avni.server.web.request.PointRequest;
 import org.avni.server.web.request.api.RequestUtils;
 import org.joda.time.DateTime;
 import org.avni.server.dao.individualRelationship.RuleFailureLogRepository;
+import org.avni.server.web.request.rules.RulesContractWrapper.Decision;
+import org.avni.server.web.request.rules.RulesContractWrapper.Decisions;
 import org.avni.server.web.request.rules.RulesContractWrapper.VisitSchedule;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -189,6 +195,95 @@ public class EncounterService implements ScopeAwareService<Encounter> {
         return encounterRepository.saveEntity(encounter);
     }
 
+    @Messageable(EntityType.Encounter)
+    public Encounter saveEncounter(EncounterRequest request) {
+        Individual individual = individualRepository.findByUuid(request.getIndividualUUID());
+        if (individual == null) {
+            throw new IllegalArgumentException(String.format("Individual not found with UUID '%s'", request.getIndividualUUID()));
+        }
+        return saveEncounter(request, individual);
+    }
+
+    /**
+     * @param individual subject of the request, already looked up
+     * @return null when the request is for a planned visit of an encounter that has been completed already
+     */
+    @Messageable(EntityType.Encounter)
+    public Encounter saveEncounter(EncounterRequest request, Individual individual) {
+        checkForSchedulingCompleteConstraintViolation(request);
+
+        EncounterType encounterType = encounterTypeRepository.findByUuidOrName(request.getEncounterTypeUUID(), request.getEncounterType());
+        Decisions decisions = request.getDecisions();
+        observationService.validateObservationsAndDecisions(request.getObservations(), decisions != null ? decisions.getEncounterDecisions() : null, formMappingService.find(encounterType, FormType.Encounter));
+
+        Encounter encounter = EntityHelper.newOrExistingEntity(encounterRepository, request, new Encounter());
+        encounter.setIndividual(individual);
+        //Planned visit can not overwrite completed encounter
+        if (encounter.isCompleted() && request.isPlanned())
+            return null;
+
+        if ((request.getObservations() == null || request.getObservations().isEmpty()) && encounter.getObservations() != null && !encounter.getObservations().isEmpty()) {
+            String errorMessage = String.format("Encounter Observations is getting empty. User: %s, UUID: %s, ", UserContextHolder.getUser().getUsername(), request.getUuid());
+            bugsnag.notify(new Exception(errorMessage));
+            logger.error(errorMessage);
+        }
+        if ((request.getCancelObservations() == null || request.getCancelObservations().isEmpty()) && encounter.getCancelObservations() != null && !encounter.getCancelObservations().isEmpty()) {
+            String errorMessage = String.format("Encounter Cancel Observations is getting empty. User: %s, UUID: %s, ", UserContextHolder.getUser().getUsername(), request.getUuid());
+            bugsnag.notify(new Exception(errorMessage));
+            logger.error(errorMessage);
+        }
+        encounter.setEncounterDateTime(request.getEncounterDateTime(), userService.getCurrentUser());
+        encounter.setEncounterType(encounterType);
+        encounter.setObservations(observationService.createObservations(request.getObservations()));
+        encounter.setName(request.getName());
+        encounter.setEarliestVisitDateTime(request.getEarliestVisitDateTime());
+        encounter.setMaxVisitDateTime(request.getMaxVisitDateTime());
+        encounter.setCancelDateTime(request.getCancelDateTime());
+        encounter.setCancelObservations(observationService.createObservations(request.getCancelObservations()));
+        encounter.setVoided(request.isVoided());
+        PointRequest encounterLocation = request.getEncounterLocation();
+        if (encounterLocation != null)
+            encounter.setEncounterLocation(new Point(encounterLocation.getX(), encounterLocation.getY()));
+        PointRequest cancelLocation = request.getCancelLocation();
+        if (cancelLocation != null)
+            encounter.setCancelLocation(new Point(cancelLocation.getX(), cancelLocation.getY()));
+
+        if (decisions != null) {
+            ObservationCollection observationsFromDecisions = observationService
+                .createObservationsFromDecisions(decisions.getEncounterDecisions());
+            if (decisions.isCancel()) {
+                encounter.getCancelObservations().putAll(observationsFromDecisions);
+            } else {
+                encounter.getObservations().putAll(observationsFromDecisions);
+            }
+
+            List<Decision> registrationDecisions = decisions.getRegistrationDecisions();
+            if (registrationDecisions != null) {
+                ObservationCollection registrationObservations = observationService.createObservationsFromDecisions(registrationDecisions);
+                encounter.getIndividual().addObservations(registrationObservations);
+            }
+        }
+        encounter.addConceptSyncAttributeValues(individual.getSubjectType(), individual.getObservations());
+        if (individual.getAddressLevel() != null) {
+            encounter.setAddressId(individual.getAddressLevel().getId());
+        }
+        encounterRepository.saveEntity(encounter);
+
+        if (request.getVisitSchedules() != null && !request.getVisitSchedules().isEmpty()) {
+            this.saveVisitSchedules(individual.getUuid(), request.getVisitSchedules(), request.getUuid());
+        }
+        return encounter;
+    }
+
+    private void checkForSchedulingCompleteConstraintViolation(EncounterRequest request) {
+        if ((request.getEarliestVisitDateTime() != null || request.getMaxVisitDateTime() != null)
+            && (request.getEarliestVisitDateTime() == null || request.getMaxVisitDateTime() == null)
+        ) {
+            //violating constraint so notify bugsnag
+            bugsnag.notify(new Exception(String.format("ProgramEncounter violating scheduling constraint uuid %s earliest %s max %s", request.getUuid(), request.getEarliestVisitDateTime(), request.getMaxVisitDateTime())));
+        }
+    }
+
     public Page<Encounter> search(EncounterSearchRequest encounterSearchRequest) {
         List<Encounter> results;
         //Use sql when concepts are required.
@@ -2,6 +2,7 @@ package org.avni.server.service;
 
 import org.avni.server.dao.ProgramEnrolmentRepository;
 import org.avni.server.dao.SubjectSearchRepository;
+import org.avni.server.dao.search.SubjectSearchCount;
 import org.avni.server.dao.search.SubjectSearchQueryBuilder;
 import org.avni.server.projection.SearchSubjectEnrolledProgram;
 import org.avni.server.web.request.webapp.search.SubjectSearchRequest;
@@ -27,11 +28,12 @@ public class IndividualSearchService {
 
     public LinkedHashMap<String, Object> search(SubjectSearchRequest subjectSearchRequest) {
         List<Map<String, Object>> searchResults = subjectSearchRepository.search(subjectSearchRequest, new SubjectSearchQueryBuilder());
-        BigInteger totalCount = subjectSearchRepository.getTotalCount(subjectSearchRequest, new SubjectSearchQueryBuilder());
-        return constructIndividual(searchResults, totalCount);
+        SubjectSearchCount totalCount = subjectSearchRepository.getTotalCount(subjectSearchRequest, new SubjectSearchQueryBuilder());
+        String nextPageCursor = SubjectSearchQueryBuilder.getNextPageCursor(subjectSearchRequest.getPageElement(), searchResults);
+        return constructIndividual(searchResults, totalCount, nextPageCursor);
     }
 
-    private LinkedHashMap<String, Object> constructIndividual(List<Map<String, Object>> individualList, BigInteger totalCount) {
+    private LinkedHashMap<String, Object> constructIndividual(List<Map<String, Object>> individualList, SubjectSearchCount totalCount, String nextPageCursor) {
         LinkedHashMap<String, Object> recordsMap = new LinkedHashMap<String, Object>();
         List<Long> individualIds = individualList.stream()
                 .map(individualRecord -> Long.valueOf((Integer) individualRecord.get("id")))
@@ -55,7 +57,9 @@ public class IndividualSearchService {
                             .collect(Collectors.toList()));
                     individualRecord.put("addressLevel", titleLineages.get(((BigInteger) individualRecord.get("addressId")).longValue()));
                 }).collect(Collectors.toList());
-        recordsMap.put("totalElements", totalCount);
+        recordsMap.put("totalElements", totalCount.getCount());
+        recordsMap.put("totalElementsExact", totalCount.isExact());
+        recordsMap.put("nextPageCursor", nextPageCursor);
         recordsMap.put("listOfRecords", listOfRecords);
         return recordsMap;
     }
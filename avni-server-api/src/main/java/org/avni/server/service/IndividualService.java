@@ -1,5 +1,6 @@
 package org.avni.server.service;
 
+import com.bugsnag.Bugsnag;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.avni.messaging.domain.EntityType;
 import org.avni.messaging.service.PhoneNumberNotAvailableOrIncorrectException;
@@ -7,6 +8,7 @@ import org.avni.server.application.FormElement;
 import org.avni.server.application.FormElementType;
 import org.avni.server.application.KeyType;
 import org.avni.server.application.Subject;
+import org.avni.server.common.EntityHelper;
 import org.avni.server.common.Messageable;
 import org.avni.server.dao.*;
 import org.avni.server.dao.individualRelationship.IndividualRelationshipRepository;
@@ -18,15 +20,18 @@ import org.avni.server.domain.individualRelationship.IndividualRelation;
 import org.avni.server.domain.individualRelationship.IndividualRelationship;
 import org.avni.server.domain.observation.PhoneNumberObservationValue;
 import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.geo.Point;
 import org.avni.server.service.accessControl.AccessControlService;
 import org.avni.server.util.*;
 import org.avni.server.web.request.*;
 import org.avni.server.web.request.api.RequestUtils;
+import org.avni.server.web.request.rules.RulesContractWrapper.Decisions;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -52,12 +57,19 @@ public class IndividualService implements ScopeAwareService<Individual> {
     private final ConceptService conceptService;
     private final ObjectMapper objectMapper;
     private final AccessControlService accessControlService;
+    private final LocationRepository locationRepository;
+    private final GenderRepository genderRepository;
+    private final IdentifierAssignmentRepository identifierAssignmentRepository;
+    private final EncounterService encounterService;
+    private final FormMappingService formMappingService;
+    private final SubjectMigrationService subjectMigrationService;
+    private final Bugsnag bugsnag;
 
     private final List<SubjectTreeItemRepository> subjectTreeItemRepositories;
     private static final Logger logger = LoggerFactory.getLogger(IndividualService.class);
 
     @Autowired
-    public IndividualService(IndividualRepository individualRepository, ObservationService observationService, GroupSubjectRepository groupSubjectRepository, ConceptRepository conceptRepository, GroupRoleRepository groupRoleRepository, SubjectTypeRepository subjectTypeRepository, EncounterRepository encounterRepository, ProgramEncounterRepository programEncounterRepository, AddressLevelService addressLevelService, ConceptService conceptService, AccessControlService accessControlService, ProgramEnrolmentRepository programEnrolmentRepository, ChecklistRepository checklistRepository, ChecklistItemRepository checklistItemRepository, SubjectMigrationRepository subjectMigrationRepository, IndividualRelationshipRepository individualRelationshipRepository, CommentRepository commentRepository, EntityApprovalStatusRepository entityApprovalStatusRepository, SubjectProgramEligibilityRepository subjectProgramEligibilityRepository, CommentThreadRepository commentThreadRepository) {
+    public IndividualService(IndividualRepository individualRepository, ObservationService observationService, GroupSubjectRepository groupSubjectRepository, ConceptRepository conceptRepository, GroupRoleRepository groupRoleRepository, SubjectTypeRepository subjectTypeRepository, EncounterRepository encounterRepository, ProgramEncounterRepository programEncounterRepository, AddressLevelService addressLevelService, ConceptService conceptService, AccessControlService accessControlService, ProgramEnrolmentRepository programEnrolmentRepository, ChecklistRepository checklistRepository, ChecklistItemRepository checklistItemRepository, SubjectMigrationRepository subjectMigrationRepository, IndividualRelationshipRepository individualRelationshipRepository, CommentRepository commentRepository, EntityApprovalStatusRepository entityApprovalStatusRepository, SubjectProgramEligibilityRepository subjectProgramEligibilityRepository, CommentThreadRepository commentThreadRepository, LocationRepository locationRepository, GenderRepository genderRepository, IdentifierAssignmentRepository identifierAssignmentRepository, EncounterService encounterService, FormMappingService formMappingService, @Lazy SubjectMigrationService subjectMigrationService, Bugsnag bugsnag) {
         this.individualRepository = individualRepository;
         this.observationService = observationService;
         this.groupSubjectRepository = groupSubjectRepository;
@@ -71,6 +83,13 @@ public class IndividualService implements ScopeAwareService<Individual> {
         this.conceptService = conceptService;
         this.accessControlService = accessControlService;
         this.objectMapper = ObjectMapperSingleton.getObjectMapper();
+        this.locationRepository = locationRepository;
+        this.genderRepository = genderRepository;
+        this.identifierAssignmentRepository = identifierAssignmentRepository;
+        this.encounterService = encounterService;
+        this.formMappingService = formMappingService;
+        this.subjectMigrationService = subjectMigrationService;
+        this.bugsnag = bugsnag;
 
         subjectTreeItemRepositories = Arrays.asList(individualRepository, encounterRepository, programEnrolmentRepository, programEncounterRepository, checklistItemRepository, checklistRepository, entityApprovalStatusRepository, subjectProgramEligibilityRepository, subjectMigrationRepository, individualRelationshipRepository, commentRepository, groupSubjectRepository, commentThreadRepository);
     }
@@ -394,6 +413,101 @@ public class IndividualService implements ScopeAwareService<Individual> {
         return individualRepository.saveEntity(individual);
     }
 
+    @Messageable(EntityType.Subject)
+    public Individual saveIndividual(IndividualRequest individualRequest) {
+        return saveIndividual(individualRequest, getAddressLevel(individualRequest), getSubjectType(individualRequest));
+    }
+
+    /**
+     * @param addressLevel  address level of the request, already looked up
+     * @param subjectType   subject type of the request, already looked up
+     */
+    @Messageable(EntityType.Subject)
+    public Individual saveIndividual(IndividualRequest individualRequest, AddressLevel addressLevel, SubjectType subjectType) {
+        Decisions decisions = individualRequest.getDecisions();
+        observationService.validateObservationsAndDecisions(individualRequest.getObservations(), decisions != null ? decisions.getRegistrationDecisions() : null, formMappingService.findForSubject(individualRequest.getSubjectTypeUUID()));
+        ObservationCollection observations = observationService.createObservations(individualRequest.getObservations());
+        addObservationsFromDecisions(observations, decisions);
+        subjectMigrationService.markSubjectMigrationIfRequired(individualRequest.getUuid(), null, addressLevel, null, observations, false);
+
+        Individual individual = createIndividualWithoutObservations(individualRequest, addressLevel, subjectType);
+
+        // Temporary fix to not allow emptying of observations
+        if ((individualRequest.getObservations() == null || individualRequest.getObservations().isEmpty()) && individual.getObservations() != null && !individual.getObservations().isEmpty()) {
+            String errorMessage = String.format("Individual Observations not all allowed to be made empty. User: %s, UUID: %s, ", UserContextHolder.getUser().getUsername(), individualRequest.getUuid());
+            bugsnag.notify(new Exception(errorMessage));
+            logger.error(errorMessage);
+            individual.updateAudit();
+        } else {
+            individual.setObservations(observations);
+        }
+
+        individual.addConceptSyncAttributeValues(subjectType, individual.getObservations());
+        Individual savedIndividual = individualRepository.saveEntity(individual);
+        saveVisitSchedules(individualRequest);
+        saveIdentifierAssignments(savedIndividual, individualRequest);
+        return savedIndividual;
+    }
+
+    public AddressLevel getAddressLevel(IndividualRequest individualRequest) {
+        if (individualRequest.getAddressLevelUUID() != null) {
+            return locationRepository.findByUuid(individualRequest.getAddressLevelUUID());
+        } else if (individualRequest.getCatchmentUUID() != null) {
+            return locationRepository.findByTitleAndCatchmentsUuid(individualRequest.getAddressLevel(), individualRequest.getCatchmentUUID());
+        } else {
+            return locationRepository.findByTitleIgnoreCase(individualRequest.getAddressLevel());
+        }
+    }
+
+    public SubjectType getSubjectType(IndividualRequest individualRequest) {
+        return individualRequest.getSubjectTypeUUID() == null ? subjectTypeRepository.findByUuid("9f2af1f9-e150-4f8e-aad3-40bb7eb05aa3") : subjectTypeRepository.findByUuid(individualRequest.getSubjectTypeUUID());
+    }
+
+    private Individual createIndividualWithoutObservations(IndividualRequest individualRequest, AddressLevel addressLevel, SubjectType subjectType) {
+        Gender gender = individualRequest.getGender() == null ? genderRepository.findByUuid(individualRequest.getGenderUUID()) : genderRepository.findByName(individualRequest.getGender());
+        Individual individual = EntityHelper.newOrExistingEntity(individualRepository, individualRequest, new Individual());
+        individual.setSubjectType(subjectType);
+        individual.setFirstName(individualRequest.getFirstName());
+        individual.setMiddleName(individualRequest.getMiddleName());
+        individual.setLastName(individualRequest.getLastName());
+        if (subjectType.isAllowProfilePicture()) {
+            individual.setProfilePicture(individualRequest.getProfilePicture());
+        }
+        individual.setDateOfBirth(individualRequest.getDateOfBirth());
+        individual.setAddressLevel(addressLevel);
+        individual.setGender(gender);
+        individual.setRegistrationDate(individualRequest.getRegistrationDate());
+        individual.setVoided(individualRequest.isVoided());
+        PointRequest pointRequest = individualRequest.getRegistrationLocation();
+        if (pointRequest != null)
+            individual.setRegistrationLocation(new Point(pointRequest.getX(), pointRequest.getY()));
+        return individual;
+    }
+
+    private void addObservationsFromDecisions(ObservationCollection observations, Decisions decisions) {
+        if (decisions != null && !decisions.getRegistrationDecisions().isEmpty()) {
+            observations.putAll(observationService
+                    .createObservationsFromDecisions(decisions.getRegistrationDecisions()));
+        }
+    }
+
+    private void saveVisitSchedules(IndividualRequest individualRequest) {
+        if (individualRequest.getVisitSchedules() != null && individualRequest.getVisitSchedules().size() > 0) {
+            encounterService.saveVisitSchedules(individualRequest.getUuid(), individualRequest.getVisitSchedules(), null);
+        }
+    }
+
+    private void saveIdentifierAssignments(Individual individual, IndividualRequest individualRequest) {
+        List<String> identifierAssignmentUuids = individualRequest.getIdentifierAssignmentUuids();
+        if (identifierAssignmentUuids != null) {
+            identifierAssignmentUuids.forEach(uuid -> {
+                IdentifierAssignment identifierAssignment = identifierAssignmentRepository.findByUuid(uuid);
+                identifierAssignment.setIndividual(individual);
+                identifierAssignmentRepository.save(identifierAssignment);
+            });
+        }
+    }
+
     public String findPhoneNumber(long subjectId) {
         Individual individual = this.getIndividual(subjectId);
         return findPhoneNumber(individual);
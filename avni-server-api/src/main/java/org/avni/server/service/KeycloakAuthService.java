@@ -1,6 +1,8 @@
 package org.avni.server.service;
 
 import com.auth0.jwt.interfaces.Verification;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.avni.server.config.AuthCacheConfig;
 import org.avni.server.config.AvniKeycloakConfig;
 import org.avni.server.dao.UserRepository;
 import org.keycloak.representations.adapters.config.AdapterConfig;
@@ -18,8 +20,8 @@ public class KeycloakAuthService extends BaseIAMService {
     private final AvniKeycloakConfig avniKeycloakConfig;
 
     @Autowired
-    public KeycloakAuthService(UserRepository userRepository, AdapterConfig adapterConfig, AvniKeycloakConfig avniKeycloakConfig) {
-        super(userRepository);
+    public KeycloakAuthService(UserRepository userRepository, AdapterConfig adapterConfig, AvniKeycloakConfig avniKeycloakConfig, AuthCacheConfig authCacheConfig, MeterRegistry meterRegistry) {
+        super(userRepository, authCacheConfig, meterRegistry);
         this.adapterConfig = adapterConfig;
         this.avniKeycloakConfig = avniKeycloakConfig;
     }
@@ -0,0 +1,180 @@
+package org.avni.server.service;
+
+import org.avni.server.application.Form;
+import org.avni.server.application.FormElement;
+import org.avni.server.application.FormElementGroup;
+import org.avni.server.application.FormMapping;
+import org.avni.server.application.menu.MenuItem;
+import org.avni.server.dao.sync.SyncEntityChangeRepository;
+import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.domain.*;
+import org.avni.server.domain.accessControl.GroupPrivilege;
+import org.avni.server.domain.accessControl.Privilege;
+import org.avni.server.domain.app.dashboard.DashboardFilter;
+import org.avni.server.domain.individualRelationship.IndividualRelation;
+import org.avni.server.domain.individualRelationship.IndividualRelationGenderMapping;
+import org.avni.server.domain.individualRelationship.IndividualRelationshipType;
+import org.avni.server.domain.task.TaskStatus;
+import org.avni.server.domain.task.TaskType;
+import org.avni.server.framework.cache.ClusterCacheInvalidation;
+import org.avni.server.framework.hibernate.MetadataChangedEvent;
+import org.avni.server.framework.security.UserContextHolder;
+import org.hibernate.proxy.HibernateProxyHelper;
+import org.joda.time.DateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps, per organisation, the latest last_modified_date_time of each metadata entity in memory, so that the non scope
+ * aware part of syncDetails doesn't have to go to the database. Metadata is written rarely while sync details are
+ * checked very often.
+ * <p>
+ * Watermarks of all organisations are dropped on {@link MetadataChangedEvent}, since metadata of a parent organisation
+ * is visible to its children, on this and the other server instances. Writes made outside hibernate are picked up when
+ * the watermarks expire.
+ */
+@Service
+public class MetadataChangeWatermarkService {
+    public static final String METADATA_WATERMARKS = "metadataWatermarks";
+    private static final Map<Class<?>, SyncEntityName> metadataEntities = new HashMap<>();
+
+    static {
+        metadataEntities.put(ChecklistDetail.class, SyncEntityName.ChecklistDetail);
+        metadataEntities.put(Rule.class, SyncEntityName.Rule);
+        metadataEntities.put(RuleDependency.class, SyncEntityName.RuleDependency);
+        metadataEntities.put(Form.class, SyncEntityName.Form);
+        metadataEntities.put(FormMapping.class, SyncEntityName.FormMapping);
+        metadataEntities.put(EncounterType.class, SyncEntityName.EncounterType);
+        metadataEntities.put(Program.class, SyncEntityName.Program);
+        metadataEntities.put(Gender.class, SyncEntityName.Gender);
+        metadataEntities.put(IndividualRelation.class, SyncEntityName.IndividualRelation);
+        metadataEntities.put(IndividualRelationGenderMapping.class, SyncEntityName.IndividualRelationGenderMapping);
+        metadataEntities.put(IndividualRelationshipType.class, SyncEntityName.IndividualRelationshipType);
+        metadataEntities.put(Concept.class, SyncEntityName.Concept);
+        metadataEntities.put(Video.class, SyncEntityName.Video);
+        metadataEntities.put(SubjectType.class, SyncEntityName.SubjectType);
+        metadataEntities.put(ChecklistItemDetail.class, SyncEntityName.ChecklistItemDetail);
+        metadataEntities.put(FormElementGroup.class, SyncEntityName.FormElementGroup);
+        metadataEntities.put(FormElement.class, SyncEntityName.FormElement);
+        metadataEntities.put(ConceptAnswer.class, SyncEntityName.ConceptAnswer);
+        metadataEntities.put(IdentifierSource.class, SyncEntityName.IdentifierSource);
+        metadataEntities.put(OrganisationConfig.class, SyncEntityName.OrganisationConfig);
+        metadataEntities.put(Translation.class, SyncEntityName.Translation);
+        metadataEntities.put(Group.class, SyncEntityName.Groups);
+        metadataEntities.put(GroupPrivilege.class, SyncEntityName.GroupPrivileges);
+        metadataEntities.put(GroupRole.class, SyncEntityName.GroupRole);
+        metadataEntities.put(ReportCard.class, SyncEntityName.ReportCard);
+        metadataEntities.put(Dashboard.class, SyncEntityName.Dashboard);
+        metadataEntities.put(DashboardSection.class, SyncEntityName.DashboardSection);
+        metadataEntities.put(DashboardFilter.class, SyncEntityName.DashboardFilter);
+        metadataEntities.put(DashboardSectionCardMapping.class, SyncEntityName.DashboardSectionCardMapping);
+        metadataEntities.put(ApprovalStatus.class, SyncEntityName.ApprovalStatus);
+        metadataEntities.put(GroupDashboard.class, SyncEntityName.GroupDashboard);
+        metadataEntities.put(Documentation.class, SyncEntityName.Documentation);
+        metadataEntities.put(DocumentationItem.class, SyncEntityName.DocumentationItem);
+        metadataEntities.put(User.class, SyncEntityName.UserInfo);
+        metadataEntities.put(Privilege.class, SyncEntityName.Privilege);
+        metadataEntities.put(StandardReportCardType.class, SyncEntityName.StandardReportCardType);
+        metadataEntities.put(TaskType.class, SyncEntityName.TaskType);
+        metadataEntities.put(TaskStatus.class, SyncEntityName.TaskStatus);
+        metadataEntities.put(MenuItem.class, SyncEntityName.MenuItem);
+    }
+
+    private static final Set<SyncEntityName> metadataEntityNames = EnumSet.copyOf(metadataEntities.values());
+
+    private final SyncEntityChangeRepository syncEntityChangeRepository;
+    private final long ttlMillis;
+    private final Map<Long, Watermarks> watermarksPerOrganisation = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ClusterCacheInvalidation clusterCacheInvalidation;
+
+    @Autowired
+    public MetadataChangeWatermarkService(SyncEntityChangeRepository syncEntityChangeRepository,
+                                          ClusterCacheInvalidation clusterCacheInvalidation,
+                                          @Value("${avni.sync.metadataWatermark.ttl.seconds}") long ttlSeconds) {
+        this.syncEntityChangeRepository = syncEntityChangeRepository;
+        this.clusterCacheInvalidation = clusterCacheInvalidation;
+        this.ttlMillis = ttlSeconds * 1000;
+        clusterCacheInvalidation.registerLocalCache(METADATA_WATERMARKS, this::clearWatermarks);
+    }
+
+    // not synced as entities of their own, but decide which subject types, programs and encounter types are synced
+    private static final Set<Class<?>> operationalEntities = new HashSet<>(Arrays.asList(OperationalSubjectType.class, OperationalProgram.class, OperationalEncounterType.class));
+
+    public static boolean isMetadataEntity(Object entity) {
+        if (entity == null) return false;
+        Class<?> entityClass = HibernateProxyHelper.getClassWithoutInitializingProxy(entity);
+        return metadataEntities.containsKey(entityClass) || operationalEntities.contains(entityClass);
+    }
+
+    @EventListener(MetadataChangedEvent.class)
+    public void metadataChanged() {
+        clusterCacheInvalidation.invalidate(METADATA_WATERMARKS);
+    }
+
+    private void clearWatermarks() {
+        generation.incrementAndGet();
+        watermarksPerOrganisation.clear();
+    }
+
+    /**
+     * @return latest last_modified_date_time of the table backed entities among {@code syncEntityNames}, null for
+     * entities without any rows. Metadata entities are served from memory, the rest are queried.
+     */
+    public Map<SyncEntityName, DateTime> getLastModifiedDateTimes(Collection<SyncEntityName> syncEntityNames) {
+        Long organisationId = getCacheableOrganisationId();
+        if (organisationId == null) return syncEntityChangeRepository.getLastModifiedDateTimes(syncEntityNames);
+
+        Map<SyncEntityName, DateTime> metadataWatermarks = getWatermarks(organisationId);
+        Map<SyncEntityName, DateTime> lastModifiedDateTimes = syncEntityChangeRepository.getLastModifiedDateTimes(syncEntityNames.stream()
+                .filter(syncEntityName -> !metadataEntityNames.contains(syncEntityName))
+                .collect(Collectors.toList()));
+        syncEntityNames.stream()
+                .filter(metadataEntityNames::contains)
+                .forEach(syncEntityName -> lastModifiedDateTimes.put(syncEntityName, metadataWatermarks.get(syncEntityName)));
+        return lastModifiedDateTimes;
+    }
+
+    private Map<SyncEntityName, DateTime> getWatermarks(Long organisationId) {
+        Watermarks watermarks = watermarksPerOrganisation.get(organisationId);
+        long currentGeneration = generation.get();
+        if (watermarks != null && watermarks.isValid(currentGeneration, ttlMillis)) return watermarks.lastModifiedDateTimes;
+
+        Map<SyncEntityName, DateTime> lastModifiedDateTimes = syncEntityChangeRepository.getLastModifiedDateTimes(metadataEntityNames);
+        // a load racing with a metadata write is not kept, as it may have read the state before the write
+        if (generation.get() == currentGeneration) {
+            watermarksPerOrganisation.put(organisationId, new Watermarks(currentGeneration, System.currentTimeMillis(), lastModifiedDateTimes));
+        }
+        return lastModifiedDateTimes;
+    }
+
+    private Long getCacheableOrganisationId() {
+        User user = UserContextHolder.getUser();
+        Organisation organisation = UserContextHolder.getOrganisation();
+        if (organisation == null || user == null || user.isAdmin()) return null;
+        return organisation.getId();
+    }
+
+    private static class Watermarks {
+        private final long generation;
+        private final long loadedAt;
+        private final Map<SyncEntityName, DateTime> lastModifiedDateTimes;
+
+        Watermarks(long generation, long loadedAt, Map<SyncEntityName, DateTime> lastModifiedDateTimes) {
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+            this.lastModifiedDateTimes = lastModifiedDateTimes;
+        }
+
+        boolean isValid(long currentGeneration, long ttlMillis) {
+            return generation == currentGeneration && System.currentTimeMillis() - loadedAt < ttlMillis;
+        }
+    }
+}
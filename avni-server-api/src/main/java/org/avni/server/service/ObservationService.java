@@ -37,10 +37,12 @@ public class ObservationService {
     private final LocationRepository locationRepository;
     private final NamedParameterJdbcTemplate jdbcTemplate;
     private final EnhancedValidationService enhancedValidationService;
+    private final ConceptDictionaryService conceptDictionaryService;
 
     @Autowired
-    public ObservationService(ConceptRepository conceptRepository, IndividualRepository individualRepository, LocationRepository locationRepository, NamedParameterJdbcTemplate jdbcTemplate, Optional<EnhancedValidationService> enhancedValidationService) {
+    public ObservationService(ConceptRepository conceptRepository, IndividualRepository individualRepository, LocationRepository locationRepository, NamedParameterJdbcTemplate jdbcTemplate, Optional<EnhancedValidationService> enhancedValidationService, ConceptDictionaryService conceptDictionaryService) {
         this.conceptRepository = conceptRepository;
+        this.conceptDictionaryService = conceptDictionaryService;
         this.individualRepository = individualRepository;
         this.locationRepository = locationRepository;
         this.jdbcTemplate = jdbcTemplate;
@@ -51,15 +53,15 @@ public class ObservationService {
         Map<String, Object> completedObservationRequests = observationRequests
                 .stream()
                 .map(observationRequest -> {
-                    Concept concept;
+                    ConceptDictionary.Entry concept;
                     if (observationRequest.getConceptUUID() == null && observationRequest.getConceptName() != null) {
-                        concept = conceptRepository.findByName(observationRequest.getConceptName());
+                        concept = conceptDictionaryService.findEntryByName(observationRequest.getConceptName());
                         if (concept != null) {
                             String conceptUUID = concept.getUuid();
                             observationRequest.setConceptUUID(conceptUUID);
                         }
                     } else {
-                        concept = conceptRepository.findByUuid(observationRequest.getConceptUUID());
+                        concept = conceptDictionaryService.findEntryByUuid(observationRequest.getConceptUUID());
                     }
                     if (concept == null) {
                         throw new NullPointerException(String.format("Concept with uuid=%s/name=%s not found", observationRequest.getConceptUUID(), observationRequest.getConceptName()));
@@ -84,7 +86,7 @@ public class ObservationService {
         Map<String, Object> observations = new HashMap<>();
         for (Decision decision : decisions) {
             String conceptName = decision.getName();
-            Concept concept = conceptRepository.findByName(conceptName);
+            ConceptDictionary.Entry concept = conceptDictionaryService.findEntryByName(conceptName);
             if (concept != null) {
                 String conceptUUID = concept.getUuid();
                 String dataType = concept.getDataType();
@@ -96,12 +98,12 @@ public class ObservationService {
                         if (decisionValue instanceof Collection<?>) {
                             List<String> array = (List) decisionValue;
                             value = array.stream().map(answerConceptName -> {
-                                Concept answerConcept = conceptRepository.findByName(answerConceptName);
+                                ConceptDictionary.Entry answerConcept = conceptDictionaryService.findEntryByName(answerConceptName);
                                 return answerConcept != null ? answerConcept.getUuid() : null;
                             }).filter(Objects::nonNull).toArray();
                         } else {
                             String answerConceptName = (String) decisionValue;
-                            Concept answerConcept = conceptRepository.findByName(answerConceptName);
+                            ConceptDictionary.Entry answerConcept = conceptDictionaryService.findEntryByName(answerConceptName);
                             if (answerConcept != null) value = answerConcept.getUuid();
                         }
                         break;
@@ -122,7 +124,7 @@ public class ObservationService {
         for (KeyValueResponse keyValueResponse : keyValueResponses) {
             ObservationContract observationContract = new ObservationContract();
             String conceptName = keyValueResponse.getName();
-            Concept concept = conceptRepository.findByName(conceptName);
+            Concept concept = conceptDictionaryService.findByName(conceptName);
             if (concept == null) {
                 throw new BadRequestError(String.format("Concept with name=%s not found", conceptName));
             }
@@ -135,14 +137,14 @@ public class ObservationService {
                     if (keyValueResponseValue instanceof Collection<?>) {
                         List<String> array = (List) keyValueResponseValue;
                         value = array.stream().map(answerConceptName -> {
-                            Concept answerConcept = getConceptForValue(answerConceptName, workflow);
+                            ConceptDictionary.Entry answerConcept = getConceptForValue(answerConceptName, workflow);
                             if (answerConcept == null)
                                 throw new BadRequestError(String.format("Answer concept with name=%s not found", answerConceptName));
                             return answerConcept.getUuid();
                         }).toArray();
                     } else {
                         String answerConceptName = (String) keyValueResponseValue;
-                        Concept answerConcept = getConceptForValue(answerConceptName, workflow);
+                        ConceptDictionary.Entry answerConcept = getConceptForValue(answerConceptName, workflow);
                         if (answerConcept == null)
                             throw new BadRequestError(String.format("Answer concept with name=%s not found", answerConceptName));
                         value = answerConcept.getUuid();
@@ -161,34 +163,34 @@ public class ObservationService {
         return observationContracts;
     }
 
-    private Concept getConceptForValue(String conceptValue, WorkFlowTypeEnum workflow) {
+    private ConceptDictionary.Entry getConceptForValue(String conceptValue, WorkFlowTypeEnum workflow) {
         if (workflow.isSummaryWorkflow()) {
-            return conceptRepository.findByUuid(conceptValue);
+            return conceptDictionaryService.findEntryByUuid(conceptValue);
         } else {
-            return conceptRepository.findByName(conceptValue);
+            return conceptDictionaryService.findEntryByName(conceptValue);
         }
     }
 
     public Object getObservationValue(String conceptName, Individual individual) {
-        Concept concept = conceptRepository.findByName(conceptName);
+        ConceptDictionary.Entry concept = conceptDictionaryService.findEntryByName(conceptName);
         if (concept == null) return null;
 
         return getObservationValue(concept, individual.getObservations());
     }
 
-    private Object getObservationValue(ProgramEncounter programEncounter, Concept concept) {
+    private Object getObservationValue(ProgramEncounter programEncounter, ConceptDictionary.Entry concept) {
         if (programEncounter == null) return null;
         ObservationCollection observations = programEncounter.getObservations();
         return getObservationValue(concept, observations);
     }
 
-    private Object getObservationValue(Concept concept, ObservationCollection observations) {
+    private Object getObservationValue(ConceptDictionary.Entry concept, ObservationCollection observations) {
         Object storedValue = observations.get(concept.getUuid());
         if (storedValue == null) return null;
         if (concept.getDataType().equals(ConceptDataType.Coded.toString())) {
             String[] array = (String[]) storedValue;
             Object[] objects = Arrays.stream(array).map(s -> {
-                Concept answerConcept = conceptRepository.findByUuid(s);
+                ConceptDictionary.Entry answerConcept = conceptDictionaryService.findEntryByUuid(s);
                 return answerConcept.getName();
             }).toArray();
             return Arrays.asList(Arrays.copyOf(objects, objects.length, String[].class));
@@ -197,7 +199,7 @@ public class ObservationService {
     }
 
     public Object getObservationValue(String conceptName, ProgramEnrolment enrolment) {
-        Concept concept = conceptRepository.findByName(conceptName);
+        ConceptDictionary.Entry concept = conceptDictionaryService.findEntryByName(conceptName);
         if (concept == null) return null;
 
         Object observationValue = getObservationValue(concept, enrolment.getObservations());
@@ -221,7 +223,7 @@ public class ObservationService {
     }
 
     public ObservationModelContract constructObservation(ObservationContract observationContract) {
-        Concept concept = conceptRepository.findByUuid(observationContract.getConcept().getUuid());
+        Concept concept = conceptDictionaryService.findByUuid(observationContract.getConcept().getUuid());
         ObservationModelContract observationModelContract = new ObservationModelContract();
         Object value = observationContract.getValue();
         if (concept.getDataType().equals(ConceptDataType.QuestionGroup.toString())) {
@@ -259,7 +261,7 @@ public class ObservationService {
 
     private ObservationContract getObservationContract(Map.Entry<String, Object> entry) {
         ObservationContract observationContract = new ObservationContract();
-        Concept questionConcept = conceptRepository.findByUuid(entry.getKey());
+        Concept questionConcept = conceptDictionaryService.findByUuid(entry.getKey());
         String conceptDataType = questionConcept.getDataType();
         ConceptContract conceptContract = ConceptContract.create(questionConcept);
         if (conceptDataType.equals(ConceptDataType.Subject.toString())) {
@@ -281,9 +283,9 @@ public class ObservationService {
             Object answerValue = entry.getValue();
             List<Concept> conceptAnswers;
             if (answerValue instanceof Collection) {
-                conceptAnswers = ((List<String>) answerValue).stream().map(conceptRepository::findByUuid).collect(Collectors.toList());
+                conceptAnswers = ((List<String>) answerValue).stream().map(conceptDictionaryService::findByUuid).collect(Collectors.toList());
             } else {
-                conceptAnswers = Collections.singletonList(conceptRepository.findByUuid((String) answerValue));
+                conceptAnswers = Collections.singletonList(conceptDictionaryService.findByUuid((String) answerValue));
             }
             conceptContract.setAnswers(conceptAnswers.stream().map(ConceptContract::create).collect(Collectors.toList()));
         }
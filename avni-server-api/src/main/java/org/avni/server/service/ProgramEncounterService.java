@@ -140,6 +140,14 @@ public class ProgramEncounterService implements ScopeAwareService<ProgramEncount
 
     @Messageable(EntityType.ProgramEncounter)
     public ProgramEncounter saveProgramEncounter(ProgramEncounterRequest request) {
+        return saveProgramEncounter(request, programEnrolmentRepository.findByUuid(request.getProgramEnrolmentUUID()));
+    }
+
+    /**
+     * @param programEnrolment enrolment of the request, already looked up
+     */
+    @Messageable(EntityType.ProgramEncounter)
+    public ProgramEncounter saveProgramEncounter(ProgramEncounterRequest request, ProgramEnrolment programEnrolment) {
         logger.info(String.format("Saving programEncounter with uuid %s", request.getUuid()));
         checkForSchedulingCompleteConstraintViolation(request);
         EncounterType encounterType = encounterTypeRepository.findByUuidOrName(request.getEncounterTypeUUID(), request.getEncounterType());
@@ -160,7 +168,6 @@ public class ProgramEncounterService implements ScopeAwareService<ProgramEncount
             logger.error(errorMessage);
         }
         encounter.setEncounterDateTime(request.getEncounterDateTime(), userService.getCurrentUser());
-        ProgramEnrolment programEnrolment = programEnrolmentRepository.findByUuid(request.getProgramEnrolmentUUID());
         encounter.setProgramEnrolment(programEnrolment);
         encounter.setEncounterType(encounterType);
         encounter.setObservations(observationService.createObservations(request.getObservations()));
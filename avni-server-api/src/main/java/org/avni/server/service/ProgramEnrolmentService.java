@@ -143,6 +143,14 @@ public class ProgramEnrolmentService implements ScopeAwareService<ProgramEnrolme
 
     @Messageable(EntityType.ProgramEnrolment)
     public ProgramEnrolment programEnrolmentSave(ProgramEnrolmentRequest request) {
+        return programEnrolmentSave(request, individualRepository.findByUuid(request.getIndividualUUID()));
+    }
+
+    /**
+     * @param individual subject of the request, already looked up
+     */
+    @Messageable(EntityType.ProgramEnrolment)
+    public ProgramEnrolment programEnrolmentSave(ProgramEnrolmentRequest request, Individual individual) {
         logger.info(String.format("Saving programEnrolment with uuid %s", request.getUuid()));
         Program program;
         if (request.getProgramUUID() == null) {
@@ -182,8 +190,6 @@ public class ProgramEnrolmentService implements ScopeAwareService<ProgramEnrolme
             programEnrolment.setProgramExitObservations(observationService.createObservations(request.getProgramExitObservations()));
         }
 
-        Individual individual = individualRepository.findByUuid(request.getIndividualUUID());
-
         if (decisions != null) {
             ObservationCollection observationsFromDecisions = observationService
                 .createObservationsFromDecisions(decisions.getEnrolmentDecisions());
@@ -35,6 +35,9 @@ import java.io.StringWriter;
 import org.joda.time.DateTime;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -66,6 +69,7 @@ public class RuleService implements NonScopeAwareService {
     private final RuleServiceEntityContractBuilder ruleServiceEntityContractBuilder;
     private final UserRepository userRepository;
     private final OrganisationRepository organisationRepository;
+    private final SummaryRuleResultCache summaryRuleResultCache;
 
     @Autowired
     public RuleService(RuleDependencyRepository ruleDependencyRepository,
@@ -81,7 +85,8 @@ public class RuleService implements NonScopeAwareService {
                        RuleFailureLogRepository ruleFailureLogRepository,
                        ObservationService observationService,
                        IndividualContractBuilderServices contractBuilderServices,
-                       EntityRetrieverService entityRetrieverService, IndividualService individualService, RuleServiceEntityContractBuilder ruleServiceEntityContractBuilder, UserRepository userRepository, OrganisationRepository organisationRepository) {
+                       EntityRetrieverService entityRetrieverService, IndividualService individualService, RuleServiceEntityContractBuilder ruleServiceEntityContractBuilder, UserRepository userRepository, OrganisationRepository organisationRepository,
+                       SummaryRuleResultCache summaryRuleResultCache) {
         this.ruleFailureLogRepository = ruleFailureLogRepository;
         this.observationService = observationService;
         this.contractBuilderServices = contractBuilderServices;
@@ -90,6 +95,7 @@ public class RuleService implements NonScopeAwareService {
         this.ruleServiceEntityContractBuilder = ruleServiceEntityContractBuilder;
         this.userRepository = userRepository;
         this.organisationRepository = organisationRepository;
+        this.summaryRuleResultCache = summaryRuleResultCache;
         logger = LoggerFactory.getLogger(this.getClass());
         this.ruleDependencyRepository = ruleDependencyRepository;
         this.ruleRepository = ruleRepository;
@@ -169,8 +175,16 @@ public class RuleService implements NonScopeAwareService {
             ruleResponseEntity.setStatus(HttpStatus.NOT_FOUND.toString());
             return ruleResponseEntity;
         }
-        RuleRequestEntity rule = new RuleRequestEntity();
         Program program = programEnrolment.getProgram();
+        if (StringUtils.isEmpty(program.getEnrolmentSummaryRule())) {
+            return noSummary();
+        }
+        SummaryRuleResultCache.Key cacheKey = summaryRuleResultCache.getKey(programEnrolment, program.getEnrolmentSummaryRule());
+        RuleResponseEntity cachedResponseEntity = summaryRuleResultCache.get(cacheKey);
+        if (cachedResponseEntity != null) {
+            return cachedResponseEntity;
+        }
+        RuleRequestEntity rule = new RuleRequestEntity();
         rule.setProgramSummaryCode(program.getEnrolmentSummaryRule());
         String workFlowType = WorkFlowTypeEnum.PROGRAM_SUMMARY.getWorkFlowTypeName();
         rule.setWorkFlowType(workFlowType);
@@ -181,6 +195,7 @@ public class RuleService implements NonScopeAwareService {
         RuleFailureLog ruleFailureLog = ruleValidationService.generateRuleFailureLog(rule, SOURCE_WEB, "Rules : " + workFlowType, programEnrolment.getUuid());
         ruleResponseEntity = createHttpHeaderAndSendRequest(API_SUMMARY_RULE, programEnrolmentContract, ruleFailureLog, RuleResponseEntity.class);
         setObservationsOnResponse(workFlowType, ruleResponseEntity);
+        summaryRuleResultCache.put(cacheKey, ruleResponseEntity);
         return ruleResponseEntity;
     }
 
@@ -190,8 +205,16 @@ public class RuleService implements NonScopeAwareService {
             ruleResponseEntity.setStatus(HttpStatus.NOT_FOUND.toString());
             return ruleResponseEntity;
         }
-        RuleRequestEntity rule = new RuleRequestEntity();
         SubjectType subjectType = individual.getSubjectType();
+        if (StringUtils.isEmpty(subjectType.getSubjectSummaryRule())) {
+            return noSummary();
+        }
+        SummaryRuleResultCache.Key cacheKey = summaryRuleResultCache.getKey(individual, subjectType.getSubjectSummaryRule());
+        RuleResponseEntity cachedResponseEntity = summaryRuleResultCache.get(cacheKey);
+        if (cachedResponseEntity != null) {
+            return cachedResponseEntity;
+        }
+        RuleRequestEntity rule = new RuleRequestEntity();
         rule.setSubjectSummaryCode(subjectType.getSubjectSummaryRule());
         String workFlowType = WorkFlowTypeEnum.SUBJECT_SUMMARY.getWorkFlowTypeName();
         rule.setWorkFlowType(workFlowType);
@@ -202,6 +225,17 @@ public class RuleService implements NonScopeAwareService {
         RuleFailureLog ruleFailureLog = ruleValidationService.generateRuleFailureLog(rule, SOURCE_WEB, "Rules : " + workFlowType, individual.getUuid());
         RuleResponseEntity ruleResponseEntity = createHttpHeaderAndSendRequest(API_SUMMARY_RULE, individualContract, ruleFailureLog, RuleResponseEntity.class);
         setObservationsOnResponse(workFlowType, ruleResponseEntity);
+        summaryRuleResultCache.put(cacheKey, ruleResponseEntity);
+        return ruleResponseEntity;
+    }
+
+    /**
+     * What the rule server responds for a summary rule without code, answered without building the contract or calling
+     * the server.
+     */
+    private RuleResponseEntity noSummary() {
+        RuleResponseEntity ruleResponseEntity = new RuleResponseEntity();
+        ruleResponseEntity.setStatus("success");
         return ruleResponseEntity;
     }
 
@@ -234,6 +268,27 @@ public class RuleService implements NonScopeAwareService {
         return (ScheduleRuleResponseEntity) getBaseRuleResponseEntity(entityType, scheduleRule, rulesMessage, responseType, contract, entity.getUuid());
     }
 
+    /**
+     * Evaluates the schedule rules of an entity against the same contract, sending the rules to the rule server
+     * together.
+     *
+     * @return responses in the order of the rules
+     */
+    public List<ScheduleRuleResponseEntity> executeScheduleRules(String entityType, Long entityId, List<String> scheduleRules) throws RuleExecutionException {
+        CHSEntity entity = entityRetrieverService.getEntity(entityType, entityId);
+        RuleServerEntityContract contract = ruleServiceEntityContractBuilder.toContract(entityType, entity);
+        List<MessageRequestEntity> ruleRequests = scheduleRules.stream()
+                .map(scheduleRule -> new MessageRequestEntity(contract, scheduleRule, entityType))
+                .collect(Collectors.toList());
+        List<CompletableFuture<String>> ruleResponses = restClient.postAll(API_MESSAGING_RULE, ruleRequests);
+        List<ScheduleRuleResponseEntity> scheduleRuleResponses = new ArrayList<>();
+        for (CompletableFuture<String> ruleResponse : ruleResponses) {
+            RuleFailureLog ruleFailureLog = generateRuleFailureLog(entityType, RULES_MESSAGE_SCHEDULE, entity.getUuid());
+            scheduleRuleResponses.add(readResponse(ruleResponse::join, ruleFailureLog, ScheduleRuleResponseEntity.class));
+        }
+        return scheduleRuleResponses;
+    }
+
     public MessageRuleResponseEntity executeMessageRule(String entityType, Long entityId, String messageRule) throws RuleExecutionException {
         String rulesMessage = RULES_MESSAGE_EXECUTE;
         Class<MessageRuleResponseEntity> responseType = MessageRuleResponseEntity.class;
@@ -265,11 +320,15 @@ public class RuleService implements NonScopeAwareService {
     private BaseRuleResponseEntity getBaseRuleResponseEntity(String entityType, String rule, String rulesMessage, Class<? extends BaseRuleResponseEntity> responseType, RuleServerEntityContract contract,
                                                              String entityUuid) throws RuleExecutionException {
         MessageRequestEntity ruleRequest = new MessageRequestEntity(contract, rule, entityType);
+        RuleFailureLog ruleFailureLog = generateRuleFailureLog(entityType, rulesMessage, entityUuid);
+        return createHttpHeaderAndSendRequest(API_MESSAGING_RULE, ruleRequest, ruleFailureLog, responseType);
+    }
+
+    private RuleFailureLog generateRuleFailureLog(String entityType, String rulesMessage, String entityUuid) {
         BaseRuleRequest baseRuleRequest = new BaseRuleRequest();
         baseRuleRequest.setRuleType(entityType);
         baseRuleRequest.setFormUuid(entityUuid);
-        RuleFailureLog ruleFailureLog = ruleValidationService.generateRuleFailureLog(baseRuleRequest, SOURCE_WEB, rulesMessage, String.valueOf(entityUuid));
-        return createHttpHeaderAndSendRequest(API_MESSAGING_RULE, ruleRequest, ruleFailureLog, responseType);
+        return ruleValidationService.generateRuleFailureLog(baseRuleRequest, SOURCE_WEB, rulesMessage, String.valueOf(entityUuid));
     }
 
     public RuleResponseEntity executeServerSideRules(RequestEntityWrapper requestEntityWrapper) throws RuleExecutionException {
@@ -362,10 +421,14 @@ public class RuleService implements NonScopeAwareService {
     }
 
     private <R extends BaseRuleResponseEntity> R createHttpHeaderAndSendRequest(String url, Object contractObject, RuleFailureLog ruleFailureLog, Class<R> responseType) throws RuleExecutionException {
+        return readResponse(() -> restClient.post(url, contractObject), ruleFailureLog, responseType);
+    }
+
+    private <R extends BaseRuleResponseEntity> R readResponse(Supplier<String> response, RuleFailureLog ruleFailureLog, Class<R> responseType) throws RuleExecutionException {
         try {
             ObjectMapper mapper = ObjectMapperSingleton.getObjectMapper();
             mapper.registerModule(new JodaModule());
-            String ruleResponse = restClient.post(url, contractObject);
+            String ruleResponse = response.get();
             R ruleResponseEntity = mapper.readValue(ruleResponse, responseType);
             if (ruleResponseEntity.getStatus().equals("failure")) {
                 RuleError ruleError = ruleResponseEntity.getError();
@@ -373,10 +436,11 @@ public class RuleService implements NonScopeAwareService {
             }
             return ruleResponseEntity;
         } catch (Exception e) {
-            saveRuleError(ruleFailureLog, e.getMessage(), getStackTrace(e));
+            Exception cause = e instanceof CompletionException && e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            saveRuleError(ruleFailureLog, cause.getMessage(), getStackTrace(cause));
             RuleError ruleError = new RuleError();
-            ruleError.setMessage(e.getMessage());
-            ruleError.setStack(getStackTrace(e));
+            ruleError.setMessage(cause.getMessage());
+            ruleError.setStack(getStackTrace(cause));
             throw new RuleExecutionException(ruleError);
         }
     }
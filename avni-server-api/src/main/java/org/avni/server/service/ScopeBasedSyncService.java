@@ -1,34 +1,40 @@
 package org.avni.server.service;
 
+import org.avni.server.dao.OperatingIndividualScopeAwareRepository;
 import org.avni.server.dao.SyncParameters;
 import org.avni.server.dao.SyncableRepository;
+import org.avni.server.dao.sync.SyncContinuationToken;
 import org.avni.server.dao.sync.SyncEntityName;
 import org.avni.server.domain.CHSEntity;
+import org.avni.server.domain.CatchmentAddressIndex;
 import org.avni.server.domain.SubjectType;
 import org.avni.server.domain.User;
 import org.joda.time.DateTime;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class ScopeBasedSyncService<T extends CHSEntity> {
     private final AddressLevelService addressLevelService;
+    private final int streamFetchSize;
 
-    public ScopeBasedSyncService(AddressLevelService addressLevelService) {
+    public ScopeBasedSyncService(AddressLevelService addressLevelService, @Value("${avni.sync.stream.fetchSize}") int streamFetchSize) {
         this.addressLevelService = addressLevelService;
+        this.streamFetchSize = streamFetchSize;
     }
 
     public Page<T> getSyncResultsBySubjectTypeRegistrationLocation(SyncableRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, Long typeId, Pageable pageable, SubjectType subjectType, SyncEntityName syncEntityName) {
-        List<Long> addressLevels = addressLevelService.getAllRegistrationAddressIdsBySubjectType(user.getCatchment(), subjectType);
+        CatchmentAddressIndex addressLevels = addressLevelService.getRegistrationAddressIndexBySubjectType(user.getCatchment(), subjectType);
         return repository.getSyncResults(new SyncParameters(lastModifiedDateTime, now, typeId, null, pageable, addressLevels, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment()));
     }
 
     public Page<T> getSyncResultsBySubjectTypeRegistrationLocation(SyncableRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, String entityTypeUuid, Pageable pageable, SubjectType subjectType, SyncEntityName syncEntityName) {
-        List<Long> addressLevels = addressLevelService.getAllRegistrationAddressIdsBySubjectType(user.getCatchment(), subjectType);
+        CatchmentAddressIndex addressLevels = addressLevelService.getRegistrationAddressIndexBySubjectType(user.getCatchment(), subjectType);
         return repository.getSyncResults(new SyncParameters(lastModifiedDateTime, now, null, entityTypeUuid, pageable, addressLevels, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment()));
     }
 
@@ -36,17 +42,28 @@ public class ScopeBasedSyncService<T extends CHSEntity> {
         return repository.getSyncResults(new SyncParameters(lastModifiedDateTime, now, null, null, pageable, null, null, user.getSyncSettings(), syncEntityName, user.getCatchment()));
     }
 
-    public Slice<T> getSyncResultsBySubjectTypeRegistrationLocationAsSlice(SyncableRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, Long typeId, Pageable pageable, SubjectType subjectType, SyncEntityName syncEntityName) {
-        List<Long> addressLevels = addressLevelService.getAllRegistrationAddressIdsBySubjectType(user.getCatchment(), subjectType);
-        return repository.getSyncResultsAsSlice(new SyncParameters(lastModifiedDateTime, now, typeId, null, pageable, addressLevels, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment()));
+    public Slice<T> getSyncResultsBySubjectTypeRegistrationLocationAsSlice(SyncableRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, Long typeId, Pageable pageable, String continuationToken, SubjectType subjectType, SyncEntityName syncEntityName) {
+        CatchmentAddressIndex addressLevels = addressLevelService.getRegistrationAddressIndexBySubjectType(user.getCatchment(), subjectType);
+        SyncParameters syncParameters = new SyncParameters(lastModifiedDateTime, now, typeId, null, pageable, addressLevels, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment());
+        syncParameters.setContinuationToken(continuationToken == null ? null : SyncContinuationToken.decode(continuationToken));
+        return repository.getSyncResultsAsSlice(syncParameters);
     }
 
-    public Slice<T> getSyncResultsBySubjectTypeRegistrationLocationAsSlice(SyncableRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, String entityTypeUuid, Pageable pageable, SubjectType subjectType, SyncEntityName syncEntityName) {
-        List<Long> addressLevels = addressLevelService.getAllRegistrationAddressIdsBySubjectType(user.getCatchment(), subjectType);
-        return repository.getSyncResultsAsSlice(new SyncParameters(lastModifiedDateTime, now, null, entityTypeUuid, pageable, addressLevels, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment()));
+    public Slice<T> getSyncResultsBySubjectTypeRegistrationLocationAsSlice(SyncableRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, String entityTypeUuid, Pageable pageable, String continuationToken, SubjectType subjectType, SyncEntityName syncEntityName) {
+        CatchmentAddressIndex addressLevels = addressLevelService.getRegistrationAddressIndexBySubjectType(user.getCatchment(), subjectType);
+        SyncParameters syncParameters = new SyncParameters(lastModifiedDateTime, now, null, entityTypeUuid, pageable, addressLevels, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment());
+        syncParameters.setContinuationToken(continuationToken == null ? null : SyncContinuationToken.decode(continuationToken));
+        return repository.getSyncResultsAsSlice(syncParameters);
     }
 
     public Slice<T> getSyncResultsByCatchmentAsSlice(SyncableRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, Pageable pageable, SyncEntityName syncEntityName) {
         return repository.getSyncResultsAsSlice(new SyncParameters(lastModifiedDateTime, now, null, null, pageable, null, null, user.getSyncSettings(), syncEntityName, user.getCatchment()));
     }
+
+    public Stream<T> getSyncResultsBySubjectTypeRegistrationLocationAsStream(OperatingIndividualScopeAwareRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, Long typeId, String continuationToken, SubjectType subjectType, SyncEntityName syncEntityName) {
+        CatchmentAddressIndex addressLevels = addressLevelService.getRegistrationAddressIndexBySubjectType(user.getCatchment(), subjectType);
+        SyncParameters syncParameters = new SyncParameters(lastModifiedDateTime, now, typeId, null, Pageable.unpaged(), addressLevels, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment());
+        syncParameters.setContinuationToken(continuationToken == null ? null : SyncContinuationToken.decode(continuationToken));
+        return repository.getSyncResultsAsStream(syncParameters, streamFetchSize);
+    }
 }
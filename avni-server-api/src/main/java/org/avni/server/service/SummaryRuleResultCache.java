@@ -0,0 +1,111 @@
+package org.avni.server.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.avni.server.dao.IndividualRepository;
+import org.avni.server.dao.ProgramEnrolmentRepository;
+import org.avni.server.domain.Individual;
+import org.avni.server.domain.ProgramEnrolment;
+import org.avni.server.web.request.rules.response.RuleResponseEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers successful results of subject and program summary rules. A result is keyed on the entity, the latest
+ * modification of the entity and of everything the rule's contract is built from, and a checksum of the rule. Any
+ * change to the data or to the rule therefore misses the cache - on every server instance - and the entry left behind
+ * ages out.
+ * <p>
+ * Rules reading anything else, like the current date, can be stale for as long as an entry lives.
+ */
+@Component
+public class SummaryRuleResultCache {
+    private final IndividualRepository individualRepository;
+    private final ProgramEnrolmentRepository programEnrolmentRepository;
+    private final Cache<Key, RuleResponseEntity> cache;
+
+    @Autowired
+    public SummaryRuleResultCache(IndividualRepository individualRepository, ProgramEnrolmentRepository programEnrolmentRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${avni.rules.summaryResults.max.entries}") long maxEntries,
+                                  @Value("${avni.rules.summaryResults.ttl.seconds}") long ttlSeconds) {
+        this.individualRepository = individualRepository;
+        this.programEnrolmentRepository = programEnrolmentRepository;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "summaryRuleResults");
+    }
+
+    public Key getKey(Individual individual, String rule) {
+        Date lastModifiedDateTime = individualRepository.getLastModifiedDateTimeIncludingChildren(individual.getId());
+        return new Key(individual.getUuid(), toMillis(lastModifiedDateTime), checksum(rule));
+    }
+
+    /**
+     * The contract of a program summary rule includes the enrolment's subject along with its own children.
+     */
+    public Key getKey(ProgramEnrolment programEnrolment, String rule) {
+        long lastModifiedDateTime = Math.max(
+                toMillis(programEnrolmentRepository.getLastModifiedDateTimeIncludingChildren(programEnrolment.getId())),
+                toMillis(individualRepository.getLastModifiedDateTimeIncludingChildren(programEnrolment.getIndividual().getId())));
+        return new Key(programEnrolment.getUuid(), lastModifiedDateTime, checksum(rule));
+    }
+
+    public RuleResponseEntity get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Results are shared by everyone viewing the entity and must not be modified once put.
+     */
+    public void put(Key key, RuleResponseEntity ruleResponseEntity) {
+        if ("success".equalsIgnoreCase(ruleResponseEntity.getStatus())) {
+            cache.put(key, ruleResponseEntity);
+        }
+    }
+
+    private static long toMillis(Date date) {
+        return date == null ? 0 : date.getTime();
+    }
+
+    private static String checksum(String rule) {
+        return Hashing.sha256().hashString(rule, StandardCharsets.UTF_8).toString();
+    }
+
+    public static class Key {
+        private final String entityUUID;
+        private final long lastModifiedDateTime;
+        private final String ruleChecksum;
+
+        Key(String entityUUID, long lastModifiedDateTime, String ruleChecksum) {
+            this.entityUUID = entityUUID;
+            this.lastModifiedDateTime = lastModifiedDateTime;
+            this.ruleChecksum = ruleChecksum;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return lastModifiedDateTime == key.lastModifiedDateTime && entityUUID.equals(key.entityUUID) && ruleChecksum.equals(key.ruleChecksum);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityUUID, lastModifiedDateTime, ruleChecksum);
+        }
+    }
+}
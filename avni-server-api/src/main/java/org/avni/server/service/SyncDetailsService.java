@@ -1,45 +1,103 @@
 package org.avni.server.service;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.avni.server.application.FormMapping;
 import org.avni.server.application.Subject;
 import org.avni.server.dao.ChecklistDetailRepository;
 import org.avni.server.dao.EncounterTypeRepository;
 import org.avni.server.dao.OperationalSubjectTypeRepository;
+import org.avni.server.dao.UserGroupRepository;
 import org.avni.server.dao.application.FormMappingRepository;
 import org.avni.server.dao.sync.SyncEntityName;
-import org.avni.server.domain.ChecklistDetail;
-import org.avni.server.domain.OperationalSubjectType;
-import org.avni.server.domain.SubjectType;
-import org.avni.server.domain.SyncableItem;
+import org.avni.server.domain.*;
 import org.avni.server.domain.accessControl.GroupPrivileges;
 import org.avni.server.domain.accessControl.PrivilegeType;
+import org.avni.server.framework.cache.ClusterCacheInvalidation;
+import org.avni.server.framework.hibernate.MetadataChangedEvent;
+import org.avni.server.framework.security.UserContextHolder;
 import org.avni.server.service.accessControl.GroupPrivilegeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class SyncDetailsService {
+    public static final String SYNCABLE_ITEMS = "syncableItems";
     private final OperationalSubjectTypeRepository subjectTypeRepository;
     private final FormMappingRepository formMappingRepository;
     private final ChecklistDetailRepository checklistDetailRepository;
     private final OrganisationConfigService organisationConfigService;
     private final GroupPrivilegeService groupPrivilegeService;
+    private final UserGroupRepository userGroupRepository;
+    private final Cache<SyncableItemsKey, Set<SyncableItem>> syncableItemsCache;
+    private final AtomicLong metadataGeneration = new AtomicLong();
+    private final ClusterCacheInvalidation clusterCacheInvalidation;
 
 
-    public SyncDetailsService(OperationalSubjectTypeRepository subjectTypeRepository1, EncounterTypeRepository encounterTypeRepository, FormMappingRepository formMappingRepository, ChecklistDetailRepository checklistDetailRepository, OrganisationConfigService organisationConfigService, GroupPrivilegeService groupPrivilegeService) {
+    public SyncDetailsService(OperationalSubjectTypeRepository subjectTypeRepository1, EncounterTypeRepository encounterTypeRepository, FormMappingRepository formMappingRepository, ChecklistDetailRepository checklistDetailRepository, OrganisationConfigService organisationConfigService, GroupPrivilegeService groupPrivilegeService,
+                              UserGroupRepository userGroupRepository, MeterRegistry meterRegistry, ClusterCacheInvalidation clusterCacheInvalidation,
+                              @Value("${avni.sync.syncableItems.max.entries}") int maxEntries,
+                              @Value("${avni.sync.syncableItems.ttl.seconds}") int ttlSeconds) {
         this.subjectTypeRepository = subjectTypeRepository1;
         this.formMappingRepository = formMappingRepository;
         this.checklistDetailRepository = checklistDetailRepository;
         this.organisationConfigService = organisationConfigService;
         this.groupPrivilegeService = groupPrivilegeService;
+        this.userGroupRepository = userGroupRepository;
+        this.syncableItemsCache = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, syncableItemsCache, SYNCABLE_ITEMS);
+        this.clusterCacheInvalidation = clusterCacheInvalidation;
+        clusterCacheInvalidation.registerLocalCache(SYNCABLE_ITEMS, this::clearSyncableItems);
     }
 
+    /**
+     * Syncable items depend only on the organisation's metadata and the user's groups, so they are cached per
+     * organisation and group set. The cache is keyed on a generation that moves on every metadata change, so that a
+     * computation racing with a change is never served afterwards.
+     */
     @Transactional
     public Set<SyncableItem> getAllSyncableItems(boolean scopeAwareEAS, boolean includeUserSubjectType) {
+        User user = UserContextHolder.getUser();
+        Organisation organisation = UserContextHolder.getOrganisation();
+        if (user == null || organisation == null) return computeSyncableItems(scopeAwareEAS, includeUserSubjectType);
+
+        SyncableItemsKey key = new SyncableItemsKey(metadataGeneration.get(), organisation.getId(),
+                new HashSet<>(userGroupRepository.findGroupIdsByUserId(user.getId())), scopeAwareEAS, includeUserSubjectType);
+        try {
+            return syncableItemsCache.get(key, () -> Collections.unmodifiableSet(computeSyncableItems(scopeAwareEAS, includeUserSubjectType)));
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @EventListener(MetadataChangedEvent.class)
+    public void metadataChanged() {
+        clusterCacheInvalidation.invalidate(SYNCABLE_ITEMS);
+    }
+
+    private void clearSyncableItems() {
+        metadataGeneration.incrementAndGet();
+        syncableItemsCache.invalidateAll();
+    }
+
+    private Set<SyncableItem> computeSyncableItems(boolean scopeAwareEAS, boolean includeUserSubjectType) {
         List<SubjectType> subjectTypes = subjectTypeRepository.findAll()
                 .stream()
                 .filter(st -> !st.getSubjectType().getType().equals(Subject.User) || includeUserSubjectType)
@@ -49,7 +107,8 @@ public class SyncDetailsService {
         List<FormMapping> generalEncounters = formMappingRepository.getAllGeneralEncounterFormMappings();
         List<FormMapping> programEncounters = formMappingRepository.getAllProgramEncounterFormMappings();
         List<FormMapping> programEnrolments = formMappingRepository.getAllProgramEnrolmentFormMappings();
-        List<FormMapping> allRegistrationFormMappings = formMappingRepository.getAllRegistrationFormMappings();
+        Map<Long, FormMapping> registrationFormMappings = new HashMap<>();
+        formMappingRepository.getAllRegistrationFormMappings().forEach(formMapping -> registrationFormMappings.putIfAbsent(formMapping.getSubjectType().getId(), formMapping));
         List<ChecklistDetail> checklistDetails = checklistDetailRepository.findAll();
         GroupPrivileges groupPrivileges = groupPrivilegeService.getGroupPrivileges();
 
@@ -73,8 +132,8 @@ public class SyncDetailsService {
                 addToSyncableItems(syncableItems, SyncEntityName.CommentThread, subjectType.getUuid());
             }
 
-            Optional<FormMapping> subjectTypeFormMapping = allRegistrationFormMappings.stream().filter((formMapping -> Objects.equals(formMapping.getSubjectType().getId(), subjectType.getId()))).findFirst();
-            if (scopeAwareEAS && subjectTypeFormMapping.isPresent() && subjectTypeFormMapping.get().isEnableApproval())
+            FormMapping subjectTypeFormMapping = registrationFormMappings.get(subjectType.getId());
+            if (scopeAwareEAS && subjectTypeFormMapping != null && subjectTypeFormMapping.isEnableApproval())
                 addToSyncableItems(syncableItems, SyncEntityName.SubjectEntityApprovalStatus, subjectType.getUuid());
 
         });
@@ -132,4 +191,34 @@ public class SyncDetailsService {
     private void addToSyncableItems(HashSet<SyncableItem> syncableItems, List<SyncEntityName> entityNames) {
         entityNames.forEach(entityName -> syncableItems.add(new SyncableItem(entityName, "")));
     }
+
+    private static class SyncableItemsKey {
+        private final long metadataGeneration;
+        private final Long organisationId;
+        private final Set<Long> groupIds;
+        private final boolean scopeAwareEAS;
+        private final boolean includeUserSubjectType;
+
+        SyncableItemsKey(long metadataGeneration, Long organisationId, Set<Long> groupIds, boolean scopeAwareEAS, boolean includeUserSubjectType) {
+            this.metadataGeneration = metadataGeneration;
+            this.organisationId = organisationId;
+            this.groupIds = groupIds;
+            this.scopeAwareEAS = scopeAwareEAS;
+            this.includeUserSubjectType = includeUserSubjectType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            SyncableItemsKey that = (SyncableItemsKey) o;
+            return metadataGeneration == that.metadataGeneration && scopeAwareEAS == that.scopeAwareEAS && includeUserSubjectType == that.includeUserSubjectType
+                    && Objects.equals(organisationId, that.organisationId) && Objects.equals(groupIds, that.groupIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(metadataGeneration, organisationId, groupIds, scopeAwareEAS, includeUserSubjectType);
+        }
+    }
 }
@@ -0,0 +1,201 @@
+package org.avni.server.service;
+
+import com.google.common.collect.Lists;
+import org.avni.server.dao.IndividualRepository;
+import org.avni.server.dao.LocationRepository;
+import org.avni.server.dao.ProgramEnrolmentRepository;
+import org.avni.server.dao.SubjectTypeRepository;
+import org.avni.server.domain.*;
+import org.avni.server.web.request.*;
+import org.avni.server.web.response.TransactionalDataBatchItemResponse;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Saves a backlog of subjects, enrolments and encounters in chunks of one transaction each. The subjects, enrolments,
+ * subject types and address levels referred to by a chunk are looked up with one query each before saving it.
+ * <p>
+ * The chunk is flushed once, when it commits, so that jdbc batches the updates of all its entities. When saving an
+ * entity fails, only that entity is reported as failed: the ones before it in the chunk, undone by the rollback, are
+ * saved again in one transaction and the ones after it carry on as a chunk of their own. Failures of the database, which
+ * may come from a flush of statements of earlier entities, and failures of the commit cannot be pinned on an entity, so
+ * the chunk is saved in halves until the failing entity is alone in one.
+ */
+@Service
+public class TransactionalDataBatchService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionalDataBatchService.class);
+
+    private final IndividualService individualService;
+    private final ProgramEnrolmentService programEnrolmentService;
+    private final EncounterService encounterService;
+    private final ProgramEncounterService programEncounterService;
+    private final IndividualRepository individualRepository;
+    private final ProgramEnrolmentRepository programEnrolmentRepository;
+    private final SubjectTypeRepository subjectTypeRepository;
+    private final LocationRepository locationRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public TransactionalDataBatchService(IndividualService individualService,
+                                         ProgramEnrolmentService programEnrolmentService,
+                                         EncounterService encounterService,
+                                         ProgramEncounterService programEncounterService,
+                                         IndividualRepository individualRepository,
+                                         ProgramEnrolmentRepository programEnrolmentRepository,
+                                         SubjectTypeRepository subjectTypeRepository,
+                                         LocationRepository locationRepository,
+                                         EntityManager entityManager,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${avni.transactionalDataBatch.chunkSize}") int chunkSize) {
+        this.individualService = individualService;
+        this.programEnrolmentService = programEnrolmentService;
+        this.encounterService = encounterService;
+        this.programEncounterService = programEncounterService;
+        this.individualRepository = individualRepository;
+        this.programEnrolmentRepository = programEnrolmentRepository;
+        this.subjectTypeRepository = subjectTypeRepository;
+        this.locationRepository = locationRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public List<TransactionalDataBatchItemResponse> save(List<TransactionalDataBatchItem> items) {
+        List<TransactionalDataBatchItemResponse> responses = new ArrayList<>(items.size());
+        for (List<TransactionalDataBatchItem> chunk : Lists.partition(items, chunkSize)) {
+            responses.addAll(saveChunk(chunk));
+        }
+        return responses;
+    }
+
+    private List<TransactionalDataBatchItemResponse> saveChunk(List<TransactionalDataBatchItem> chunk) {
+        if (chunk.isEmpty()) return Collections.emptyList();
+        int[] current = {-1};
+        try {
+            return transactionTemplate.execute(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(chunkSize);
+                ChunkLookups lookups = preload(chunk);
+                List<TransactionalDataBatchItemResponse> responses = new ArrayList<>(chunk.size());
+                for (current[0] = 0; current[0] < chunk.size(); current[0]++) {
+                    responses.add(save(chunk.get(current[0]), lookups));
+                }
+                current[0] = -1;
+                return responses;
+            });
+        } catch (RuntimeException e) {
+            return saveAroundFailure(chunk, isDatabaseFailure(e) ? -1 : current[0], e);
+        }
+    }
+
+    private static boolean isDatabaseFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PersistenceException || cause instanceof DataAccessException || cause instanceof HibernateException) return true;
+        }
+        return false;
+    }
+
+    private List<TransactionalDataBatchItemResponse> saveAroundFailure(List<TransactionalDataBatchItem> chunk, int failedIndex, RuntimeException e) {
+        if (failedIndex < 0) {
+            // not known which entity failed, so halve the chunk until the failing entity is alone in one
+            if (chunk.size() == 1) return Collections.singletonList(failed(chunk.get(0), e));
+            logger.warn(String.format("Saving chunk of %d entities failed, saving it in halves. %s", chunk.size(), e.getMessage()));
+            List<TransactionalDataBatchItemResponse> responses = new ArrayList<>(saveChunk(chunk.subList(0, chunk.size() / 2)));
+            responses.addAll(saveChunk(chunk.subList(chunk.size() / 2, chunk.size())));
+            return responses;
+        }
+        List<TransactionalDataBatchItemResponse> responses = new ArrayList<>(saveChunk(chunk.subList(0, failedIndex)));
+        responses.add(failed(chunk.get(failedIndex), e));
+        responses.addAll(saveChunk(chunk.subList(failedIndex + 1, chunk.size())));
+        return responses;
+    }
+
+    private TransactionalDataBatchItemResponse save(TransactionalDataBatchItem item, ChunkLookups lookups) {
+        CHSRequest entity = item.getEntity();
+        if (entity == null) return error(item, "Missing entity");
+        if (entity instanceof IndividualRequest) {
+            IndividualRequest request = (IndividualRequest) entity;
+            AddressLevel addressLevel = Optional.ofNullable(lookups.addressLevels.get(request.getAddressLevelUUID())).orElseGet(() -> individualService.getAddressLevel(request));
+            SubjectType subjectType = Optional.ofNullable(lookups.subjectTypes.get(request.getSubjectTypeUUID())).orElseGet(() -> individualService.getSubjectType(request));
+            Individual individual = individualService.saveIndividual(request, addressLevel, subjectType);
+            lookups.individuals.put(individual.getUuid(), individual);
+        } else if (entity instanceof ProgramEnrolmentRequest) {
+            ProgramEnrolmentRequest request = (ProgramEnrolmentRequest) entity;
+            Individual individual = lookups.individuals.get(request.getIndividualUUID());
+            if (individual == null) return error(item, String.format("Individual not found with UUID '%s'", request.getIndividualUUID()));
+            ProgramEnrolment programEnrolment = programEnrolmentService.programEnrolmentSave(request, individual);
+            lookups.programEnrolments.put(programEnrolment.getUuid(), programEnrolment);
+        } else if (entity instanceof EncounterRequest) {
+            EncounterRequest request = (EncounterRequest) entity;
+            Individual individual = lookups.individuals.get(request.getIndividualUUID());
+            if (individual == null) return error(item, String.format("Individual not found with UUID '%s'", request.getIndividualUUID()));
+            encounterService.saveEncounter(request, individual);
+        } else {
+            ProgramEncounterRequest request = (ProgramEncounterRequest) entity;
+            ProgramEnrolment programEnrolment = lookups.programEnrolments.get(request.getProgramEnrolmentUUID());
+            if (programEnrolment == null) return error(item, String.format("Program enrolment not found with UUID '%s'", request.getProgramEnrolmentUUID()));
+            programEncounterService.saveProgramEncounter(request, programEnrolment);
+            if (request.getVisitSchedules() != null && !request.getVisitSchedules().isEmpty()) {
+                programEncounterService.saveVisitSchedules(request.getProgramEnrolmentUUID(), request.getVisitSchedules(), request.getUuid());
+            }
+        }
+        return TransactionalDataBatchItemResponse.success(item.getEntityType(), entity.getUuid());
+    }
+
+    private ChunkLookups preload(List<TransactionalDataBatchItem> chunk) {
+        List<CHSRequest> entities = chunk.stream().map(TransactionalDataBatchItem::getEntity).filter(Objects::nonNull).collect(Collectors.toList());
+        ChunkLookups lookups = new ChunkLookups();
+        lookups.individuals.putAll(findByUuids(individualRepository::findAllByUuidIn, uuids(entities, entity -> {
+            if (entity instanceof ProgramEnrolmentRequest) return ((ProgramEnrolmentRequest) entity).getIndividualUUID();
+            if (entity instanceof EncounterRequest) return ((EncounterRequest) entity).getIndividualUUID();
+            return null;
+        })));
+        lookups.programEnrolments.putAll(findByUuids(programEnrolmentRepository::findAllByUuidIn, uuids(entities, entity ->
+                entity instanceof ProgramEncounterRequest ? ((ProgramEncounterRequest) entity).getProgramEnrolmentUUID() : null)));
+        lookups.subjectTypes.putAll(findByUuids(subjectTypeRepository::findAllByUuidIn, uuids(entities, entity ->
+                entity instanceof IndividualRequest ? ((IndividualRequest) entity).getSubjectTypeUUID() : null)));
+        lookups.addressLevels.putAll(findByUuids(locationRepository::findAllByUuidIn, uuids(entities, entity ->
+                entity instanceof IndividualRequest ? ((IndividualRequest) entity).getAddressLevelUUID() : null)));
+        return lookups;
+    }
+
+    private static List<String> uuids(List<CHSRequest> entities, Function<CHSRequest, String> uuidOf) {
+        return entities.stream().map(uuidOf).filter(Objects::nonNull).distinct().collect(Collectors.toList());
+    }
+
+    private static <T extends CHSEntity> Map<String, T> findByUuids(Function<List<String>, List<T>> finder, List<String> uuids) {
+        if (uuids.isEmpty()) return Collections.emptyMap();
+        return finder.apply(uuids).stream().collect(Collectors.toMap(CHSEntity::getUuid, Function.identity()));
+    }
+
+    private static TransactionalDataBatchItemResponse failed(TransactionalDataBatchItem item, RuntimeException e) {
+        logger.error(String.format("Saving %s with uuid %s failed", item.getEntityType(), item.getEntity() == null ? null : item.getEntity().getUuid()), e);
+        return error(item, e.getMessage());
+    }
+
+    private static TransactionalDataBatchItemResponse error(TransactionalDataBatchItem item, String errorMessage) {
+        return TransactionalDataBatchItemResponse.error(item.getEntityType(), item.getEntity() == null ? null : item.getEntity().getUuid(), errorMessage);
+    }
+
+    private static class ChunkLookups {
+        private final Map<String, Individual> individuals = new HashMap<>();
+        private final Map<String, ProgramEnrolment> programEnrolments = new HashMap<>();
+        private final Map<String, SubjectType> subjectTypes = new HashMap<>();
+        private final Map<String, AddressLevel> addressLevels = new HashMap<>();
+    }
+}
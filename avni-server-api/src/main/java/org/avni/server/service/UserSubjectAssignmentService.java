@@ -2,6 +2,7 @@ package org.avni.server.service;
 
 import org.avni.server.dao.*;
 import org.avni.server.dao.search.SubjectAssignmentSearchQueryBuilder;
+import org.avni.server.dao.search.SubjectSearchCount;
 import org.avni.server.domain.*;
 import org.avni.server.domain.accessControl.GroupPrivileges;
 import org.avni.server.framework.security.UserContextHolder;
@@ -126,10 +127,12 @@ public class UserSubjectAssignmentService implements NonScopeAwareService {
             searchResult.put("addressLevel", titleLineages.get(((BigInteger) searchResult.get("addressId")).longValue()));
         }
 
-        BigInteger totalCount = subjectSearchRepository.getTotalCount(subjectSearchRequest, new SubjectAssignmentSearchQueryBuilder());
+        SubjectSearchCount totalCount = subjectSearchRepository.getTotalCount(subjectSearchRequest, new SubjectAssignmentSearchQueryBuilder());
 
         LinkedHashMap<String, Object> recordsMap = new LinkedHashMap<>();
-        recordsMap.put("totalElements", totalCount);
+        recordsMap.put("totalElements", totalCount.getCount());
+        recordsMap.put("totalElementsExact", totalCount.isExact());
+        recordsMap.put("nextPageCursor", SubjectAssignmentSearchQueryBuilder.getNextPageCursor(subjectSearchRequest.getPageElement(), searchResults));
         recordsMap.put("listOfRecords", searchResults);
         return recordsMap;
     }
@@ -147,7 +150,7 @@ public class UserSubjectAssignmentService implements NonScopeAwareService {
         for (Map.Entry<SubjectType, List<Individual>> subjectTypeList : subjectTypeListMap.entrySet()) {
             SubjectType subjectType = subjectTypeList.getKey();
             List<Individual> listOfSubjects = subjectTypeList.getValue();
-            List<Long> addressLevels = addressLevelService.getAllRegistrationAddressIdsBySubjectType(user.getCatchment(), subjectType);
+            CatchmentAddressIndex addressLevels = addressLevelService.getRegistrationAddressIndexBySubjectType(user.getCatchment(), subjectType);
             for (Individual subject : listOfSubjects) {
                 validateAndCreateUpdateUserSubjectAssignment(assignmentVoided, user, subject, userSubjectAssignmentList, addressLevels, errors);
             }
@@ -161,7 +164,7 @@ public class UserSubjectAssignmentService implements NonScopeAwareService {
 
     private void validateAndCreateUpdateUserSubjectAssignment(boolean assignmentVoided, User user, Individual subject,
                                                               List<UserSubjectAssignment> userSubjectAssignmentList,
-                                                              List<Long> addressLevels, List<String> errors) {
+                                                              CatchmentAddressIndex addressLevels, List<String> errors) {
         try {
             checkIfSubjectLiesWithinUserCatchment(assignmentVoided, subject, addressLevels);
             checkIfSubjectIsPartOfGroupAssignedToUser(assignmentVoided, user, subject);
@@ -185,7 +188,7 @@ public class UserSubjectAssignmentService implements NonScopeAwareService {
         }
     }
 
-    private void checkIfSubjectLiesWithinUserCatchment(boolean assignmentVoided, Individual subject, List<Long> addressLevels) throws ValidationException {
+    private void checkIfSubjectLiesWithinUserCatchment(boolean assignmentVoided, Individual subject, CatchmentAddressIndex addressLevels) throws ValidationException {
         if (!assignmentVoided && !addressLevels.contains(subject.getAddressLevel().getId())) {
             throw new ValidationException(String.format("Assigment of Individual (%s) cannot be done because it is outside the User's Catchment", subject.getFullName()));
         }
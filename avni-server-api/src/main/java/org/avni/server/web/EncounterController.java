@@ -1,23 +1,16 @@
 package org.avni.server.web;
 
-import com.bugsnag.Bugsnag;
 import org.avni.server.application.FormMapping;
 import org.avni.server.application.FormType;
 import org.avni.server.dao.EncounterRepository;
 import org.avni.server.dao.EncounterTypeRepository;
-import org.avni.server.dao.IndividualRepository;
 import org.avni.server.dao.sync.SyncEntityName;
 import org.avni.server.domain.*;
 import org.avni.server.domain.accessControl.PrivilegeType;
-import org.avni.server.framework.security.UserContextHolder;
-import org.avni.server.geo.Point;
 import org.avni.server.service.*;
 import org.avni.server.service.accessControl.AccessControlService;
 import org.avni.server.web.request.EncounterContract;
 import org.avni.server.web.request.EncounterRequest;
-import org.avni.server.web.request.PointRequest;
-import org.avni.server.web.request.rules.RulesContractWrapper.Decision;
-import org.avni.server.web.request.rules.RulesContractWrapper.Decisions;
 import org.avni.server.web.response.AvniEntityResponse;
 import org.avni.server.web.response.slice.SlicedResources;
 import org.joda.time.DateTime;
@@ -27,7 +20,6 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.SliceImpl;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedResources;
 import org.springframework.hateoas.Resource;
 import org.springframework.http.ResponseEntity;
@@ -35,49 +27,46 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.transaction.Transactional;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 import static org.avni.server.web.resourceProcessors.ResourceProcessor.addAuditFields;
+import static org.avni.server.web.resourceProcessors.ResourceProcessor.asLinks;
 import static org.avni.server.web.resourceProcessors.ResourceProcessor.addUserFields;
 
 @RestController
 public class EncounterController extends AbstractController<Encounter> implements RestControllerResourceProcessor<Encounter> {
     private static final org.slf4j.Logger logger = LoggerFactory.getLogger(IndividualController.class);
-    private final IndividualRepository individualRepository;
     private final EncounterTypeRepository encounterTypeRepository;
     private final EncounterRepository encounterRepository;
-    private final ObservationService observationService;
     private final UserService userService;
-    private final Bugsnag bugsnag;
     private final EncounterService encounterService;
     private final ScopeBasedSyncService<Encounter> scopeBasedSyncService;
     private final FormMappingService formMappingService;
     private final AccessControlService accessControlService;
     private final EntityApprovalStatusService entityApprovalStatusService;
     private final TxDataControllerHelper txDataControllerHelper;
+    private final SyncStreamWriter syncStreamWriter;
 
     @Autowired
-    public EncounterController(IndividualRepository individualRepository,
-                               EncounterTypeRepository encounterTypeRepository,
+    public EncounterController(EncounterTypeRepository encounterTypeRepository,
                                EncounterRepository encounterRepository,
-                               ObservationService observationService,
                                UserService userService,
-                               Bugsnag bugsnag,
-                               EncounterService encounterService, ScopeBasedSyncService<Encounter> scopeBasedSyncService, FormMappingService formMappingService, AccessControlService accessControlService, EntityApprovalStatusService entityApprovalStatusService, TxDataControllerHelper txDataControllerHelper) {
-        this.individualRepository = individualRepository;
+                               EncounterService encounterService, ScopeBasedSyncService<Encounter> scopeBasedSyncService, FormMappingService formMappingService, AccessControlService accessControlService, EntityApprovalStatusService entityApprovalStatusService, TxDataControllerHelper txDataControllerHelper, SyncStreamWriter syncStreamWriter) {
         this.encounterTypeRepository = encounterTypeRepository;
         this.encounterRepository = encounterRepository;
-        this.observationService = observationService;
         this.userService = userService;
-        this.bugsnag = bugsnag;
         this.encounterService = encounterService;
         this.scopeBasedSyncService = scopeBasedSyncService;
         this.formMappingService = formMappingService;
         this.accessControlService = accessControlService;
         this.entityApprovalStatusService = entityApprovalStatusService;
         this.txDataControllerHelper = txDataControllerHelper;
+        this.syncStreamWriter = syncStreamWriter;
     }
 
     @GetMapping(value = "/web/encounter/{uuid}")
@@ -91,22 +80,13 @@ public class EncounterController extends AbstractController<Encounter> implement
         return ResponseEntity.ok(encounterContract);
     }
 
-    private void checkForSchedulingCompleteConstraintViolation(EncounterRequest request) {
-        if ((request.getEarliestVisitDateTime() != null || request.getMaxVisitDateTime() != null)
-            && (request.getEarliestVisitDateTime() == null || request.getMaxVisitDateTime() == null)
-        ) {
-            //violating constraint so notify bugsnag
-            bugsnag.notify(new Exception(String.format("ProgramEncounter violating scheduling constraint uuid %s earliest %s max %s", request.getUuid(), request.getEarliestVisitDateTime(), request.getMaxVisitDateTime())));
-        }
-    }
-
     @RequestMapping(value = "/encounters", method = RequestMethod.POST)
     @Transactional
     @PreAuthorize(value = "hasAnyAuthority('user')")
     public void save(@RequestBody EncounterRequest request) {
         logger.info(String.format("Saving encounter with uuid %s", request.getUuid()));
 
-        createEncounter(request);
+        encounterService.saveEncounter(request);
 
         logger.info(String.format("Saved encounter with uuid %s", request.getUuid()));
     }
@@ -117,7 +97,7 @@ public class EncounterController extends AbstractController<Encounter> implement
     public AvniEntityResponse saveForWeb(@RequestBody EncounterRequest request) {
         try {
             logger.info("Saving encounter with uuid {}}", request.getUuid());
-            Encounter encounter = createEncounter(request);
+            Encounter encounter = encounterService.saveEncounter(request);
             if (encounter != null) // create encounter method needs fixing. it should not return null in any case
                 txDataControllerHelper.checkSubjectAccess(encounter.getIndividual());
             addEntityApprovalStatusIfRequired(encounter);
@@ -134,72 +114,6 @@ public class EncounterController extends AbstractController<Encounter> implement
         entityApprovalStatusService.createStatus(EntityApprovalStatus.EntityType.Encounter, encounter.getId(), ApprovalStatus.Status.Pending, encounter.getEncounterType().getUuid(), formMapping);
     }
 
-    private Encounter createEncounter(EncounterRequest request) {
-        checkForSchedulingCompleteConstraintViolation(request);
-
-        EncounterType encounterType = encounterTypeRepository.findByUuidOrName(request.getEncounterTypeUUID(), request.getEncounterType());
-        Decisions decisions = request.getDecisions();
-        observationService.validateObservationsAndDecisions(request.getObservations(), decisions != null ? decisions.getEncounterDecisions() : null, formMappingService.find(encounterType, FormType.Encounter));
-        Individual individual = individualRepository.findByUuid(request.getIndividualUUID());
-        if (individual == null) {
-            throw new IllegalArgumentException(String.format("Individual not found with UUID '%s'", request.getIndividualUUID()));
-        }
-
-        Encounter encounter = newOrExistingEntity(encounterRepository, request, new Encounter());
-        encounter.setIndividual(individual);
-        //Planned visit can not overwrite completed encounter
-        if (encounter.isCompleted() && request.isPlanned())
-            return null;
-
-        if ((request.getObservations() == null || request.getObservations().isEmpty()) && encounter.getObservations() != null && !encounter.getObservations().isEmpty()) {
-            String errorMessage = String.format("Encounter Observations is getting empty. User: %s, UUID: %s, ", UserContextHolder.getUser().getUsername(), request.getUuid());
-            bugsnag.notify(new Exception(errorMessage));
-            logger.error(errorMessage);
-        }
-        if ((request.getCancelObservations() == null || request.getCancelObservations().isEmpty()) && encounter.getCancelObservations() != null && !encounter.getCancelObservations().isEmpty()) {
-            String errorMessage = String.format("Encounter Cancel Observations is getting empty. User: %s, UUID: %s, ", UserContextHolder.getUser().getUsername(), request.getUuid());
-            bugsnag.notify(new Exception(errorMessage));
-            logger.error(errorMessage);
-        }
-        encounter.setEncounterDateTime(request.getEncounterDateTime(), userService.getCurrentUser());
-        encounter.setEncounterType(encounterType);
-        encounter.setObservations(observationService.createObservations(request.getObservations()));
-        encounter.setName(request.getName());
-        encounter.setEarliestVisitDateTime(request.getEarliestVisitDateTime());
-        encounter.setMaxVisitDateTime(request.getMaxVisitDateTime());
-        encounter.setCancelDateTime(request.getCancelDateTime());
-        encounter.setCancelObservations(observationService.createObservations(request.getCancelObservations()));
-        encounter.setVoided(request.isVoided());
-        PointRequest encounterLocation = request.getEncounterLocation();
-        if (encounterLocation != null)
-            encounter.setEncounterLocation(new Point(encounterLocation.getX(), encounterLocation.getY()));
-        PointRequest cancelLocation = request.getCancelLocation();
-        if (cancelLocation != null)
-            encounter.setCancelLocation(new Point(cancelLocation.getX(), cancelLocation.getY()));
-
-        if (decisions != null) {
-            ObservationCollection observationsFromDecisions = observationService
-                .createObservationsFromDecisions(decisions.getEncounterDecisions());
-            if (decisions.isCancel()) {
-                encounter.getCancelObservations().putAll(observationsFromDecisions);
-            } else {
-                encounter.getObservations().putAll(observationsFromDecisions);
-            }
-
-            List<Decision> registrationDecisions = decisions.getRegistrationDecisions();
-            if (registrationDecisions != null) {
-                ObservationCollection registrationObservations = observationService.createObservationsFromDecisions(registrationDecisions);
-                encounter.getIndividual().addObservations(registrationObservations);
-            }
-        }
-        this.encounterService.save(encounter);
-
-        if (request.getVisitSchedules() != null && !request.getVisitSchedules().isEmpty()) {
-            this.encounterService.saveVisitSchedules(individual.getUuid(), request.getVisitSchedules(), request.getUuid());
-        }
-        return encounter;
-    }
-
     @RequestMapping(value = "/encounter/search/byIndividualsOfCatchmentAndLastModified", method = RequestMethod.GET)
     @PreAuthorize(value = "hasAnyAuthority('user')")
     public PagedResources<Resource<Encounter>> getEncountersByCatchmentAndLastModified(
@@ -225,6 +139,7 @@ public class EncounterController extends AbstractController<Encounter> implement
         @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
         @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
         @RequestParam(value = "encounterTypeUuid", required = false) String encounterTypeUuid,
+        @RequestParam(value = "continuationToken", required = false) String continuationToken,
         Pageable pageable) throws Exception {
         if (encounterTypeUuid.isEmpty()) return wrap(new SliceImpl<>(Collections.emptyList()));
         EncounterType encounterType = encounterTypeRepository.findByUuid(encounterTypeUuid);
@@ -232,7 +147,32 @@ public class EncounterController extends AbstractController<Encounter> implement
         FormMapping formMapping = formMappingService.find(encounterType, FormType.Encounter);
         if (formMapping == null)
             throw new Exception(String.format("No form mapping found for encounter %s", encounterType.getName()));
-        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(encounterRepository, userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.Encounter));
+        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(encounterRepository, userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), pageable, continuationToken, formMapping.getSubjectType(), SyncEntityName.Encounter));
+    }
+
+    /**
+     * Same results as /encounter/v2, written as newline delimited json straight from the database cursor.
+     */
+    @RequestMapping(value = "/encounter/v2/stream", method = RequestMethod.GET)
+    @PreAuthorize(value = "hasAnyAuthority('user')")
+    @Transactional
+    public void streamEncountersByOperatingIndividualScope(
+        @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
+        @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
+        @RequestParam(value = "encounterTypeUuid", required = false) String encounterTypeUuid,
+        @RequestParam(value = "continuationToken", required = false) String continuationToken,
+        HttpServletResponse response) throws Exception {
+        EncounterType encounterType = encounterTypeUuid == null || encounterTypeUuid.isEmpty() ? null : encounterTypeRepository.findByUuid(encounterTypeUuid);
+        if (encounterType == null) {
+            syncStreamWriter.write(Stream.empty(), this::addSyncFields, response);
+            return;
+        }
+        FormMapping formMapping = formMappingService.find(encounterType, FormType.Encounter);
+        if (formMapping == null)
+            throw new Exception(String.format("No form mapping found for encounter %s", encounterType.getName()));
+        try (Stream<Encounter> encounters = scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsStream(encounterRepository, userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), continuationToken, formMapping.getSubjectType(), SyncEntityName.Encounter)) {
+            syncStreamWriter.write(encounters, this::addSyncFields, response);
+        }
     }
 
     @RequestMapping(value = "/encounter", method = RequestMethod.GET)
@@ -276,10 +216,14 @@ public class EncounterController extends AbstractController<Encounter> implement
     public Resource<Encounter> process(Resource<Encounter> resource) {
         Encounter encounter = resource.getContent();
         resource.removeLinks();
-        resource.add(new Link(encounter.getEncounterType().getUuid(), "encounterTypeUUID"));
-        resource.add(new Link(encounter.getIndividual().getUuid(), "individualUUID"));
-        addAuditFields(encounter, resource);
-        addUserFields(encounter.getFilledBy(), resource, "filledBy");
+        addSyncFields(encounter, asLinks(resource));
         return resource;
     }
+
+    private void addSyncFields(Encounter encounter, BiConsumer<String, String> fields) {
+        fields.accept("encounterTypeUUID", encounter.getEncounterType().getUuid());
+        fields.accept("individualUUID", encounter.getIndividual().getUuid());
+        addAuditFields(encounter, fields);
+        addUserFields(encounter.getFilledBy(), fields, "filledBy");
+    }
 }
@@ -1,6 +1,5 @@
 package org.avni.server.web;
 
-import com.bugsnag.Bugsnag;
 import org.avni.server.application.FormMapping;
 import org.avni.server.application.FormType;
 import org.avni.server.dao.*;
@@ -8,17 +7,13 @@ import org.avni.server.dao.sync.SyncEntityName;
 import org.avni.server.domain.*;
 import org.avni.server.domain.accessControl.PrivilegeType;
 import org.avni.server.domain.accessControl.SubjectPartitionData;
-import org.avni.server.framework.security.UserContextHolder;
-import org.avni.server.geo.Point;
 import org.avni.server.projection.IndividualWebProjection;
 import org.avni.server.service.*;
 import org.avni.server.service.accessControl.AccessControlService;
 import org.avni.server.util.BadRequestError;
 import org.avni.server.web.request.EncounterContract;
 import org.avni.server.web.request.IndividualRequest;
-import org.avni.server.web.request.PointRequest;
 import org.avni.server.web.request.SubjectSearchContract;
-import org.avni.server.web.request.rules.RulesContractWrapper.Decisions;
 import org.avni.server.web.request.rules.RulesContractWrapper.IndividualContract;
 import org.avni.server.web.request.rules.constructWrappers.IndividualConstructionService;
 import org.avni.server.web.request.webapp.search.SubjectSearchRequest;
@@ -34,7 +29,6 @@ import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.repository.query.Param;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedResources;
 import org.springframework.hateoas.Resource;
 import org.springframework.http.HttpStatus;
@@ -43,11 +37,16 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.transaction.Transactional;
+import java.io.IOException;
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.avni.server.web.resourceProcessors.ResourceProcessor.addAuditFields;
+import static org.avni.server.web.resourceProcessors.ResourceProcessor.asLinks;
 import static org.springframework.data.jpa.domain.Specifications.where;
 
 @RestController
@@ -55,58 +54,47 @@ public class IndividualController extends AbstractController<Individual> impleme
     private static final org.slf4j.Logger logger = LoggerFactory.getLogger(IndividualController.class);
     private final IndividualRepository individualRepository;
     private final LocationRepository locationRepository;
-    private final GenderRepository genderRepository;
-    private final ObservationService observationService;
     private final UserService userService;
     private final SubjectTypeRepository subjectTypeRepository;
     private final ProjectionFactory projectionFactory;
     private final IndividualService individualService;
     private final EncounterService encounterService;
     private final IndividualSearchService individualSearchService;
-    private final IdentifierAssignmentRepository identifierAssignmentRepository;
 
     private final IndividualConstructionService individualConstructionService;
     private final ScopeBasedSyncService<Individual> scopeBasedSyncService;
-    private final SubjectMigrationService subjectMigrationService;
     private final AccessControlService accessControlService;
     private final EntityApprovalStatusService entityApprovalStatusService;
     private final FormMappingService formMappingService;
-    private final Bugsnag bugsnag;
     private final TxDataControllerHelper txDataControllerHelper;
+    private final SyncStreamWriter syncStreamWriter;
 
     @Autowired
     public IndividualController(IndividualRepository individualRepository,
                                 LocationRepository locationRepository,
-                                GenderRepository genderRepository,
-                                ObservationService observationService,
                                 UserService userService,
                                 SubjectTypeRepository subjectTypeRepository,
                                 ProjectionFactory projectionFactory,
                                 IndividualService individualService,
                                 EncounterService encounterService,
                                 IndividualSearchService individualSearchService,
-                                IdentifierAssignmentRepository identifierAssignmentRepository,
                                 IndividualConstructionService individualConstructionService,
-                                ScopeBasedSyncService<Individual> scopeBasedSyncService, SubjectMigrationService subjectMigrationService, AccessControlService accessControlService, EntityApprovalStatusService entityApprovalStatusService, FormMappingService formMappingService, Bugsnag bugsnag, TxDataControllerHelper txDataControllerHelper) {
+                                ScopeBasedSyncService<Individual> scopeBasedSyncService, AccessControlService accessControlService, EntityApprovalStatusService entityApprovalStatusService, FormMappingService formMappingService, TxDataControllerHelper txDataControllerHelper, SyncStreamWriter syncStreamWriter) {
         this.individualRepository = individualRepository;
         this.locationRepository = locationRepository;
-        this.genderRepository = genderRepository;
-        this.observationService = observationService;
         this.userService = userService;
         this.subjectTypeRepository = subjectTypeRepository;
         this.projectionFactory = projectionFactory;
         this.individualService = individualService;
         this.encounterService = encounterService;
         this.individualSearchService = individualSearchService;
-        this.identifierAssignmentRepository = identifierAssignmentRepository;
         this.individualConstructionService = individualConstructionService;
         this.scopeBasedSyncService = scopeBasedSyncService;
-        this.subjectMigrationService = subjectMigrationService;
         this.accessControlService = accessControlService;
         this.entityApprovalStatusService = entityApprovalStatusService;
         this.formMappingService = formMappingService;
-        this.bugsnag = bugsnag;
         this.txDataControllerHelper = txDataControllerHelper;
+        this.syncStreamWriter = syncStreamWriter;
     }
 
     // used in offline mode hence no access check
@@ -116,52 +104,47 @@ public class IndividualController extends AbstractController<Individual> impleme
     public AvniEntityResponse save(@RequestBody IndividualRequest individualRequest) {
         logger.info(String.format("Saving individual with UUID %s", individualRequest.getUuid()));
 
-        Individual individual = createIndividual(individualRequest);
+        Individual individual = individualService.saveIndividual(individualRequest);
 
         logger.info(String.format("Saved individual with UUID %s", individualRequest.getUuid()));
 
         return new AvniEntityResponse(individual);
     }
 
-    private void markSubjectMigrationIfRequired(IndividualRequest individualRequest, ObservationCollection newObservations) {
-        subjectMigrationService.markSubjectMigrationIfRequired(individualRequest.getUuid(), null, getAddressLevel(individualRequest), null, newObservations, false);
-    }
-
-    private void addObservationsFromDecisions(ObservationCollection observations, Decisions decisions) {
-        if (decisions != null && !decisions.getRegistrationDecisions().isEmpty()) {
-            observations.putAll(observationService
-                    .createObservationsFromDecisions(decisions.getRegistrationDecisions()));
-        }
-    }
-
-    private void saveVisitSchedules(IndividualRequest individualRequest) {
-        if (individualRequest.getVisitSchedules() != null && individualRequest.getVisitSchedules().size() > 0) {
-            encounterService.saveVisitSchedules(individualRequest.getUuid(), individualRequest.getVisitSchedules(), null);
-        }
-    }
-
-    private void saveIdentifierAssignments(Individual individual, IndividualRequest individualRequest) {
-        List<String> identifierAssignmentUuids = individualRequest.getIdentifierAssignmentUuids();
-        if (identifierAssignmentUuids != null) {
-            identifierAssignmentUuids.forEach(uuid -> {
-                IdentifierAssignment identifierAssignment = identifierAssignmentRepository.findByUuid(uuid);
-                identifierAssignment.setIndividual(individual);
-                identifierAssignmentRepository.save(identifierAssignment);
-            });
-        }
-    }
-
     @GetMapping(value = {"/individual/v2", "/individual/search/lastModified/v2"})
     @PreAuthorize(value = "hasAnyAuthority('user')")
     public SlicedResources<Resource<Individual>> getIndividualsByOperatingIndividualScopeAsSlice(
             @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
             @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
             @RequestParam(value = "subjectTypeUuid", required = false) String subjectTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
             Pageable pageable) {
         if (subjectTypeUuid.isEmpty()) return wrap(new SliceImpl<>(Collections.emptyList()));
         SubjectType subjectType = subjectTypeRepository.findByUuid(subjectTypeUuid);
         if (subjectType == null) return wrap(new SliceImpl<>(Collections.emptyList()));
-        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(individualRepository, userService.getCurrentUser(), lastModifiedDateTime, now, subjectType.getId(), pageable, subjectType, SyncEntityName.Individual));
+        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(individualRepository, userService.getCurrentUser(), lastModifiedDateTime, now, subjectType.getId(), pageable, continuationToken, subjectType, SyncEntityName.Individual));
+    }
+
+    /**
+     * Same results as /individual/v2, written as newline delimited json straight from the database cursor.
+     */
+    @GetMapping(value = "/individual/v2/stream")
+    @PreAuthorize(value = "hasAnyAuthority('user')")
+    @Transactional
+    public void streamIndividualsByOperatingIndividualScope(
+            @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
+            @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
+            @RequestParam(value = "subjectTypeUuid", required = false) String subjectTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
+            HttpServletResponse response) throws IOException {
+        SubjectType subjectType = subjectTypeUuid == null || subjectTypeUuid.isEmpty() ? null : subjectTypeRepository.findByUuid(subjectTypeUuid);
+        if (subjectType == null) {
+            syncStreamWriter.write(Stream.empty(), this::addSyncFields, response);
+            return;
+        }
+        try (Stream<Individual> individuals = scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsStream(individualRepository, userService.getCurrentUser(), lastModifiedDateTime, now, subjectType.getId(), continuationToken, subjectType, SyncEntityName.Individual)) {
+            syncStreamWriter.write(individuals, this::addSyncFields, response);
+        }
     }
 
     @GetMapping(value = {"/individual", /*-->Both are Deprecated */ "/individual/search/byCatchmentAndLastModified", "/individual/search/lastModified"})
@@ -332,17 +315,21 @@ public class IndividualController extends AbstractController<Individual> impleme
     public Resource<Individual> process(Resource<Individual> resource) {
         Individual individual = resource.getContent();
         resource.removeLinks();
+        addSyncFields(individual, asLinks(resource));
+        return resource;
+    }
+
+    private void addSyncFields(Individual individual, BiConsumer<String, String> fields) {
         if (individual.getAddressLevel() != null) {
-            resource.add(new Link(individual.getAddressLevel().getUuid(), "addressUUID"));
+            fields.accept("addressUUID", individual.getAddressLevel().getUuid());
         }
         if (individual.getGender() != null) {
-            resource.add(new Link(individual.getGender().getUuid(), "genderUUID"));
+            fields.accept("genderUUID", individual.getGender().getUuid());
         }
         if (individual.getSubjectType() != null) {
-            resource.add(new Link(individual.getSubjectType().getUuid(), "subjectTypeUUID"));
+            fields.accept("subjectTypeUUID", individual.getSubjectType().getUuid());
         }
-        addAuditFields(individual, resource);
-        return resource;
+        addAuditFields(individual, fields);
     }
 
     @RequestMapping(value = "/web/individuals", method = RequestMethod.POST)
@@ -356,7 +343,7 @@ public class IndividualController extends AbstractController<Individual> impleme
             //Subject is changed after this line, hence the following line cannot be moved down closer to its usage
             SubjectPartitionData subjectPartitionData = SubjectPartitionData.create(savedIndividual);
 
-            Individual individual = createIndividual(individualRequest);
+            Individual individual = individualService.saveIndividual(individualRequest);
 
             FormMapping formMapping = formMappingService.findBy(individual.getSubjectType(), null, null, FormType.IndividualProfile);
             entityApprovalStatusService.createStatus(EntityApprovalStatus.EntityType.Subject, individual.getId(), ApprovalStatus.Status.Pending, individual.getSubjectType().getUuid(), formMapping);
@@ -370,63 +357,4 @@ public class IndividualController extends AbstractController<Individual> impleme
             return AvniEntityResponse.error(e.getMessage());
         }
     }
-
-    private Individual createIndividual(IndividualRequest individualRequest) {
-        Decisions decisions = individualRequest.getDecisions();
-        observationService.validateObservationsAndDecisions(individualRequest.getObservations(), decisions != null ? decisions.getRegistrationDecisions() : null, formMappingService.findForSubject(individualRequest.getSubjectTypeUUID()));
-        ObservationCollection observations = observationService.createObservations(individualRequest.getObservations());
-        addObservationsFromDecisions(observations, individualRequest.getDecisions());
-        this.markSubjectMigrationIfRequired(individualRequest, observations);
-
-        Individual individual = createIndividualWithoutObservations(individualRequest);
-
-        // Temporary fix to not allow emptying of observations
-        if ((individualRequest.getObservations() == null || individualRequest.getObservations().isEmpty()) && individual.getObservations() != null && !individual.getObservations().isEmpty()) {
-            String errorMessage = String.format("Individual Observations not all allowed to be made empty. User: %s, UUID: %s, ", UserContextHolder.getUser().getUsername(), individualRequest.getUuid());
-            bugsnag.notify(new Exception(errorMessage));
-            logger.error(errorMessage);
-            individual.updateAudit();
-        } else {
-        individual.setObservations(observations);
-        }
-
-        Individual savedIndividual = individualService.save(individual);
-        saveVisitSchedules(individualRequest);
-        saveIdentifierAssignments(savedIndividual, individualRequest);
-        return savedIndividual;
-    }
-
-    private Individual createIndividualWithoutObservations(@RequestBody IndividualRequest individualRequest) {
-        AddressLevel addressLevel = getAddressLevel(individualRequest);
-        Gender gender = individualRequest.getGender() == null ? genderRepository.findByUuid(individualRequest.getGenderUUID()) : genderRepository.findByName(individualRequest.getGender());
-        SubjectType subjectType = individualRequest.getSubjectTypeUUID() == null ? subjectTypeRepository.findByUuid("9f2af1f9-e150-4f8e-aad3-40bb7eb05aa3") : subjectTypeRepository.findByUuid(individualRequest.getSubjectTypeUUID());
-        Individual individual = newOrExistingEntity(individualRepository, individualRequest, new Individual());
-        individual.setSubjectType(subjectType);
-        individual.setFirstName(individualRequest.getFirstName());
-        individual.setMiddleName(individualRequest.getMiddleName());
-        individual.setLastName(individualRequest.getLastName());
-        if (subjectType.isAllowProfilePicture()) {
-            individual.setProfilePicture(individualRequest.getProfilePicture());
-        }
-        individual.setDateOfBirth(individualRequest.getDateOfBirth());
-        individual.setAddressLevel(addressLevel);
-        individual.setGender(gender);
-        individual.setRegistrationDate(individualRequest.getRegistrationDate());
-        individual.setVoided(individualRequest.isVoided());
-        PointRequest pointRequest = individualRequest.getRegistrationLocation();
-        if (pointRequest != null)
-            individual.setRegistrationLocation(new Point(pointRequest.getX(), pointRequest.getY()));
-        return individual;
-    }
-
-    private AddressLevel getAddressLevel(@RequestBody IndividualRequest individualRequest) {
-        if (individualRequest.getAddressLevelUUID() != null) {
-            return locationRepository.findByUuid(individualRequest.getAddressLevelUUID());
-        } else if (individualRequest.getCatchmentUUID() != null) {
-            return locationRepository.findByTitleAndCatchmentsUuid(individualRequest.getAddressLevel(), individualRequest.getCatchmentUUID());
-        } else {
-            return locationRepository.findByTitleIgnoreCase(individualRequest.getAddressLevel());
-        }
-    }
-
 }
@@ -20,7 +20,6 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.SliceImpl;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedResources;
 import org.springframework.hateoas.Resource;
 import org.springframework.http.ResponseEntity;
@@ -28,10 +27,14 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.transaction.Transactional;
 import java.util.Collections;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 import static org.avni.server.web.resourceProcessors.ResourceProcessor.addAuditFields;
+import static org.avni.server.web.resourceProcessors.ResourceProcessor.asLinks;
 import static org.avni.server.web.resourceProcessors.ResourceProcessor.addUserFields;
 
 @RestController
@@ -46,9 +49,10 @@ public class ProgramEncounterController implements RestControllerResourceProcess
     private final AccessControlService accessControlService;
     private final EntityApprovalStatusService entityApprovalStatusService;
     private final TxDataControllerHelper txDataControllerHelper;
+    private final SyncStreamWriter syncStreamWriter;
 
     @Autowired
-    public ProgramEncounterController(EncounterTypeRepository encounterTypeRepository, ProgramEncounterRepository programEncounterRepository, UserService userService, ProgramEncounterService programEncounterService, ScopeBasedSyncService<ProgramEncounter> scopeBasedSyncService, FormMappingService formMappingService, AccessControlService accessControlService, EntityApprovalStatusService entityApprovalStatusService, TxDataControllerHelper txDataControllerHelper) {
+    public ProgramEncounterController(EncounterTypeRepository encounterTypeRepository, ProgramEncounterRepository programEncounterRepository, UserService userService, ProgramEncounterService programEncounterService, ScopeBasedSyncService<ProgramEncounter> scopeBasedSyncService, FormMappingService formMappingService, AccessControlService accessControlService, EntityApprovalStatusService entityApprovalStatusService, TxDataControllerHelper txDataControllerHelper, SyncStreamWriter syncStreamWriter) {
         this.encounterTypeRepository = encounterTypeRepository;
         this.programEncounterRepository = programEncounterRepository;
         this.userService = userService;
@@ -58,6 +62,7 @@ public class ProgramEncounterController implements RestControllerResourceProcess
         this.accessControlService = accessControlService;
         this.entityApprovalStatusService = entityApprovalStatusService;
         this.txDataControllerHelper = txDataControllerHelper;
+        this.syncStreamWriter = syncStreamWriter;
     }
 
     @GetMapping(value = "/web/programEncounter/{uuid}")
@@ -127,6 +132,7 @@ public class ProgramEncounterController implements RestControllerResourceProcess
             @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
             @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
             @RequestParam(value = "programEncounterTypeUuid", required = false) String encounterTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
             Pageable pageable) throws Exception {
         if (encounterTypeUuid.isEmpty()) return wrap(new SliceImpl<>(Collections.emptyList()));
         EncounterType encounterType = encounterTypeRepository.findByUuid(encounterTypeUuid);
@@ -135,7 +141,32 @@ public class ProgramEncounterController implements RestControllerResourceProcess
         FormMapping formMapping = formMappingService.find(encounterType, FormType.ProgramEncounter);
         if (formMapping == null)
             throw new Exception(String.format("No form mapping found for program encounter %s", encounterType.getName()));
-        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(programEncounterRepository, userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.ProgramEncounter));
+        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(programEncounterRepository, userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), pageable, continuationToken, formMapping.getSubjectType(), SyncEntityName.ProgramEncounter));
+    }
+
+    /**
+     * Same results as /programEncounter/v2, written as newline delimited json straight from the database cursor.
+     */
+    @RequestMapping(value = "/programEncounter/v2/stream", method = RequestMethod.GET)
+    @PreAuthorize(value = "hasAnyAuthority('user')")
+    @Transactional
+    public void streamProgramEncountersByOperatingIndividualScope(
+            @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
+            @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
+            @RequestParam(value = "programEncounterTypeUuid", required = false) String encounterTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
+            HttpServletResponse response) throws Exception {
+        EncounterType encounterType = encounterTypeUuid == null || encounterTypeUuid.isEmpty() ? null : encounterTypeRepository.findByUuid(encounterTypeUuid);
+        if (encounterType == null) {
+            syncStreamWriter.write(Stream.empty(), this::addSyncFields, response);
+            return;
+        }
+        FormMapping formMapping = formMappingService.find(encounterType, FormType.ProgramEncounter);
+        if (formMapping == null)
+            throw new Exception(String.format("No form mapping found for program encounter %s", encounterType.getName()));
+        try (Stream<ProgramEncounter> programEncounters = scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsStream(programEncounterRepository, userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), continuationToken, formMapping.getSubjectType(), SyncEntityName.ProgramEncounter)) {
+            syncStreamWriter.write(programEncounters, this::addSyncFields, response);
+        }
     }
 
     @RequestMapping(value = "/programEncounter", method = RequestMethod.GET)
@@ -179,10 +210,14 @@ public class ProgramEncounterController implements RestControllerResourceProcess
     public Resource<ProgramEncounter> process(Resource<ProgramEncounter> resource) {
         ProgramEncounter programEncounter = resource.getContent();
         resource.removeLinks();
-        resource.add(new Link(programEncounter.getEncounterType().getUuid(), "encounterTypeUUID"));
-        resource.add(new Link(programEncounter.getProgramEnrolment().getUuid(), "programEnrolmentUUID"));
-        addAuditFields(programEncounter, resource);
-        addUserFields(programEncounter.getFilledBy(), resource, "filledBy");
+        addSyncFields(programEncounter, asLinks(resource));
         return resource;
     }
+
+    private void addSyncFields(ProgramEncounter programEncounter, BiConsumer<String, String> fields) {
+        fields.accept("encounterTypeUUID", programEncounter.getEncounterType().getUuid());
+        fields.accept("programEnrolmentUUID", programEncounter.getProgramEnrolment().getUuid());
+        addAuditFields(programEncounter, fields);
+        addUserFields(programEncounter.getFilledBy(), fields, "filledBy");
+    }
 }
@@ -25,7 +25,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedResources;
 import org.springframework.hateoas.Resource;
 import org.springframework.http.ResponseEntity;
@@ -33,10 +32,14 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.transaction.Transactional;
 import java.util.Collections;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 import static org.avni.server.web.resourceProcessors.ResourceProcessor.addAuditFields;
+import static org.avni.server.web.resourceProcessors.ResourceProcessor.asLinks;
 
 @RestController
 public class ProgramEnrolmentController extends AbstractController<ProgramEnrolment> implements RestControllerResourceProcessor<ProgramEnrolment> {
@@ -50,9 +53,10 @@ public class ProgramEnrolmentController extends AbstractController<ProgramEnrolm
     private final FormMappingService formMappingService;
     private final EntityApprovalStatusService entityApprovalStatusService;
     private final TxDataControllerHelper txDataControllerHelper;
+    private final SyncStreamWriter syncStreamWriter;
 
     @Autowired
-    public ProgramEnrolmentController(ProgramRepository programRepository, ProgramEnrolmentRepository programEnrolmentRepository, UserService userService, ProjectionFactory projectionFactory, ProgramEnrolmentService programEnrolmentService, ScopeBasedSyncService<ProgramEnrolment> scopeBasedSyncService, FormMappingService formMappingService, EntityApprovalStatusService entityApprovalStatusService, TxDataControllerHelper txDataControllerHelper) {
+    public ProgramEnrolmentController(ProgramRepository programRepository, ProgramEnrolmentRepository programEnrolmentRepository, UserService userService, ProjectionFactory projectionFactory, ProgramEnrolmentService programEnrolmentService, ScopeBasedSyncService<ProgramEnrolment> scopeBasedSyncService, FormMappingService formMappingService, EntityApprovalStatusService entityApprovalStatusService, TxDataControllerHelper txDataControllerHelper, SyncStreamWriter syncStreamWriter) {
         this.programEnrolmentRepository = programEnrolmentRepository;
         this.userService = userService;
         this.projectionFactory = projectionFactory;
@@ -62,6 +66,7 @@ public class ProgramEnrolmentController extends AbstractController<ProgramEnrolm
         this.formMappingService = formMappingService;
         this.entityApprovalStatusService = entityApprovalStatusService;
         this.txDataControllerHelper = txDataControllerHelper;
+        this.syncStreamWriter = syncStreamWriter;
     }
 
     @RequestMapping(value = "/programEnrolments", method = RequestMethod.POST)
@@ -97,6 +102,7 @@ public class ProgramEnrolmentController extends AbstractController<ProgramEnrolm
             @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
             @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
             @RequestParam(value = "programUuid", required = false) String programUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
             Pageable pageable) throws Exception {
         if (programUuid.isEmpty()) return wrap(new SliceImpl<>(Collections.emptyList()));
         else {
@@ -105,7 +111,32 @@ public class ProgramEnrolmentController extends AbstractController<ProgramEnrolm
             FormMapping formMapping = formMappingService.find(program, FormType.ProgramEnrolment);
             if (formMapping == null)
                 throw new Exception(String.format("No form mapping found for program %s", program.getName()));
-            return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(programEnrolmentRepository, userService.getCurrentUser(), lastModifiedDateTime, now, program.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.ProgramEnrolment));
+            return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(programEnrolmentRepository, userService.getCurrentUser(), lastModifiedDateTime, now, program.getId(), pageable, continuationToken, formMapping.getSubjectType(), SyncEntityName.ProgramEnrolment));
+        }
+    }
+
+    /**
+     * Same results as /programEnrolment/v2, written as newline delimited json straight from the database cursor.
+     */
+    @GetMapping(value = {"/programEnrolment/v2/stream"})
+    @PreAuthorize(value = "hasAnyAuthority('user')")
+    @Transactional
+    public void streamProgramEnrolmentsByOperatingIndividualScope(
+            @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
+            @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
+            @RequestParam(value = "programUuid", required = false) String programUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
+            HttpServletResponse response) throws Exception {
+        Program program = programUuid == null || programUuid.isEmpty() ? null : programRepository.findByUuid(programUuid);
+        if (program == null) {
+            syncStreamWriter.write(Stream.empty(), this::addSyncFields, response);
+            return;
+        }
+        FormMapping formMapping = formMappingService.find(program, FormType.ProgramEnrolment);
+        if (formMapping == null)
+            throw new Exception(String.format("No form mapping found for program %s", program.getName()));
+        try (Stream<ProgramEnrolment> programEnrolments = scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsStream(programEnrolmentRepository, userService.getCurrentUser(), lastModifiedDateTime, now, program.getId(), continuationToken, formMapping.getSubjectType(), SyncEntityName.ProgramEnrolment)) {
+            syncStreamWriter.write(programEnrolments, this::addSyncFields, response);
         }
     }
 
@@ -180,9 +211,13 @@ public class ProgramEnrolmentController extends AbstractController<ProgramEnrolm
     public Resource<ProgramEnrolment> process(Resource<ProgramEnrolment> resource) {
         ProgramEnrolment programEnrolment = resource.getContent();
         resource.removeLinks();
-        resource.add(new Link(programEnrolment.getProgram().getUuid(), "programUUID"));
-        resource.add(new Link(programEnrolment.getIndividual().getUuid(), "individualUUID"));
-        addAuditFields(programEnrolment, resource);
+        addSyncFields(programEnrolment, asLinks(resource));
         return resource;
     }
+
+    private void addSyncFields(ProgramEnrolment programEnrolment, BiConsumer<String, String> fields) {
+        fields.accept("programUUID", programEnrolment.getProgram().getUuid());
+        fields.accept("individualUUID", programEnrolment.getIndividual().getUuid());
+        addAuditFields(programEnrolment, fields);
+    }
 }
@@ -1,5 +1,6 @@
 package org.avni.server.web;
 
+import org.avni.server.dao.sync.SyncSlice;
 import org.avni.server.web.response.slice.SlicedResources;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -26,6 +27,9 @@ public interface RestControllerResourceProcessor<T> {
 
     default SlicedResources<Resource<T>> wrap(Slice<T> slice) {
         SlicedResources.SliceMetadata sliceMetadata = new SlicedResources.SliceMetadata(slice.getSize(), slice.getNumber(), slice.hasNext());
+        if (slice instanceof SyncSlice && ((SyncSlice<T>) slice).getContinuationToken() != null) {
+            sliceMetadata.setContinuationToken(((SyncSlice<T>) slice).getContinuationToken().encode());
+        }
         List<Resource<T>> resources = new ArrayList<>();
         for (T it : slice) resources.add(this.process(new Resource<>(it)));
         return new SlicedResources<>(resources, sliceMetadata);
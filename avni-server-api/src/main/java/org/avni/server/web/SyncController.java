@@ -1,5 +1,7 @@
 package org.avni.server.web;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.avni.server.dao.sync.SyncEntityName;
 import org.avni.server.domain.JsonObject;
 import org.avni.server.domain.SyncableItem;
@@ -24,6 +26,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import javax.annotation.PostConstruct;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.avni.server.dao.sync.SyncEntityName.*;
@@ -104,6 +107,9 @@ public class SyncController {
     private final UserSubjectAssignmentService userSubjectAssignmentService;
     private final ScopedEntityApprovalStatusService scopedEntityApprovalStatusService;
     private final DashboardFilterService dashboardFilterService;
+    private final MetadataChangeWatermarkService metadataChangeWatermarkService;
+    private final Timer syncableItemsTimer;
+    private final Timer changedEntitiesTimer;
 
     @Autowired
     public SyncController(Environment environment, IndividualService individualService, EncounterService encounterService,
@@ -136,7 +142,8 @@ public class SyncController {
                           DocumentationService documentationService, DocumentationItemService documentationItemService,
                           TaskService taskService, TaskTypeService taskTypeService, TaskStatusService taskStatusService,
                           TaskUnAssigmentService taskUnAssigmentService, SubjectProgramEligibilityService subjectProgramEligibilityService, MenuItemService menuItemService, UserSubjectAssignmentService userSubjectAssignmentService,
-                          ScopedEntityApprovalStatusService scopedEntityApprovalStatusService, DashboardFilterService dashboardFilterService) {
+                          ScopedEntityApprovalStatusService scopedEntityApprovalStatusService, DashboardFilterService dashboardFilterService,
+                          MetadataChangeWatermarkService metadataChangeWatermarkService, MeterRegistry meterRegistry) {
         this.environment = environment;
         this.individualService = individualService;
         this.encounterService = encounterService;
@@ -203,6 +210,9 @@ public class SyncController {
         this.userSubjectAssignmentService = userSubjectAssignmentService;
         this.scopedEntityApprovalStatusService = scopedEntityApprovalStatusService;
         this.dashboardFilterService = dashboardFilterService;
+        this.metadataChangeWatermarkService = metadataChangeWatermarkService;
+        this.syncableItemsTimer = meterRegistry.timer("avni.syncDetails", "stage", "syncableItems");
+        this.changedEntitiesTimer = meterRegistry.timer("avni.syncDetails", "stage", "changedEntities");
         this.logger = LoggerFactory.getLogger(this.getClass());
     }
 
@@ -300,9 +310,12 @@ public class SyncController {
         Set<SyncableItem> allSyncableItems = syncDetailService.getAllSyncableItems(true, includeUserSubjectType);
         long afterSyncDetailsService = new DateTime().getMillis();
         logger.info(String.format("Time taken for syncDetailsService %d", afterSyncDetailsService - now.getMillis()));
+        syncableItemsTimer.record(afterSyncDetailsService - now.getMillis(), TimeUnit.MILLISECONDS);
         try {
             List<EntitySyncStatusContract> changedEntities = getChangedEntities(entitySyncStatusContracts, allSyncableItems, true);
-            logger.info(String.format("Time taken for stuff %d", new DateTime().getMillis() - afterSyncDetailsService));
+            long changedEntitiesTime = new DateTime().getMillis() - afterSyncDetailsService;
+            logger.info(String.format("Time taken for stuff %d", changedEntitiesTime));
+            changedEntitiesTimer.record(changedEntitiesTime, TimeUnit.MILLISECONDS);
             return ResponseEntity.ok().body(new JsonObject()
                     .with("syncDetails", changedEntities)
                     .with("now", now)
@@ -330,8 +343,11 @@ public class SyncController {
         Set<SyncableItem> allSyncableItems = syncDetailService.getAllSyncableItems(false, includeUserSubjectType);
         long afterSyncDetailsService = new DateTime().getMillis();
         logger.info(String.format("Time taken for syncDetailsService %d", afterSyncDetailsService - now.getMillis()));
+        syncableItemsTimer.record(afterSyncDetailsService - now.getMillis(), TimeUnit.MILLISECONDS);
         List<EntitySyncStatusContract> changedEntities = getChangedEntities(entitySyncStatusContracts, allSyncableItems, false);
-        logger.info(String.format("Time taken for stuff %d", new DateTime().getMillis() - afterSyncDetailsService));
+        long changedEntitiesTime = new DateTime().getMillis() - afterSyncDetailsService;
+        logger.info(String.format("Time taken for stuff %d", changedEntitiesTime));
+        changedEntitiesTimer.record(changedEntitiesTime, TimeUnit.MILLISECONDS);
         return ResponseEntity.ok().body(new JsonObject()
                 .with("syncDetails", changedEntities)
                 .with("now", now)
@@ -346,9 +362,17 @@ public class SyncController {
             }
         });
         removeDisabledEntities(clientSyncStatuses, serverSyncableItems);
+        if (scopeAwareEAS) nonScopeAwareServiceMap.remove(EntityApprovalStatus);
+
+        Map<SyncEntityName, DateTime> lastModifiedDateTimes = metadataChangeWatermarkService.getLastModifiedDateTimes(clientSyncStatuses.stream()
+                .map(EntitySyncStatusContract::getEntityName)
+                .filter(SyncEntityName::existsAsEnum)
+                .map(SyncEntityName::valueOf)
+                .filter(nonScopeAwareServiceMap::containsKey)
+                .collect(Collectors.toSet()));
 
         return clientSyncStatuses.stream()
-                .filter((entitySyncStatusContract) -> filterChangedEntities(entitySyncStatusContract, scopeAwareEAS))
+                .filter((entitySyncStatusContract) -> filterChangedEntities(entitySyncStatusContract, lastModifiedDateTimes))
                 .collect(Collectors.toList());
     }
 
@@ -388,10 +412,14 @@ public class SyncController {
                 allSyncableItems.stream().noneMatch(entitySyncStatusContract::matchesEntity));
     }
 
-    private boolean filterChangedEntities(EntitySyncStatusContract entitySyncStatusContract, boolean scopeAwareEAS) {
+    /**
+     * @param lastModifiedDateTimes latest modification of the table backed non scope aware entities, served from the
+     *                              metadata watermarks or fetched together in one query. Entities not present in it are
+     *                              checked using their own service.
+     */
+    private boolean filterChangedEntities(EntitySyncStatusContract entitySyncStatusContract, Map<SyncEntityName, DateTime> lastModifiedDateTimes) {
         String entityName = entitySyncStatusContract.getEntityName();
         DateTime loadedSince = entitySyncStatusContract.getLoadedSince();
-        if (scopeAwareEAS) nonScopeAwareServiceMap.remove(EntityApprovalStatus);
 
         if (!SyncEntityName.existsAsEnum(entityName)) {
             return false;
@@ -401,6 +429,11 @@ public class SyncController {
         ScopeAwareService scopeAwareService = this.scopeAwareServiceMap.get(syncEntityName);
         NonScopeAwareService nonScopeAwareService = this.nonScopeAwareServiceMap.get(syncEntityName);
 
+        if (nonScopeAwareService != null && lastModifiedDateTimes.containsKey(syncEntityName)) {
+            DateTime lastModifiedDateTime = lastModifiedDateTimes.get(syncEntityName);
+            return lastModifiedDateTime != null && loadedSince != null && lastModifiedDateTime.isAfter(loadedSince);
+        }
+
         if (nonScopeAwareService != null) {
             return nonScopeAwareService.isNonScopeEntityChanged(loadedSince);
         }
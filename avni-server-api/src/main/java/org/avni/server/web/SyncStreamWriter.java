@@ -0,0 +1,54 @@
+package org.avni.server.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.avni.server.domain.CHSEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Writes sync results as newline delimited json, one entity per line, as they are read from the database cursor. The
+ * fields that the paged endpoints send as links (like subjectTypeUUID) are written as fields of the entity,
+ * replacing any property of the same name.
+ */
+@Component
+public class SyncStreamWriter {
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final int fetchSize;
+
+    public SyncStreamWriter(Jackson2ObjectMapperBuilder objectMapperBuilder, EntityManager entityManager, @Value("${avni.sync.stream.fetchSize}") int fetchSize) {
+        this.objectMapper = objectMapperBuilder.build();
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+    }
+
+    public <T extends CHSEntity> void write(Stream<T> entities, BiConsumer<T, BiConsumer<String, String>> fields, HttpServletResponse response) throws IOException {
+        response.setContentType(APPLICATION_NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        int written = 0;
+        for (T entity : (Iterable<T>) entities::iterator) {
+            ObjectNode node = objectMapper.valueToTree(entity);
+            fields.accept(entity, node::put);
+            generator.writeTree(node);
+            generator.writeRaw('\n');
+            if (++written % fetchSize == 0) {
+                generator.flush();
+                // entities already written (and the ones they loaded) are not needed anymore
+                entityManager.clear();
+            }
+        }
+        generator.flush();
+    }
+}
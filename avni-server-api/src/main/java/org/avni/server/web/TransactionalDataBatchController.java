@@ -0,0 +1,49 @@
+package org.avni.server.web;
+
+import org.avni.server.service.TransactionalDataBatchService;
+import org.avni.server.util.BadRequestError;
+import org.avni.server.web.request.TransactionalDataBatchItem;
+import org.avni.server.web.response.TransactionalDataBatchItemResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Uploads a backlog of subjects, enrolments and encounters in one request, instead of one request per entity. Each
+ * entity is saved like its own POST endpoint would, in the order they are sent, so parents have to be before their
+ * children. See {@link TransactionalDataBatchService} for how failures are reported.
+ */
+@RestController
+public class TransactionalDataBatchController {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionalDataBatchController.class);
+
+    private final TransactionalDataBatchService transactionalDataBatchService;
+    private final int maxItems;
+
+    @Autowired
+    public TransactionalDataBatchController(TransactionalDataBatchService transactionalDataBatchService,
+                                            @Value("${avni.transactionalDataBatch.maxItems}") int maxItems) {
+        this.transactionalDataBatchService = transactionalDataBatchService;
+        this.maxItems = maxItems;
+    }
+
+    // used in offline mode hence no access check, like the endpoints of the individual entities
+    @PostMapping(value = "/transactionalData/batch")
+    @PreAuthorize(value = "hasAnyAuthority('user')")
+    public List<TransactionalDataBatchItemResponse> save(@RequestBody List<TransactionalDataBatchItem> items) {
+        if (items.size() > maxItems) {
+            throw new BadRequestError("Batch of %d entities is more than the maximum of %d", items.size(), maxItems);
+        }
+        logger.info(String.format("Saving batch of %d entities", items.size()));
+        List<TransactionalDataBatchItemResponse> responses = transactionalDataBatchService.save(items);
+        logger.info(String.format("Saved batch of %d entities, %d failed", items.size(), responses.stream().filter(response -> !response.isSuccess()).count()));
+        return responses;
+    }
+}
@@ -84,7 +84,7 @@ public class GeneralEncounterApiController {
 
         ArrayList<EncounterResponse> encounterResponses = new ArrayList<>();
         encounters.forEach(encounter -> {
-            encounterResponses.add(EncounterResponse.fromEncounter(encounter, conceptRepository, conceptService));
+            encounterResponses.add(EncounterResponse.fromEncounter(encounter, conceptService));
         });
         accessControlService.checkEncounterPrivileges(PrivilegeType.ViewVisit, encounters.getContent());
         return new ResponsePage(encounterResponses, encounters.getNumberOfElements(), encounters.getTotalPages(), encounters.getSize());
@@ -99,7 +99,7 @@ public class GeneralEncounterApiController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 
         accessControlService.checkEncounterPrivilege(PrivilegeType.ViewVisit, encounter);
-        return new ResponseEntity<>(EncounterResponse.fromEncounter(encounter, conceptRepository, conceptService), HttpStatus.OK);
+        return new ResponseEntity<>(EncounterResponse.fromEncounter(encounter, conceptService), HttpStatus.OK);
     }
 
     @PostMapping(value = "/api/encounter")
@@ -115,7 +115,7 @@ public class GeneralEncounterApiController {
         } catch (ValidationException ve) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ve.getMessage());
         }
-        return new ResponseEntity<>(EncounterResponse.fromEncounter(encounter, conceptRepository, conceptService), HttpStatus.OK);
+        return new ResponseEntity<>(EncounterResponse.fromEncounter(encounter, conceptService), HttpStatus.OK);
     }
 
     private void initializeIndividual(ApiEncounterRequest request, Encounter encounter) {
@@ -150,7 +150,7 @@ public class GeneralEncounterApiController {
         } catch (ValidationException ve) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ve.getMessage());
         }
-        return new ResponseEntity<>(EncounterResponse.fromEncounter(encounter, conceptRepository, conceptService), HttpStatus.OK);
+        return new ResponseEntity<>(EncounterResponse.fromEncounter(encounter, conceptService), HttpStatus.OK);
     }
 
     @PatchMapping(value = "/api/encounter/{id}")
@@ -172,7 +172,7 @@ public class GeneralEncounterApiController {
         } catch (ValidationException ve) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ve.getMessage());
         }
-        return new ResponseEntity<>(EncounterResponse.fromEncounter(encounter, conceptRepository, conceptService), HttpStatus.OK);
+        return new ResponseEntity<>(EncounterResponse.fromEncounter(encounter, conceptService), HttpStatus.OK);
     }
 
     @DeleteMapping(value = "/api/encounter/{id}")
@@ -185,7 +185,7 @@ public class GeneralEncounterApiController {
         accessControlService.checkEncounterPrivilege(PrivilegeType.VoidVisit, encounter);
         encounter.setVoided(true);
         encounter = encounterService.save(encounter);
-        return new ResponseEntity<>(EncounterResponse.fromEncounter(encounter, conceptRepository, conceptService), HttpStatus.OK);
+        return new ResponseEntity<>(EncounterResponse.fromEncounter(encounter, conceptService), HttpStatus.OK);
     }
 
     private Encounter updateEncounter(Encounter encounter, ApiEncounterRequest request) throws ValidationException, IOException {
@@ -1,6 +1,5 @@
 package org.avni.server.web.api;
 
-import org.avni.server.dao.ConceptRepository;
 import org.avni.server.dao.GroupSubjectRepository;
 import org.avni.server.domain.GroupSubject;
 import org.avni.server.domain.accessControl.PrivilegeType;
@@ -30,17 +29,15 @@ import java.util.ArrayList;
 public class GroupSubjectApiController {
 
     private final GroupSubjectRepository groupSubjectRepository;
-    private final ConceptRepository conceptRepository;
     private final ConceptService conceptService;
     private final S3Service s3Service;
     private final AccessControlService accessControlService;
 
     @Autowired
     public GroupSubjectApiController(GroupSubjectRepository groupSubjectRepository,
-                                     ConceptRepository conceptRepository, ConceptService conceptService,
+                                     ConceptService conceptService,
                                      S3Service s3Service, AccessControlService accessControlService) {
         this.groupSubjectRepository = groupSubjectRepository;
-        this.conceptRepository = conceptRepository;
         this.conceptService = conceptService;
         this.s3Service = s3Service;
         this.accessControlService = accessControlService;
@@ -66,7 +63,7 @@ public class GroupSubjectApiController {
         }
         accessControlService.checkGroupSubjectPrivileges(PrivilegeType.ViewSubject, groupSubjects.getContent());
         ArrayList<GroupSubjectResponse> groupSubjectResponses = new ArrayList<>();
-        groupSubjects.forEach(groupSubject -> groupSubjectResponses.add(GroupSubjectResponse.fromGroupSubject(groupSubject, conceptRepository, conceptService, s3Service, SubjectResponseOptions.forSingleSubject(includeCatchments))));
+        groupSubjects.forEach(groupSubject -> groupSubjectResponses.add(GroupSubjectResponse.fromGroupSubject(groupSubject, conceptService, s3Service, SubjectResponseOptions.forSingleSubject(includeCatchments))));
         return new ResponsePage(groupSubjectResponses, groupSubjects.getNumberOfElements(), groupSubjects.getTotalPages(), groupSubjects.getSize());
     }
 }
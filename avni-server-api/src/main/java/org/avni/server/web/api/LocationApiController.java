@@ -1,6 +1,5 @@
 package org.avni.server.web.api;
 
-import org.avni.server.dao.ConceptRepository;
 import org.avni.server.dao.LocationRepository;
 import org.avni.server.domain.AddressLevel;
 import org.avni.server.service.ConceptService;
@@ -22,13 +21,11 @@ import java.util.ArrayList;
 @RestController
 public class LocationApiController {
     private final LocationRepository locationRepository;
-    private final ConceptRepository conceptRepository;
     private final ConceptService conceptService;
 
     @Autowired
-    public LocationApiController(LocationRepository locationRepository, ConceptRepository conceptRepository, ConceptService conceptService) {
+    public LocationApiController(LocationRepository locationRepository, ConceptService conceptService) {
         this.locationRepository = locationRepository;
-        this.conceptRepository = conceptRepository;
         this.conceptService = conceptService;
     }
 
@@ -43,7 +40,7 @@ public class LocationApiController {
         Page<AddressLevel> addresses = locationRepository.findByLastModifiedDateTimeIsBetweenOrderByLastModifiedDateTimeAscIdAsc(lastModifiedDateTime, now, pageable);
         ArrayList<LocationApiResponse> locationApiResponses = new ArrayList<>();
         addresses.forEach(addressLevel -> {
-            locationApiResponses.add(LocationApiResponse.fromAddressLevel(addressLevel, conceptRepository, conceptService));
+            locationApiResponses.add(LocationApiResponse.fromAddressLevel(addressLevel, conceptService));
         });
         return new ResponsePage(locationApiResponses, addresses.getNumberOfElements(), addresses.getTotalPages(), addresses.getSize());
     }
@@ -56,6 +53,6 @@ public class LocationApiController {
         if (addressLevel == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(LocationApiResponse.fromAddressLevel(addressLevel, conceptRepository, conceptService));
+        return ResponseEntity.ok(LocationApiResponse.fromAddressLevel(addressLevel, conceptService));
     }
 }
@@ -75,7 +75,7 @@ public class ProgramEncounterApiController {
 
         ArrayList<EncounterResponse> programEncounterResponses = new ArrayList<>();
         programEncounters.forEach(programEncounter -> {
-            programEncounterResponses.add(EncounterResponse.fromProgramEncounter(programEncounter, conceptRepository, conceptService));
+            programEncounterResponses.add(EncounterResponse.fromProgramEncounter(programEncounter, conceptService));
         });
         accessControlService.checkProgramEncounterPrivileges(PrivilegeType.ViewVisit, programEncounters.getContent());
         return new ResponsePage(programEncounterResponses, programEncounters.getNumberOfElements(), programEncounters.getTotalPages(), programEncounters.getSize());
@@ -107,7 +107,7 @@ public class ProgramEncounterApiController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 
         accessControlService.checkProgramEncounterPrivilege(PrivilegeType.ViewVisit, programEncounter);
-        return new ResponseEntity<>(EncounterResponse.fromProgramEncounter(programEncounter, conceptRepository, conceptService), HttpStatus.OK);
+        return new ResponseEntity<>(EncounterResponse.fromProgramEncounter(programEncounter, conceptService), HttpStatus.OK);
     }
 
     @PostMapping(value = "/api/programEncounter")
@@ -124,7 +124,7 @@ public class ProgramEncounterApiController {
         } catch (ValidationException ve) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ve.getMessage());
         }
-        return new ResponseEntity<>(EncounterResponse.fromProgramEncounter(encounter, conceptRepository, conceptService), HttpStatus.OK);
+        return new ResponseEntity<>(EncounterResponse.fromProgramEncounter(encounter, conceptService), HttpStatus.OK);
     }
 
     private ProgramEnrolment getProgramEnrolment(ApiProgramEncounterRequest request) {
@@ -159,7 +159,7 @@ public class ProgramEncounterApiController {
         } catch (ValidationException ve) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ve.getMessage());
         }
-        return new ResponseEntity<>(EncounterResponse.fromProgramEncounter(encounter, conceptRepository, conceptService), HttpStatus.OK);
+        return new ResponseEntity<>(EncounterResponse.fromProgramEncounter(encounter, conceptService), HttpStatus.OK);
     }
 
     @DeleteMapping(value = "/api/programEncounter/{id}")
@@ -172,7 +172,7 @@ public class ProgramEncounterApiController {
         accessControlService.checkProgramEncounterPrivilege(PrivilegeType.VoidVisit, programEncounter);
         programEncounter.setVoided(true);
         programEncounter = programEncounterService.save(programEncounter);
-        return new ResponseEntity<>(EncounterResponse.fromProgramEncounter(programEncounter, conceptRepository, conceptService), HttpStatus.OK);
+        return new ResponseEntity<>(EncounterResponse.fromProgramEncounter(programEncounter, conceptService), HttpStatus.OK);
     }
 
     private ProgramEncounter updateEncounter(ProgramEncounter encounter, ApiProgramEncounterRequest request) throws ValidationException, IOException {
@@ -65,7 +65,7 @@ public class ProgramEnrolmentApiController {
         ProgramEnrolment programEnrolment = createProgramEnrolment(request.getExternalId());
         initializeIndividual(request, programEnrolment);
         programEnrolment = updateEnrolment(programEnrolment, request);
-        return new ResponseEntity<>(ProgramEnrolmentResponse.fromProgramEnrolment(programEnrolment, conceptRepository, conceptService), HttpStatus.OK);
+        return new ResponseEntity<>(ProgramEnrolmentResponse.fromProgramEnrolment(programEnrolment, conceptService), HttpStatus.OK);
     }
 
     private void initializeIndividual(ApiProgramEnrolmentRequest request, ProgramEnrolment programEnrolment) {
@@ -88,7 +88,7 @@ public class ProgramEnrolmentApiController {
             throw new IllegalArgumentException(String.format("ProgramEnrolment not found with id '%s' or External ID '%s'", id, request.getExternalId()));
         }
         programEnrolment = updateEnrolment(programEnrolment, request);
-        return new ResponseEntity<>(ProgramEnrolmentResponse.fromProgramEnrolment(programEnrolment, conceptRepository, conceptService), HttpStatus.OK);
+        return new ResponseEntity<>(ProgramEnrolmentResponse.fromProgramEnrolment(programEnrolment, conceptService), HttpStatus.OK);
     }
 
     private ProgramEnrolment updateEnrolment(ProgramEnrolment enrolment, ApiProgramEnrolmentRequest request) throws IOException {
@@ -131,7 +131,7 @@ public class ProgramEnrolmentApiController {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
         ArrayList<ProgramEnrolmentResponse> programEnrolmentResponses = new ArrayList<>();
-        programEnrolments.forEach(programEnrolment -> programEnrolmentResponses.add(ProgramEnrolmentResponse.fromProgramEnrolment(programEnrolment, conceptRepository, conceptService)));
+        programEnrolments.forEach(programEnrolment -> programEnrolmentResponses.add(ProgramEnrolmentResponse.fromProgramEnrolment(programEnrolment, conceptService)));
         accessControlService.checkProgramPrivileges(PrivilegeType.ViewEnrolmentDetails, programEnrolments.getContent());
         return new ResponsePage(programEnrolmentResponses, programEnrolments.getNumberOfElements(), programEnrolments.getTotalPages(), programEnrolments.getSize());
     }
@@ -144,7 +144,7 @@ public class ProgramEnrolmentApiController {
         if (programEnrolment == null)
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         accessControlService.checkProgramPrivilege(PrivilegeType.ViewEnrolmentDetails, programEnrolment);
-        return new ResponseEntity<>(ProgramEnrolmentResponse.fromProgramEnrolment(programEnrolment, conceptRepository, conceptService), HttpStatus.OK);
+        return new ResponseEntity<>(ProgramEnrolmentResponse.fromProgramEnrolment(programEnrolment, conceptService), HttpStatus.OK);
     }
 
     @DeleteMapping(value = "/api/programEnrolment/{id}")
@@ -156,7 +156,7 @@ public class ProgramEnrolmentApiController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         programEnrolment = programEnrolmentService.voidEnrolment(programEnrolment);
         accessControlService.checkProgramPrivilege(PrivilegeType.RejectEnrolment, programEnrolment);
-        return new ResponseEntity<>(ProgramEnrolmentResponse.fromProgramEnrolment(programEnrolment, conceptRepository, conceptService), HttpStatus.OK);
+        return new ResponseEntity<>(ProgramEnrolmentResponse.fromProgramEnrolment(programEnrolment, conceptService), HttpStatus.OK);
     }
 
     private ProgramEnrolment createProgramEnrolment(String externalId) {
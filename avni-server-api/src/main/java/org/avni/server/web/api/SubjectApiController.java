@@ -88,7 +88,7 @@ public class SubjectApiController {
         subjects = individualRepository.findSubjects(individualSearchParams, pageable);
         List<GroupSubject> groupsOfAllMemberSubjects = groupSubjectRepository.findAllByMemberSubjectIn(subjects.getContent());
         ArrayList<SubjectResponse> subjectResponses = new ArrayList<>();
-        subjects.forEach(subject -> subjectResponses.add(SubjectResponse.fromSubject(subject, SubjectResponseOptions.forSubjectList(S.isEmpty(subjectTypeName), includeCatchments), conceptRepository, conceptService, findGroupAffiliation(subject, groupsOfAllMemberSubjects), s3Service)));
+        subjects.forEach(subject -> subjectResponses.add(SubjectResponse.fromSubject(subject, SubjectResponseOptions.forSubjectList(S.isEmpty(subjectTypeName), includeCatchments), conceptService, findGroupAffiliation(subject, groupsOfAllMemberSubjects), s3Service)));
         accessControlService.checkSubjectPrivileges(PrivilegeType.ViewSubject, subjects.getContent());
         return new ResponsePage(subjectResponses, subjects.getNumberOfElements(), subjects.getTotalPages(), subjects.getSize());
     }
@@ -104,7 +104,7 @@ public class SubjectApiController {
 
         accessControlService.checkSubjectPrivilege(PrivilegeType.ViewSubject, subject.getSubjectType());
         List<GroupSubject> groupsOfAllMemberSubjects = groupSubjectRepository.findAllByMemberSubjectIn(Collections.singletonList(subject));
-        return new ResponseEntity<>(SubjectResponse.fromSubject(subject, SubjectResponseOptions.forSingleSubject(includeCatchments), conceptRepository, conceptService, groupsOfAllMemberSubjects, s3Service), HttpStatus.OK);
+        return new ResponseEntity<>(SubjectResponse.fromSubject(subject, SubjectResponseOptions.forSingleSubject(includeCatchments), conceptService, groupsOfAllMemberSubjects, s3Service), HttpStatus.OK);
     }
 
     @PostMapping(value = "/api/subject")
@@ -125,7 +125,7 @@ public class SubjectApiController {
         }
         mediaObservationService.processMediaObservations(subject.getObservations());
         Individual savedIndividual = individualService.save(subject);
-        return new ResponseEntity<>(SubjectResponse.fromSubject(savedIndividual, options, conceptRepository, conceptService, s3Service), HttpStatus.OK);
+        return new ResponseEntity<>(SubjectResponse.fromSubject(savedIndividual, options, conceptService, s3Service), HttpStatus.OK);
     }
 
     @PutMapping(value = "/api/subject/{id}")
@@ -164,7 +164,7 @@ public class SubjectApiController {
         Set<String> observationKeys = request.containsKey(OBSERVATIONS) ? ((Map<String, Object>) request.get(OBSERVATIONS)).keySet() : new HashSet<>();
         mediaObservationService.patchMediaObservations(subject.getObservations(), observationKeys);
         Individual savedIndividual = individualService.save(subject);
-        return new ResponseEntity<>(SubjectResponse.fromSubject(savedIndividual, SubjectResponseOptions.forSubjectUpdate(), conceptRepository, conceptService, s3Service), HttpStatus.OK);
+        return new ResponseEntity<>(SubjectResponse.fromSubject(savedIndividual, SubjectResponseOptions.forSubjectUpdate(), conceptService, s3Service), HttpStatus.OK);
     }
 
     @DeleteMapping(value = "/api/subject/{id}")
@@ -179,7 +179,7 @@ public class SubjectApiController {
         List<GroupSubject> groupsOfAllMemberSubjects = groupSubjectRepository.findAllByMemberSubjectIn(Collections.singletonList(subject));
         subject = individualService.voidSubject(subject);
         return new ResponseEntity<>(SubjectResponse.fromSubject(subject,
-                SubjectResponseOptions.forSubjectUpdate(), conceptRepository, conceptService, groupsOfAllMemberSubjects, s3Service), HttpStatus.OK);
+                SubjectResponseOptions.forSubjectUpdate(), conceptService, groupsOfAllMemberSubjects, s3Service), HttpStatus.OK);
     }
 
     @DeleteMapping(value = "/api/subjectTree")
@@ -106,7 +106,7 @@ public class TaskApiController {
         task.setVoided(request.isVoided());
         mediaObservationService.processMediaObservations(task.getObservations());
         task = taskRepository.save(task);
-        return new ResponseEntity<>(ApiTaskResponse.fromTask(task, conceptRepository, conceptService), HttpStatus.OK);
+        return new ResponseEntity<>(ApiTaskResponse.fromTask(task, conceptService), HttpStatus.OK);
     }
 
     @RequestMapping(value = "/api/tasks", method = RequestMethod.GET)
@@ -119,7 +119,7 @@ public class TaskApiController {
         Map<Concept, String> conceptsMap = conceptService.readConceptsFromJsonObject(metadataConcepts);
         Page<Task> tasks = taskRepository.findByTaskTypeMetadataAndTaskStatus(type, isTerminalStatus, conceptsMap, pageable);
         ArrayList<ApiTaskResponse> taskResponses = new ArrayList<>();
-        tasks.forEach(task -> taskResponses.add(ApiTaskResponse.fromTask(task, conceptRepository, conceptService)));
+        tasks.forEach(task -> taskResponses.add(ApiTaskResponse.fromTask(task, conceptService)));
         return new ResponsePage(taskResponses, tasks.getNumberOfElements(), tasks.getTotalPages(), tasks.getSize());
     }
 
@@ -1,34 +1,119 @@
 package org.avni.server.web.external;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 import org.avni.server.domain.UserContext;
 import org.avni.server.framework.security.AuthenticationFilter;
 import org.avni.server.framework.security.UserContextHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Posts to the rule server over a pool of kept alive connections. Idle connections are closed before the rule server
+ * would close them, so that a request is not sent on a connection the server is about to drop.
+ * <p>
+ * Many requests can be posted at once with {@link #postAll(String, List)}, which sends them concurrently over the pool.
+ */
 @Service
 public class RuleServiceClient {
-    @Value("${node.server.url}")
-    private String NODE_SERVER_HOST;
-    private Logger logger = LoggerFactory.getLogger(RuleServiceClient.class);
+    private final Logger logger = LoggerFactory.getLogger(RuleServiceClient.class);
+    private final String nodeServerHost;
+    private final MeterRegistry meterRegistry;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final RestTemplate restTemplate;
+    private final ExecutorService executorService;
+
+    @Autowired
+    public RuleServiceClient(@Value("${node.server.url}") String nodeServerHost,
+                             @Value("${avni.ruleServer.maxConnections}") int maxConnections,
+                             @Value("${avni.ruleServer.connectTimeout.millis}") int connectTimeout,
+                             @Value("${avni.ruleServer.readTimeout.millis}") int readTimeout,
+                             @Value("${avni.ruleServer.idleConnection.millis}") long idleConnectionTimeout,
+                             @Value("${avni.ruleServer.maxConcurrentRequests}") int maxConcurrentRequests,
+                             MeterRegistry meterRegistry) {
+        this.nodeServerHost = nodeServerHost;
+        this.meterRegistry = meterRegistry;
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setValidateAfterInactivity((int) idleConnectionTimeout);
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(connectTimeout)
+                        .setConnectionRequestTimeout(connectTimeout)
+                        .setSocketTimeout(readTimeout)
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(idleConnectionTimeout, TimeUnit.MILLISECONDS)
+                .build();
+        restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        executorService = Executors.newFixedThreadPool(maxConcurrentRequests, new ThreadFactoryBuilder().setNameFormat("rule-server-%d").setDaemon(true).build());
+
+        registerConnectionGauge("leased", PoolStats::getLeased);
+        registerConnectionGauge("available", PoolStats::getAvailable);
+        registerConnectionGauge("pending", PoolStats::getPending);
+    }
 
     public <T> String post(String api, T jsonObj) throws HttpClientErrorException {
-        String uri = NODE_SERVER_HOST.concat(api);
-        RestTemplate restTemplate = new RestTemplate();
-        HttpEntity<Object> entityCredentials = new HttpEntity<>(jsonObj, constructHeaders());
+        return post(api, jsonObj, constructHeaders());
+    }
+
+    /**
+     * Posts each request to the same api concurrently, with the headers of the user in context.
+     *
+     * @return responses in the order of the requests, each completing with the response or with the error of its request
+     */
+    public <T> List<CompletableFuture<String>> postAll(String api, List<T> jsonObjs) {
+        HttpHeaders httpHeaders = constructHeaders();
+        return jsonObjs.stream()
+                .map(jsonObj -> CompletableFuture.supplyAsync(() -> post(api, jsonObj, httpHeaders), executorService))
+                .collect(Collectors.toList());
+    }
+
+    private <T> String post(String api, T jsonObj, HttpHeaders httpHeaders) throws HttpClientErrorException {
+        String uri = nodeServerHost.concat(api);
+        HttpEntity<Object> entityCredentials = new HttpEntity<>(jsonObj, httpHeaders);
+        long start = System.nanoTime();
+        String outcome = "failure";
         try {
-            return restTemplate.postForObject(uri, entityCredentials, String.class);
+            String response = restTemplate.postForObject(uri, entityCredentials, String.class);
+            outcome = "success";
+            return response;
         } catch (HttpClientErrorException e) {
             logger.info("rule " + api + " not found");
             throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "rule " + api + " not found");
+        } finally {
+            Timer.builder("avni.ruleServer.requests")
+                    .tag("api", api)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
@@ -48,4 +133,16 @@ public class RuleServiceClient {
             httpHeaders.add(AuthenticationFilter.AUTH_TOKEN_HEADER, authToken);
         return httpHeaders;
     }
+
+    private void registerConnectionGauge(String state, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("avni.ruleServer.connections", connectionManager, manager -> value.applyAsDouble(manager.getTotalStats()))
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        executorService.shutdownNow();
+        httpClient.close();
+    }
 }
@@ -0,0 +1,30 @@
+package org.avni.server.web.request;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * One entity of a batch upload, e.g. {"entityType": "Encounter", "entity": {...same as the POST /encounters body}}
+ */
+public class TransactionalDataBatchItem {
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.EXTERNAL_PROPERTY, property = "entityType")
+    @JsonSubTypes({
+            @JsonSubTypes.Type(value = IndividualRequest.class, name = "Individual"),
+            @JsonSubTypes.Type(value = ProgramEnrolmentRequest.class, name = "ProgramEnrolment"),
+            @JsonSubTypes.Type(value = EncounterRequest.class, name = "Encounter"),
+            @JsonSubTypes.Type(value = ProgramEncounterRequest.class, name = "ProgramEncounter")
+    })
+    private CHSRequest entity;
+
+    public CHSRequest getEntity() {
+        return entity;
+    }
+
+    public void setEntity(CHSRequest entity) {
+        this.entity = entity;
+    }
+
+    public String getEntityType() {
+        return entity == null ? null : entity.getClass().getSimpleName().replace("Request", "");
+    }
+}
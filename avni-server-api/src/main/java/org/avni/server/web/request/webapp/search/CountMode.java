@@ -0,0 +1,11 @@
+package org.avni.server.web.request.webapp.search;
+
+/**
+ * How the total number of search results is counted. {@link #capped} counts up to a limit and {@link #estimate} uses the
+ * planner's row estimate, neither of which has to go through all the matching rows.
+ */
+public enum CountMode {
+    exact,
+    capped,
+    estimate;
+}
@@ -5,6 +5,8 @@ public class PageDetails {
     private Integer numberOfRecordPerPage;
     private String sortColumn;
     private SortOrder sortOrder;
+    private String after;
+    private CountMode countMode;
 
     public Integer getPageNumber() {
         return pageNumber;
@@ -37,4 +39,24 @@ public class PageDetails {
     public void setSortOrder(SortOrder sortOrder) {
         this.sortOrder = sortOrder;
     }
+
+    /**
+     * Cursor returned with the previous page. When present, the page starting after it is returned instead of the one at
+     * pageNumber.
+     */
+    public String getAfter() {
+        return after;
+    }
+
+    public void setAfter(String after) {
+        this.after = after;
+    }
+
+    public CountMode getCountMode() {
+        return countMode;
+    }
+
+    public void setCountMode(CountMode countMode) {
+        this.countMode = countMode;
+    }
 }
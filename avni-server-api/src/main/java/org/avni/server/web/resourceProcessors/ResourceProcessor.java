@@ -5,6 +5,8 @@ import org.avni.server.domain.User;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.Resource;
 
+import java.util.function.BiConsumer;
+
 public abstract class ResourceProcessor<Entity> {
     /**
      * Individual controllers handle their own resource processing. This is only for backward compatibility. Hence its implementers may not implement resource processing for all the fields
@@ -13,14 +15,29 @@ public abstract class ResourceProcessor<Entity> {
     public abstract Resource<Entity> process(Resource<Entity> resource);
 
     public static void addAuditFields(CHSEntity chsEntity, Resource resource) {
-        addUserFields(chsEntity.getCreatedBy(), resource, "createdBy");
-        addUserFields(chsEntity.getLastModifiedBy(), resource, "lastModifiedBy");
+        addAuditFields(chsEntity, asLinks(resource));
     }
 
     public static void addUserFields(User user, Resource resource, String fieldName) {
+        addUserFields(user, asLinks(resource), fieldName);
+    }
+
+    public static void addAuditFields(CHSEntity chsEntity, BiConsumer<String, String> fields) {
+        addUserFields(chsEntity.getCreatedBy(), fields, "createdBy");
+        addUserFields(chsEntity.getLastModifiedBy(), fields, "lastModifiedBy");
+    }
+
+    public static void addUserFields(User user, BiConsumer<String, String> fields, String fieldName) {
         if (user == null) return;
 
-        resource.add(new Link(user.getUuid(), fieldName + "UUID"));
-        resource.add(new Link(user.getName(), fieldName));
+        fields.accept(fieldName + "UUID", user.getUuid());
+        fields.accept(fieldName, user.getName());
+    }
+
+    /**
+     * Adds the (name, value) fields as links of the resource, the way sync clients have always received them.
+     */
+    public static BiConsumer<String, String> asLinks(Resource resource) {
+        return (name, value) -> resource.add(new Link(value, name));
     }
 }
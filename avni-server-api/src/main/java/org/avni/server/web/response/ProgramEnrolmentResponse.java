@@ -1,6 +1,5 @@
 package org.avni.server.web.response;
 
-import org.avni.server.dao.ConceptRepository;
 import org.avni.server.domain.ProgramEnrolment;
 import org.avni.server.service.ConceptService;
 
@@ -12,7 +11,7 @@ import static org.avni.server.web.api.ProgramEnrolmentFieldNames.*;
 
 public class ProgramEnrolmentResponse extends LinkedHashMap<String, Object> {
 
-    public static ProgramEnrolmentResponse fromProgramEnrolment(ProgramEnrolment programEnrolment, ConceptRepository conceptRepository, ConceptService conceptService) {
+    public static ProgramEnrolmentResponse fromProgramEnrolment(ProgramEnrolment programEnrolment, ConceptService conceptService) {
         ProgramEnrolmentResponse programEnrolmentResponse = new ProgramEnrolmentResponse();
         programEnrolmentResponse.put(ID, programEnrolment.getUuid());
         programEnrolmentResponse.put(VOIDED, programEnrolment.isVoided());
@@ -27,8 +26,8 @@ public class ProgramEnrolmentResponse extends LinkedHashMap<String, Object> {
         programEnrolmentResponse.put(EXIT_DATETIME, programEnrolment.getProgramExitDateTime());
         Response.putIfPresent(programEnrolmentResponse, EXIT_LOCATION, programEnrolment.getExitLocation());
 
-        Response.putObservations(conceptRepository, conceptService, programEnrolmentResponse, new LinkedHashMap<>(), programEnrolment.getObservations());
-        Response.putObservations(conceptRepository, conceptService, programEnrolmentResponse, new LinkedHashMap<>(), programEnrolment.getProgramExitObservations(), EXIT_OBS);
+        Response.putObservations(conceptService, programEnrolmentResponse, new LinkedHashMap<>(), programEnrolment.getObservations());
+        Response.putObservations(conceptService, programEnrolmentResponse, new LinkedHashMap<>(), programEnrolment.getProgramExitObservations(), EXIT_OBS);
 
         Response.putChildren(programEnrolmentResponse, ENCOUNTERS, new HashSet<>(programEnrolment.getProgramEncounters()));
 
@@ -1,7 +1,6 @@
 package org.avni.server.web.response;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import org.avni.server.dao.ConceptRepository;
 import org.avni.server.domain.*;
 import org.avni.server.service.ConceptService;
 import org.avni.server.util.ObjectMapperSingleton;
@@ -14,22 +13,22 @@ public class Response {
         if (value != null) map.put(name, value);
     }
 
-    public static void putObservations(ConceptRepository conceptRepository, ConceptService conceptService, Map<String, Object> parentMap,
+    public static void putObservations(ConceptService conceptService, Map<String, Object> parentMap,
                                 LinkedHashMap<String, Object> observationsResponse, ObservationCollection observations, String observationsResponseKeyName) {
-        mapObservations(conceptRepository, conceptService, observationsResponse, observations);
+        mapObservations(conceptService, observationsResponse, observations);
         parentMap.put(observationsResponseKeyName, observationsResponse);
     }
 
-    public static void mapObservations(ConceptRepository conceptRepository, ConceptService conceptService, Map<String, Object> observationsResponse, ObservationCollection observations) {
+    public static void mapObservations(ConceptService conceptService, Map<String, Object> observationsResponse, ObservationCollection observations) {
         ObservationCollection obs = Optional.ofNullable(observations).orElse(new ObservationCollection());
         obs.forEach((key, value) -> {
-            Concept concept = conceptRepository.findByUuid(key);
+            Concept concept = conceptService.get(key);
             observationsResponse.put(concept.getName(), conceptService.getObservationValue(concept, value));
         });
     }
 
-    static void putObservations(ConceptRepository conceptRepository, ConceptService conceptService, Map<String, Object> parentMap, LinkedHashMap<String, Object> observationsResponse, ObservationCollection observations) {
-        Response.putObservations(conceptRepository, conceptService, parentMap, observationsResponse, observations, "observations");
+    static void putObservations(ConceptService conceptService, Map<String, Object> parentMap, LinkedHashMap<String, Object> observationsResponse, ObservationCollection observations) {
+        Response.putObservations(conceptService, parentMap, observationsResponse, observations, "observations");
     }
 
     static void putAudit(CHSEntity avniEntity, Map<String, Object> objectMap) {
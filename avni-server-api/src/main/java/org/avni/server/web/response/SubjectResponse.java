@@ -1,6 +1,5 @@
 package org.avni.server.web.response;
 
-import org.avni.server.dao.ConceptRepository;
 import org.avni.server.domain.AddressLevel;
 import org.avni.server.domain.Catchment;
 import org.avni.server.domain.GroupSubject;
@@ -20,7 +19,7 @@ public class SubjectResponse extends LinkedHashMap<String, Object> {
 
     public static final String LOCATION_EXTERNAL_ID_DELIMITER = " ";
 
-    public static SubjectResponse fromSubject(Individual subject, SubjectResponseOptions options, ConceptRepository conceptRepository, ConceptService conceptService, S3Service s3Service) {
+    public static SubjectResponse fromSubject(Individual subject, SubjectResponseOptions options, ConceptService conceptService, S3Service s3Service) {
         SubjectResponse subjectResponse = new SubjectResponse();
         if (options.isIncludeSubjectType()) subjectResponse.put("Subject type", subject.getSubjectType().getName());
         subjectResponse.put("ID", subject.getUuid());
@@ -44,7 +43,7 @@ public class SubjectResponse extends LinkedHashMap<String, Object> {
         }
         Response.putIfPresent(observations, "Date of birth", subject.getDateOfBirth());
         if (subject.getGender() != null) observations.put("Gender", subject.getGender().getName());
-        Response.putObservations(conceptRepository, conceptService, subjectResponse, observations, subject.getObservations());
+        Response.putObservations(conceptService, subjectResponse, observations, subject.getObservations());
 
         Response.putChildren(subjectResponse, "encounters", new HashSet<>(subject.getEncounters()));
         Response.putChildren(subjectResponse, "enrolments", new HashSet<>(subject.getProgramEnrolments()));
@@ -95,8 +94,8 @@ public class SubjectResponse extends LinkedHashMap<String, Object> {
         map.put(String.join(LOCATION_EXTERNAL_ID_DELIMITER, addressLevel.getTypeString(), EXTERNAL_ID), addressLevel.getLegacyId());
     }
 
-    public static SubjectResponse fromSubject(Individual subject, SubjectResponseOptions options, ConceptRepository conceptRepository, ConceptService conceptService, List<GroupSubject> groups, S3Service s3Service) {
-        SubjectResponse subjectResponse = fromSubject(subject, options, conceptRepository, conceptService, s3Service);
+    public static SubjectResponse fromSubject(Individual subject, SubjectResponseOptions options, ConceptService conceptService, List<GroupSubject> groups, S3Service s3Service) {
+        SubjectResponse subjectResponse = fromSubject(subject, options, conceptService, s3Service);
         subjectResponse.put("Groups", groups.stream().map(GroupSubject::getGroupSubjectUUID));
         return subjectResponse;
     }
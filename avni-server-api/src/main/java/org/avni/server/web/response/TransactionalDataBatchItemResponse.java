@@ -0,0 +1,39 @@
+package org.avni.server.web.response;
+
+public class TransactionalDataBatchItemResponse {
+    private final String entityType;
+    private final String uuid;
+    private final boolean success;
+    private final String errorMessage;
+
+    private TransactionalDataBatchItemResponse(String entityType, String uuid, boolean success, String errorMessage) {
+        this.entityType = entityType;
+        this.uuid = uuid;
+        this.success = success;
+        this.errorMessage = errorMessage;
+    }
+
+    public static TransactionalDataBatchItemResponse success(String entityType, String uuid) {
+        return new TransactionalDataBatchItemResponse(entityType, uuid, true, null);
+    }
+
+    public static TransactionalDataBatchItemResponse error(String entityType, String uuid, String errorMessage) {
+        return new TransactionalDataBatchItemResponse(entityType, uuid, false, errorMessage);
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
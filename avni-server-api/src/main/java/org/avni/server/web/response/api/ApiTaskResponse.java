@@ -1,6 +1,5 @@
 package org.avni.server.web.response.api;
 
-import org.avni.server.dao.ConceptRepository;
 import org.avni.server.domain.task.Task;
 import org.avni.server.service.ConceptService;
 import org.avni.server.web.response.Response;
@@ -13,7 +12,7 @@ import static org.avni.server.web.contract.TaskFieldNames.NAME;
 
 public class ApiTaskResponse extends LinkedHashMap<String, Object> {
 
-    public static ApiTaskResponse fromTask(Task task, ConceptRepository conceptRepository, ConceptService conceptService) {
+    public static ApiTaskResponse fromTask(Task task, ConceptService conceptService) {
         ApiTaskResponse response = new ApiTaskResponse();
         response.put(TASK_TYPE, task.getTaskType().getName());
         if (task.getAssignedTo() != null) {
@@ -23,8 +22,8 @@ public class ApiTaskResponse extends LinkedHashMap<String, Object> {
         response.put(SCHEDULED_ON, task.getScheduledOn());
         response.put(EXTERNAL_ID, task.getLegacyId());
         response.put(TASK_STATUS, task.getTaskStatus().getName());
-        Response.putObservations(conceptRepository, conceptService, response, new LinkedHashMap<>(), task.getMetadata(), METADATA);
-        Response.putObservations(conceptRepository, conceptService, response, new LinkedHashMap<>(), task.getObservations(), OBSERVATIONS);
+        Response.putObservations(conceptService, response, new LinkedHashMap<>(), task.getMetadata(), METADATA);
+        Response.putObservations(conceptService, response, new LinkedHashMap<>(), task.getObservations(), OBSERVATIONS);
         response.put(NAME, task.getName());
         if (task.getSubject() != null) {
             response.put(SUBJECT_ID, task.getSubject().getUuid());
@@ -13,6 +13,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -162,6 +163,10 @@ public class SlicedResources<T> extends Resources<T> {
         @JsonProperty //
         private boolean hasNext;
 
+        @JsonProperty //
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String continuationToken;
+
         protected SliceMetadata() {}
 
         /**
@@ -216,6 +221,19 @@ public class SlicedResources<T> extends Resources<T> {
         }
 
 
+        /**
+         * Returns the token to pass to get the next slice by seeking instead of by number, if supported.
+         *
+         * @return the token, null when there is no next slice or it can only be fetched by number.
+         */
+        public String getContinuationToken() {
+            return continuationToken;
+        }
+
+        public void setContinuationToken(String continuationToken) {
+            this.continuationToken = continuationToken;
+        }
+
         /*
          * (non-Javadoc)
          * @see java.lang.Object#toString()
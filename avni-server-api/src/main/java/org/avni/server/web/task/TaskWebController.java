@@ -1,6 +1,5 @@
 package org.avni.server.web.task;
 
-import org.avni.server.dao.ConceptRepository;
 import org.avni.server.domain.JsonObject;
 import org.avni.server.domain.accessControl.PrivilegeType;
 import org.avni.server.domain.task.Task;
@@ -23,14 +22,12 @@ import java.util.Map;
 
 @RestController
 public class TaskWebController {
-    private final ConceptRepository conceptRepository;
     private final ConceptService conceptService;
     private final TaskService taskService;
     private final AccessControlService accessControlService;
 
     @Autowired
-    public TaskWebController(ConceptRepository conceptRepository, ConceptService conceptService, TaskService taskService, AccessControlService accessControlService) {
-        this.conceptRepository = conceptRepository;
+    public TaskWebController(ConceptService conceptService, TaskService taskService, AccessControlService accessControlService) {
         this.conceptService = conceptService;
         this.taskService = taskService;
         this.accessControlService = accessControlService;
@@ -43,7 +40,7 @@ public class TaskWebController {
         Page<Task> searchResult = taskService.searchTaskByCriteria(filterCriteria, pageable);
         return searchResult.map(task -> {
             Map<String, Object> metadataMap = new HashMap<>();
-            Response.mapObservations(conceptRepository, conceptService, metadataMap, task.getMetadata());
+            Response.mapObservations(conceptService, metadataMap, task.getMetadata());
             return TaskSearchResponse.from(task, metadataMap);
         });
     }
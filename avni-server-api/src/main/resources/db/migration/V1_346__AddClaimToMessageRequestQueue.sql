@@ -0,0 +1,5 @@
+alter table message_request_queue add column claimed_by text;
+alter table message_request_queue add column claim_expiry_date_time timestamp(3) with time zone;
+
+create index message_request_queue_undelivered_idx on message_request_queue (scheduled_date_time, id)
+    where delivery_status <> 'Sent' and is_voided = false;
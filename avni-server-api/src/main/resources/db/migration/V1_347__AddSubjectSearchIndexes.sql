@@ -0,0 +1,26 @@
+-- The trigram indexes of subject search that use this function, and the pg_trgm extension they need, are built
+-- outside of migrations by SubjectSearchIndexBuilder once the server has started, without blocking writes.
+
+-- Text of the scalar answers in observations, including those inside question groups, without the concept uuids
+-- used as keys. Must stay immutable as it is indexed.
+create or replace function observations_search_document(observations jsonb) returns text
+    language sql
+    immutable
+    parallel safe
+as
+$$
+with recursive nodes(node) as (
+    select observations
+    union all
+    select children.child
+    from nodes,
+         lateral (select value as child
+                  from jsonb_each(case jsonb_typeof(nodes.node) when 'object' then nodes.node else '{}'::jsonb end)
+                  union all
+                  select value
+                  from jsonb_array_elements(case jsonb_typeof(nodes.node) when 'array' then nodes.node else '[]'::jsonb end)) children
+)
+select string_agg(node #>> '{}', ' ')
+from nodes
+where jsonb_typeof(node) in ('string', 'number', 'boolean');
+$$;
@@ -0,0 +1,10 @@
+-- Sort expression of subject search on full name, indexed by SubjectSearchIndexBuilder. concat_ws is only stable, as
+-- it takes any type, and cannot be indexed. On text it does not depend on any setting.
+create or replace function individual_full_name(first_name text, middle_name text, last_name text) returns text
+    language sql
+    immutable
+    parallel safe
+as
+$$
+select concat_ws(' ', first_name, middle_name, last_name);
+$$;
@@ -0,0 +1,94 @@
+package org.avni.messaging.external;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import org.avni.messaging.contract.glific.GlificResponse;
+import org.avni.messaging.domain.exception.GlificNotConfiguredException;
+import org.avni.server.dao.externalSystem.ExternalSystemConfigRepository;
+import org.avni.server.domain.JsonObject;
+import org.avni.server.domain.extenalSystem.ExternalSystemConfig;
+import org.avni.server.domain.extenalSystem.SystemName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GlificRestClientSessionTest {
+    private static final ParameterizedTypeReference<GlificResponse<Map<String, Object>>> RESPONSE_TYPE = new ParameterizedTypeReference<GlificResponse<Map<String, Object>>>() {
+    };
+    private final ExternalSystemConfigRepository externalSystemConfigRepository = mock(ExternalSystemConfigRepository.class);
+    private WireMockServer glific;
+    private GlificRestClient glificRestClient;
+
+    @Before
+    public void setup() {
+        glific = new WireMockServer(wireMockConfig().dynamicPort());
+        glific.start();
+        ExternalSystemConfig externalSystemConfig = new ExternalSystemConfig();
+        externalSystemConfig.setSystemName(SystemName.Glific);
+        externalSystemConfig.setConfig(new JsonObject()
+                .with("baseUrl", "http://localhost:" + glific.port())
+                .with("phone", "919999999999")
+                .with("password", "password"));
+        when(externalSystemConfigRepository.findBySystemName(SystemName.Glific)).thenReturn(externalSystemConfig);
+        glificRestClient = new GlificRestClient(new RestTemplateBuilder(), externalSystemConfigRepository, 1800, 1000);
+        glific.addStubMapping(WireMock.post("/api").willReturn(okJson("{\"data\":{\"sent\":true}}")).build());
+    }
+
+    @After
+    public void tearDown() {
+        glific.stop();
+    }
+
+    @Test
+    public void shouldReuseTheSessionUntilItExpires() throws GlificNotConfiguredException {
+        stubSession("token", Instant.now().plusSeconds(1800));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(true, glificRestClient.callAPI("message", RESPONSE_TYPE).get("sent"));
+        }
+
+        glific.verify(1, postRequestedFor(urlEqualTo(GlificRestClient.AUTH_URL)));
+        glific.verify(3, postRequestedFor(urlEqualTo("/api")).withHeader("Authorization", equalTo("token")));
+    }
+
+    @Test
+    public void shouldSignInAgainWhenTheSessionIsAboutToExpire() throws GlificNotConfiguredException {
+        stubSession("token", Instant.now().plusSeconds(30));
+
+        glificRestClient.callAPI("message", RESPONSE_TYPE);
+        glificRestClient.callAPI("message", RESPONSE_TYPE);
+
+        glific.verify(2, postRequestedFor(urlEqualTo(GlificRestClient.AUTH_URL)));
+    }
+
+    @Test
+    public void shouldSignInAgainWhenGlificRejectsTheSession() throws GlificNotConfiguredException {
+        stubSession("token", Instant.now().plusSeconds(1800));
+        glificRestClient.callAPI("message", RESPONSE_TYPE);
+
+        glific.addStubMapping(WireMock.post("/api").inScenario("revoked").whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(unauthorized()).willSetStateTo("signed in again").build());
+        glific.addStubMapping(WireMock.post("/api").inScenario("revoked").whenScenarioStateIs("signed in again")
+                .willReturn(okJson("{\"data\":{\"sent\":true}}")).build());
+
+        assertEquals(true, glificRestClient.callAPI("message", RESPONSE_TYPE).get("sent"));
+        glific.verify(2, postRequestedFor(urlEqualTo(GlificRestClient.AUTH_URL)));
+    }
+
+    private void stubSession(String accessToken, Instant expiry) {
+        glific.addStubMapping(WireMock.post(GlificRestClient.AUTH_URL).willReturn(okJson(
+                String.format("{\"data\":{\"access_token\":\"%s\",\"renewal_token\":\"renewal\",\"token_expiry_time\":\"%s\"}}", accessToken, expiry))).build());
+    }
+}
@@ -8,7 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.stream.Stream;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -20,15 +20,36 @@ public class MessageRequestQueueRepositoryTest extends AbstractControllerIntegra
 
     @Test
     @Transactional
-    public void shouldRetrieveUndeliveredMessageRequests() {
-        Stream<MessageRequest> unsentMessages = messageRequestQueueRepository.findDueMessageRequests(Duration.standardDays(4));
-        assertThat(unsentMessages.findFirst().get().getUuid()).isEqualTo("75925823-109f-41a5-89e3-9c719c88155d");
+    public void shouldClaimUndeliveredMessageRequests() {
+        assertThat(messageRequestQueueRepository.countClaimableMessageRequests(Duration.standardDays(4))).isEqualTo(1);
+
+        List<Long> claimed = messageRequestQueueRepository.claimDueMessageRequests(Duration.standardDays(4), 10, "server", Duration.standardMinutes(10));
+        assertThat(claimed).hasSize(1);
+        MessageRequest messageRequest = messageRequestQueueRepository.findEntity(claimed.get(0));
+        assertThat(messageRequest.getUuid()).isEqualTo("75925823-109f-41a5-89e3-9c719c88155d");
+    }
+
+    @Test
+    @Transactional
+    public void shouldNotClaimMessageRequestsClaimedBefore() {
+        messageRequestQueueRepository.claimDueMessageRequests(Duration.standardDays(4), 10, "server", Duration.standardMinutes(10));
+
+        assertThat(messageRequestQueueRepository.claimDueMessageRequests(Duration.standardDays(4), 10, "other server", Duration.standardMinutes(10))).isEmpty();
+        assertThat(messageRequestQueueRepository.countClaimableMessageRequests(Duration.standardDays(4))).isEqualTo(0);
+    }
+
+    @Test
+    @Transactional
+    public void shouldClaimAgainOnceTheClaimExpires() {
+        messageRequestQueueRepository.claimDueMessageRequests(Duration.standardDays(4), 10, "server", Duration.standardMinutes(-1));
+
+        assertThat(messageRequestQueueRepository.claimDueMessageRequests(Duration.standardDays(4), 10, "other server", Duration.standardMinutes(10))).hasSize(1);
     }
 
     @Test
     @Transactional
-    public void shouldNotRetrieveMessagesThatAreOlder() {
-        Stream<MessageRequest> unsentMessages = messageRequestQueueRepository.findDueMessageRequests(Duration.standardHours(-1)); //Future date
-        assertThat(unsentMessages.count()).isEqualTo(0);
+    public void shouldNotClaimMessagesThatAreOlder() {
+        List<Long> claimed = messageRequestQueueRepository.claimDueMessageRequests(Duration.standardHours(-1), 10, "server", Duration.standardMinutes(10)); //Future date
+        assertThat(claimed).isEmpty();
     }
 }
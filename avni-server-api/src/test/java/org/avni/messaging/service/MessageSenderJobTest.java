@@ -0,0 +1,188 @@
+package org.avni.messaging.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.avni.messaging.domain.GlificSystemConfig;
+import org.avni.messaging.domain.exception.GlificNotConfiguredException;
+import org.avni.messaging.repository.MessageRequestQueueRepository;
+import org.avni.server.dao.externalSystem.ExternalSystemConfigRepository;
+import org.avni.server.domain.JsonObject;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.OrganisationConfig;
+import org.avni.server.domain.UserContext;
+import org.avni.server.domain.extenalSystem.ExternalSystemConfig;
+import org.avni.server.framework.security.AuthService;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.service.OrganisationConfigService;
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+public class MessageSenderJobTest {
+    private final MessagingService messagingService = mock(MessagingService.class);
+    private final OrganisationConfigService organisationConfigService = mock(OrganisationConfigService.class);
+    private final AuthService authService = mock(AuthService.class);
+    private final ExternalSystemConfigRepository externalSystemConfigRepository = mock(ExternalSystemConfigRepository.class);
+    private final Map<String, Deque<Long>> dueMessageRequestIds = new HashMap<>();
+    private final List<List<Long>> sentBatches = Collections.synchronizedList(new ArrayList<>());
+    private final List<OrganisationConfig> enabledOrganisations = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MessageSenderJob messageSenderJob;
+
+    @Before
+    public void setup() {
+        when(organisationConfigService.findAllWithFeatureEnabled(anyString())).thenReturn(enabledOrganisations);
+        when(authService.authenticateByUserName(anyString(), isNull())).thenAnswer(invocation -> {
+            UserContext userContext = new UserContext();
+            Organisation organisation = new Organisation();
+            organisation.setName(invocation.getArgument(0));
+            userContext.setOrganisation(organisation);
+            UserContextHolder.create(userContext);
+            return userContext;
+        });
+        when(messagingService.countClaimableMessageRequests(any(Duration.class))).thenAnswer(invocation ->
+                (long) dueMessageRequestIds.getOrDefault(UserContextHolder.getOrganisation().getName(), new LinkedList<>()).size());
+        when(messagingService.claimDueMessageRequests(any(Duration.class), anyInt(), anyString(), any(Duration.class))).thenAnswer(invocation -> {
+            Deque<Long> due = dueMessageRequestIds.getOrDefault(UserContextHolder.getOrganisation().getName(), new LinkedList<>());
+            int batchSize = invocation.getArgument(1);
+            List<Long> claimed = new ArrayList<>();
+            synchronized (due) {
+                while (claimed.size() < batchSize && !due.isEmpty()) claimed.add(due.poll());
+            }
+            return claimed;
+        });
+        doAnswer(invocation -> sentBatches.add(invocation.getArgument(0))).when(messagingService).sendMessages(anyList());
+    }
+
+    @After
+    public void tearDown() {
+        messageSenderJob.stop();
+        UserContextHolder.clear();
+    }
+
+    @Test
+    public void shouldSendDueMessagesInBatches() throws GlificNotConfiguredException {
+        createJob(20, 4, 2);
+        enableMessaging(1L, "first-org-user");
+        dueMessageRequestIds.put("first-org-user", ids(1, 45));
+
+        messageSenderJob.sendMessages();
+
+        assertEquals(3, sentBatches.size());
+        assertEquals(new ArrayList<>(ids(1, 45)), sentBatches.stream().flatMap(List::stream).sorted().collect(Collectors.toList()));
+        assertTrue(sentBatches.stream().allMatch(batch -> batch.size() <= 20));
+    }
+
+    @Test
+    public void shouldNotHoldUpOtherOrganisationsBehindASlowOne() throws GlificNotConfiguredException {
+        createJob(1, 2, 1);
+        enableMessaging(1L, "slow-org-user");
+        enableMessaging(2L, "other-org-user");
+        dueMessageRequestIds.put("slow-org-user", ids(1, 1));
+        dueMessageRequestIds.put("other-org-user", ids(2, 4));
+        CountDownLatch otherOrganisationSent = new CountDownLatch(3);
+        doAnswer(invocation -> {
+            List<Long> batch = invocation.getArgument(0);
+            if (batch.contains(1L)) {
+                sentBatches.add(otherOrganisationSent.await(5, TimeUnit.SECONDS) ? batch : Collections.emptyList());
+            } else {
+                sentBatches.add(batch);
+                otherOrganisationSent.countDown();
+            }
+            return null;
+        }).when(messagingService).sendMessages(anyList());
+
+        messageSenderJob.sendMessages();
+
+        assertEquals(new ArrayList<>(ids(1, 4)), sentBatches.stream().flatMap(List::stream).sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldContinueWithOtherOrganisationsWhenSendingFails() throws GlificNotConfiguredException {
+        createJob(20, 4, 2);
+        enableMessaging(1L, "failing-org-user");
+        enableMessaging(2L, "other-org-user");
+        dueMessageRequestIds.put("failing-org-user", ids(1, 1));
+        dueMessageRequestIds.put("other-org-user", ids(2, 2));
+        doAnswer(invocation -> {
+            List<Long> batch = invocation.getArgument(0);
+            if (batch.contains(1L)) throw new RuntimeException("Glific is down");
+            return sentBatches.add(batch);
+        }).when(messagingService).sendMessages(anyList());
+
+        messageSenderJob.sendMessages();
+
+        assertEquals(singletonList(singletonList(2L)), sentBatches);
+    }
+
+    @Test
+    public void shouldReportQueueDepthAndDeliveryStatusCounts() throws GlificNotConfiguredException {
+        createJob(20, 4, 2);
+        enableMessaging(1L, "first-org-user");
+        enableMessaging(2L, "second-org-user");
+        dueMessageRequestIds.put("first-org-user", ids(1, 3));
+        dueMessageRequestIds.put("second-org-user", ids(4, 5));
+        when(messagingService.countByDeliveryStatus(any(Duration.class))).thenReturn(asList(
+                deliveryStatusCount("Sent", 5), deliveryStatusCount("Failed", 2)));
+
+        messageSenderJob.sendMessages();
+
+        assertEquals(5, meterRegistry.get("avni.messaging.queue.depth").gauge().value(), 0);
+        assertEquals(5, meterRegistry.get("avni.messaging.requests").tag("status", "Sent").gauge().value(), 0);
+        assertEquals(2, meterRegistry.get("avni.messaging.requests").tag("status", "Failed").gauge().value(), 0);
+        assertEquals(0, meterRegistry.get("avni.messaging.requests").tag("status", "NotSent").gauge().value(), 0);
+        assertTrue(meterRegistry.get("avni.messaging.queue.claims").timer().count() >= 2);
+    }
+
+    private static MessageRequestQueueRepository.DeliveryStatusCount deliveryStatusCount(String deliveryStatus, long count) {
+        return new MessageRequestQueueRepository.DeliveryStatusCount() {
+            @Override
+            public String getDeliveryStatus() {
+                return deliveryStatus;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+
+    private void createJob(int batchSize, int maxConcurrentBatches, int maxConcurrentBatchesPerOrganisation) {
+        messageSenderJob = new MessageSenderJob(messagingService, organisationConfigService, authService, externalSystemConfigRepository,
+                batchSize, maxConcurrentBatches, maxConcurrentBatchesPerOrganisation, 600, meterRegistry);
+        ReflectionTestUtils.setField(messageSenderJob, "scheduledSinceDays", "4");
+    }
+
+    private void enableMessaging(Long organisationId, String avniSystemUser) throws GlificNotConfiguredException {
+        OrganisationConfig organisationConfig = new OrganisationConfig();
+        organisationConfig.setOrganisationId(organisationId);
+        enabledOrganisations.add(organisationConfig);
+
+        ExternalSystemConfig externalSystemConfig = new ExternalSystemConfig();
+        externalSystemConfig.setConfig(new JsonObject().with("avniSystemUser", avniSystemUser));
+        when(externalSystemConfigRepository.getGlificSystemConfig(organisationId)).thenReturn(new GlificSystemConfig(externalSystemConfig));
+    }
+
+    private static Deque<Long> ids(long from, long to) {
+        return LongStream.rangeClosed(from, to).boxed().collect(Collectors.toCollection(LinkedList::new));
+    }
+}
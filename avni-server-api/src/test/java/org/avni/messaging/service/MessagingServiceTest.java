@@ -6,16 +6,12 @@ import org.avni.messaging.repository.GlificMessageRepository;
 import org.avni.messaging.repository.ManualMessageRepository;
 import org.avni.messaging.repository.MessageRequestQueueRepository;
 import org.avni.messaging.repository.MessageRuleRepository;
-import org.avni.server.domain.Organisation;
 import org.avni.server.domain.RuleExecutionException;
 import org.avni.server.domain.User;
-import org.avni.server.domain.UserContext;
-import org.avni.server.framework.security.UserContextHolder;
 import org.avni.server.service.EntityTypeRetrieverService;
 import org.avni.server.service.RuleService;
 import org.avni.server.web.request.rules.response.ScheduleRuleResponseEntity;
 import org.joda.time.DateTime;
-import org.joda.time.Duration;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 import org.junit.Before;
@@ -25,8 +21,9 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 
 import java.util.ArrayList;
-import java.util.stream.Stream;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -70,15 +67,12 @@ public class MessagingServiceTest {
     @Captor
     ArgumentCaptor<MessageRequest> messageRequest;
 
-    private String scheduledSinceDays;
-
     @Before
     public void setup() {
         initMocks(this);
         messagingService = new MessagingService(messageRuleRepository, messageReceiverService,
                 messageRequestService, messageRequestQueueRepository,
                 manualMessageRepository, ruleService, groupMessagingService, individualMessagingService, null, entityTypeRetrieverService);
-        scheduledSinceDays = "4";
     }
 
     @Test
@@ -111,12 +105,12 @@ public class MessagingServiceTest {
         DateTime scheduledDateTime = formatter.parseDateTime("2013-02-04 10:35:24");
         ScheduleRuleResponseEntity scheduleRuleResponseEntity = new ScheduleRuleResponseEntity();
         scheduleRuleResponseEntity.setScheduledDateTime(scheduledDateTime);
-        when(ruleService.executeScheduleRule(messageRule.getEntityType().name(), individualId, scheduleRule)).thenReturn(scheduleRuleResponseEntity);
+        when(ruleService.executeScheduleRules(messageRule.getEntityType().name(), individualId, singletonList(scheduleRule))).thenReturn(singletonList(scheduleRuleResponseEntity));
 
         messagingService.onEntitySave(individualId, subjectTypeId, EntityType.Subject, individualId, userId);
 
         verify(messageReceiverService).saveReceiverIfRequired(eq(ReceiverType.Subject), eq(individualId));
-        verify(ruleService).executeScheduleRule(eq(messageRule.getEntityType().name()), eq(individualId), eq(scheduleRule));
+        verify(ruleService).executeScheduleRules(eq(messageRule.getEntityType().name()), eq(individualId), eq(singletonList(scheduleRule)));
         verify(messageRequestService).createOrUpdateAutomatedMessageRequest(messageRule, messageReceiver, individualId, scheduledDateTime);
     }
 
@@ -152,7 +146,6 @@ public class MessagingServiceTest {
         DateTime scheduledDateTime = formatter.parseDateTime("2013-02-04 10:35:24");
         ScheduleRuleResponseEntity scheduleRuleResponseEntity = new ScheduleRuleResponseEntity();
         scheduleRuleResponseEntity.setScheduledDateTime(scheduledDateTime);
-        when(ruleService.executeScheduleRule(messageRule.getEntityType().name(), individualId, scheduleRule)).thenReturn(scheduleRuleResponseEntity);
 
         String scheduleRuleAnother = "scheduleRule2";
         when(messageRuleAnother.getScheduleRule()).thenReturn(scheduleRuleAnother);
@@ -164,15 +157,14 @@ public class MessagingServiceTest {
         DateTime scheduledDateTimeOfAnotherRule = formatter.parseDateTime("2019-02-04 10:35:24");
         ScheduleRuleResponseEntity anotherScheduledRuleResponseEntity = new ScheduleRuleResponseEntity();
         anotherScheduledRuleResponseEntity.setScheduledDateTime(scheduledDateTimeOfAnotherRule);
-        when(ruleService.executeScheduleRule(messageRule.getEntityType().name(), individualId, scheduleRuleAnother)).thenReturn(anotherScheduledRuleResponseEntity);
+        when(ruleService.executeScheduleRules(messageRule.getEntityType().name(), individualId, asList(scheduleRule, scheduleRuleAnother)))
+                .thenReturn(asList(scheduleRuleResponseEntity, anotherScheduledRuleResponseEntity));
 
         messagingService.onEntitySave(individualId, subjectTypeId, EntityType.Subject, individualId, userId);
 
         verify(messageReceiverService, times(2)).saveReceiverIfRequired(eq(ReceiverType.Subject), eq(individualId));
-        verify(ruleService).executeScheduleRule(eq(messageRule.getEntityType().name()), eq(individualId), eq(scheduleRule));
+        verify(ruleService).executeScheduleRules(eq(messageRule.getEntityType().name()), eq(individualId), eq(asList(scheduleRule, scheduleRuleAnother)));
         verify(messageRequestService).createOrUpdateAutomatedMessageRequest(messageRule, messageReceiver, individualId, scheduledDateTime);
-
-        verify(ruleService).executeScheduleRule(eq(messageRuleAnother.getEntityType().name()), eq(individualId), eq(scheduleRuleAnother));
         verify(messageRequestService).createOrUpdateAutomatedMessageRequest(messageRuleAnother, messageReceiver, individualId, scheduledDateTimeOfAnotherRule);
     }
 
@@ -185,15 +177,11 @@ public class MessagingServiceTest {
         messageRule.setEntityType(EntityType.Subject);
         MessageReceiver messageReceiver = new MessageReceiver(ReceiverType.Subject, 1L);
         MessageRequest request = new MessageRequest(messageRule, messageReceiver, 3L, DateTime.now());
-        UserContext context = new UserContext();
-        context.setOrganisation(new Organisation());
-        UserContextHolder.create(context);
-        Duration scheduledSince = Duration.standardDays(Long.parseLong(scheduledSinceDays));
 
-        when(messageRequestQueueRepository.findDueMessageRequests(scheduledSince)).thenReturn(Stream.<MessageRequest>builder().add(request).build());
+        when(messageRequestQueueRepository.findAllById(singletonList(5L))).thenReturn(singletonList(request));
         when(messageRequestService.markComplete(request)).thenReturn(request);
 
-        messagingService.sendMessages(scheduledSince);
+        messagingService.sendMessages(singletonList(5L));
 
         verify(individualMessagingService).sendAutomatedMessage(request);
     }
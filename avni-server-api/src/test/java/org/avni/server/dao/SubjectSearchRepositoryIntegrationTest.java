@@ -0,0 +1,106 @@
+package org.avni.server.dao;
+
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.dao.search.SubjectSearchQueryBuilder;
+import org.avni.server.domain.Individual;
+import org.avni.server.domain.Program;
+import org.avni.server.domain.SubjectType;
+import org.avni.server.domain.factory.metadata.ProgramBuilder;
+import org.avni.server.domain.factory.txn.ProgramEnrolmentBuilder;
+import org.avni.server.domain.factory.txn.SubjectBuilder;
+import org.avni.server.domain.metadata.SubjectTypeBuilder;
+import org.avni.server.service.builder.TestDataSetupService;
+import org.avni.server.service.builder.TestProgramEnrolmentService;
+import org.avni.server.service.builder.TestProgramService;
+import org.avni.server.service.builder.TestSubjectService;
+import org.avni.server.service.builder.TestSubjectTypeService;
+import org.avni.server.web.request.webapp.search.DateRange;
+import org.avni.server.web.request.webapp.search.PageDetails;
+import org.avni.server.web.request.webapp.search.SortOrder;
+import org.avni.server.web.request.webapp.search.SubjectSearchRequest;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class SubjectSearchRepositoryIntegrationTest extends AbstractControllerIntegrationTest {
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private TestSubjectTypeService testSubjectTypeService;
+    @Autowired
+    private TestSubjectService testSubjectService;
+    @Autowired
+    private TestProgramService testProgramService;
+    @Autowired
+    private TestProgramEnrolmentService testProgramEnrolmentService;
+    @Autowired
+    private SubjectSearchRepository subjectSearchRepository;
+
+    private TestDataSetupService.TestCatchmentData catchmentData;
+    private SubjectType subjectType;
+    private Program program;
+
+    @Before
+    public void setup() {
+        TestDataSetupService.TestOrganisationData organisationData = testDataSetupService.setupOrganisation();
+        catchmentData = testDataSetupService.setupACatchment();
+        setUser(organisationData.getUser().getUsername());
+        subjectType = testSubjectTypeService.createWithDefaults(new SubjectTypeBuilder().setMandatoryFieldsForNewEntity().build());
+        program = testProgramService.addProgram(new ProgramBuilder().withName("program").withUuid(UUID.randomUUID().toString()).build(), subjectType);
+    }
+
+    @Test
+    public void shouldPageDistinctSubjectsSortedOnFullNameWithCursor() {
+        for (String firstName : new String[]{"Chitra", "Asha", "Bina"}) {
+            Individual subject = testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withFirstName(firstName)
+                    .withSubjectType(subjectType).withLocation(catchmentData.getAddressLevel1()).build());
+            enrol(subject);
+            enrol(subject);
+        }
+
+        List<Map<String, Object>> firstPage = search(null);
+        String cursor = SubjectSearchQueryBuilder.getNextPageCursor(pageDetails(null), firstPage);
+        List<Map<String, Object>> secondPage = search(cursor);
+
+        assertThat(fullNames(firstPage)).containsExactly("Asha", "Bina");
+        assertThat(cursor).isNotNull();
+        assertThat(fullNames(secondPage)).containsExactly("Chitra");
+    }
+
+    private void enrol(Individual subject) {
+        testProgramEnrolmentService.save(new ProgramEnrolmentBuilder().withMandatoryFieldsForNewEntity().setProgram(program).setIndividual(subject).build());
+    }
+
+    // the enrolment date filter joins the enrolments and selects distinct subjects
+    private List<Map<String, Object>> search(String after) {
+        SubjectSearchRequest request = new SubjectSearchRequest();
+        request.setProgramEnrolmentDate(new DateRange(LocalDate.now().minusDays(1).toString(), null));
+        request.setPageElement(pageDetails(after));
+        return subjectSearchRepository.search(request, new SubjectSearchQueryBuilder());
+    }
+
+    private static PageDetails pageDetails(String after) {
+        PageDetails pageDetails = new PageDetails();
+        pageDetails.setNumberOfRecordPerPage(2);
+        pageDetails.setPageNumber(0);
+        pageDetails.setSortColumn("fullName");
+        pageDetails.setSortOrder(SortOrder.asc);
+        pageDetails.setAfter(after);
+        return pageDetails;
+    }
+
+    private static List<String> fullNames(List<Map<String, Object>> results) {
+        return results.stream().map(result -> (String) result.get("fullName")).collect(Collectors.toList());
+    }
+}
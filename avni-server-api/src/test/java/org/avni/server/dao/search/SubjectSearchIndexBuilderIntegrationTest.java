@@ -0,0 +1,29 @@
+package org.avni.server.dao.search;
+
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SubjectSearchIndexBuilderIntegrationTest extends AbstractControllerIntegrationTest {
+    @Autowired
+    private SubjectSearchIndexBuilder subjectSearchIndexBuilder;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void shouldBuildValidIndexesAndCheckThemOnLaterStarts() {
+        subjectSearchIndexBuilder.buildIndexes();
+        subjectSearchIndexBuilder.buildIndexes();
+
+        boolean trigramsAvailable = jdbcTemplate.queryForObject("select exists(select 1 from pg_extension where extname = 'pg_trgm')", Boolean.class);
+        for (SubjectSearchIndexBuilder.SearchIndex index : SubjectSearchIndexBuilder.INDEXES) {
+            if (index.trigram && !trigramsAvailable) continue;
+            Boolean valid = jdbcTemplate.queryForObject("select i.indisvalid from pg_index i join pg_class c on c.oid = i.indexrelid " +
+                    "where c.relname = ? and pg_table_is_visible(c.oid)", Boolean.class, index.name);
+            assertThat(valid).as(index.name).isTrue();
+        }
+    }
+}
@@ -2,17 +2,34 @@ package org.avni.server.dao.search;
 
 import org.avni.server.dao.search.SqlQuery;
 import org.avni.server.dao.search.SubjectSearchQueryBuilder;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.security.UserContextHolder;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
-import org.avni.server.web.request.webapp.search.Concept;
-import org.avni.server.web.request.webapp.search.DateRange;
-import org.avni.server.web.request.webapp.search.IntegerRange;
+import org.avni.server.util.BadRequestError;
+import org.avni.server.web.request.webapp.search.*;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.sql.Date;
+import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class SubjectSearchQueryBuilderTest {
+    @Before
+    public void setup() {
+        Organisation organisation = new Organisation();
+        organisation.setId(1L);
+        UserContext userContext = new UserContext();
+        userContext.setOrganisation(organisation);
+        UserContextHolder.create(userContext);
+    }
+
+    @After
+    public void tearDown() {
+        UserContextHolder.clear();
+    }
 
     @Test
     public void shouldBuildBaseQueryWhenRunWithoutParameters() {
@@ -51,6 +68,20 @@ public class SubjectSearchQueryBuilderTest {
         assertThat(query.getParameters().values().contains("%tokens%")).isTrue();
         assertThat(query.getParameters().values().contains("%andAnother%")).isTrue();
         assertThat(query.getParameters().size()).isEqualTo(5);
+        assertThat(query.getSql()).contains(BaseSubjectSearchQueryBuilder.NAME_SEARCH_EXPRESSION + " ilike :subjectSearchToken2");
+    }
+
+    @Test
+    public void shouldSearchAllInTheSearchDocumentsOfSubjectsAndEnrolments() {
+        SqlQuery query = new SubjectSearchQueryBuilder()
+                .withSearchAll("fever")
+                .build();
+        assertThat(query.getSql()).contains("observations_search_document(si.observations) ilike :searchAll");
+        assertThat(query.getSql()).contains("observations_search_document(spenr.observations) ilike :searchAll");
+        assertThat(query.getSql()).doesNotContain("cast(i.observations as text)");
+        assertThat(query.getSql()).doesNotContain("distinct");
+        assertThat(query.getParameters().get("searchAll")).isEqualTo("%fever%");
+        assertThat(query.getParameters().get("searchAllOrganisationId")).isEqualTo(1L);
     }
 
     @Test
@@ -99,6 +130,20 @@ public class SubjectSearchQueryBuilderTest {
                 .withConceptsFilter(Arrays.asList(
                         new Concept[]{new Concept("uuid", "registration", "CODED", Arrays.asList(new String[]{"asdf", "qwer"}), null)}))
                 .build();
+        assertThat(query.getSql()).contains("i.observations @> cast(:codedConceptValue0000 as jsonb)");
+        assertThat(query.getSql()).contains("i.observations @> cast(:codedConceptValue0001Array as jsonb)");
+        assertThat(query.getParameters().get("codedConceptValue0000")).isEqualTo("{\"uuid\":\"asdf\"}");
+        assertThat(query.getParameters().get("codedConceptValue0001Array")).isEqualTo("{\"uuid\":[\"qwer\"]}");
+    }
+
+    @Test
+    public void shouldNarrowDownTextConceptsUsingTheSearchDocument() {
+        Concept concept = new Concept("uuid", "programEnrolment", "TEXT", null, "abc");
+        SqlQuery query = new SubjectSearchQueryBuilder()
+                .withConceptsFilter(Arrays.asList(concept))
+                .build();
+        assertThat(query.getSql()).contains("penr.observations->> :conceptUuid0 ilike :textValue0");
+        assertThat(query.getSql()).contains("observations_search_document(penr.observations) ilike :textValue0");
     }
 
     @Test
@@ -106,4 +151,108 @@ public class SubjectSearchQueryBuilderTest {
         SqlQuery query = new SubjectSearchQueryBuilder().forCount()
                 .build();
     }
+
+    @Test
+    public void shouldNotLeaveADanglingAndWithoutFilters() {
+        SqlQuery query = new SubjectSearchQueryBuilder().build();
+        assertThat(query.getSql()).contains("where i.organisation_id = 1\n");
+        assertThat(query.getSql()).doesNotContain("and \n");
+    }
+
+    @Test
+    public void shouldCountUpToTheCapOrEstimate() {
+        SqlQuery capped = new SubjectSearchQueryBuilder().withNameFilter("abc").forCount(CountMode.capped, 10000).build();
+        assertThat(capped.getSql()).startsWith("select count(*) from (").endsWith("limit :countCap) a");
+        assertThat(capped.getParameters().get("countCap")).isEqualTo(10001);
+        assertThat(capped.getParameters()).doesNotContainKeys("offset", "limit");
+
+        SqlQuery estimate = new SubjectSearchQueryBuilder().withNameFilter("abc").forCount(CountMode.estimate, 10000).build();
+        assertThat(estimate.getSql()).startsWith("explain (format json) select");
+        assertThat(estimate.getSql()).doesNotContain("count(*)");
+    }
+
+    @Test
+    public void shouldSeekPastTheCursorInsteadOfSkippingRows() {
+        PageDetails pageDetails = page("fullName", SortOrder.asc, 3);
+        pageDetails.setAfter(new SubjectSearchCursor("Ram Singh", 42).encode());
+        SqlQuery query = new SubjectSearchQueryBuilder().withPaginationFilters(pageDetails).build();
+
+        String fullName = "individual_full_name(i.first_name, i.middle_name, i.last_name)";
+        assertThat(query.getSql()).contains("and (" + fullName + ", i.id) > (cast(:afterSortValue as text), :afterId)");
+        assertThat(query.getSql()).contains("order by " + fullName + " asc, i.id asc");
+        assertThat(query.getParameters().get("offset")).isEqualTo(0);
+        assertThat(query.getParameters().get("afterSortValue")).isEqualTo("Ram Singh");
+        assertThat(query.getParameters().get("afterId")).isEqualTo(42L);
+
+        // select distinct can only order by what it selects
+        SqlQuery distinct = new SubjectSearchQueryBuilder().withProgramEnrolmentDateFilter(new DateRange("2020-01-01", null)).withPaginationFilters(pageDetails).build();
+        assertThat(distinct.getSql()).contains("select distinct").contains(fullName + " as \"fullName\"");
+
+        SqlQuery count = new SubjectSearchQueryBuilder().withPaginationFilters(pageDetails).forCount().build();
+        assertThat(count.getSql()).doesNotContain(":afterId");
+        assertThat(count.getParameters()).doesNotContainKeys("afterSortValue", "afterId");
+    }
+
+    @Test
+    public void shouldSeekPastNullsAndOnIdAlone() {
+        PageDetails descending = page("dateOfBirth", SortOrder.desc, 0);
+        descending.setAfter(new SubjectSearchCursor(null, 42).encode());
+        assertThat(new SubjectSearchQueryBuilder().withPaginationFilters(descending).build().getSql())
+                .contains("(i.date_of_birth is not null or i.id < :afterId)");
+
+        PageDetails ascending = page("dateOfBirth", SortOrder.asc, 0);
+        ascending.setAfter(new SubjectSearchCursor("1990-01-01", 42).encode());
+        assertThat(new SubjectSearchQueryBuilder().withPaginationFilters(ascending).build().getSql())
+                .contains("((i.date_of_birth, i.id) > (cast(:afterSortValue as date), :afterId) or i.date_of_birth is null)");
+        ascending.setAfter(new SubjectSearchCursor(null, 42).encode());
+        assertThat(new SubjectSearchQueryBuilder().withPaginationFilters(ascending).build().getSql())
+                .contains("(i.date_of_birth is null and i.id > :afterId)");
+
+        PageDetails descendingByName = page("fullName", SortOrder.desc, 0);
+        descendingByName.setAfter(new SubjectSearchCursor("Ram Singh", 42).encode());
+        assertThat(new SubjectSearchQueryBuilder().withPaginationFilters(descendingByName).build().getSql())
+                .contains("(individual_full_name(i.first_name, i.middle_name, i.last_name), i.id) < (cast(:afterSortValue as text), :afterId)")
+                .contains("i.last_name) desc, i.id desc");
+
+        PageDetails byId = page("id", SortOrder.asc, 0);
+        byId.setAfter(new SubjectSearchCursor("42", 42).encode());
+        assertThat(new SubjectSearchQueryBuilder().withPaginationFilters(byId).build().getSql()).contains("and i.id > :afterId");
+    }
+
+    @Test(expected = BadRequestError.class)
+    public void shouldRejectAnInvalidCursor() {
+        PageDetails pageDetails = page("fullName", SortOrder.asc, 0);
+        pageDetails.setAfter("not a cursor");
+        new SubjectSearchQueryBuilder().withPaginationFilters(pageDetails);
+    }
+
+    @Test
+    public void shouldReturnTheCursorOfTheLastResultOfAFullPage() {
+        PageDetails pageDetails = page("dateOfBirth", SortOrder.asc, 0);
+        pageDetails.setNumberOfRecordPerPage(2);
+        List<Map<String, Object>> results = Arrays.asList(result(1, Date.valueOf("1990-01-01")), result(2, Date.valueOf("1991-02-03")));
+
+        SubjectSearchCursor cursor = SubjectSearchCursor.decode(SubjectSearchQueryBuilder.getNextPageCursor(pageDetails, results));
+        assertThat(cursor.getSortValue()).isEqualTo("1991-02-03");
+        assertThat(cursor.getId()).isEqualTo(2);
+
+        assertThat(SubjectSearchQueryBuilder.getNextPageCursor(pageDetails, results.subList(0, 1))).isNull();
+        assertThat(SubjectSearchQueryBuilder.getNextPageCursor(page("title_lineage", SortOrder.asc, 0), results)).isNull();
+    }
+
+    private static PageDetails page(String sortColumn, SortOrder sortOrder, int pageNumber) {
+        PageDetails pageDetails = new PageDetails();
+        pageDetails.setSortColumn(sortColumn);
+        pageDetails.setSortOrder(sortOrder);
+        pageDetails.setNumberOfRecordPerPage(10);
+        pageDetails.setPageNumber(pageNumber);
+        return pageDetails;
+    }
+
+    private static Map<String, Object> result(int id, Date dateOfBirth) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("id", id);
+        result.put("dateOfBirth", dateOfBirth);
+        return result;
+    }
 }
@@ -0,0 +1,178 @@
+package org.avni.server.dao.sync;
+
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.dao.IndividualRepository;
+import org.avni.server.dao.OperatingIndividualScopeAwareRepository;
+import org.avni.server.dao.SubjectMigrationRepository;
+import org.avni.server.dao.SyncParameters;
+import org.avni.server.dao.individualRelationship.IndividualRelationRepository;
+import org.avni.server.dao.individualRelationship.IndividualRelationshipRepository;
+import org.avni.server.dao.individualRelationship.IndividualRelationshipTypeRepository;
+import org.avni.server.dao.program.SubjectProgramEligibilityRepository;
+import org.avni.server.domain.*;
+import org.avni.server.domain.factory.UserBuilder;
+import org.avni.server.domain.factory.metadata.ProgramBuilder;
+import org.avni.server.domain.factory.txn.SubjectBuilder;
+import org.avni.server.domain.individualRelationship.IndividualRelation;
+import org.avni.server.domain.individualRelationship.IndividualRelationship;
+import org.avni.server.domain.individualRelationship.IndividualRelationshipType;
+import org.avni.server.domain.metadata.SubjectTypeBuilder;
+import org.avni.server.domain.program.SubjectProgramEligibility;
+import org.avni.server.service.builder.TestDataSetupService;
+import org.avni.server.service.builder.TestProgramService;
+import org.avni.server.service.builder.TestSubjectService;
+import org.avni.server.service.builder.TestSubjectTypeService;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the sync queries of the repositories that filter by address with in_bigint_array, against a catchment much
+ * larger than the number of bind parameters an in clause could take.
+ */
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class CatchmentAddressSyncIntegrationTest extends AbstractControllerIntegrationTest {
+    private static final int LARGE_CATCHMENT_SIZE = 40000;
+
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private TestSubjectTypeService testSubjectTypeService;
+    @Autowired
+    private TestSubjectService testSubjectService;
+    @Autowired
+    private TestProgramService testProgramService;
+    @Autowired
+    private IndividualRepository individualRepository;
+    @Autowired
+    private SubjectMigrationRepository subjectMigrationRepository;
+    @Autowired
+    private IndividualRelationRepository individualRelationRepository;
+    @Autowired
+    private IndividualRelationshipTypeRepository individualRelationshipTypeRepository;
+    @Autowired
+    private IndividualRelationshipRepository individualRelationshipRepository;
+    @Autowired
+    private SubjectProgramEligibilityRepository subjectProgramEligibilityRepository;
+
+    private TestDataSetupService.TestCatchmentData catchmentData;
+    private SubjectType subjectType;
+    private CatchmentAddressIndex largeCatchment;
+    private Individual inCatchment1;
+    private Individual inCatchment2;
+    private Individual outsideCatchment;
+
+    @Before
+    public void setup() {
+        TestDataSetupService.TestOrganisationData organisationData = testDataSetupService.setupOrganisation();
+        catchmentData = testDataSetupService.setupACatchment();
+        userRepository.save(new UserBuilder(organisationData.getUser()).withCatchment(catchmentData.getCatchment()).withOperatingIndividualScope(OperatingIndividualScope.ByCatchment).build());
+        setUser(organisationData.getUser().getUsername());
+
+        subjectType = testSubjectTypeService.createWithDefaults(new SubjectTypeBuilder().setMandatoryFieldsForNewEntity().build());
+        inCatchment1 = saveSubject(catchmentData.getAddressLevel1());
+        inCatchment2 = saveSubject(catchmentData.getAddressLevel1());
+        outsideCatchment = saveSubject(catchmentData.getAddressLevel2());
+
+        long addressLevelInCatchment = catchmentData.getAddressLevel1().getId();
+        largeCatchment = CatchmentAddressIndex.of(LongStream.concat(LongStream.of(addressLevelInCatchment), LongStream.range(10_000_000, 10_000_000 + LARGE_CATCHMENT_SIZE)));
+    }
+
+    @Test
+    public void subjectsShouldBeFilteredByLargeCatchment() {
+        List<Individual> subjects = sync(individualRepository, SyncEntityName.Individual);
+
+        assertThat(subjects).containsExactlyInAnyOrder(inCatchment1, inCatchment2);
+    }
+
+    @Test
+    public void subjectMigrationsShouldBeFilteredByLargeCatchment() {
+        SubjectMigration intoCatchment = subjectMigrationRepository.save(migration(inCatchment1, catchmentData.getAddressLevel2(), catchmentData.getAddressLevel1()));
+        subjectMigrationRepository.save(migration(outsideCatchment, catchmentData.getAddressLevel2(), catchmentData.getAddressLevel2()));
+
+        List<SubjectMigration> migrations = sync(subjectMigrationRepository, SyncEntityName.SubjectMigration);
+
+        assertThat(migrations).containsExactly(intoCatchment);
+    }
+
+    @Test
+    public void relationshipsShouldBeFilteredByLargeCatchment() {
+        IndividualRelationshipType relationshipType = saveRelationshipType();
+        IndividualRelationship withinCatchment = individualRelationshipRepository.save(relationship(relationshipType, inCatchment1, inCatchment2));
+        individualRelationshipRepository.save(relationship(relationshipType, inCatchment1, outsideCatchment));
+
+        List<IndividualRelationship> relationships = sync(individualRelationshipRepository, SyncEntityName.IndividualRelationship);
+
+        assertThat(relationships).containsExactly(withinCatchment);
+    }
+
+    @Test
+    public void programEligibilitiesShouldBeFilteredByLargeCatchment() {
+        Program program = testProgramService.addProgram(new ProgramBuilder().withName("program").withUuid(UUID.randomUUID().toString()).build(), subjectType);
+        SubjectProgramEligibility inCatchment = subjectProgramEligibilityRepository.save(eligibility(program, inCatchment1));
+        subjectProgramEligibilityRepository.save(eligibility(program, outsideCatchment));
+
+        List<SubjectProgramEligibility> eligibilities = sync(subjectProgramEligibilityRepository, SyncEntityName.SubjectProgramEligibility);
+
+        assertThat(eligibilities).containsExactly(inCatchment);
+    }
+
+    private <T extends CHSEntity> List<T> sync(OperatingIndividualScopeAwareRepository<T> repository, SyncEntityName syncEntityName) {
+        SyncParameters syncParameters = new SyncParameters(DateTime.now().minusDays(1), DateTime.now().plusMinutes(1), subjectType.getId(), null,
+                PageRequest.of(0, 10), largeCatchment, subjectType, new JsonObject(), syncEntityName, catchmentData.getCatchment());
+        return repository.getSyncResults(syncParameters).getContent();
+    }
+
+    private Individual saveSubject(AddressLevel addressLevel) {
+        return testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withSubjectType(subjectType).withLocation(addressLevel).build());
+    }
+
+    private static SubjectMigration migration(Individual subject, AddressLevel oldAddressLevel, AddressLevel newAddressLevel) {
+        return new TestSubjectMigrationBuilder().setUuid(UUID.randomUUID().toString()).setIndividual(subject).setSubjectType(subject.getSubjectType())
+                .setOldAddressLevel(oldAddressLevel).setNewAddressLevel(newAddressLevel).build();
+    }
+
+    private IndividualRelationshipType saveRelationshipType() {
+        IndividualRelation relation = new IndividualRelation();
+        relation.setUuid(UUID.randomUUID().toString());
+        relation.setName("relation");
+        individualRelationRepository.save(relation);
+        IndividualRelationshipType relationshipType = new IndividualRelationshipType();
+        relationshipType.setUuid(UUID.randomUUID().toString());
+        relationshipType.setName("relation-relation");
+        relationshipType.setIndividualAIsToB(relation);
+        relationshipType.setIndividualBIsToA(relation);
+        return individualRelationshipTypeRepository.save(relationshipType);
+    }
+
+    private static IndividualRelationship relationship(IndividualRelationshipType relationshipType, Individual individualA, Individual individualB) {
+        IndividualRelationship relationship = new IndividualRelationship();
+        relationship.setUuid(UUID.randomUUID().toString());
+        relationship.setRelationship(relationshipType);
+        relationship.setIndividuala(individualA);
+        relationship.setIndividualB(individualB);
+        relationship.setEnterDateTime(DateTime.now());
+        return relationship;
+    }
+
+    private static SubjectProgramEligibility eligibility(Program program, Individual subject) {
+        SubjectProgramEligibility eligibility = new SubjectProgramEligibility();
+        eligibility.setUuid(UUID.randomUUID().toString());
+        eligibility.setProgram(program);
+        eligibility.setSubject(subject);
+        eligibility.setEligible(true);
+        eligibility.setCheckDate(DateTime.now());
+        eligibility.setObservations(new ObservationCollection());
+        return eligibility;
+    }
+}
@@ -0,0 +1,29 @@
+package org.avni.server.dao.sync;
+
+import org.avni.server.util.BadRequestError;
+import org.junit.Test;
+
+import java.sql.Timestamp;
+
+import static org.junit.Assert.assertEquals;
+
+public class SyncContinuationTokenTest {
+    @Test
+    public void shouldKeepSubMillisecondPrecisionAcrossEncoding() {
+        Timestamp timestamp = Timestamp.valueOf("2023-04-05 10:11:12.123456");
+        SyncContinuationToken token = SyncContinuationToken.decode(new SyncContinuationToken(timestamp, 42L).encode());
+        assertEquals(timestamp, token.getLastModifiedDateTime());
+        assertEquals(42L, token.getId());
+    }
+
+    @Test
+    public void shouldHandleDatesBeforeEpoch() {
+        Timestamp timestamp = Timestamp.valueOf("1900-01-01 00:00:00.5");
+        assertEquals(timestamp, SyncContinuationToken.decode(new SyncContinuationToken(timestamp, 1L).encode()).getLastModifiedDateTime());
+    }
+
+    @Test(expected = BadRequestError.class)
+    public void shouldRejectMalformedToken() {
+        SyncContinuationToken.decode("not-a-token");
+    }
+}
@@ -0,0 +1,41 @@
+package org.avni.server.dao.sync;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class SyncEntityChangeRepositoryTest {
+    @Test
+    public void queriesOnlyTableBackedEntitiesInOneQuery() {
+        NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        SyncEntityChangeRepository repository = new SyncEntityChangeRepository(jdbcTemplate);
+
+        repository.getLastModifiedDateTimes(Arrays.asList(SyncEntityName.Form, SyncEntityName.UserInfo, SyncEntityName.News));
+
+        ArgumentCaptor<String> query = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(1)).query(query.capture(), anyMap(), any(RowCallbackHandler.class));
+        assertThat(query.getValue()).contains("from form").contains("from users").doesNotContain("news").contains("union all");
+    }
+
+    @Test
+    public void doesNotQueryWhenNoEntityIsTableBacked() {
+        NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        SyncEntityChangeRepository repository = new SyncEntityChangeRepository(jdbcTemplate);
+
+        Map<SyncEntityName, ?> lastModifiedDateTimes = repository.getLastModifiedDateTimes(Collections.singletonList(SyncEntityName.Task));
+
+        assertThat(lastModifiedDateTimes).isEmpty();
+        verify(jdbcTemplate, never()).query(anyString(), anyMap(), any(RowCallbackHandler.class));
+    }
+}
@@ -0,0 +1,27 @@
+package org.avni.server.domain;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class CatchmentAddressIndexTest {
+    @Test
+    public void shouldKeepIdsSortedAndDistinct() {
+        CatchmentAddressIndex index = CatchmentAddressIndex.of(Arrays.asList(5L, 1L, 3L, 5L, null));
+
+        assertEquals(3, index.size());
+        assertEquals(Arrays.asList(1L, 3L, 5L), index.toList());
+        assertEquals("{1,3,5}", index.toSqlArray());
+        assertTrue(index.contains(3L));
+        assertFalse(index.contains(4L));
+    }
+
+    @Test
+    public void emptyIndex() {
+        assertTrue(CatchmentAddressIndex.EMPTY.isEmpty());
+        assertEquals("{}", CatchmentAddressIndex.EMPTY.toSqlArray());
+        assertFalse(CatchmentAddressIndex.EMPTY.contains(1L));
+    }
+}
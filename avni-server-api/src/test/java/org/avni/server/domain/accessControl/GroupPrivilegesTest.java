@@ -0,0 +1,41 @@
+package org.avni.server.domain.accessControl;
+
+import org.avni.server.domain.EncounterType;
+import org.avni.server.domain.Program;
+import org.avni.server.domain.SubjectType;
+import org.avni.server.domain.factory.access.TestGroupPrivilegeBuilder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GroupPrivilegesTest {
+    @Test
+    public void hasPrivilegeMatchesOnTypeAndEntities() {
+        SubjectType subjectType = new SubjectType();
+        subjectType.setId(1001L);
+        Program program = new Program();
+        program.setId(1002L);
+        EncounterType encounterType = new EncounterType();
+        encounterType.setId(1003L);
+
+        GroupPrivileges groupPrivileges = new GroupPrivileges(false,
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewSubject)).setSubjectType(subjectType).build(),
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewVisit)).setSubjectType(subjectType).setProgram(program).setProgramEncounterType(encounterType).build());
+
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewSubject, subjectType, null, null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.EditSubject, subjectType, null, null, null));
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewVisit, subjectType, program, encounterType, null));
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewVisit, subjectType, program, null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.ViewVisit, subjectType, null, encounterType, null));
+        assertTrue(new GroupPrivileges().hasPrivilege(PrivilegeType.EditSubject, subjectType, null, null, null));
+    }
+
+    private static Privilege privilege(PrivilegeType privilegeType) {
+        Privilege privilege = mock(Privilege.class);
+        when(privilege.getType()).thenReturn(privilegeType);
+        return privilege;
+    }
+}
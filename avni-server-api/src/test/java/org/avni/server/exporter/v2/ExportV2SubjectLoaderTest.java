@@ -0,0 +1,60 @@
+package org.avni.server.exporter.v2;
+
+import org.avni.server.dao.IndividualRepository;
+import org.avni.server.dao.ProgramEnrolmentRepository;
+import org.avni.server.web.external.request.export.ExportOutput;
+import org.avni.server.web.request.ExportOutputBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class ExportV2SubjectLoaderTest {
+    @Mock
+    private IndividualRepository individualRepository;
+    @Mock
+    private ProgramEnrolmentRepository programEnrolmentRepository;
+    private ExportV2SubjectLoader exportV2SubjectLoader;
+    private final List<Long> ids = Arrays.asList(1L, 2L, 3L);
+
+    @Before
+    public void setup() {
+        initMocks(this);
+        exportV2SubjectLoader = new ExportV2SubjectLoader(individualRepository, programEnrolmentRepository);
+    }
+
+    @Test
+    public void shouldFetchOnlyCollectionsOfExportedEntityTypes() {
+        ExportOutput exportOutput = new ExportOutputBuilder().build();
+        exportOutput.setPrograms(Collections.emptyList());
+        exportOutput.setGroups(Collections.emptyList());
+
+        exportV2SubjectLoader.load(ids, exportOutput);
+
+        verify(individualRepository).findAllByIdInWithEncounters(ids);
+        verify(individualRepository, never()).findAllByIdInWithProgramEnrolments(any());
+        verify(individualRepository, never()).findAllByIdInWithMemberGroupSubjects(any());
+        verifyZeroInteractions(programEnrolmentRepository);
+    }
+
+    @Test
+    public void shouldFetchProgramAndGroupCollectionsOfTheWholePartitionTogether() {
+        ExportOutput exportOutput = new ExportOutputBuilder().build();
+        exportOutput.setPrograms(Collections.singletonList(new ExportOutput.ExportNestedOutput()));
+        exportOutput.setGroups(Collections.singletonList(new ExportOutput.ExportNestedOutput()));
+
+        exportV2SubjectLoader.load(ids, exportOutput);
+
+        verify(individualRepository).findAllByIdInWithProgramEnrolments(ids);
+        verify(programEnrolmentRepository).findAllByIndividualIdInWithProgramEncounters(ids);
+        verify(individualRepository).findAllByIdInWithMemberGroupSubjects(ids);
+        verify(individualRepository).findAllGroupSubjectsOfMembersWithEncounters(ids);
+    }
+}
@@ -0,0 +1,89 @@
+package org.avni.server.exporter.v2;
+
+import org.avni.server.domain.Individual;
+import org.avni.server.framework.security.AuthService;
+import org.avni.server.service.ExportS3Service;
+import org.avni.server.web.external.request.export.ExportOutput;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class LongitudinalExportV2TaskletImplTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    @Mock
+    private ExportV2CSVFieldExtractor exportV2CSVFieldExtractor;
+    @Mock
+    private ExportV2SubjectLoader exportV2SubjectLoader;
+    @Mock
+    private ExportS3Service exportS3Service;
+    @Mock
+    private AuthService authService;
+    private ExportV2Processor exportV2Processor;
+    private File exportFile;
+
+    @Before
+    public void setup() throws Exception {
+        initMocks(this);
+        exportFile = temporaryFolder.newFile();
+        when(exportS3Service.getLocalExportFile("job")).thenReturn(exportFile);
+        when(exportV2CSVFieldExtractor.getExportOutput()).thenReturn(new ExportOutput());
+        when(exportV2CSVFieldExtractor.extract(any())).thenAnswer(invocation -> new Object[]{((LongitudinalExportItemRow) invocation.getArgument(0)).getIndividual().getId()});
+        exportV2Processor = spy(new ExportV2Processor(null, null));
+    }
+
+    @Test
+    public void shouldExportPartitionsInParallelAndWriteThemInOrder() throws Exception {
+        CountDownLatch firstTwoPartitions = new CountDownLatch(2);
+        Set<String> loadingThreads = ConcurrentHashMap.newKeySet();
+        List<Boolean> overlapped = Collections.synchronizedList(new ArrayList<>());
+        when(exportV2SubjectLoader.load(any(), any())).thenAnswer(invocation -> {
+            loadingThreads.add(Thread.currentThread().getName());
+            firstTwoPartitions.countDown();
+            overlapped.add(firstTwoPartitions.await(5, TimeUnit.SECONDS));
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(LongitudinalExportV2TaskletImplTest::subject).collect(Collectors.toList());
+        });
+        List<Long> ids = Arrays.asList(1L, 2L, 3L, 4L, 5L);
+        LongitudinalExportV2TaskletImpl tasklet = new LongitudinalExportV2TaskletImpl(2, 2, exportV2CSVFieldExtractor, exportV2Processor, exportV2SubjectLoader,
+                exportS3Service, authService, new TransactionTemplate(mock(PlatformTransactionManager.class)), "job", 1L, "org", ids);
+
+        tasklet.execute(null, new ChunkContext(new StepContext(new StepExecution("exportV2Step", new JobExecution(1L)))));
+        tasklet.clean();
+
+        assertTrue(overlapped.stream().allMatch(Boolean::booleanValue));
+        assertEquals(2, loadingThreads.size());
+        verify(exportV2Processor, times(3)).copy();
+        verify(exportV2Processor, never()).process(any());
+        List<String> lines = Files.readAllLines(exportFile.toPath()).stream().filter(line -> !line.isEmpty()).collect(Collectors.toList());
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5"), lines);
+    }
+
+    private static Individual subject(Long id) {
+        Individual individual = new Individual();
+        individual.setId(id);
+        return individual;
+    }
+}
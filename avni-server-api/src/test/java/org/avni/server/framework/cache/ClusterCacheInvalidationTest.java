@@ -0,0 +1,56 @@
+package org.avni.server.framework.cache;
+
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ClusterCacheInvalidationTest {
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("addresses", "contacts");
+    private final ClusterCacheInvalidation clusterCacheInvalidation = new ClusterCacheInvalidation(cacheManager, null, null, null, false, 1000);
+
+    @Test
+    public void shouldClearOnlyTheNamedCaches() {
+        cacheManager.getCache("addresses").put("catchment", "addresses");
+        cacheManager.getCache("contacts").put("phone", "contact");
+
+        clusterCacheInvalidation.invalidate("addresses");
+
+        assertNull(cacheManager.getCache("addresses").get("catchment"));
+        assertEquals("contact", cacheManager.getCache("contacts").get("phone").get());
+    }
+
+    @Test
+    public void shouldClearCachesNamedByOtherInstances() {
+        cacheManager.getCache("addresses").put("catchment", "addresses");
+        cacheManager.getCache("contacts").put("phone", "contact");
+
+        clusterCacheInvalidation.onNotification("other-instance:addresses,contacts");
+
+        assertNull(cacheManager.getCache("addresses").get("catchment"));
+        assertNull(cacheManager.getCache("contacts").get("phone"));
+    }
+
+    @Test
+    public void shouldClearLocalCachesNamedByOtherInstances() {
+        AtomicInteger cleared = new AtomicInteger();
+        clusterCacheInvalidation.registerLocalCache("userContexts", cleared::incrementAndGet);
+
+        clusterCacheInvalidation.onNotification("other-instance:userContexts");
+
+        assertEquals(1, cleared.get());
+        assertNull(cacheManager.getCache("userContexts"));
+    }
+
+    @Test
+    public void shouldIgnoreMalformedNotifications() {
+        cacheManager.getCache("addresses").put("catchment", "addresses");
+
+        clusterCacheInvalidation.onNotification("addresses");
+
+        assertEquals("addresses", cacheManager.getCache("addresses").get("catchment").get());
+    }
+}
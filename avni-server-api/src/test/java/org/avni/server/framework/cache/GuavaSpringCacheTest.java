@@ -0,0 +1,42 @@
+package org.avni.server.framework.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class GuavaSpringCacheTest {
+    private final Cache<Object, Object> nativeCache = CacheBuilder.newBuilder().recordStats().build();
+    private final GuavaSpringCache cache = new GuavaSpringCache("addresses", nativeCache, false);
+
+    @Test
+    public void shouldCountHitsAndMisses() {
+        assertNull(cache.get("catchment"));
+        cache.put("catchment", "addresses");
+        assertEquals("addresses", cache.get("catchment").get());
+        assertEquals("addresses", cache.get("catchment", String.class));
+
+        assertEquals(2, nativeCache.stats().hitCount());
+        assertEquals(1, nativeCache.stats().missCount());
+    }
+
+    @Test
+    public void shouldLoadOnlyMissingValues() {
+        assertEquals("loaded", cache.get("catchment", () -> "loaded"));
+        assertEquals("loaded", cache.get("catchment", () -> "loaded again"));
+    }
+
+    @Test
+    public void shouldEvictAndClear() {
+        cache.put("first", "1");
+        cache.put("second", "2");
+        cache.evict("first");
+        assertNull(cache.get("first"));
+        assertEquals("2", cache.get("second").get());
+
+        cache.clear();
+        assertNull(cache.get("second"));
+    }
+}
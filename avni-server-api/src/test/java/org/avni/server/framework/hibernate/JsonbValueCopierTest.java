@@ -0,0 +1,62 @@
+package org.avni.server.framework.hibernate;
+
+import org.avni.server.application.KeyValue;
+import org.avni.server.application.KeyValues;
+import org.avni.server.domain.ObservationCollection;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonbValueCopierTest {
+    @Test
+    public void shouldCopyContainersAndShareImmutableLeaves() {
+        ObservationCollection observations = new ObservationCollection();
+        String text = "some text";
+        DateTime dateTime = DateTime.now();
+        List<Object> codedAnswers = new ArrayList<>(Arrays.asList("a", "b"));
+        Map<String, Object> questionGroup = new LinkedHashMap<>();
+        questionGroup.put("q1", 10);
+        observations.put("text", text);
+        observations.put("dateTime", dateTime);
+        observations.put("coded", codedAnswers);
+        observations.put("group", questionGroup);
+        observations.put("date", new Date());
+
+        ObservationCollection copy = (ObservationCollection) new ObservationCollectionUserType().deepCopy(observations);
+
+        assertThat(copy).isEqualTo(observations);
+        assertThat(copy).isNotSameAs(observations);
+        assertThat(copy.get("text")).isSameAs(text);
+        assertThat(copy.get("dateTime")).isSameAs(dateTime);
+        assertThat(copy.get("coded")).isNotSameAs(codedAnswers);
+        assertThat(copy.get("group")).isNotSameAs(questionGroup);
+        assertThat(copy.get("date")).isNotSameAs(observations.get("date"));
+
+        codedAnswers.add("c");
+        questionGroup.put("q2", 20);
+        assertThat(copy).isNotEqualTo(observations);
+    }
+
+    @Test
+    public void shouldFallBackToSerializationForOtherTypes() {
+        List<String> fixedSizeList = Arrays.asList("a", "b");
+        Object copy = JsonbValueCopier.copy(fixedSizeList);
+        assertThat(copy).isEqualTo(fixedSizeList);
+        assertThat(copy).isNotSameAs(fixedSizeList);
+    }
+
+    @Test
+    public void shouldCopyKeyValues() {
+        KeyValues keyValues = new KeyValues();
+        keyValues.add(new KeyValue("key", new ArrayList<>(Collections.singletonList("value"))));
+
+        KeyValues copy = (KeyValues) new KeyValuesUserType().deepCopy(keyValues);
+
+        assertThat(copy).isEqualTo(keyValues);
+        assertThat(copy.get(0)).isNotSameAs(keyValues.get(0));
+        assertThat(copy.get(0).getValue()).isNotSameAs(keyValues.get(0).getValue());
+    }
+}
@@ -0,0 +1,57 @@
+package org.avni.server.framework.hibernate;
+
+import org.avni.server.domain.Concept;
+import org.avni.server.framework.ApplicationContextProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class UpdateOrganisationHibernateInterceptorTest {
+    private final UpdateOrganisationHibernateInterceptor interceptor = new UpdateOrganisationHibernateInterceptor();
+    private ApplicationContext applicationContext;
+
+    @Before
+    public void setup() {
+        applicationContext = mock(ApplicationContext.class);
+        new ApplicationContextProvider().setApplicationContext(applicationContext);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @After
+    public void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+        new ApplicationContextProvider().setApplicationContext(null);
+    }
+
+    @Test
+    public void shouldPublishMetadataChangeOnceTheTransactionCommits() {
+        interceptor.onDelete(new Concept(), 1L, null, null, null);
+        interceptor.onDelete(new Concept(), 2L, null, null, null);
+
+        verify(applicationContext, never()).publishEvent(any(Object.class));
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(applicationContext, times(1)).publishEvent(any(MetadataChangedEvent.class));
+    }
+
+    @Test
+    public void shouldNotPublishMetadataChangeWhenTheTransactionRollsBack() {
+        interceptor.onDelete(new Concept(), 1L, null, null, null);
+
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(applicationContext, never()).publishEvent(any(Object.class));
+    }
+
+    private static void completeTransaction(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.avni.server.framework.security;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkProvider;
+import com.auth0.jwk.SigningKeyNotFoundException;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class RefreshingJwkProviderTest {
+    @Test
+    public void fetchesKeyOnlyOnce() throws Exception {
+        JwkProvider urlProvider = mock(JwkProvider.class);
+        Jwk jwk = mock(Jwk.class);
+        when(urlProvider.get("kid1")).thenReturn(jwk);
+        RefreshingJwkProvider provider = new RefreshingJwkProvider(urlProvider, 1, 2, TimeUnit.HOURS, MoreExecutors.directExecutor());
+
+        assertThat(provider.get("kid1")).isSameAs(jwk);
+        assertThat(provider.get("kid1")).isSameAs(jwk);
+        verify(urlProvider, times(1)).get("kid1");
+    }
+
+    @Test
+    public void passesNullKeyIdThrough() throws Exception {
+        JwkProvider urlProvider = mock(JwkProvider.class);
+        Jwk jwk = mock(Jwk.class);
+        when(urlProvider.get(null)).thenReturn(jwk);
+        RefreshingJwkProvider provider = new RefreshingJwkProvider(urlProvider, 1, 2, TimeUnit.HOURS, MoreExecutors.directExecutor());
+
+        assertThat(provider.get(null)).isSameAs(jwk);
+    }
+
+    @Test(expected = SigningKeyNotFoundException.class)
+    public void rethrowsMissingKey() throws Exception {
+        JwkProvider urlProvider = mock(JwkProvider.class);
+        when(urlProvider.get("kid1")).thenThrow(new SigningKeyNotFoundException("not found", null));
+        RefreshingJwkProvider provider = new RefreshingJwkProvider(urlProvider, 1, 2, TimeUnit.HOURS, MoreExecutors.directExecutor());
+
+        provider.get("kid1");
+    }
+}
@@ -0,0 +1,35 @@
+package org.avni.server.framework.security;
+
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VerifiedTokenCacheTest {
+    @Test
+    public void returnsUserOfVerifiedToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, 60);
+        cache.put("token1", 5L, new Date(System.currentTimeMillis() + 60000));
+        assertThat(cache.get("token1").getUserId()).isEqualTo(5L);
+        assertThat(cache.get("token2")).isNull();
+        assertThat(cache.getCache().stats().hitCount()).isEqualTo(1);
+        assertThat(cache.getCache().stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void doesNotReturnExpiredToken() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, 60);
+        cache.put("token1", 5L, new Date(System.currentTimeMillis() + 50));
+        Thread.sleep(100);
+        assertThat(cache.get("token1")).isNull();
+    }
+
+    @Test
+    public void doesNotCacheTokenWithoutExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, 60);
+        cache.put("token1", 5L, null);
+        cache.put("token2", 5L, new Date(System.currentTimeMillis() - 1000));
+        assertThat(cache.getCache().size()).isEqualTo(0);
+    }
+}
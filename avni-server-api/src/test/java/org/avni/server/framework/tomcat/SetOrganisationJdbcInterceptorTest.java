@@ -0,0 +1,111 @@
+package org.avni.server.framework.tomcat;
+
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.security.UserContextHolder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SetOrganisationJdbcInterceptorTest {
+    private static final String LOGIN_ROLE = "avni_server";
+
+    private List<String> executed;
+    private SetOrganisationJdbcInterceptor interceptor;
+
+    @Before
+    public void setup() {
+        executed = new ArrayList<>();
+        interceptor = new SetOrganisationJdbcInterceptor();
+    }
+
+    @After
+    public void tearDown() {
+        UserContextHolder.clear();
+    }
+
+    @Test
+    public void shouldSetRoleOnlyWhenItDiffersFromTheConnectionsRole() {
+        Connection connection = connection();
+        inOrganisation("org_a");
+        interceptor.setRole(connection);
+        interceptor.setRole(connection);
+        assertEquals(1, Collections.frequency(executed, "set role \"org_a\";"));
+
+        inOrganisation("org_b");
+        interceptor.setRole(connection);
+        assertEquals(1, Collections.frequency(executed, "set role \"org_b\";"));
+
+        UserContextHolder.clear();
+        interceptor.setRole(connection);
+        interceptor.setRole(connection);
+        assertEquals(1, Collections.frequency(executed, "RESET ROLE"));
+    }
+
+    @Test
+    public void shouldSetRoleAgainAfterApplicationChangedIt() throws SQLException {
+        Connection connection = connection();
+        inOrganisation("org_a");
+        interceptor.setRole(connection);
+        connection.createStatement().execute("RESET ROLE");
+
+        interceptor.setRole(connection);
+        assertEquals(2, Collections.frequency(executed, "set role \"org_a\";"));
+    }
+
+    @Test
+    public void shouldSetRoleOnNewConnection() {
+        inOrganisation("org_a");
+        interceptor.setRole(connection());
+
+        interceptor.setRole(connection());
+        assertEquals(2, Collections.frequency(executed, "set role \"org_a\";"));
+    }
+
+    /**
+     * Connection that only knows its current role, as changed by set role and reset role
+     */
+    private Connection connection() {
+        String[] currentRole = {LOGIN_ROLE};
+        ResultSet roles = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ResultSet.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "next":
+                    return true;
+                case "getString":
+                    return (int) args[0] == 1 ? currentRole[0] : LOGIN_ROLE;
+                default:
+                    return null;
+            }
+        });
+        Statement statement = (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Statement.class}, (proxy, method, args) -> {
+            if ("executeQuery".equals(method.getName())) return roles;
+            if (!"execute".equals(method.getName())) return null;
+            String sql = (String) args[0];
+            executed.add(sql);
+            if (sql.equals("RESET ROLE")) currentRole[0] = LOGIN_ROLE;
+            if (sql.startsWith("set role")) currentRole[0] = sql.substring("set role \"".length(), sql.lastIndexOf('"'));
+            return false;
+        });
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class}, (proxy, method, args) ->
+                "createStatement".equals(method.getName()) ? statement : null);
+    }
+
+    private void inOrganisation(String dbUser) {
+        Organisation organisation = new Organisation();
+        organisation.setDbUser(dbUser);
+        UserContext userContext = new UserContext();
+        userContext.setOrganisation(organisation);
+        UserContextHolder.create(userContext);
+    }
+}
@@ -0,0 +1,102 @@
+package org.avni.server.importer.batch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.job.SimpleJob;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BackgroundJobLauncherTest {
+    private BackgroundJobLauncher launcher;
+    private final CountDownLatch blocker = new CountDownLatch(1);
+    private final List<String> started = Collections.synchronizedList(new ArrayList<>());
+
+    @After
+    public void tearDown() {
+        blocker.countDown();
+        launcher.shutdown();
+    }
+
+    @Test
+    public void shouldStartQueuedJobsInOrderOfPriority() throws InterruptedException {
+        launcher = launcher(1, 1, 10);
+        launcher.submit(this::block, "orgX", BackgroundJobLauncher.Priority.Upload);
+        CountDownLatch done = new CountDownLatch(3);
+        launcher.submit(record("export", done), "orgA", BackgroundJobLauncher.Priority.Export);
+        launcher.submit(record("upload", done), "orgB", BackgroundJobLauncher.Priority.Upload);
+        launcher.submit(record("smallUpload", done), "orgC", BackgroundJobLauncher.Priority.SmallUpload);
+        assertEquals(3, launcher.getQueuedCount());
+
+        blocker.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("smallUpload", "upload", "export"), started);
+    }
+
+    @Test
+    public void shouldNotLetAnOrganisationHoldUpOthers() throws InterruptedException {
+        launcher = launcher(2, 1, 10);
+        launcher.submit(this::block, "orgA", BackgroundJobLauncher.Priority.Export);
+        CountDownLatch sameOrganisationDone = new CountDownLatch(1);
+        CountDownLatch otherOrganisationDone = new CountDownLatch(1);
+        launcher.submit(record("orgA", sameOrganisationDone), "orgA", BackgroundJobLauncher.Priority.SmallUpload);
+        launcher.submit(record("orgB", otherOrganisationDone), "orgB", BackgroundJobLauncher.Priority.Upload);
+
+        assertTrue(otherOrganisationDone.await(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("orgB"), started);
+        assertEquals(1, launcher.getQueuedCount());
+
+        blocker.countDown();
+        assertTrue(sameOrganisationDone.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("orgB", "orgA"), started);
+    }
+
+    @Test(expected = TaskRejectedException.class)
+    public void shouldRejectJobsBeyondQueueCapacity() {
+        launcher = launcher(1, 1, 1);
+        launcher.submit(this::block, "orgA", BackgroundJobLauncher.Priority.Upload);
+        launcher.submit(() -> {}, "orgB", BackgroundJobLauncher.Priority.Upload);
+        launcher.submit(() -> {}, "orgC", BackgroundJobLauncher.Priority.Upload);
+    }
+
+    @Test
+    public void shouldPrioritiseSmallUploadsOverOtherUploadsAndExports() {
+        launcher = launcher(1, 1, 10);
+        assertEquals(BackgroundJobLauncher.Priority.SmallUpload, launcher.getPriority(new SimpleJob("importJob"), lines(100L)));
+        assertEquals(BackgroundJobLauncher.Priority.Upload, launcher.getPriority(new SimpleJob("importJob"), lines(5000L)));
+        assertEquals(BackgroundJobLauncher.Priority.Export, launcher.getPriority(new SimpleJob("exportVisitJob"), new JobParameters()));
+    }
+
+    private BackgroundJobLauncher launcher(int parallelism, int maxConcurrentPerOrganisation, int queueCapacity) {
+        return new BackgroundJobLauncher(null, parallelism, maxConcurrentPerOrganisation, queueCapacity, 1000, new SimpleMeterRegistry());
+    }
+
+    private JobParameters lines(long noOfLines) {
+        return new JobParametersBuilder().addLong("noOfLines", noOfLines).toJobParameters();
+    }
+
+    private void block() {
+        try {
+            blocker.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Runnable record(String name, CountDownLatch done) {
+        return () -> {
+            started.add(name);
+            done.countDown();
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package org.avni.server.importer.batch.csv;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ChunkLookupCacheTest {
+    private final ChunkLookupCache chunkLookupCache = new ChunkLookupCache();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(chunkLookupCache);
+    }
+
+    @Test
+    public void shouldNotRememberLookupsOutsideATransaction() {
+        lookup("Individual");
+        lookup("Individual");
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldRememberLookupsUntilTheTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals("Individual", lookup("Individual"));
+        assertEquals("Individual", lookup("Individual"));
+        assertEquals("Household", lookup("Household"));
+        assertNull(chunkLookupCache.get(() -> load(null), "subjectType", "Unknown"));
+        assertNull(chunkLookupCache.get(() -> load(null), "subjectType", "Unknown"));
+        assertEquals(3, loads.get());
+
+        complete();
+        TransactionSynchronizationManager.initSynchronization();
+        lookup("Individual");
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void shouldNotShareLookupsWithATransactionStartedWhileSuspended() {
+        TransactionSynchronizationManager.initSynchronization();
+        lookup("Individual");
+
+        List<TransactionSynchronization> suspended = TransactionSynchronizationManager.getSynchronizations();
+        suspended.forEach(TransactionSynchronization::suspend);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        lookup("Individual");
+        assertEquals(2, loads.get());
+        complete();
+
+        TransactionSynchronizationManager.initSynchronization();
+        suspended.forEach(synchronization -> {
+            synchronization.resume();
+            TransactionSynchronizationManager.registerSynchronization(synchronization);
+        });
+        lookup("Individual");
+        assertEquals(2, loads.get());
+    }
+
+    private String lookup(String name) {
+        return chunkLookupCache.get(() -> load(name), "subjectType", name);
+    }
+
+    private String load(String name) {
+        loads.incrementAndGet();
+        return name;
+    }
+
+    private void complete() {
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
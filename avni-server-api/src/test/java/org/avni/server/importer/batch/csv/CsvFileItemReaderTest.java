@@ -0,0 +1,66 @@
+package org.avni.server.importer.batch.csv;
+
+import org.avni.server.importer.batch.model.Row;
+import org.avni.server.service.S3Service;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class CsvFileItemReaderTest {
+    private static final String CSV = "Name,Age\nA,1\nB,2\nC,3\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    @Mock
+    private S3Service s3Service;
+    private File localFile;
+
+    @Before
+    public void setup() {
+        initMocks(this);
+        when(s3Service.getObjectContent("key")).thenAnswer(invocation -> new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)));
+        localFile = new File(temporaryFolder.getRoot(), "upload.csv");
+    }
+
+    @Test
+    public void shouldReadRowsWithHeadersAndDeleteLocalCopyOnClose() throws Exception {
+        CsvFileItemReader reader = new CsvFileItemReader(s3Service, "key", localFile);
+        reader.open(new ExecutionContext());
+
+        Row first = reader.read();
+        assertArrayEquals(new String[]{"Name", "Age"}, first.getHeaders());
+        assertEquals("A", first.get("Name"));
+        assertEquals("B", reader.read().get("Name"));
+        assertEquals("C", reader.read().get("Name"));
+        assertNull(reader.read());
+
+        reader.close();
+        assertFalse(localFile.exists());
+    }
+
+    @Test
+    public void shouldResumeAfterRowsAlreadyReadOnRestart() throws Exception {
+        ExecutionContext executionContext = new ExecutionContext();
+        CsvFileItemReader reader = new CsvFileItemReader(s3Service, "key", localFile);
+        reader.open(executionContext);
+        reader.read();
+        reader.update(executionContext);
+        reader.close();
+
+        CsvFileItemReader restarted = new CsvFileItemReader(s3Service, "key", localFile);
+        restarted.open(executionContext);
+        assertEquals("B", restarted.read().get("Name"));
+        restarted.close();
+    }
+}
@@ -5,6 +5,7 @@ import org.avni.server.domain.AddressLevel;
 import org.avni.server.domain.AddressLevelType;
 import org.avni.server.domain.AddressLevelTypes;
 import org.avni.server.domain.factory.AddressLevelBuilder;
+import org.avni.server.importer.batch.csv.ChunkLookupCache;
 import org.avni.server.importer.batch.model.Row;
 import org.junit.Before;
 import org.junit.Test;
@@ -43,7 +44,7 @@ public class AddressLevelCreatorTest {
 
         when(locationRepository.findByTitleAndType(eq("gp1"), eq(child), any())).thenReturn(Collections.singletonList(gp1AddressLevel));
 
-        AddressLevel addressLevel = new AddressLevelCreator(locationRepository).findAddressLevel(row, new AddressLevelTypes(child, parent));
+        AddressLevel addressLevel = new AddressLevelCreator(locationRepository, new ChunkLookupCache()).findAddressLevel(row, new AddressLevelTypes(child, parent));
         assertThat(addressLevel).isEqualTo(gp1AddressLevel);
 
         verify(locationRepository).findByTitleAndType(eq("gp1"), eq(child), any());
@@ -56,7 +57,7 @@ public class AddressLevelCreatorTest {
         AddressLevel gp1AddressLevel = new AddressLevelBuilder().title("gp1").type(child).build();
 
         when(locationRepository.findByTitleAndType(eq("gp1"), eq(child), any())).thenReturn(Collections.singletonList(gp1AddressLevel));
-        new AddressLevelCreator(locationRepository).findAddressLevel(row, new AddressLevelTypes(child, parent));
+        new AddressLevelCreator(locationRepository, new ChunkLookupCache()).findAddressLevel(row, new AddressLevelTypes(child, parent));
     }
 
     @Test
@@ -70,7 +71,7 @@ public class AddressLevelCreatorTest {
         when(locationRepository.findByTitleAndType(eq("child"), eq(child), any())).thenReturn(asList(aChild, anotherChild));
         when(locationRepository.findByTitleLineageIgnoreCase("aParent, child")).thenReturn(Optional.of(aChild));
 
-        AddressLevel addressLevel = new AddressLevelCreator(locationRepository).findAddressLevel(row, new AddressLevelTypes(child, parent));
+        AddressLevel addressLevel = new AddressLevelCreator(locationRepository, new ChunkLookupCache()).findAddressLevel(row, new AddressLevelTypes(child, parent));
         assertThat(addressLevel).isEqualTo(aChild);
 
         verify(locationRepository).findByTitleAndType(eq("child"), eq(child), any());
@@ -9,6 +9,7 @@ import org.avni.server.dao.LocationRepository;
 import org.avni.server.domain.AddressLevelType;
 import org.avni.server.domain.Catchment;
 import org.avni.server.domain.SubjectType;
+import org.avni.server.framework.cache.ClusterCacheInvalidation;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -47,7 +48,7 @@ public class AddressLevelServiceTest {
         when(addressLevelTypeRepository.findAllByUuidIn(singletonList("second-address-level-type-uuid")))
                 .thenReturn(singletonList(createAddressLevelType(2L)));
 
-        AddressLevelCache addressLevelCache = new AddressLevelCache(locationRepository);
+        AddressLevelCache addressLevelCache = new AddressLevelCache(locationRepository, mock(ClusterCacheInvalidation.class));
         AddressLevelService addressLevelService = new AddressLevelService(locationRepository, addressLevelTypeRepository, organisationConfigService, addressLevelCache);
 
         Catchment catchment = new Catchment();
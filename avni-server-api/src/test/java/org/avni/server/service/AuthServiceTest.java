@@ -4,6 +4,8 @@ import com.auth0.jwk.SigningKeyNotFoundException;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.exceptions.TokenExpiredException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.avni.server.config.AuthCacheConfig;
 import org.avni.server.config.IdpType;
 import org.avni.server.dao.AccountAdminRepository;
 import org.avni.server.dao.OrganisationRepository;
@@ -13,10 +15,12 @@ import org.avni.server.domain.Organisation;
 import org.avni.server.domain.User;
 import org.avni.server.domain.UserContext;
 import org.avni.server.domain.accessControl.AvniNoUserSessionException;
+import org.avni.server.framework.cache.ClusterCacheInvalidation;
 import org.avni.server.framework.security.AuthService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,6 +32,8 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -44,6 +50,8 @@ public class AuthServiceTest {
     private AccountAdminRepository accountAdminRepository;
     @Mock
     private UserService userService;
+    @Mock
+    private AuthCacheConfig authCacheConfig;
     private User user;
     private AuthService authService;
     private AccountAdmin accountAdmin;
@@ -51,8 +59,7 @@ public class AuthServiceTest {
     @Before
     public void setup() {
         initMocks(this);
-        authService = new AuthService(userRepository, organisationRepository, accountAdminRepository,
-                new IdpServiceFactory(organisationRepository, null, null, cognitoAuthService, keycloakAuthService, IdpType.cognito, null), userService);
+        authService = createAuthService();
         String uuid = "9ecc2805-6528-47ee-8267-9368b266ad39";
         user = new User();
         user.setUuid(uuid);
@@ -61,6 +68,12 @@ public class AuthServiceTest {
         accountAdmin.setUser(user);
     }
 
+    private AuthService createAuthService() {
+        return new AuthService(userRepository, organisationRepository, accountAdminRepository,
+                new IdpServiceFactory(organisationRepository, null, null, cognitoAuthService, keycloakAuthService, IdpType.cognito, null), userService,
+                authCacheConfig, new SimpleMeterRegistry(), new ClusterCacheInvalidation(new ConcurrentMapCacheManager(), null, null, null, false, 1000));
+    }
+
     @Test (expected = AvniNoUserSessionException.class)
     public void shouldThrowExceptionIfUserNotFound() throws SigningKeyNotFoundException {
         when(cognitoAuthService.getUserFromToken("some token")).thenReturn(null);
@@ -128,4 +141,28 @@ public class AuthServiceTest {
         assertThat(userContext.getUser(), is(equalTo(user)));
         assertThat(userContext.getOrganisation(), is(equalTo(organisation)));
     }
+
+    @Test
+    public void shouldReuseUserContextUntilItChanges() throws SigningKeyNotFoundException {
+        when(authCacheConfig.getUserContextMaxEntries()).thenReturn(10L);
+        when(authCacheConfig.getUserContextTtlSeconds()).thenReturn(60L);
+        authService = createAuthService();
+        user.setId(100L);
+        Organisation organisation = new Organisation();
+        when(organisationRepository.findOne(1L)).thenReturn(organisation);
+        when(cognitoAuthService.getUserFromToken("some token")).thenReturn(user);
+
+        authService.authenticateByToken("some token", null);
+        when(userService.isAdmin(any())).thenReturn(true);
+        UserContext userContext = authService.authenticateByToken("some token", null);
+        assertThat(userContext.getOrganisation(), is(equalTo(organisation)));
+        assertThat(userContext.getRoles(), contains(User.USER));
+        verify(organisationRepository, times(1)).findOne(1L);
+        verify(userService, times(1)).isAdmin(user);
+
+        authService.userContextChanged();
+        userContext = authService.authenticateByToken("some token", null);
+        assertThat(userContext.getRoles().size(), is(equalTo(0)));
+        verify(organisationRepository, times(2)).findOne(1L);
+    }
 }
@@ -0,0 +1,184 @@
+package org.avni.server.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.avni.server.dao.ConceptRepository;
+import org.avni.server.domain.Concept;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.cache.ClusterCacheInvalidation;
+import org.avni.server.framework.security.UserContextHolder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ConceptDictionaryServiceTest {
+    private final ConceptRepository conceptRepository = mock(ConceptRepository.class);
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Map<String, Object>> conceptRows = new ArrayList<>();
+    private final List<Map<String, Object>> answerRows = new ArrayList<>();
+    private ConceptDictionaryService conceptDictionaryService;
+
+    @Before
+    public void setup() throws SQLException {
+        conceptDictionaryService = new ConceptDictionaryService(conceptRepository, jdbcTemplate, meterRegistry, new ClusterCacheInvalidation(new ConcurrentMapCacheManager(), null, null, null, false, 1000), 60, 1, 3600);
+        when(conceptRepository.buildOrganisationIdList()).thenReturn(Arrays.asList(1L, 2L));
+        doAnswer(invocation -> play(conceptRows, invocation.getArgument(2)))
+                .when(jdbcTemplate).query(startsWith("select c.id"), anyMap(), any(RowCallbackHandler.class));
+        doAnswer(invocation -> play(answerRows, invocation.getArgument(2)))
+                .when(jdbcTemplate).query(startsWith("select ca.concept_id"), anyMap(), any(RowCallbackHandler.class));
+
+        UserContext userContext = new UserContext();
+        userContext.setOrganisation(organisation(1L));
+        UserContextHolder.create(userContext);
+    }
+
+    @After
+    public void tearDown() {
+        UserContextHolder.clear();
+    }
+
+    @Test
+    public void shouldLookUpConceptsAndAnswersWithoutQueryingForEach() throws SQLException {
+        conceptRows.add(concept(10, "coded-uuid", "Coded", "Coded", 1, 1000));
+        conceptRows.add(concept(11, "yes-uuid", "Yes", "NA", 2, 1000));
+        conceptRows.add(concept(12, "no-uuid", "No", "NA", 2, 1000));
+        answerRows.add(answer(10, "no-uuid", 1000));
+        answerRows.add(answer(10, "yes-uuid", 1000));
+        Concept coded = new Concept();
+        when(conceptRepository.findOne(10L)).thenReturn(coded);
+
+        ConceptDictionary.Entry entry = conceptDictionaryService.findEntryByName("Coded");
+        assertEquals("coded-uuid", entry.getUuid());
+        assertEquals("Coded", entry.getDataType());
+        assertEquals(Arrays.asList("No", "Yes"), names(conceptDictionaryService.getDictionary().getAnswers(entry)));
+        assertEquals("Yes", conceptDictionaryService.findEntryByUuid("yes-uuid").getName());
+        assertSame(coded, conceptDictionaryService.findByUuid("coded-uuid"));
+
+        verify(jdbcTemplate, times(2)).query(anyString(), anyMap(), any(RowCallbackHandler.class));
+        verify(conceptRepository, never()).findByName(anyString());
+        verify(conceptRepository, never()).findByUuid(anyString());
+        assertEquals(3, meterRegistry.get("avni.conceptDictionary.concepts").gauge().value(), 0);
+        assertTrue(meterRegistry.get("avni.conceptDictionary.bytes").gauge().value() > 0);
+        assertEquals(3, meterRegistry.get("avni.conceptDictionary.lookups").tag("outcome", "hit").timer().count());
+    }
+
+    @Test
+    public void shouldMergeOnlyTheChangedConceptsAfterMetadataChanges() throws SQLException {
+        conceptRows.add(concept(10, "coded-uuid", "Coded", "Coded", 1, 1000));
+        conceptRows.add(concept(11, "yes-uuid", "Yes", "NA", 1, 1000));
+        answerRows.add(answer(10, "yes-uuid", 1000));
+        assertEquals("coded-uuid", conceptDictionaryService.findEntryByName("Coded").getUuid());
+
+        conceptRows.clear();
+        answerRows.clear();
+        conceptRows.add(concept(10, "coded-uuid", "Renamed", "Coded", 1, 5000));
+        conceptDictionaryService.metadataChanged();
+
+        ConceptDictionary.Entry renamed = conceptDictionaryService.findEntryByName("Renamed");
+        assertEquals("coded-uuid", renamed.getUuid());
+        assertEquals(Collections.singletonList("yes-uuid"), renamed.getAnswerUUIDs());
+        assertEquals("Yes", conceptDictionaryService.findEntryByUuid("yes-uuid").getName());
+        assertNull(conceptDictionaryService.findEntryByName("Coded"));
+        assertEquals(5000, conceptDictionaryService.getDictionary().getVersion());
+        assertEquals(1, meterRegistry.get("avni.conceptDictionary.loads").tag("type", "incremental").timer().count());
+    }
+
+    @Test
+    public void shouldPreferConceptsOfTheOrganisationOverThoseOfItsParent() throws SQLException {
+        conceptRows.add(concept(10, "own-uuid", "Weight", "Numeric", 1, 1000));
+        conceptRows.add(concept(20, "parent-uuid", "Weight", "Numeric", 2, 1000));
+
+        assertEquals("own-uuid", conceptDictionaryService.findEntryByName("Weight").getUuid());
+        assertEquals("parent-uuid", conceptDictionaryService.findEntryByUuid("parent-uuid").getUuid());
+    }
+
+    @Test
+    public void shouldLookUpInTheDatabaseWhatIsNotInTheDictionary() {
+        Concept concept = new Concept();
+        concept.setUuid("new-uuid");
+        concept.setName("New");
+        concept.setDataType("Text");
+        when(conceptRepository.findByName("New")).thenReturn(concept);
+
+        assertEquals("new-uuid", conceptDictionaryService.findEntryByName("New").getUuid());
+        assertSame(concept, conceptDictionaryService.findByName("New"));
+        assertEquals(2, meterRegistry.get("avni.conceptDictionary.lookups").tag("outcome", "miss").timer().count());
+
+        UserContextHolder.clear();
+        assertSame(concept, conceptDictionaryService.findByName("New"));
+        assertNull(conceptDictionaryService.getDictionary());
+    }
+
+    @Test
+    public void shouldKeepDictionariesOfABoundedNumberOfOrganisations() {
+        conceptRows.add(concept(10, "weight-uuid", "Weight", "Numeric", 1, 1000));
+        assertEquals("weight-uuid", conceptDictionaryService.findEntryByName("Weight").getUuid());
+
+        UserContextHolder.getUserContext().setOrganisation(organisation(2L));
+        conceptDictionaryService.findEntryByName("Weight");
+        UserContextHolder.getUserContext().setOrganisation(organisation(1L));
+        conceptDictionaryService.findEntryByName("Weight");
+
+        assertEquals(3, meterRegistry.get("avni.conceptDictionary.loads").tag("type", "full").timer().count());
+    }
+
+    private static Organisation organisation(long id) {
+        Organisation organisation = new Organisation();
+        organisation.setId(id);
+        return organisation;
+    }
+
+    private static List<String> names(List<ConceptDictionary.Entry> entries) {
+        List<String> names = new ArrayList<>();
+        entries.forEach(entry -> names.add(entry.getName()));
+        return names;
+    }
+
+    private static Object play(List<Map<String, Object>> rows, RowCallbackHandler handler) throws SQLException {
+        for (Map<String, Object> row : rows) {
+            ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class[]{ResultSet.class}, (proxy, method, args) -> {
+                Object value = row.get((String) args[0]);
+                if (method.getName().equals("getLong")) return ((Number) value).longValue();
+                if (method.getName().equals("getBoolean")) return Boolean.TRUE.equals(value);
+                return value;
+            });
+            handler.processRow(resultSet);
+        }
+        return null;
+    }
+
+    private static Map<String, Object> concept(long id, String uuid, String name, String dataType, long organisationId, long lastModified) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("uuid", uuid);
+        row.put("name", name);
+        row.put("data_type", dataType);
+        row.put("is_voided", false);
+        row.put("organisation_id", organisationId);
+        row.put("last_modified_date_time", new Timestamp(lastModified));
+        return row;
+    }
+
+    private static Map<String, Object> answer(long conceptId, String answerUUID, long lastModified) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("concept_id", conceptId);
+        row.put("answer_uuid", answerUUID);
+        row.put("is_voided", false);
+        row.put("last_modified_date_time", new Timestamp(lastModified));
+        return row;
+    }
+}
@@ -0,0 +1,78 @@
+package org.avni.server.service;
+
+import org.avni.server.application.Form;
+import org.avni.server.dao.sync.SyncEntityChangeRepository;
+import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.domain.Individual;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.User;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.cache.ClusterCacheInvalidation;
+import org.avni.server.framework.security.UserContextHolder;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class MetadataChangeWatermarkServiceTest {
+    private SyncEntityChangeRepository syncEntityChangeRepository;
+    private MetadataChangeWatermarkService service;
+    private final DateTime formModified = new DateTime(2023, 1, 1, 0, 0);
+
+    @Before
+    public void setup() {
+        UserContext context = new UserContext();
+        Organisation organisation = new Organisation();
+        organisation.setId(1L);
+        context.setOrganisation(organisation);
+        context.setUser(new User());
+        UserContextHolder.create(context);
+
+        syncEntityChangeRepository = mock(SyncEntityChangeRepository.class);
+        when(syncEntityChangeRepository.getLastModifiedDateTimes(anyCollection())).then(invocation -> {
+            Collection<SyncEntityName> names = invocation.getArgument(0);
+            Map<SyncEntityName, DateTime> result = new EnumMap<>(SyncEntityName.class);
+            names.forEach(name -> result.put(name, name == SyncEntityName.Form ? formModified : null));
+            return result;
+        });
+        service = new MetadataChangeWatermarkService(syncEntityChangeRepository, new ClusterCacheInvalidation(new ConcurrentMapCacheManager(), null, null, null, false, 1000), 60);
+    }
+
+    @After
+    public void teardown() {
+        UserContextHolder.clear();
+    }
+
+    @Test
+    public void servesMetadataWatermarksFromMemory() {
+        List<SyncEntityName> names = Arrays.asList(SyncEntityName.Form, SyncEntityName.Concept);
+        service.getLastModifiedDateTimes(names);
+        Map<SyncEntityName, DateTime> lastModifiedDateTimes = service.getLastModifiedDateTimes(names);
+
+        assertThat(lastModifiedDateTimes).containsEntry(SyncEntityName.Form, formModified).containsEntry(SyncEntityName.Concept, null);
+        verify(syncEntityChangeRepository, times(1)).getLastModifiedDateTimes(argThat(arg -> arg.contains(SyncEntityName.Form)));
+    }
+
+    @Test
+    public void reloadsWatermarksAfterMetadataChange() {
+        List<SyncEntityName> names = Collections.singletonList(SyncEntityName.Form);
+        service.getLastModifiedDateTimes(names);
+        service.metadataChanged();
+        service.getLastModifiedDateTimes(names);
+
+        verify(syncEntityChangeRepository, times(2)).getLastModifiedDateTimes(argThat(arg -> arg.contains(SyncEntityName.Form)));
+    }
+
+    @Test
+    public void identifiesMetadataEntities() {
+        assertThat(MetadataChangeWatermarkService.isMetadataEntity(new Form())).isTrue();
+        assertThat(MetadataChangeWatermarkService.isMetadataEntity(new Individual())).isFalse();
+    }
+}
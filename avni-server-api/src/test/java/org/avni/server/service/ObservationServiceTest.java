@@ -1,5 +1,6 @@
 package org.avni.server.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.avni.server.application.*;
 import org.avni.server.dao.ConceptRepository;
 import org.avni.server.dao.IndividualRepository;
@@ -11,11 +12,13 @@ import org.avni.server.domain.ConceptDataType;
 import org.avni.server.domain.ObservationCollection;
 import org.avni.server.domain.factory.metadata.ConceptBuilder;
 import org.avni.server.domain.factory.metadata.TestFormBuilder;
+import org.avni.server.framework.cache.ClusterCacheInvalidation;
 import org.avni.server.web.external.request.export.ExportFilters;
 import org.avni.server.web.request.ObservationRequest;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 import java.util.*;
@@ -45,7 +48,8 @@ public class ObservationServiceTest {
     @Before
     public void setup() {
         initMocks(this);
-        observationService = new ObservationService(conceptRepository, individualRepository, locationRepository, namedParameterJdbcTemplate, Optional.of(enhancedValidationService));
+        observationService = new ObservationService(conceptRepository, individualRepository, locationRepository, namedParameterJdbcTemplate, Optional.of(enhancedValidationService),
+                new ConceptDictionaryService(conceptRepository, namedParameterJdbcTemplate, new SimpleMeterRegistry(), new ClusterCacheInvalidation(new ConcurrentMapCacheManager(), null, null, null, false, 1000), 60, 10, 3600));
     }
 
     @Test
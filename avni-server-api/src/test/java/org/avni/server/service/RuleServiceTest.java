@@ -0,0 +1,74 @@
+package org.avni.server.service;
+
+import org.avni.server.dao.*;
+import org.avni.server.dao.application.FormRepository;
+import org.avni.server.dao.individualRelationship.RuleFailureLogRepository;
+import org.avni.server.domain.Individual;
+import org.avni.server.domain.Program;
+import org.avni.server.domain.ProgramEnrolment;
+import org.avni.server.domain.SubjectType;
+import org.avni.server.web.external.RuleServiceClient;
+import org.avni.server.web.request.rules.RulesContractWrapper.IndividualContract;
+import org.avni.server.web.request.rules.constructWrappers.*;
+import org.avni.server.web.request.rules.response.RuleResponseEntity;
+import org.avni.server.web.request.rules.validateRules.RuleValidationService;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class RuleServiceTest {
+    private RuleServiceClient restClient;
+    private RuleServiceEntityContractBuilder ruleServiceEntityContractBuilder;
+    private RuleService ruleService;
+    private Individual individual;
+
+    @Before
+    public void setup() {
+        restClient = mock(RuleServiceClient.class);
+        ruleServiceEntityContractBuilder = mock(RuleServiceEntityContractBuilder.class);
+        ruleService = new RuleService(mock(RuleDependencyRepository.class), mock(RuleRepository.class), mock(FormRepository.class), mock(ProgramRepository.class),
+                mock(EncounterTypeRepository.class), restClient, mock(IndividualConstructionService.class), mock(RuleValidationService.class),
+                mock(ProgramEncounterConstructionService.class), mock(ProgramEnrolmentConstructionService.class), mock(RuleFailureLogRepository.class),
+                mock(ObservationService.class), mock(IndividualContractBuilderServices.class), mock(EntityRetrieverService.class), mock(IndividualService.class),
+                ruleServiceEntityContractBuilder, mock(UserRepository.class), mock(OrganisationRepository.class), mock(SummaryRuleResultCache.class));
+        when(ruleServiceEntityContractBuilder.toContract(any(Individual.class))).thenReturn(new IndividualContract());
+        individual = new Individual();
+        individual.setUuid("subject-uuid");
+        individual.setSubjectType(new SubjectType());
+    }
+
+    @Test
+    public void shouldAnswerSummaryWithoutRuleWithoutCallingTheRuleServer() throws Exception {
+        RuleResponseEntity ruleResponseEntity = ruleService.executeSubjectSummaryRule(individual);
+
+        assertEquals("success", ruleResponseEntity.getStatus());
+        assertEquals(0, ruleResponseEntity.getSummaries().size());
+        verifyZeroInteractions(restClient, ruleServiceEntityContractBuilder);
+    }
+
+    @Test
+    public void shouldAnswerProgramSummaryWithoutRuleWithoutCallingTheRuleServer() throws Exception {
+        ProgramEnrolment programEnrolment = new ProgramEnrolment();
+        programEnrolment.setProgram(new Program());
+
+        RuleResponseEntity ruleResponseEntity = ruleService.executeProgramSummaryRule(programEnrolment);
+
+        assertEquals("success", ruleResponseEntity.getStatus());
+        verifyZeroInteractions(restClient, ruleServiceEntityContractBuilder);
+    }
+
+    @Test
+    public void shouldSendSummaryRuleWithCodeToTheRuleServer() throws Exception {
+        individual.getSubjectType().setSubjectSummaryRule("rule");
+        when(restClient.post(eq(RuleService.API_SUMMARY_RULE), any())).thenReturn("{\"status\": \"success\", \"summaries\": []}");
+
+        RuleResponseEntity ruleResponseEntity = ruleService.executeSubjectSummaryRule(individual);
+
+        assertEquals("success", ruleResponseEntity.getStatus());
+        verify(restClient).post(eq(RuleService.API_SUMMARY_RULE), any());
+    }
+}
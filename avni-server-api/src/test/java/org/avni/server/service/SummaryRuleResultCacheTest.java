@@ -0,0 +1,85 @@
+package org.avni.server.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.avni.server.dao.IndividualRepository;
+import org.avni.server.dao.ProgramEnrolmentRepository;
+import org.avni.server.domain.Individual;
+import org.avni.server.domain.ProgramEnrolment;
+import org.avni.server.web.request.rules.response.RuleResponseEntity;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SummaryRuleResultCacheTest {
+    private final IndividualRepository individualRepository = mock(IndividualRepository.class);
+    private final ProgramEnrolmentRepository programEnrolmentRepository = mock(ProgramEnrolmentRepository.class);
+    private SummaryRuleResultCache summaryRuleResultCache;
+    private Individual individual;
+
+    @Before
+    public void setup() {
+        summaryRuleResultCache = new SummaryRuleResultCache(individualRepository, programEnrolmentRepository, new SimpleMeterRegistry(), 100, 600);
+        individual = new Individual();
+        individual.setId(1L);
+        individual.setUuid("subject-uuid");
+    }
+
+    @Test
+    public void shouldReturnResultUntilTheSubjectOrItsChildrenChange() {
+        when(individualRepository.getLastModifiedDateTimeIncludingChildren(1L)).thenReturn(new Date(1000));
+        RuleResponseEntity result = success();
+        summaryRuleResultCache.put(summaryRuleResultCache.getKey(individual, "rule"), result);
+
+        assertSame(result, summaryRuleResultCache.get(summaryRuleResultCache.getKey(individual, "rule")));
+
+        when(individualRepository.getLastModifiedDateTimeIncludingChildren(1L)).thenReturn(new Date(2000));
+        assertNull(summaryRuleResultCache.get(summaryRuleResultCache.getKey(individual, "rule")));
+    }
+
+    @Test
+    public void shouldNotReturnResultOfAnotherRule() {
+        when(individualRepository.getLastModifiedDateTimeIncludingChildren(1L)).thenReturn(new Date(1000));
+        summaryRuleResultCache.put(summaryRuleResultCache.getKey(individual, "rule"), success());
+
+        assertNull(summaryRuleResultCache.get(summaryRuleResultCache.getKey(individual, "changed rule")));
+    }
+
+    @Test
+    public void shouldNotKeepFailures() {
+        when(individualRepository.getLastModifiedDateTimeIncludingChildren(1L)).thenReturn(new Date(1000));
+        RuleResponseEntity failure = new RuleResponseEntity();
+        failure.setStatus("failure");
+        summaryRuleResultCache.put(summaryRuleResultCache.getKey(individual, "rule"), failure);
+
+        assertNull(summaryRuleResultCache.get(summaryRuleResultCache.getKey(individual, "rule")));
+    }
+
+    @Test
+    public void shouldMissProgramSummaryWhenTheSubjectChanges() {
+        ProgramEnrolment programEnrolment = new ProgramEnrolment();
+        programEnrolment.setId(2L);
+        programEnrolment.setUuid("enrolment-uuid");
+        programEnrolment.setIndividual(individual);
+        when(programEnrolmentRepository.getLastModifiedDateTimeIncludingChildren(2L)).thenReturn(new Date(1000));
+        when(individualRepository.getLastModifiedDateTimeIncludingChildren(1L)).thenReturn(new Date(500));
+        RuleResponseEntity result = success();
+        summaryRuleResultCache.put(summaryRuleResultCache.getKey(programEnrolment, "rule"), result);
+
+        assertSame(result, summaryRuleResultCache.get(summaryRuleResultCache.getKey(programEnrolment, "rule")));
+
+        when(individualRepository.getLastModifiedDateTimeIncludingChildren(1L)).thenReturn(new Date(1500));
+        assertNull(summaryRuleResultCache.get(summaryRuleResultCache.getKey(programEnrolment, "rule")));
+    }
+
+    private static RuleResponseEntity success() {
+        RuleResponseEntity ruleResponseEntity = new RuleResponseEntity();
+        ruleResponseEntity.setStatus("success");
+        return ruleResponseEntity;
+    }
+}
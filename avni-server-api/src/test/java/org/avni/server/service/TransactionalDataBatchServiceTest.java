@@ -0,0 +1,147 @@
+package org.avni.server.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.avni.server.dao.IndividualRepository;
+import org.avni.server.dao.LocationRepository;
+import org.avni.server.dao.ProgramEnrolmentRepository;
+import org.avni.server.dao.SubjectTypeRepository;
+import org.avni.server.domain.Individual;
+import org.avni.server.web.request.EncounterRequest;
+import org.avni.server.web.request.IndividualRequest;
+import org.avni.server.web.request.TransactionalDataBatchItem;
+import org.avni.server.web.response.TransactionalDataBatchItemResponse;
+import org.hibernate.Session;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class TransactionalDataBatchServiceTest {
+    private IndividualService individualService;
+    private EncounterService encounterService;
+    private IndividualRepository individualRepository;
+    private PlatformTransactionManager transactionManager;
+    private TransactionalDataBatchService batchService;
+
+    @Before
+    public void setup() {
+        individualService = mock(IndividualService.class);
+        encounterService = mock(EncounterService.class);
+        individualRepository = mock(IndividualRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        when(individualService.saveIndividual(any(IndividualRequest.class), any(), any())).thenAnswer(invocation -> individual(((IndividualRequest) invocation.getArgument(0)).getUuid()));
+        batchService = new TransactionalDataBatchService(individualService, mock(ProgramEnrolmentService.class), encounterService, mock(ProgramEncounterService.class),
+                individualRepository, mock(ProgramEnrolmentRepository.class), mock(SubjectTypeRepository.class), mock(LocationRepository.class), entityManager, transactionManager, 3);
+    }
+
+    @Test
+    public void shouldReadEntitiesByTheirType() throws Exception {
+        List<TransactionalDataBatchItem> items = new ObjectMapper().readValue("[{\"entityType\": \"Individual\", \"entity\": {\"uuid\": \"i1\"}}, {\"entityType\": \"Encounter\", \"entity\": {\"uuid\": \"e1\", \"individualUUID\": \"i1\"}}]",
+                new TypeReference<List<TransactionalDataBatchItem>>() {});
+
+        assertTrue(items.get(0).getEntity() instanceof IndividualRequest);
+        assertEquals("Encounter", items.get(1).getEntityType());
+        assertEquals("i1", ((EncounterRequest) items.get(1).getEntity()).getIndividualUUID());
+    }
+
+    @Test
+    public void shouldReportEntitiesWithMissingParentWithoutSavingThem() {
+        when(individualRepository.findAllByUuidIn(any())).thenReturn(Collections.emptyList());
+
+        List<TransactionalDataBatchItemResponse> responses = batchService.save(Collections.singletonList(encounter("e1", "i1")));
+
+        assertFalse(responses.get(0).isSuccess());
+        assertEquals("Individual not found with UUID 'i1'", responses.get(0).getErrorMessage());
+        verifyZeroInteractions(encounterService);
+    }
+
+    @Test
+    public void shouldLookUpParentsOfChunkOnce() {
+        when(individualRepository.findAllByUuidIn(any())).thenReturn(Arrays.asList(individual("i1"), individual("i2")));
+
+        List<TransactionalDataBatchItemResponse> responses = batchService.save(Arrays.asList(encounter("e1", "i1"), encounter("e2", "i2"), encounter("e3", "i1")));
+
+        assertTrue(responses.stream().allMatch(TransactionalDataBatchItemResponse::isSuccess));
+        verify(individualRepository, times(1)).findAllByUuidIn(any());
+        verify(individualRepository, never()).findByUuid(any());
+    }
+
+    @Test
+    public void shouldSaveOnlyTheEntitiesBeforeTheFailingOneAgain() {
+        TransactionalDataBatchItem individual = subject("i1");
+        TransactionalDataBatchItem failingEncounter = encounter("e1", "i1");
+        TransactionalDataBatchItem lastIndividual = subject("i2");
+        when(encounterService.saveEncounter(eq((EncounterRequest) failingEncounter.getEntity()), any())).thenThrow(new IllegalStateException("failed"));
+
+        List<TransactionalDataBatchItemResponse> responses = batchService.save(Arrays.asList(individual, failingEncounter, lastIndividual));
+
+        assertTrue(responses.get(0).isSuccess());
+        assertFalse(responses.get(1).isSuccess());
+        assertEquals("failed", responses.get(1).getErrorMessage());
+        assertTrue(responses.get(2).isSuccess());
+        verify(individualService, times(2)).saveIndividual(eq((IndividualRequest) individual.getEntity()), any(), any());
+        verify(encounterService, times(1)).saveEncounter(any(EncounterRequest.class), any());
+        verify(individualService, times(1)).saveIndividual(eq((IndividualRequest) lastIndividual.getEntity()), any(), any());
+    }
+
+    @Test
+    public void shouldSaveChunkInHalvesWhenItsCommitFails() {
+        doThrow(new IllegalStateException("commit failed")).doNothing().when(transactionManager).commit(any());
+
+        List<TransactionalDataBatchItemResponse> responses = batchService.save(Arrays.asList(subject("i1"), subject("i2")));
+
+        assertTrue(responses.stream().allMatch(TransactionalDataBatchItemResponse::isSuccess));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    public void shouldSaveChunkInHalvesWhenTheDatabaseFailsWhileSavingAnEntity() {
+        TransactionalDataBatchItem individual = subject("i1");
+        TransactionalDataBatchItem failingEncounter = encounter("e1", "i1");
+        when(individualRepository.findAllByUuidIn(any())).thenReturn(Collections.singletonList(individual("i1")));
+        when(encounterService.saveEncounter(eq((EncounterRequest) failingEncounter.getEntity()), any())).thenThrow(new DataIntegrityViolationException("violated"));
+
+        List<TransactionalDataBatchItemResponse> responses = batchService.save(Arrays.asList(individual, failingEncounter));
+
+        assertTrue(responses.get(0).isSuccess());
+        assertFalse(responses.get(1).isSuccess());
+        verify(individualService, times(2)).saveIndividual(eq((IndividualRequest) individual.getEntity()), any(), any());
+        verify(encounterService, times(2)).saveEncounter(any(EncounterRequest.class), any());
+    }
+
+    private static Individual individual(String uuid) {
+        Individual individual = new Individual();
+        individual.setUuid(uuid);
+        return individual;
+    }
+
+    private static TransactionalDataBatchItem subject(String uuid) {
+        IndividualRequest request = new IndividualRequest();
+        request.setUuid(uuid);
+        TransactionalDataBatchItem item = new TransactionalDataBatchItem();
+        item.setEntity(request);
+        return item;
+    }
+
+    private static TransactionalDataBatchItem encounter(String uuid, String individualUUID) {
+        EncounterRequest request = new EncounterRequest();
+        request.setUuid(uuid);
+        request.setIndividualUUID(individualUUID);
+        TransactionalDataBatchItem item = new TransactionalDataBatchItem();
+        item.setEntity(request);
+        return item;
+    }
+}
@@ -84,7 +84,7 @@ public class UserSubjectAssignmentServiceTest {
         when(groupSubjectRepository.findAllByGroupSubjectAndIsVoidedFalse(group)).thenReturn(Collections.singletonList(new TestGroupSubjectBuilder().setId(1l).withGroup(group)
                 .withMember(new SubjectBuilder().setId(2).withLocation(addressLevelWithinCatchment).withSubjectType(new SubjectTypeBuilder().setGroup(false).build()).setId(2).build()).build()));
         when(groupPrivilegeService.getGroupPrivileges()).thenReturn(new GroupPrivileges(false));
-        when(addressLevelService.getAllRegistrationAddressIdsBySubjectType(any(), any())).thenReturn(catchment.getAddressLevels().stream().map(AddressLevel::getId).collect(Collectors.toList()));
+        when(addressLevelService.getRegistrationAddressIndexBySubjectType(any(), any())).thenReturn(CatchmentAddressIndex.of(catchment.getAddressLevels().stream().map(AddressLevel::getId).collect(Collectors.toList())));
 
 
         userSubjectAssignmentService.assignSubjects(userSubjectAssignmentContract);
@@ -103,7 +103,7 @@ public class UserSubjectAssignmentServiceTest {
         when(groupSubjectRepository.findAllByGroupSubjectAndIsVoidedFalse(group)).thenReturn(Collections.singletonList(new TestGroupSubjectBuilder().setId(1l).withGroup(group)
                 .withMember(new SubjectBuilder().setId(2).withLocation(addressLevelWithinCatchment).withSubjectType(new SubjectTypeBuilder().setGroup(false).build()).setId(2).build()).build()));
         when(groupPrivilegeService.getGroupPrivileges()).thenReturn(new GroupPrivileges(false));
-        when(addressLevelService.getAllRegistrationAddressIdsBySubjectType(any(), any())).thenReturn(catchment.getAddressLevels().stream().map(AddressLevel::getId).collect(Collectors.toList()));
+        when(addressLevelService.getRegistrationAddressIndexBySubjectType(any(), any())).thenReturn(CatchmentAddressIndex.of(catchment.getAddressLevels().stream().map(AddressLevel::getId).collect(Collectors.toList())));
 
         userSubjectAssignmentService.assignSubjects(userSubjectAssignmentContract);
     }
@@ -117,7 +117,7 @@ public class UserSubjectAssignmentServiceTest {
         when(groupSubjectRepository.findAllByGroupSubjectAndIsVoidedFalse(group)).thenReturn(Collections.singletonList(new TestGroupSubjectBuilder().setId(1l).withGroup(group)
                 .withMember(new SubjectBuilder().setId(2).withLocation(addressLevelOutsideCatchment).withSubjectType(new SubjectTypeBuilder().setGroup(false).build()).setId(2).build()).build()));
         when(groupPrivilegeService.getGroupPrivileges()).thenReturn(new GroupPrivileges(false));
-        when(addressLevelService.getAllRegistrationAddressIdsBySubjectType(any(), any())).thenReturn(catchment.getAddressLevels().stream().map(AddressLevel::getId).collect(Collectors.toList()));
+        when(addressLevelService.getRegistrationAddressIndexBySubjectType(any(), any())).thenReturn(CatchmentAddressIndex.of(catchment.getAddressLevels().stream().map(AddressLevel::getId).collect(Collectors.toList())));
 
         userSubjectAssignmentService.assignSubjects(userSubjectAssignmentContract);
         verify(userSubjectAssignmentRepository, times(2)).save(userSubjectAssignmentCaptor.capture());
@@ -136,7 +136,7 @@ public class UserSubjectAssignmentServiceTest {
         when(groupSubjectRepository.findAllByGroupSubjectAndIsVoidedFalse(group)).thenReturn(Collections.singletonList(new TestGroupSubjectBuilder().setId(1l).withGroup(group)
                 .withMember(new SubjectBuilder().setId(2).withLocation(addressLevelOutsideCatchment).withSubjectType(new SubjectTypeBuilder().setGroup(false).build()).setId(2).build()).build()));
         when(groupPrivilegeService.getGroupPrivileges()).thenReturn(new GroupPrivileges(false));
-        when(addressLevelService.getAllRegistrationAddressIdsBySubjectType(any(), any())).thenReturn(catchment.getAddressLevels().stream().map(AddressLevel::getId).collect(Collectors.toList()));
+        when(addressLevelService.getRegistrationAddressIndexBySubjectType(any(), any())).thenReturn(CatchmentAddressIndex.of(catchment.getAddressLevels().stream().map(AddressLevel::getId).collect(Collectors.toList())));
 
         userSubjectAssignmentService.assignSubjects(userSubjectAssignmentContract);
         verify(userSubjectAssignmentRepository, times(1)).save(userSubjectAssignmentCaptor.capture());
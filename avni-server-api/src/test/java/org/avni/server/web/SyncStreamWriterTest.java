@@ -0,0 +1,47 @@
+package org.avni.server.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.avni.server.domain.Gender;
+import org.avni.server.domain.User;
+import org.junit.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.persistence.EntityManager;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class SyncStreamWriterTest {
+    @Test
+    public void shouldWriteOneEntityPerLineWithItsFields() throws Exception {
+        EntityManager entityManager = mock(EntityManager.class);
+        SyncStreamWriter syncStreamWriter = new SyncStreamWriter(new Jackson2ObjectMapperBuilder(), entityManager, 2);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        syncStreamWriter.write(Stream.of(gender("male"), gender("female"), gender("other")), (gender, fields) -> fields.accept("nameUUID", gender.getName() + "-uuid"), response);
+
+        assertEquals(SyncStreamWriter.APPLICATION_NDJSON, response.getContentType());
+        String[] lines = response.getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        JsonNode last = new ObjectMapper().readTree(lines[2]);
+        assertEquals("other", last.get("uuid").asText());
+        assertEquals("other-uuid", last.get("nameUUID").asText());
+        verify(entityManager, times(1)).clear();
+    }
+
+    private Gender gender(String name) {
+        Gender gender = new Gender();
+        gender.setName(name);
+        gender.setUuid(name);
+        User user = new User();
+        user.setUsername("admin");
+        gender.setCreatedBy(user);
+        gender.setLastModifiedBy(user);
+        return gender;
+    }
+}
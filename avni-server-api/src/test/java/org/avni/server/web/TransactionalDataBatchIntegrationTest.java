@@ -0,0 +1,54 @@
+package org.avni.server.web;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.dao.EncounterRepository;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Sql(value = {"/test-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class TransactionalDataBatchIntegrationTest extends AbstractControllerIntegrationTest {
+    @Autowired
+    private EncounterRepository encounterRepository;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        setUser("demo-user");
+    }
+
+    @Test
+    public void shouldRollBackOnlyTheFailingEntityOfAChunk() throws IOException {
+        List<Map<String, Object>> items = Arrays.asList(
+                encounter("c8a2f3f6-4fd5-4c2c-9e0a-6f6a7c1f1a01", "95c4b174-6ce6-4d9a-b223-1f9000b60006"),
+                encounter("c8a2f3f6-4fd5-4c2c-9e0a-6f6a7c1f1a02", "5b1f3e6a-0d52-4a2b-9d8e-000000000000"),
+                encounter("c8a2f3f6-4fd5-4c2c-9e0a-6f6a7c1f1a03", "95c4b174-6ce6-4d9a-b223-1f9000b60006"));
+
+        List<Map<String, Object>> responses = mapper.readValue(postForBody("/transactionalData/batch", items), new TypeReference<List<Map<String, Object>>>() {});
+
+        assertThat(responses).extracting(response -> response.get("success")).containsExactly(true, false, true);
+        assertThat(encounterRepository.findByUuid("c8a2f3f6-4fd5-4c2c-9e0a-6f6a7c1f1a01")).isNotNull();
+        assertThat(encounterRepository.findByUuid("c8a2f3f6-4fd5-4c2c-9e0a-6f6a7c1f1a02")).isNull();
+        assertThat(encounterRepository.findByUuid("c8a2f3f6-4fd5-4c2c-9e0a-6f6a7c1f1a03")).isNotNull();
+    }
+
+    private Map<String, Object> encounter(String uuid, String conceptUUID) throws IOException {
+        Map<String, Object> encounter = mapper.readValue(this.getClass().getResource("/ref/encounters/newEncounter.json"), new TypeReference<Map<String, Object>>() {});
+        encounter.put("uuid", uuid);
+        Map<String, Object> observation = new HashMap<>();
+        observation.put("conceptUUID", conceptUUID);
+        observation.put("value", 99.1);
+        encounter.put("observations", Collections.singletonList(observation));
+        Map<String, Object> item = new HashMap<>();
+        item.put("entityType", "Encounter");
+        item.put("entity", encounter);
+        return item;
+    }
+}
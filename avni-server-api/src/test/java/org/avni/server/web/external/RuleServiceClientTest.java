@@ -0,0 +1,133 @@
+package org.avni.server.web.external;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.security.AuthenticationFilter;
+import org.avni.server.framework.security.UserContextHolder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RuleServiceClientTest {
+    private HttpServer ruleServer;
+    private RuleServiceClient ruleServiceClient;
+    private SimpleMeterRegistry meterRegistry;
+    private final Set<String> organisationHeaders = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private CountDownLatch concurrentRequests;
+
+    @Before
+    public void setup() throws IOException {
+        ruleServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        ruleServer.setExecutor(Executors.newCachedThreadPool());
+        ruleServer.createContext("/api/echo", exchange -> {
+            organisationHeaders.add(exchange.getRequestHeaders().getFirst(AuthenticationFilter.ORGANISATION_UUID));
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = readAll(exchange.getRequestBody());
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        ruleServer.createContext("/api/together", exchange -> {
+            concurrentRequests.countDown();
+            boolean together = awaitOthers();
+            byte[] body = String.valueOf(together).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        ruleServer.createContext("/api/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        ruleServer.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        String host = "http://localhost:" + ruleServer.getAddress().getPort();
+        ruleServiceClient = new RuleServiceClient(host, 10, 1000, 5000, 4000, 4, meterRegistry);
+
+        UserContext userContext = new UserContext();
+        Organisation organisation = new Organisation();
+        organisation.setUuid("org-uuid");
+        userContext.setOrganisation(organisation);
+        UserContextHolder.create(userContext);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        UserContextHolder.clear();
+        ruleServiceClient.close();
+        ruleServer.stop(0);
+    }
+
+    @Test
+    public void shouldReuseConnectionsBetweenRequests() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals("rule" + i, ruleServiceClient.post("/api/echo", "rule" + i));
+        }
+        assertEquals(1, clientPorts.size());
+        assertEquals(1, organisationHeaders.size());
+        assertTrue(organisationHeaders.contains("org-uuid"));
+        assertEquals(5, meterRegistry.get("avni.ruleServer.requests").tag("api", "/api/echo").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    public void shouldPostAllRequestsConcurrentlyWithTheHeadersOfTheCaller() {
+        concurrentRequests = new CountDownLatch(4);
+        List<CompletableFuture<String>> responses = ruleServiceClient.postAll("/api/together", Arrays.asList("a", "b", "c", "d"));
+        assertEquals(Arrays.asList("true", "true", "true", "true"), responses.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+
+        List<CompletableFuture<String>> echoes = ruleServiceClient.postAll("/api/echo", Arrays.asList("a", "b", "c"));
+        assertEquals(Arrays.asList("a", "b", "c"), echoes.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+        assertTrue(organisationHeaders.contains("org-uuid"));
+    }
+
+    @Test
+    public void shouldReportRulesNotFoundAsFailures() {
+        try {
+            ruleServiceClient.post("/api/missing", "rule");
+            fail();
+        } catch (HttpClientErrorException e) {
+            assertEquals(404, e.getRawStatusCode());
+        }
+        assertEquals(1, meterRegistry.get("avni.ruleServer.requests").tag("outcome", "failure").timer().count());
+    }
+
+    private boolean awaitOthers() {
+        try {
+            return concurrentRequests.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        byte[] buffer = new byte[1024];
+        int length = inputStream.read(buffer);
+        return length < 0 ? new byte[0] : Arrays.copyOf(buffer, length);
+    }
+}
@@ -4,7 +4,6 @@ import org.avni.server.domain.ConceptDataType;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
-import org.avni.server.dao.ConceptRepository;
 import org.avni.server.domain.Concept;
 import org.avni.server.domain.ConceptAnswer;
 import org.avni.server.domain.ObservationCollection;
@@ -19,8 +18,6 @@ import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 public class ResponseUnitTest {
-    @Mock
-    private ConceptRepository conceptRepository;
     @Mock
     private ConceptService conceptService;
 
@@ -36,7 +33,7 @@ public class ResponseUnitTest {
         LinkedHashMap<String, Object> observationsResponse = new LinkedHashMap<>();
         observationsResponse.put("First Name", "Test");
 
-        Response.putObservations(conceptRepository, conceptService, parentMap, observationsResponse, null);
+        Response.putObservations(conceptService, parentMap, observationsResponse, null);
         LinkedHashMap<String, Object> observations = (LinkedHashMap<String, Object>) parentMap.get("observations");
         assertThat(observations.size(), is(1));
         assertThat(observations.get("First Name"), is("Test"));
@@ -49,7 +46,7 @@ public class ResponseUnitTest {
         LinkedHashMap<String, Object> observationsResponse = new LinkedHashMap<>();
         observationsResponse.put("First Name", "Test");
 
-        Response.putObservations(conceptRepository, conceptService, parentMap, observationsResponse, new ObservationCollection());
+        Response.putObservations(conceptService, parentMap, observationsResponse, new ObservationCollection());
         LinkedHashMap<String, Object> observations = (LinkedHashMap<String, Object>) parentMap.get("observations");
         assertThat(observations.size(), is(1));
         assertThat(observations.get("First Name"), is("Test"));